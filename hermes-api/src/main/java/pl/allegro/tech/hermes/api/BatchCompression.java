@@ -0,0 +1,5 @@
+package pl.allegro.tech.hermes.api;
+
+public enum BatchCompression {
+    NONE, GZIP, ZSTD
+}
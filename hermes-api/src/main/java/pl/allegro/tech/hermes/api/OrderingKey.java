@@ -0,0 +1,103 @@
+package pl.allegro.tech.hermes.api;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.base.MoreObjects;
+
+import javax.validation.constraints.AssertTrue;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Pattern;
+import java.util.Objects;
+
+import static com.google.common.base.Strings.isNullOrEmpty;
+
+/**
+ * Part of a message which identifies the entity it concerns. Messages with the same key are delivered one after
+ * another, in order they were published to a partition. Key is specified the same way as message filters:
+ * with {@code header} name for {@code header} type or with {@code path} for {@code jsonpath} and {@code avropath} types.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class OrderingKey {
+
+    public static final String HEADER = "header";
+    public static final String JSON_PATH = "jsonpath";
+    public static final String AVRO_PATH = "avropath";
+
+    @NotNull
+    @Pattern(regexp = HEADER + "|" + JSON_PATH + "|" + AVRO_PATH)
+    private final String type;
+
+    private final String header;
+
+    private final String path;
+
+    @JsonCreator
+    public OrderingKey(@JsonProperty("type") String type,
+                       @JsonProperty("header") String header,
+                       @JsonProperty("path") String path) {
+        this.type = type;
+        this.header = header;
+        this.path = path;
+    }
+
+    public static OrderingKey header(String header) {
+        return new OrderingKey(HEADER, header, null);
+    }
+
+    public static OrderingKey jsonPath(String path) {
+        return new OrderingKey(JSON_PATH, null, path);
+    }
+
+    public static OrderingKey avroPath(String path) {
+        return new OrderingKey(AVRO_PATH, null, path);
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getHeader() {
+        return header;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    @JsonIgnore
+    @AssertTrue(message = "ordering key requires header name for header type and path for path types")
+    public boolean isArgumentPresent() {
+        return HEADER.equals(type) ? !isNullOrEmpty(header) : !isNullOrEmpty(path);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        OrderingKey that = (OrderingKey) o;
+        return Objects.equals(type, that.type)
+                && Objects.equals(header, that.header)
+                && Objects.equals(path, that.path);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, header, path);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .omitNullValues()
+                .add("type", type)
+                .add("header", header)
+                .add("path", path)
+                .toString();
+    }
+}
@@ -6,6 +6,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import org.hibernate.validator.constraints.NotEmpty;
 
 import javax.validation.Valid;
+import javax.validation.constraints.AssertTrue;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Pattern;
 import java.util.ArrayList;
@@ -372,6 +373,13 @@ public class Subscription implements Anonymizable {
         return batchSubscriptionPolicy;
     }
 
+    @JsonIgnore
+    @AssertTrue(message = "batch compression is supported only for JSON content type")
+    public boolean isBatchCompressionSupported() {
+        return !isBatchSubscription() || contentType != ContentType.AVRO || batchSubscriptionPolicy == null
+                || batchSubscriptionPolicy.getCompression() == BatchCompression.NONE;
+    }
+
     @JsonIgnore
     public SubscriptionPolicy getSerialSubscriptionPolicy() {
         return serialSubscriptionPolicy;
@@ -1,9 +1,11 @@
 package pl.allegro.tech.hermes.api;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.google.common.base.MoreObjects;
 import pl.allegro.tech.hermes.api.helpers.Patch;
 
+import javax.validation.Valid;
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
 import java.util.Map;
@@ -41,6 +43,9 @@ public class SubscriptionPolicy {
 
     private boolean retryClientErrors = false;
 
+    @Valid
+    private OrderingKey orderingKey;
+
     private SubscriptionPolicy() {
     }
 
@@ -51,6 +56,17 @@ public class SubscriptionPolicy {
                               int messageBackoff,
                               Integer inflightSize,
                               int sendingDelay) {
+        this(rate, messageTtl, requestTimeout, retryClientErrors, messageBackoff, inflightSize, sendingDelay, null);
+    }
+
+    public SubscriptionPolicy(int rate,
+                              int messageTtl,
+                              int requestTimeout,
+                              boolean retryClientErrors,
+                              int messageBackoff,
+                              Integer inflightSize,
+                              int sendingDelay,
+                              OrderingKey orderingKey) {
         this.rate = rate;
         this.messageTtl = messageTtl;
         this.requestTimeout = requestTimeout;
@@ -58,6 +74,7 @@ public class SubscriptionPolicy {
         this.messageBackoff = messageBackoff;
         this.inflightSize = inflightSize;
         this.sendingDelay = sendingDelay;
+        this.orderingKey = orderingKey;
     }
 
     @JsonCreator
@@ -69,13 +86,24 @@ public class SubscriptionPolicy {
                 (Boolean) properties.getOrDefault("retryClientErrors", false),
                 (Integer) properties.getOrDefault("messageBackoff", DEFAULT_MESSAGE_BACKOFF),
                 (Integer) properties.getOrDefault("inflightSize", DEFAULT_INFLIGHT_SIZE),
-                (Integer) properties.getOrDefault("sendingDelay", DEFAULT_SENDING_DELAY)
+                (Integer) properties.getOrDefault("sendingDelay", DEFAULT_SENDING_DELAY),
+                orderingKey(properties.get("orderingKey"))
         );
     }
 
+    @SuppressWarnings("unchecked")
+    private static OrderingKey orderingKey(Object properties) {
+        if (properties == null) {
+            return null;
+        }
+        Map<String, String> key = (Map<String, String>) properties;
+        return new OrderingKey(key.get("type"), key.get("header"), key.get("path"));
+    }
+
     @Override
     public int hashCode() {
-        return Objects.hash(rate, messageTtl, messageBackoff, retryClientErrors, requestTimeout, inflightSize, sendingDelay);
+        return Objects.hash(rate, messageTtl, messageBackoff, retryClientErrors, requestTimeout, inflightSize, sendingDelay,
+                orderingKey);
     }
 
     @Override
@@ -93,7 +121,8 @@ public class SubscriptionPolicy {
                 && Objects.equals(this.retryClientErrors, other.retryClientErrors)
                 && Objects.equals(this.requestTimeout, other.requestTimeout)
                 && Objects.equals(this.inflightSize, other.inflightSize)
-                && Objects.equals(this.sendingDelay, other.sendingDelay);
+                && Objects.equals(this.sendingDelay, other.sendingDelay)
+                && Objects.equals(this.orderingKey, other.orderingKey);
     }
 
     @Override
@@ -106,6 +135,7 @@ public class SubscriptionPolicy {
                 .add("retryClientErrors", retryClientErrors)
                 .add("inflightSize", inflightSize)
                 .add("sendingDelay", sendingDelay)
+                .add("orderingKey", orderingKey)
                 .toString();
     }
 
@@ -141,6 +171,11 @@ public class SubscriptionPolicy {
         return sendingDelay;
     }
 
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public OrderingKey getOrderingKey() {
+        return orderingKey;
+    }
+
     public static class Builder {
 
         private SubscriptionPolicy subscriptionPolicy;
@@ -190,6 +225,11 @@ public class SubscriptionPolicy {
             return this;
         }
 
+        public Builder withOrderingKey(OrderingKey orderingKey) {
+            subscriptionPolicy.orderingKey = orderingKey;
+            return this;
+        }
+
         public static Builder subscriptionPolicy() {
             return new Builder();
         }
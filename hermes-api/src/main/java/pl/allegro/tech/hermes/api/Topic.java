@@ -43,10 +43,17 @@ public class Topic {
         NONE, LEADER, ALL
     }
 
+    public enum PartitioningStrategy {
+        DEFAULT, STICKY, KEY
+    }
+
     @Valid
     @NotNull
     private RetentionTime retentionTime = RetentionTime.of(1);
 
+    @NotNull
+    private PartitioningStrategy partitioningStrategy;
+
     private boolean trackingEnabled = false;
 
     private boolean migratedFromJsonType = false;
@@ -63,7 +70,7 @@ public class Topic {
                  boolean migratedFromJsonType, Ack ack, boolean trackingEnabled, ContentType contentType,
                  boolean jsonToAvroDryRunEnabled, boolean schemaVersionAwareSerializationEnabled,
                  int maxMessageSize, PublishingAuth publishingAuth, boolean subscribingRestricted,
-                 TopicDataOfflineStorage offlineStorage) {
+                 TopicDataOfflineStorage offlineStorage, PartitioningStrategy partitioningStrategy) {
         this.name = name;
         this.description = description;
         this.owner = owner;
@@ -78,6 +85,7 @@ public class Topic {
         this.publishingAuth = publishingAuth;
         this.subscribingRestricted = subscribingRestricted;
         this.offlineStorage = offlineStorage;
+        this.partitioningStrategy = (partitioningStrategy == null ? PartitioningStrategy.DEFAULT : partitioningStrategy);
     }
 
     @JsonCreator
@@ -95,14 +103,16 @@ public class Topic {
             @JsonProperty("maxMessageSize") Integer maxMessageSize,
             @JsonProperty("auth") PublishingAuth publishingAuth,
             @JsonProperty("subscribingRestricted") boolean subscribingRestricted,
-            @JsonProperty("offlineStorage") TopicDataOfflineStorage offlineStorage
+            @JsonProperty("offlineStorage") TopicDataOfflineStorage offlineStorage,
+            @JsonProperty("partitioningStrategy") PartitioningStrategy partitioningStrategy
             ) {
         this(TopicName.fromQualifiedName(qualifiedName), description, owner, retentionTime, migratedFromJsonType, ack,
                 trackingEnabled, contentType, jsonToAvroDryRunEnabled, schemaVersionAwareSerializationEnabled,
                 maxMessageSize == null ? DEFAULT_MAX_MESSAGE_SIZE : maxMessageSize,
                 publishingAuth == null ? PublishingAuth.disabled() : publishingAuth,
                 subscribingRestricted,
-                offlineStorage == null ? TopicDataOfflineStorage.defaultOfflineStorage() : offlineStorage
+                offlineStorage == null ? TopicDataOfflineStorage.defaultOfflineStorage() : offlineStorage,
+                partitioningStrategy
         );
     }
 
@@ -114,7 +124,7 @@ public class Topic {
     public int hashCode() {
         return Objects.hash(name, description, owner, retentionTime, migratedFromJsonType, trackingEnabled, ack, contentType,
                 jsonToAvroDryRunEnabled, schemaVersionAwareSerializationEnabled, maxMessageSize, publishingAuth, subscribingRestricted,
-                offlineStorage);
+                offlineStorage, partitioningStrategy);
     }
 
     @Override
@@ -140,7 +150,8 @@ public class Topic {
                 && Objects.equals(this.maxMessageSize, other.maxMessageSize)
                 && Objects.equals(this.subscribingRestricted, other.subscribingRestricted)
                 && Objects.equals(this.publishingAuth, other.publishingAuth)
-                && Objects.equals(this.offlineStorage, other.offlineStorage);
+                && Objects.equals(this.offlineStorage, other.offlineStorage)
+                && Objects.equals(this.partitioningStrategy, other.partitioningStrategy);
     }
 
     @JsonProperty("name")
@@ -174,6 +185,10 @@ public class Topic {
         return contentType;
     }
 
+    public PartitioningStrategy getPartitioningStrategy() {
+        return partitioningStrategy;
+    }
+
     public boolean isTrackingEnabled() {
         return trackingEnabled;
     }
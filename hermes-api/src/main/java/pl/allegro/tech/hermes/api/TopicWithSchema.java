@@ -16,7 +16,8 @@ public class TopicWithSchema extends Topic {
         this(schema, topic.getQualifiedName(), topic.getDescription(), topic.getOwner(), topic.getRetentionTime(),
                 topic.isJsonToAvroDryRunEnabled(), topic.getAck(), topic.isTrackingEnabled(), topic.wasMigratedFromJsonType(),
                 topic.isSchemaVersionAwareSerializationEnabled(), topic.getContentType(), topic.getMaxMessageSize(),
-                topic.getPublishingAuth(), topic.isSubscribingRestricted(), topic.getOfflineStorage());
+                topic.getPublishingAuth(), topic.isSubscribingRestricted(), topic.getOfflineStorage(),
+                topic.getPartitioningStrategy());
     }
 
     @JsonCreator
@@ -34,10 +35,11 @@ public class TopicWithSchema extends Topic {
                            @JsonProperty("maxMessageSize") Integer maxMessageSize,
                            @JsonProperty("auth") PublishingAuth publishingAuth,
                            @JsonProperty("subscribingRestricted") boolean subscribingRestricted,
-                           @JsonProperty("offlineStorage") TopicDataOfflineStorage offlineStorage) {
+                           @JsonProperty("offlineStorage") TopicDataOfflineStorage offlineStorage,
+                           @JsonProperty("partitioningStrategy") PartitioningStrategy partitioningStrategy) {
         super(qualifiedName, description, owner, retentionTime, jsonToAvroDryRunEnabled, ack, trackingEnabled,
                 migratedFromJsonType, schemaVersionAwareSerializationEnabled, contentType, maxMessageSize,
-                publishingAuth, subscribingRestricted, offlineStorage);
+                publishingAuth, subscribingRestricted, offlineStorage, partitioningStrategy);
         this.topic = convertToTopic();
         this.schema = schema;
     }
@@ -54,7 +56,8 @@ public class TopicWithSchema extends Topic {
         return new Topic(this.getQualifiedName(), this.getDescription(), this.getOwner(), this.getRetentionTime(),
                 this.isJsonToAvroDryRunEnabled(), this.getAck(), this.isTrackingEnabled(), this.wasMigratedFromJsonType(),
                 this.isSchemaVersionAwareSerializationEnabled(), this.getContentType(), this.getMaxMessageSize(),
-                this.getPublishingAuth(), this.isSubscribingRestricted(), this.getOfflineStorage());
+                this.getPublishingAuth(), this.isSubscribingRestricted(), this.getOfflineStorage(),
+                this.getPartitioningStrategy());
     }
 
     public String getSchema() {
@@ -4,6 +4,11 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.Test;
 import pl.allegro.tech.hermes.api.helpers.Patch;
 
+import javax.validation.ConstraintViolation;
+import javax.validation.Validation;
+import javax.validation.Validator;
+import java.util.Set;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static pl.allegro.tech.hermes.api.PatchData.patchData;
 import static pl.allegro.tech.hermes.api.SubscriptionOAuthPolicy.GrantType.CLIENT_CREDENTIALS;
@@ -15,6 +20,8 @@ public class SubscriptionTest {
 
     private final ObjectMapper mapper = new ObjectMapper();
 
+    private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
     @Test
     public void shouldDeserializeSubscription() throws Exception {
         // given
@@ -143,6 +150,133 @@ public class SubscriptionTest {
         assertThat(subscription.getRate()).isEqualTo(8);
     }
 
+    @Test
+    public void shouldDeserializeSubscriptionWithOrderingKey() throws Exception {
+        // given
+        String json = "{\"name\": \"test\", \"endpoint\": \"http://localhost:8888\", " +
+                "\"subscriptionPolicy\": {\"orderingKey\": {\"type\": \"jsonpath\", \"path\": \"$.id\"}}}";
+
+        // when
+        Subscription subscription = mapper.readValue(json, Subscription.class);
+
+        // then
+        assertThat(subscription.getSerialSubscriptionPolicy().getOrderingKey()).isEqualTo(OrderingKey.jsonPath("$.id"));
+    }
+
+    @Test
+    public void shouldRejectJsonPathOrderingKeyWithoutPath() throws Exception {
+        // given
+        String json = "{\"name\": \"test\", \"topicName\": \"g1.t1\", \"endpoint\": \"http://localhost:8888\", " +
+                "\"subscriptionPolicy\": {\"orderingKey\": {\"type\": \"jsonpath\"}}}";
+
+        // when
+        Set<ConstraintViolation<Subscription>> violations = validator.validate(mapper.readValue(json, Subscription.class));
+
+        // then
+        assertThat(violations).extracting(violation -> violation.getPropertyPath().toString())
+                .contains("serialSubscriptionPolicy.orderingKey.argumentPresent");
+    }
+
+    @Test
+    public void shouldRejectHeaderOrderingKeyWithoutHeaderName() {
+        // given
+        Subscription subscription = subscription("g1.t1", "test")
+                .withSubscriptionPolicy(subscriptionPolicy().withOrderingKey(OrderingKey.header(null)).build())
+                .build();
+
+        // when
+        Set<ConstraintViolation<Subscription>> violations = validator.validate(subscription);
+
+        // then
+        assertThat(violations).hasSize(1);
+    }
+
+    @Test
+    public void shouldAcceptOrderingKeyWithArgumentOfItsType() {
+        // given
+        Subscription subscription = subscription("g1.t1", "test")
+                .withSubscriptionPolicy(subscriptionPolicy().withOrderingKey(OrderingKey.avroPath(".id")).build())
+                .build();
+
+        // when
+        Set<ConstraintViolation<Subscription>> violations = validator.validate(subscription);
+
+        // then
+        assertThat(violations).isEmpty();
+    }
+
+    @Test
+    public void shouldRejectCompressedBatchesOfAvroSubscription() {
+        // given
+        Subscription subscription = subscription("g1.t1", "test")
+                .withContentType(ContentType.AVRO)
+                .withSubscriptionPolicy(batchSubscriptionPolicy(BatchCompression.GZIP))
+                .build();
+
+        // when
+        Set<ConstraintViolation<Subscription>> violations = validator.validate(subscription);
+
+        // then
+        assertThat(violations).extracting(violation -> violation.getPropertyPath().toString())
+                .containsExactly("batchCompressionSupported");
+    }
+
+    @Test
+    public void shouldAcceptCompressedBatchesOfJsonSubscription() {
+        // given
+        Subscription subscription = subscription("g1.t1", "test")
+                .withContentType(ContentType.JSON)
+                .withSubscriptionPolicy(batchSubscriptionPolicy(BatchCompression.GZIP))
+                .build();
+
+        // when
+        Set<ConstraintViolation<Subscription>> violations = validator.validate(subscription);
+
+        // then
+        assertThat(violations).isEmpty();
+    }
+
+    @Test
+    public void shouldKeepOrderingKeyWhenPatchingSubscriptionPolicy() {
+        // given
+        PatchData patch = patchData().set("inflightSize", 50).build();
+
+        // when
+        SubscriptionPolicy policy = subscriptionPolicy()
+                .withOrderingKey(OrderingKey.header("Entity-Id"))
+                .applyPatch(patch).build();
+
+        // then
+        assertThat(policy.getInflightSize()).isEqualTo(50);
+        assertThat(policy.getOrderingKey()).isEqualTo(OrderingKey.header("Entity-Id"));
+    }
+
+    @Test
+    public void shouldDeserializeBatchSubscriptionWithCompression() throws Exception {
+        // given
+        String json = "{\"name\": \"test\", \"endpoint\": \"http://localhost:8888\", \"deliveryType\": \"BATCH\", " +
+                "\"subscriptionPolicy\": {\"batchSize\": 10, \"compression\": \"ZSTD\"}}";
+
+        // when
+        Subscription subscription = mapper.readValue(json, Subscription.class);
+
+        // then
+        assertThat(subscription.getBatchSubscriptionPolicy().getCompression()).isEqualTo(BatchCompression.ZSTD);
+    }
+
+    @Test
+    public void shouldNotCompressBatchesByDefault() throws Exception {
+        // given
+        String json = "{\"name\": \"test\", \"endpoint\": \"http://localhost:8888\", \"deliveryType\": \"BATCH\", " +
+                "\"subscriptionPolicy\": {\"batchSize\": 10}}";
+
+        // when
+        Subscription subscription = mapper.readValue(json, Subscription.class);
+
+        // then
+        assertThat(subscription.getBatchSubscriptionPolicy().getCompression()).isEqualTo(BatchCompression.NONE);
+    }
+
     @Test
     public void shouldAnonymizePassword() {
         // given
@@ -175,4 +309,16 @@ public class SubscriptionTest {
         assertThat(updatedPolicy.getGrantType()).isEqualTo(USERNAME_PASSWORD);
         assertThat(updatedPolicy.getUsername()).isEqualTo("user1");
     }
+
+    private static BatchSubscriptionPolicy batchSubscriptionPolicy(BatchCompression compression) {
+        return BatchSubscriptionPolicy.Builder.batchSubscriptionPolicy()
+                .withMessageTtl(60)
+                .withMessageBackoff(500)
+                .withRequestTimeout(1000)
+                .withBatchSize(100)
+                .withBatchTime(1000)
+                .withBatchVolume(1024)
+                .withCompression(compression)
+                .build();
+    }
 }
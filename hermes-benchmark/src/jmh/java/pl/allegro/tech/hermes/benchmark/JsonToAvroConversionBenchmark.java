@@ -0,0 +1,60 @@
+package pl.allegro.tech.hermes.benchmark;
+
+import org.apache.avro.Schema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.RunnerException;
+import pl.allegro.tech.hermes.benchmark.environment.PublishingFixture;
+import pl.allegro.tech.hermes.benchmark.environment.StageBenchmarkRunner;
+import pl.allegro.tech.hermes.frontend.publishing.message.MessageContentTypeEnforcer;
+
+import java.util.concurrent.TimeUnit;
+
+import static pl.allegro.tech.hermes.api.AvroMediaType.AVRO_JSON;
+import static pl.allegro.tech.hermes.benchmark.environment.PublishingFixture.AVRO_TOPIC;
+
+/**
+ * Converting messages published to Avro topics as JSON. Plain JSON goes through {@code JsonAvroConverter} and Avro
+ * encoded JSON through {@code AvroEncodedJsonAvroConverter}, both selected by the content type enforcer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JsonToAvroConversionBenchmark {
+
+    @Param({"256", "4096", "65536"})
+    private int messageSize;
+
+    private final MessageContentTypeEnforcer enforcer = new MessageContentTypeEnforcer();
+
+    private Schema schema;
+    private byte[] json;
+    private byte[] avroJson;
+
+    @Setup
+    public void setup() {
+        schema = PublishingFixture.schema().getSchema();
+        json = PublishingFixture.json(messageSize);
+        avroJson = PublishingFixture.avroJson(PublishingFixture.avro(json, schema), schema);
+    }
+
+    @Benchmark
+    public byte[] convertJson() {
+        return enforcer.enforceAvro("application/json", json, schema, AVRO_TOPIC);
+    }
+
+    @Benchmark
+    public byte[] convertAvroEncodedJson() {
+        return enforcer.enforceAvro(AVRO_JSON, avroJson, schema, AVRO_TOPIC);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        StageBenchmarkRunner.run(JsonToAvroConversionBenchmark.class);
+    }
+}
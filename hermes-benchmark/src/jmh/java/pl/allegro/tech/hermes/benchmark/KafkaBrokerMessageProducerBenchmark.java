@@ -0,0 +1,89 @@
+package pl.allegro.tech.hermes.benchmark;
+
+import com.codahale.metrics.MetricRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.RunnerException;
+import pl.allegro.tech.hermes.api.Topic;
+import pl.allegro.tech.hermes.benchmark.environment.AcknowledgingProducer;
+import pl.allegro.tech.hermes.benchmark.environment.PublishingFixture;
+import pl.allegro.tech.hermes.benchmark.environment.StageBenchmarkRunner;
+import pl.allegro.tech.hermes.common.config.ConfigFactory;
+import pl.allegro.tech.hermes.common.kafka.NamespaceKafkaNamesMapper;
+import pl.allegro.tech.hermes.common.metric.HermesMetrics;
+import pl.allegro.tech.hermes.frontend.metric.CachedTopic;
+import pl.allegro.tech.hermes.frontend.producer.kafka.KafkaBrokerMessageProducer;
+import pl.allegro.tech.hermes.frontend.producer.kafka.Producers;
+import pl.allegro.tech.hermes.frontend.producer.kafka.StickyPartitioner;
+import pl.allegro.tech.hermes.frontend.publishing.PublishingCallback;
+import pl.allegro.tech.hermes.frontend.publishing.message.JsonMessage;
+import pl.allegro.tech.hermes.frontend.publishing.message.Message;
+import pl.allegro.tech.hermes.metrics.PathsCompiler;
+
+import java.time.Clock;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static pl.allegro.tech.hermes.test.helper.builder.TopicBuilder.topic;
+
+/**
+ * Sending messages to a producer which acknowledges them right away, so only the work done by Hermes on the way
+ * to Kafka client (choosing producer, partition and building the record) is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class KafkaBrokerMessageProducerBenchmark {
+
+    private static final int PARTITIONS = 16;
+
+    @Param({"DEFAULT", "STICKY", "KEY"})
+    private Topic.PartitioningStrategy partitioningStrategy;
+
+    @Param({"256", "4096", "65536"})
+    private int messageSize;
+
+    private KafkaBrokerMessageProducer producer;
+    private CachedTopic cachedTopic;
+    private Message message;
+
+    @Setup
+    public void setup() {
+        HermesMetrics hermesMetrics = new HermesMetrics(new MetricRegistry(), new PathsCompiler("localhost"));
+        Producers producers = new Producers(new AcknowledgingProducer(PARTITIONS), new AcknowledgingProducer(PARTITIONS),
+                new ConfigFactory());
+        producer = new KafkaBrokerMessageProducer(producers, hermesMetrics,
+                new StickyPartitioner(16 * 1024, 0, Clock.systemUTC()));
+
+        Topic topic = topic("bench.topic").withPartitioningStrategy(partitioningStrategy).build();
+        cachedTopic = new CachedTopic(topic, hermesMetrics, new NamespaceKafkaNamesMapper("").toKafkaTopics(topic));
+        message = new JsonMessage(UUID.randomUUID().toString(), PublishingFixture.json(messageSize),
+                System.currentTimeMillis(), UUID.randomUUID().toString());
+    }
+
+    @Benchmark
+    public void send(Blackhole blackhole) {
+        producer.send(message, cachedTopic, new PublishingCallback() {
+            @Override
+            public void onUnpublished(Message message, Topic topic, Exception exception) {
+                blackhole.consume(exception);
+            }
+
+            @Override
+            public void onPublished(Message message, Topic topic) {
+                blackhole.consume(message);
+            }
+        });
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        StageBenchmarkRunner.run(KafkaBrokerMessageProducerBenchmark.class);
+    }
+}
@@ -0,0 +1,113 @@
+package pl.allegro.tech.hermes.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableMap;
+import org.apache.avro.Schema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.RunnerException;
+import pl.allegro.tech.hermes.benchmark.environment.PublishingFixture;
+import pl.allegro.tech.hermes.benchmark.environment.StageBenchmarkRunner;
+import pl.allegro.tech.hermes.common.di.factories.ObjectMapperFactory;
+import pl.allegro.tech.hermes.common.message.wrapper.MessageContentWrapper;
+import pl.allegro.tech.hermes.common.message.wrapper.MessageMetadata;
+import pl.allegro.tech.hermes.common.message.wrapper.UnwrappedMessageContent;
+import pl.allegro.tech.hermes.schema.CompiledSchema;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static pl.allegro.tech.hermes.benchmark.environment.PublishingFixture.AVRO_TOPIC;
+
+/**
+ * Wrapping messages with metadata in Frontend and unwrapping them in Consumers, for both JSON and Avro. Wrapping JSON
+ * with templates is compared against serializing metadata with Jackson and concatenating parts in a stream, which is
+ * how messages were wrapped before.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MessageContentWrapperBenchmark {
+
+    private static final byte[] WRAPPED_MARKER = "{\"_w\":true,".getBytes(UTF_8);
+    private static final byte[] METADATA_ROOT = "\"metadata\":".getBytes(UTF_8);
+    private static final byte[] CONTENT_ROOT = ",\"message\":".getBytes(UTF_8);
+
+    private final ObjectMapper mapper = new ObjectMapperFactory().provide();
+
+    @Param({"256", "4096", "65536"})
+    private int messageSize;
+
+    private MessageContentWrapper wrapper;
+    private CompiledSchema<Schema> schema;
+
+    private byte[] json;
+    private byte[] avro;
+    private byte[] wrappedJson;
+    private byte[] wrappedAvro;
+    private String id;
+    private long timestamp;
+    private Map<String, String> externalMetadata;
+
+    @Setup
+    public void setup() {
+        schema = PublishingFixture.schema();
+        wrapper = PublishingFixture.messageContentWrapper(PublishingFixture.schemaRepository(schema));
+
+        json = PublishingFixture.json(messageSize);
+        avro = PublishingFixture.avro(json, schema.getSchema());
+        id = UUID.randomUUID().toString();
+        timestamp = System.currentTimeMillis();
+        externalMetadata = ImmutableMap.of("Trace-Id", UUID.randomUUID().toString(), "Span-Id", "5b7c2e41");
+
+        wrappedJson = wrapJson();
+        wrappedAvro = wrapAvro();
+    }
+
+    @Benchmark
+    public byte[] wrapJson() {
+        return wrapper.wrapJson(json, id, timestamp, externalMetadata);
+    }
+
+    @Benchmark
+    public byte[] wrapJsonWithObjectMapper() throws IOException {
+        byte[] metadata = mapper.writeValueAsBytes(new MessageMetadata(timestamp, id, externalMetadata));
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        stream.write(WRAPPED_MARKER);
+        stream.write(METADATA_ROOT);
+        stream.write(metadata);
+        stream.write(CONTENT_ROOT);
+        stream.write(json, 0, json.length);
+        stream.write('}');
+        return stream.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] wrapAvro() {
+        return wrapper.wrapAvro(avro, id, timestamp, AVRO_TOPIC, schema, externalMetadata);
+    }
+
+    @Benchmark
+    public UnwrappedMessageContent unwrapJson() {
+        return wrapper.unwrapJson(wrappedJson);
+    }
+
+    @Benchmark
+    public UnwrappedMessageContent unwrapAvro() {
+        return wrapper.unwrapAvro(wrappedAvro, AVRO_TOPIC);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        StageBenchmarkRunner.run(MessageContentWrapperBenchmark.class);
+    }
+}
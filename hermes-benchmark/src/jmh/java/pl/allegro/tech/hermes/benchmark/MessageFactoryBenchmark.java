@@ -0,0 +1,108 @@
+package pl.allegro.tech.hermes.benchmark;
+
+import com.google.common.collect.ImmutableList;
+import io.undertow.util.HeaderMap;
+import io.undertow.util.Headers;
+import org.apache.avro.Schema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.RunnerException;
+import pl.allegro.tech.hermes.benchmark.environment.PublishingFixture;
+import pl.allegro.tech.hermes.benchmark.environment.StageBenchmarkRunner;
+import pl.allegro.tech.hermes.frontend.publishing.message.Message;
+import pl.allegro.tech.hermes.frontend.publishing.message.MessageContentTypeEnforcer;
+import pl.allegro.tech.hermes.frontend.publishing.message.MessageFactory;
+import pl.allegro.tech.hermes.frontend.publishing.metadata.DefaultHeadersPropagator;
+import pl.allegro.tech.hermes.frontend.publishing.pool.PooledMessageContent;
+import pl.allegro.tech.hermes.frontend.validator.AvroTopicMessageValidator;
+import pl.allegro.tech.hermes.frontend.validator.MessageValidators;
+import pl.allegro.tech.hermes.schema.CompiledSchema;
+import pl.allegro.tech.hermes.schema.SchemaRepository;
+
+import java.time.Clock;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static pl.allegro.tech.hermes.api.AvroMediaType.AVRO_BINARY;
+import static pl.allegro.tech.hermes.api.AvroMediaType.AVRO_JSON;
+import static pl.allegro.tech.hermes.benchmark.environment.PublishingFixture.AVRO_TOPIC;
+import static pl.allegro.tech.hermes.benchmark.environment.PublishingFixture.JSON_TOPIC;
+
+/**
+ * Creating message from request body: content type conversion, validation and wrapping with metadata.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MessageFactoryBenchmark {
+
+    @Param({"256", "4096", "65536"})
+    private int messageSize;
+
+    private MessageFactory messageFactory;
+
+    private byte[] json;
+    private byte[] avroJson;
+    private byte[] avro;
+
+    private HeaderMap jsonHeaders;
+    private HeaderMap avroJsonHeaders;
+    private HeaderMap avroHeaders;
+
+    @Setup
+    public void setup() {
+        CompiledSchema<Schema> schema = PublishingFixture.schema();
+        SchemaRepository schemaRepository = PublishingFixture.schemaRepository(schema);
+        messageFactory = new MessageFactory(
+                new MessageValidators(ImmutableList.of(new AvroTopicMessageValidator())),
+                new MessageContentTypeEnforcer(),
+                schemaRepository,
+                new DefaultHeadersPropagator(),
+                PublishingFixture.messageContentWrapper(schemaRepository),
+                Clock.systemUTC());
+
+        json = PublishingFixture.json(messageSize);
+        avro = PublishingFixture.avro(json, schema.getSchema());
+        avroJson = PublishingFixture.avroJson(avro, schema.getSchema());
+
+        jsonHeaders = headers("application/json");
+        avroJsonHeaders = headers(AVRO_JSON);
+        avroHeaders = headers(AVRO_BINARY);
+    }
+
+    @Benchmark
+    public Message createJson() {
+        return messageFactory.create(jsonHeaders, JSON_TOPIC, UUID.randomUUID().toString(), PooledMessageContent.of(json));
+    }
+
+    @Benchmark
+    public Message createAvroFromJson() {
+        return messageFactory.create(jsonHeaders, AVRO_TOPIC, UUID.randomUUID().toString(), PooledMessageContent.of(json));
+    }
+
+    @Benchmark
+    public Message createAvroFromAvroJson() {
+        return messageFactory.create(avroJsonHeaders, AVRO_TOPIC, UUID.randomUUID().toString(), PooledMessageContent.of(avroJson));
+    }
+
+    @Benchmark
+    public Message createAvroFromBinary() {
+        return messageFactory.create(avroHeaders, AVRO_TOPIC, UUID.randomUUID().toString(), PooledMessageContent.of(avro));
+    }
+
+    private static HeaderMap headers(String contentType) {
+        HeaderMap headers = new HeaderMap();
+        headers.put(Headers.CONTENT_TYPE, contentType);
+        return headers;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        StageBenchmarkRunner.run(MessageFactoryBenchmark.class);
+    }
+}
@@ -0,0 +1,54 @@
+package pl.allegro.tech.hermes.benchmark;
+
+import com.google.common.collect.ImmutableList;
+import org.apache.avro.Schema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.RunnerException;
+import pl.allegro.tech.hermes.benchmark.environment.PublishingFixture;
+import pl.allegro.tech.hermes.benchmark.environment.StageBenchmarkRunner;
+import pl.allegro.tech.hermes.frontend.publishing.avro.AvroMessage;
+import pl.allegro.tech.hermes.frontend.validator.AvroTopicMessageValidator;
+import pl.allegro.tech.hermes.frontend.validator.MessageValidators;
+import pl.allegro.tech.hermes.schema.CompiledSchema;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static pl.allegro.tech.hermes.benchmark.environment.PublishingFixture.AVRO_TOPIC;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MessageValidatorBenchmark {
+
+    @Param({"256", "4096", "65536"})
+    private int messageSize;
+
+    private final MessageValidators validators = new MessageValidators(ImmutableList.of(new AvroTopicMessageValidator()));
+
+    private AvroMessage message;
+
+    @Setup
+    public void setup() {
+        CompiledSchema<Schema> schema = PublishingFixture.schema();
+        byte[] avro = PublishingFixture.avro(PublishingFixture.json(messageSize), schema.getSchema());
+        message = new AvroMessage(UUID.randomUUID().toString(), avro, System.currentTimeMillis(), schema);
+    }
+
+    @Benchmark
+    public AvroMessage validateAvro() {
+        validators.check(AVRO_TOPIC, message);
+        return message;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        StageBenchmarkRunner.run(MessageValidatorBenchmark.class);
+    }
+}
@@ -0,0 +1,117 @@
+package pl.allegro.tech.hermes.benchmark;
+
+import com.codahale.metrics.Meter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.RunnerException;
+import pl.allegro.tech.hermes.api.TopicName;
+import pl.allegro.tech.hermes.benchmark.environment.StageBenchmarkRunner;
+import pl.allegro.tech.hermes.frontend.publishing.handlers.DistributedThroughputLimiter;
+import pl.allegro.tech.hermes.frontend.publishing.handlers.DynamicThroughputLimiter;
+import pl.allegro.tech.hermes.frontend.publishing.handlers.FixedThroughputLimiter;
+import pl.allegro.tech.hermes.frontend.publishing.handlers.ThroughputLimiter;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Checking quota on the publishing path, with all benchmark threads sharing one limiter. Topic and global meters are
+ * marked with message size before every check, just like throughput is reported when request is read. Dynamic limiter
+ * recalibrates every second, so checks run concurrently with calibration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ThroughputLimiterBenchmark {
+
+    private static final long LIMIT = Long.MAX_VALUE;
+
+    @Param({"fixed", "dynamic", "distributed"})
+    private String type;
+
+    @Param({"1", "64"})
+    private int topicsCount;
+
+    @Param({"256", "4096", "65536"})
+    private int messageSize;
+
+    private final AtomicInteger threads = new AtomicInteger();
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+    private final Meter globalMeter = new Meter();
+
+    private ThroughputLimiter limiter;
+    private TopicName[] topics;
+    private Meter[] meters;
+
+    @Setup
+    public void setup() {
+        topics = new TopicName[topicsCount];
+        meters = new Meter[topicsCount];
+        for (int i = 0; i < topicsCount; i++) {
+            topics[i] = new TopicName("bench", "topic" + i);
+            meters[i] = new Meter();
+        }
+        limiter = createLimiter();
+        limiter.start();
+    }
+
+    @TearDown
+    public void tearDown() {
+        limiter.stop();
+        executor.shutdownNow();
+    }
+
+    @State(Scope.Thread)
+    public static class Publisher {
+
+        private int topic;
+
+        @Setup
+        public void setup(ThroughputLimiterBenchmark benchmark) {
+            topic = benchmark.threads.getAndIncrement() % benchmark.topicsCount;
+        }
+    }
+
+    @Benchmark
+    public ThroughputLimiter.QuotaInsight checkQuota(Publisher publisher) {
+        Meter meter = meters[publisher.topic];
+        meter.mark(messageSize);
+        globalMeter.mark(messageSize);
+        return limiter.checkQuota(topics[publisher.topic], meter);
+    }
+
+    private ThroughputLimiter createLimiter() {
+        switch (type) {
+            case "fixed":
+                return new FixedThroughputLimiter(LIMIT);
+            case "dynamic":
+                return new DynamicThroughputLimiter(LIMIT, 0, LIMIT, 0.5, 1, globalMeter, executor);
+            case "distributed":
+                // limits are synchronized with other nodes in the background, checking quota reads only local state
+                return new DistributedThroughputLimiter(LIMIT, 1, null, executor) {
+                    @Override
+                    public void start() {
+                    }
+
+                    @Override
+                    public void stop() {
+                    }
+                };
+            default:
+                throw new IllegalArgumentException("Unknown throughput limiter type " + type);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        StageBenchmarkRunner.run(ThroughputLimiterBenchmark.class);
+    }
+}
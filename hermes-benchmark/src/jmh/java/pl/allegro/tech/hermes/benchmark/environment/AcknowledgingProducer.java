@@ -0,0 +1,76 @@
+package pl.allegro.tech.hermes.benchmark.environment;
+
+import org.apache.kafka.clients.producer.Callback;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.record.Record;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Kafka producer which acknowledges every record right away in the sending thread. Unlike {@code MockProducer}
+ * it neither synchronizes sends nor keeps history, so it does not distort benchmarks of code in front of the producer.
+ */
+public class AcknowledgingProducer implements Producer<byte[], byte[]> {
+
+    private static final Node LEADER = new Node(0, "localhost", 9092);
+
+    private final int partitions;
+
+    public AcknowledgingProducer(int partitions) {
+        this.partitions = partitions;
+    }
+
+    @Override
+    public Future<RecordMetadata> send(ProducerRecord<byte[], byte[]> record) {
+        return send(record, null);
+    }
+
+    @Override
+    public Future<RecordMetadata> send(ProducerRecord<byte[], byte[]> record, Callback callback) {
+        int partition = record.partition() != null ? record.partition() : 0;
+        RecordMetadata metadata = new RecordMetadata(new TopicPartition(record.topic(), partition), 0, 0,
+                Record.NO_TIMESTAMP, 0, -1, record.value().length);
+        if (callback != null) {
+            callback.onCompletion(metadata, null);
+        }
+        return CompletableFuture.completedFuture(metadata);
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public List<PartitionInfo> partitionsFor(String topic) {
+        return IntStream.range(0, partitions)
+                .mapToObj(partition -> new PartitionInfo(topic, partition, LEADER, new Node[]{LEADER}, new Node[]{LEADER}))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Map<MetricName, ? extends Metric> metrics() {
+        return Collections.emptyMap();
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public void close(long timeout, TimeUnit unit) {
+    }
+}
@@ -0,0 +1,106 @@
+package pl.allegro.tech.hermes.benchmark.environment;
+
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.Encoder;
+import org.apache.avro.io.EncoderFactory;
+import pl.allegro.tech.hermes.api.ContentType;
+import pl.allegro.tech.hermes.api.Topic;
+import pl.allegro.tech.hermes.common.di.factories.ObjectMapperFactory;
+import pl.allegro.tech.hermes.common.message.wrapper.AvroMessageContentWrapper;
+import pl.allegro.tech.hermes.common.message.wrapper.DeserializationMetrics;
+import pl.allegro.tech.hermes.common.message.wrapper.JsonMessageContentWrapper;
+import pl.allegro.tech.hermes.common.message.wrapper.MessageContentWrapper;
+import pl.allegro.tech.hermes.schema.CompiledSchema;
+import pl.allegro.tech.hermes.schema.SchemaRepository;
+import pl.allegro.tech.hermes.schema.SchemaVersion;
+import pl.allegro.tech.hermes.schema.SchemaVersionsRepository;
+import tech.allegro.schema.json2avro.converter.JsonAvroConverter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Clock;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static pl.allegro.tech.hermes.benchmark.environment.FrontendEnvironment.loadMessageResource;
+import static pl.allegro.tech.hermes.test.helper.builder.TopicBuilder.topic;
+
+/**
+ * Messages and components of the publishing pipeline shared by benchmarks of its single stages. Messages are built
+ * from the same resources as in {@link FrontendEnvironment}, with the name of the user padded to the requested size.
+ */
+public final class PublishingFixture {
+
+    public static final Topic JSON_TOPIC = topic("bench.json").withContentType(ContentType.JSON).build();
+    public static final Topic AVRO_TOPIC = topic("bench.avro").withContentType(ContentType.AVRO).build();
+
+    private PublishingFixture() {
+    }
+
+    public static CompiledSchema<Schema> schema() {
+        try {
+            return new CompiledSchema<>(new Schema.Parser().parse(loadMessageResource("schema")), SchemaVersion.valueOf(1));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static byte[] json(int size) {
+        try {
+            String message = loadMessageResource("completeMessage");
+            String name = Strings.repeat("b", Math.max(3, size - message.length() + 3));
+            return message.replace("\"Bob\"", "\"" + name + "\"").getBytes(UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static byte[] avro(byte[] json, Schema schema) {
+        return new JsonAvroConverter().convertToAvro(json, schema);
+    }
+
+    public static byte[] avroJson(byte[] avro, Schema schema) {
+        try {
+            GenericRecord record = new GenericDatumReader<GenericRecord>(schema)
+                    .read(null, DecoderFactory.get().binaryDecoder(avro, null));
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            Encoder encoder = EncoderFactory.get().jsonEncoder(schema, output);
+            new GenericDatumWriter<GenericRecord>(schema).write(record, encoder);
+            encoder.flush();
+            return output.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static SchemaRepository schemaRepository(CompiledSchema<Schema> schema) {
+        SchemaVersionsRepository versions = new SchemaVersionsRepository() {
+            @Override
+            public List<SchemaVersion> versions(Topic topic, boolean online) {
+                return ImmutableList.of(schema.getVersion());
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        return new SchemaRepository(versions, (topic, version, online) -> schema);
+    }
+
+    public static MessageContentWrapper messageContentWrapper(SchemaRepository schemaRepository) {
+        return new MessageContentWrapper(
+                new JsonMessageContentWrapper("message", "metadata", new ObjectMapperFactory().provide()),
+                new AvroMessageContentWrapper(Clock.systemUTC()),
+                schemaRepository,
+                () -> true,
+                new DeserializationMetrics(new MetricRegistry()));
+    }
+}
@@ -0,0 +1,43 @@
+package pl.allegro.tech.hermes.benchmark.environment;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.Arrays;
+import java.util.regex.Pattern;
+
+/**
+ * Runs benchmark of a single publishing stage once for every thread count given in {@code threads} system property
+ * (comma separated, 1 and 4 by default), reporting allocation rate with GC profiler.
+ */
+public final class StageBenchmarkRunner {
+
+    private StageBenchmarkRunner() {
+    }
+
+    public static void run(Class<?> benchmark) throws RunnerException {
+        int[] threadCounts = Arrays.stream(System.getProperty("threads", "1,4").split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+
+        for (int threads : threadCounts) {
+            Options opt = new OptionsBuilder()
+                    .include(Pattern.quote(benchmark.getName()) + "\\..*")
+                    .addProfiler(GCProfiler.class)
+                    .warmupIterations(4)
+                    .measurementIterations(4)
+                    .measurementTime(TimeValue.seconds(10))
+                    .warmupTime(TimeValue.seconds(10))
+                    .forks(1)
+                    .threads(threads)
+                    .build();
+
+            new Runner(opt).run();
+        }
+    }
+}
@@ -79,6 +79,7 @@ public enum Configs {
     KAFKA_PRODUCER_METRICS_SAMPLE_WINDOW_MS("kafka.producer.metrics.sample.window.ms", 30000),
     KAFKA_PRODUCER_MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION("kafka.producer.max.in.flight.requests.per.connection", 5),
     KAFKA_PRODUCER_REPORT_NODE_METRICS("kafka.producer.report.node.metrics", false),
+    KAFKA_PRODUCER_SHARDS("kafka.producer.shards", 1),
     KAFKA_STREAM_COUNT("kafka.stream.count", 1),
 
     FRONTEND_PORT("frontend.port", 8080),
@@ -109,6 +110,8 @@ public enum Configs {
     FRONTEND_THROUGHPUT_DYNAMIC_DESIRED("frontend.throughput.dynamic.desired", Long.MAX_VALUE),
     FRONTEND_THROUGHPUT_DYNAMIC_IDLE("frontend.throughput.dynamic.idle", 0.5),
     FRONTEND_THROUGHPUT_DYNAMIC_CHECK_INTERVAL("frontend.throughput.dynamic.interval.seconds", 30),
+    FRONTEND_THROUGHPUT_DISTRIBUTED_MAX("frontend.throughput.distributed.max", Long.MAX_VALUE),
+    FRONTEND_THROUGHPUT_DISTRIBUTED_SYNC_INTERVAL("frontend.throughput.distributed.interval.seconds", 5),
 
     FRONTEND_SSL_ENABLED("frontend.ssl.enabled", false),
     FRONTEND_SSL_PORT("frontend.ssl.port", 8443),
@@ -138,6 +141,14 @@ public enum Configs {
     FRONTEND_MESSAGE_PREVIEW_SIZE("frontend.message.preview.size", 3),
     FRONTEND_MESSAGE_PREVIEW_LOG_PERSIST_PERIOD("frontend.message.preview.log.persist.period.seconds", 30),
 
+    FRONTEND_MESSAGE_CONTENT_POOL_ENABLED("frontend.message.content.pool.enabled", false),
+    FRONTEND_MESSAGE_CONTENT_POOL_MAX_BUFFER_SIZE("frontend.message.content.pool.max.buffer.size", 64 * 1024),
+    FRONTEND_MESSAGE_CONTENT_POOL_BUFFERS_PER_SIZE("frontend.message.content.pool.buffers.per.size", 256),
+
+    FRONTEND_BATCH_PUBLISHING_ENABLED("frontend.batch.publishing.enabled", false),
+    FRONTEND_BATCH_PUBLISHING_MAX_SIZE("frontend.batch.publishing.max.size", 1024 * 1024),
+    FRONTEND_BATCH_PUBLISHING_MAX_MESSAGES("frontend.batch.publishing.max.messages", 100),
+
     FRONTEND_STARTUP_TOPIC_METADATA_LOADING_ENABLED("frontend.startup.topic.metadata.loading.enabled", false),
     FRONTEND_STARTUP_TOPIC_METADATA_LOADING_RETRY_INTERVAL("frontend.startup.topic.metadata.loading.retry.interval", 1_000L),
     FRONTEND_STARTUP_TOPIC_METADATA_LOADING_RETRY_COUNT("frontend.startup.topic.metadata.loading.retry.count", 5),
@@ -150,6 +161,10 @@ public enum Configs {
     MESSAGES_LOCAL_BUFFERED_STORAGE_SIZE("frontend.messages.local.buffered.storage.size.bytes", 256 * 1024 * 1024L),
     MESSAGES_LOCAL_STORAGE_V2_MIGRATION_ENABLED("frontend.messages.local.storage.v2.migration.enabled", true),
     MESSAGES_LOCAL_STORAGE_ENABLED("frontend.messages.local.storage.enabled", false),
+    MESSAGES_LOCAL_STORAGE_TYPE("frontend.messages.local.storage.type", "chronicle"),
+    MESSAGES_LOCAL_STORAGE_WAL_SEGMENT_SIZE("frontend.messages.local.storage.wal.segment.size.bytes", 64 * 1024 * 1024),
+    MESSAGES_LOCAL_STORAGE_WAL_COMPACTION_THRESHOLD("frontend.messages.local.storage.wal.compaction.threshold", 0.25),
+    MESSAGES_LOCAL_STORAGE_WAL_COMPACTION_INTERVAL("frontend.messages.local.storage.wal.compaction.interval.ms", 10_000L),
     MESSAGES_LOCAL_STORAGE_DIRECTORY("frontend.messages.local.storage.directory", Files.createTempDir().getAbsolutePath()),
     MESSAGES_LOCAL_STORAGE_TEMPORARY_DIRECTORY("frontend.messages.local.storage.temporary.directory", Files.createTempDir().getAbsolutePath()),
     MESSAGES_LOCAL_STORAGE_AVERAGE_MESSAGE_SIZE("frontend.messages.local.storage.average.message.size.in.bytes", 600),
@@ -157,11 +172,14 @@ public enum Configs {
     MESSAGES_LOCAL_STORAGE_MAX_RESEND_RETRIES("frontend.messages.local.storage.max.resend.retries", 5),
     MESSAGES_LOADING_PAUSE_BETWEEN_RESENDS("frontend.messages.loading.pause.between.resend", 30),
     MESSAGES_LOADING_WAIT_FOR_BROKER_TOPIC_INFO("frontend.messages.loading.wait.for.broker.topic.info", 5),
+    MESSAGES_LOADING_THREADS("frontend.messages.loading.threads", 4),
+    MESSAGES_LOADING_RATE_PER_TOPIC("frontend.messages.loading.rate.per.topic", 1000.0),
     MESSAGES_LOCAL_STORAGE_SIZE_REPORTING_ENABLED("frontend.messages.local.storage.size.reporting.enabled", true),
 
     CONSUMER_RECEIVER_POOL_TIMEOUT("consumer.receiver.pool.timeout", 30),
     CONSUMER_RECEIVER_READ_QUEUE_CAPACITY("consumer.receiver.read.queue.capacity", 1000),
     CONSUMER_RETRANSMISSION_QUEUE_CAPACITY("consumer.receiver.retransmission.queue.capacity", 20),
+    CONSUMER_RECEIVER_ZERO_COPY_JSON_UNWRAPPING("consumer.receiver.zero.copy.json.unwrapping", false),
 
     CONSUMER_RECEIVER_WAIT_BETWEEN_UNSUCCESSFUL_POLLS("consumer.receiver.wait.between.unsuccessful.polls", true),
     CONSUMER_RECEIVER_INITIAL_IDLE_TIME("consumer.receiver.initial.idle.time", 10),
@@ -173,7 +191,14 @@ public enum Configs {
     CONSUMER_SENDER_ASYNC_TIMEOUT_MS("consumer.sender.async.timeout.ms", 5_000),
     CONSUMER_SENDER_ASYNC_TIMEOUT_THREAD_POOL_SIZE("consumer.sender.async.timeout.thread.pool.size", 32),
     CONSUMER_SENDER_ASYNC_TIMEOUT_THREAD_POOL_MONITORING("consumer.sender.async.timeout.thread.pool.monitoring", false),
+    CONSUMER_SENDING_TIMER_TICK_MS("consumer.sending.timer.tick.ms", 10),
+    CONSUMER_SENDING_TIMER_WHEEL_SIZE("consumer.sending.timer.wheel.size", 512),
+    CONSUMER_SENDING_TIMER_THREAD_POOL_SIZE("consumer.sending.timer.thread.pool.size", 16),
+    CONSUMER_SENDING_TIMER_THREAD_POOL_MONITORING("consumer.sending.timer.thread.pool.monitoring", false),
     CONSUMER_THREAD_POOL_SIZE("consumer.thread.pool.size", 500),
+    CONSUMER_EXECUTION_MODEL("consumer.execution.model", "thread"),
+    CONSUMER_MULTIPLEXED_THREAD_POOL_SIZE("consumer.multiplexed.thread.pool.size", Runtime.getRuntime().availableProcessors() * 2),
+    CONSUMER_MULTIPLEXED_TIME_SLICE("consumer.multiplexed.time.slice.ms", 10),
     CONSUMER_HTTP_CLIENT_THREAD_POOL_SIZE("consumer.http.client.thread.pool.size", 30),
     CONSUMER_HTTP_CLIENT_THREAD_POOL_MONITORING("consumer.http.client.thread.pool.monitoring", false),
     CONSUMER_HTTP_CLIENT_MAX_CONNECTIONS_PER_DESTINATION("consumer.http.client.max.connections.per.destination", 100),
@@ -187,6 +212,8 @@ public enum Configs {
     CONSUMER_HTTP2_CLIENT_THREAD_POOL_MONITORING("consumer.http2.client.thread.pool.monitoring", false),
 
     CONSUMER_INFLIGHT_SIZE("consumer.inflight.size", 100),
+    CONSUMER_INFLIGHT_ADAPTIVE_ENABLED("consumer.inflight.adaptive.enabled", false),
+    CONSUMER_PARTITION_LANES_ENABLED("consumer.partition.lanes.enabled", false),
     CONSUMER_RATE_LIMITER_SUPERVISOR_PERIOD("consumer.rate.limiter.supervisor.period", 30),
     CONSUMER_RATE_LIMITER_REPORTING_THREAD_POOL_SIZE("consumer.rate.limiter.reporting.thread.pool.size", 30),
     CONSUMER_RATE_LIMITER_REPORTING_THREAD_POOL_MONITORING("consumer.rate.limiter.reporting.thread.pool.monitoring", false),
@@ -219,6 +246,10 @@ public enum Configs {
     CONSUMER_BATCH_MAX_POOL_SIZE("consumer.batch.max.pool.size", 64 * 1024 * 1024),
     CONSUMER_BATCH_CONNECTION_TIMEOUT("consumer.batch.connection.timeout", 500),
     CONSUMER_BATCH_SOCKET_TIMEOUT("consumer.batch.socket.timeout", 500),
+    CONSUMER_BATCH_PIPELINE_DEPTH("consumer.batch.pipeline.depth", 1),
+    CONSUMER_BATCH_SENDER_THREAD_POOL_SIZE("consumer.batch.sender.thread.pool.size", 16),
+    CONSUMER_BATCH_SENDER_THREAD_POOL_MONITORING("consumer.batch.sender.thread.pool.monitoring", false),
+    CONSUMER_BATCH_ADAPTIVE_SIZE_ENABLED("consumer.batch.adaptive.size.enabled", false),
     CONSUMER_FILTERING_ENABLED("consumer.filtering.enabled", true),
 
     CONSUMER_BACKGROUND_SUPERVISOR_INTERVAL("consumer.supervisor.background.interval", 20_000),
@@ -6,7 +6,8 @@ public enum MessageMetadataHeaders {
     BATCH_ID("Hermes-Batch-Id"),
     TOPIC_NAME("Hermes-Topic-Name"),
     RETRY_COUNT("Hermes-Retry-Count"),
-    SCHEMA_VERSION("Schema-Version");
+    SCHEMA_VERSION("Schema-Version"),
+    PARTITION_KEY("Hermes-Partition-Key");
 
     private final String headerName;
 
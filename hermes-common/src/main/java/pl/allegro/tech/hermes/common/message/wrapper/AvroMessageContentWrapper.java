@@ -59,11 +59,15 @@ public class AvroMessageContentWrapper {
         }
     }
 
-    byte[] wrapContent(byte[] message, String id, long timestamp, Schema schema, Map<String, String> externalMetadata) {
+    byte[] wrapContent(byte[] message, String id, long timestamp, CompiledSchema<Schema> schema, Map<String, String> externalMetadata) {
         try {
-            GenericRecord genericRecord = bytesToRecord(message, schema);
+            AvroMetadataSplicer splicer = schema.getDerived(AvroMetadataSplicer.class, AvroMetadataSplicer::forSchema);
+            if (splicer.isSupported()) {
+                return splicer.wrap(message, id, timestamp, externalMetadata);
+            }
+            GenericRecord genericRecord = bytesToRecord(message, schema.getSchema());
             genericRecord.put(METADATA_MARKER, metadataMap(id, timestamp, externalMetadata));
-            return recordToBytes(genericRecord, schema);
+            return recordToBytes(genericRecord, schema.getSchema());
         } catch (Exception exception) {
             throw new WrappingException("Could not wrap avro message", exception);
         }
@@ -0,0 +1,224 @@
+package pl.allegro.tech.hermes.common.message.wrapper;
+
+import org.apache.avro.Schema;
+
+import java.util.List;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static pl.allegro.tech.hermes.common.message.wrapper.AvroMetadataMarker.METADATA_MARKER;
+import static pl.allegro.tech.hermes.common.message.wrapper.AvroMetadataMarker.METADATA_MESSAGE_ID_KEY;
+import static pl.allegro.tech.hermes.common.message.wrapper.AvroMetadataMarker.METADATA_TIMESTAMP_KEY;
+
+/**
+ * Puts metadata into binary encoded Avro record without decoding the record. Binary encoding of a record is
+ * a concatenation of its fields, so when all fields preceding {@code __metadata} have constant encoded size
+ * (which is always the case when metadata is the first field), metadata starts at the same offset in every message
+ * and wrapping comes down to skipping its current value and writing the new one in its place.
+ */
+class AvroMetadataSplicer {
+
+    private static final int NOT_A_UNION = -1;
+    private static final AvroMetadataSplicer UNSUPPORTED = new AvroMetadataSplicer(-1, NOT_A_UNION, 0);
+    private static final byte[] MESSAGE_ID_KEY = METADATA_MESSAGE_ID_KEY.toString().getBytes(UTF_8);
+    private static final byte[] TIMESTAMP_KEY = METADATA_TIMESTAMP_KEY.toString().getBytes(UTF_8);
+
+    private final int metadataOffset;
+    private final int mapBranch;
+    private final int branches;
+
+    private AvroMetadataSplicer(int metadataOffset, int mapBranch, int branches) {
+        this.metadataOffset = metadataOffset;
+        this.mapBranch = mapBranch;
+        this.branches = branches;
+    }
+
+    static AvroMetadataSplicer forSchema(Schema schema) {
+        if (schema.getType() != Schema.Type.RECORD) {
+            return UNSUPPORTED;
+        }
+        Schema.Field metadata = schema.getField(METADATA_MARKER);
+        if (metadata == null) {
+            return UNSUPPORTED;
+        }
+        int offset = 0;
+        for (Schema.Field field : schema.getFields().subList(0, metadata.pos())) {
+            int size = constantSize(field.schema());
+            if (size < 0) {
+                return UNSUPPORTED;
+            }
+            offset += size;
+        }
+        if (isStringMap(metadata.schema())) {
+            return new AvroMetadataSplicer(offset, NOT_A_UNION, 0);
+        }
+        if (metadata.schema().getType() == Schema.Type.UNION) {
+            return forUnion(offset, metadata.schema().getTypes());
+        }
+        return UNSUPPORTED;
+    }
+
+    private static AvroMetadataSplicer forUnion(int offset, List<Schema> types) {
+        int mapBranch = NOT_A_UNION;
+        for (int i = 0; i < types.size(); i++) {
+            if (isStringMap(types.get(i))) {
+                mapBranch = i;
+            } else if (types.get(i).getType() != Schema.Type.NULL) {
+                return UNSUPPORTED;
+            }
+        }
+        return mapBranch == NOT_A_UNION ? UNSUPPORTED : new AvroMetadataSplicer(offset, mapBranch, types.size());
+    }
+
+    private static boolean isStringMap(Schema schema) {
+        return schema.getType() == Schema.Type.MAP && schema.getValueType().getType() == Schema.Type.STRING;
+    }
+
+    private static int constantSize(Schema schema) {
+        switch (schema.getType()) {
+            case NULL:
+                return 0;
+            case BOOLEAN:
+                return 1;
+            case FLOAT:
+                return 4;
+            case DOUBLE:
+                return 8;
+            case FIXED:
+                return schema.getFixedSize();
+            case RECORD:
+                int size = 0;
+                for (Schema.Field field : schema.getFields()) {
+                    int fieldSize = constantSize(field.schema());
+                    if (fieldSize < 0) {
+                        return -1;
+                    }
+                    size += fieldSize;
+                }
+                return size;
+            default:
+                return -1;
+        }
+    }
+
+    boolean isSupported() {
+        return metadataOffset >= 0;
+    }
+
+    byte[] wrap(byte[] message, String id, long timestamp, Map<String, String> externalMetadata) {
+        int metadataEnd = skipMetadata(message);
+
+        byte[][] entries = new byte[2 * (externalMetadata.size() + 2)][];
+        entries[0] = MESSAGE_ID_KEY;
+        entries[1] = id.getBytes(UTF_8);
+        entries[2] = TIMESTAMP_KEY;
+        entries[3] = Long.toString(timestamp).getBytes(UTF_8);
+        int i = 4;
+        for (Map.Entry<String, String> entry : externalMetadata.entrySet()) {
+            entries[i++] = entry.getKey().getBytes(UTF_8);
+            entries[i++] = entry.getValue().getBytes(UTF_8);
+        }
+
+        int size = metadataOffset + (message.length - metadataEnd) + 1 + longSize(entries.length / 2);
+        if (mapBranch != NOT_A_UNION) {
+            size += longSize(mapBranch);
+        }
+        for (byte[] entry : entries) {
+            size += longSize(entry.length) + entry.length;
+        }
+
+        byte[] wrapped = new byte[size];
+        System.arraycopy(message, 0, wrapped, 0, metadataOffset);
+        int position = metadataOffset;
+        if (mapBranch != NOT_A_UNION) {
+            position = writeLong(mapBranch, wrapped, position);
+        }
+        position = writeLong(entries.length / 2, wrapped, position);
+        for (byte[] entry : entries) {
+            position = writeLong(entry.length, wrapped, position);
+            System.arraycopy(entry, 0, wrapped, position, entry.length);
+            position += entry.length;
+        }
+        wrapped[position++] = 0;
+        System.arraycopy(message, metadataEnd, wrapped, position, message.length - metadataEnd);
+        return wrapped;
+    }
+
+    private int skipMetadata(byte[] message) {
+        Cursor cursor = new Cursor(message, metadataOffset);
+        if (mapBranch == NOT_A_UNION) {
+            skipMap(cursor);
+        } else {
+            long branch = cursor.readLong();
+            if (branch < 0 || branch >= branches) {
+                throw new IllegalArgumentException("Invalid union index of metadata: " + branch);
+            }
+            if (branch == mapBranch) {
+                skipMap(cursor);
+            }
+        }
+        return cursor.position;
+    }
+
+    private static void skipMap(Cursor cursor) {
+        for (long count = cursor.readLong(); count != 0; count = cursor.readLong()) {
+            if (count < 0) {
+                cursor.skip(cursor.readLong());
+            } else {
+                for (long i = 0; i < 2 * count; i++) {
+                    cursor.skip(cursor.readLong());
+                }
+            }
+        }
+    }
+
+    private static int longSize(long value) {
+        long encoded = (value << 1) ^ (value >> 63);
+        int size = 1;
+        while ((encoded & ~0x7FL) != 0) {
+            encoded >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    private static int writeLong(long value, byte[] buffer, int position) {
+        long encoded = (value << 1) ^ (value >> 63);
+        while ((encoded & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((encoded & 0x7F) | 0x80);
+            encoded >>>= 7;
+        }
+        buffer[position++] = (byte) encoded;
+        return position;
+    }
+
+    private static class Cursor {
+
+        private final byte[] bytes;
+        private int position;
+
+        Cursor(byte[] bytes, int position) {
+            this.bytes = bytes;
+            this.position = position;
+        }
+
+        long readLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = bytes[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return (value >>> 1) ^ -(value & 1);
+                }
+            }
+            throw new IllegalArgumentException("Invalid long encoding in metadata");
+        }
+
+        void skip(long length) {
+            if (length < 0 || length > bytes.length - position) {
+                throw new IllegalArgumentException("Invalid length in metadata: " + length);
+            }
+            position += (int) length;
+        }
+    }
+}
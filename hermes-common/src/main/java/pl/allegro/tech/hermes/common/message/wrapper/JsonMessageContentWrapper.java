@@ -7,7 +7,6 @@ import org.slf4j.LoggerFactory;
 import pl.allegro.tech.hermes.common.config.ConfigFactory;
 
 import javax.inject.Inject;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.Map;
 import java.util.UUID;
@@ -22,14 +21,13 @@ import static pl.allegro.tech.hermes.common.config.Configs.METADATA_CONTENT_ROOT
 public class JsonMessageContentWrapper {
     private static final Logger LOGGER = LoggerFactory.getLogger(JsonMessageContentWrapper.class);
 
-    private static final byte[] SEPARATOR = ",".getBytes(UTF_8);
     private static final byte[] WRAPPED_MARKER = "\"_w\":true".getBytes(UTF_8);
-    private static final byte JSON_OPEN = (byte) '{';
-    private static final byte JSON_CLOSE = (byte) '}';
     private static final int BRACKET_LENGTH = 1;
     private final ObjectMapper mapper;
     private final byte[] contentRootField;
     private final byte[] metadataRootField;
+    private final JsonMessageEnvelopeWriter envelopeWriter;
+    private final JsonMessageEnvelopeReader envelopeReader;
 
     @Inject
     public JsonMessageContentWrapper(ConfigFactory config, ObjectMapper mapper) {
@@ -39,29 +37,17 @@ public class JsonMessageContentWrapper {
     public JsonMessageContentWrapper(String contentRootName, String metadataRootName, ObjectMapper mapper) {
         this.contentRootField = formatNodeKey(contentRootName);
         this.metadataRootField = formatNodeKey(metadataRootName);
+        this.envelopeWriter = new JsonMessageEnvelopeWriter(contentRootName, metadataRootName);
+        this.envelopeReader = new JsonMessageEnvelopeReader(contentRootName, metadataRootName, mapper);
         this.mapper = mapper;
     }
 
     byte[] wrapContent(byte[] json, String id, long timestamp, Map<String, String> externalMetadata) {
-        try {
-            return wrapContent(mapper.writeValueAsBytes(new MessageMetadata(timestamp, id, externalMetadata)), json);
-        } catch (IOException e) {
-            throw new WrappingException("Could not wrap json message", e);
-        }
+        return wrapContent(json, json.length, id, timestamp, externalMetadata);
     }
 
-    private byte[] wrapContent(byte[] attributes, byte[] message) throws IOException {
-        ByteArrayOutputStream stream = new ByteArrayOutputStream();
-        stream.write(JSON_OPEN);
-        stream.write(WRAPPED_MARKER);
-        stream.write(SEPARATOR);
-        stream.write(metadataRootField);
-        stream.write(attributes);
-        stream.write(SEPARATOR);
-        stream.write(contentRootField);
-        stream.write(message);
-        stream.write(JSON_CLOSE);
-        return stream.toByteArray();
+    public byte[] wrapContent(byte[] json, int length, String id, long timestamp, Map<String, String> externalMetadata) {
+        return envelopeWriter.write(json, length, id, timestamp, externalMetadata);
     }
 
     public UnwrappedMessageContent unwrapContent(byte[] json) {
@@ -74,6 +60,16 @@ public class JsonMessageContentWrapper {
         }
     }
 
+    /**
+     * Unwraps message without copying its content or parsing its external metadata up front. Content is exposed as
+     * a view of given array and external metadata is parsed on first access, so both keep the whole array reachable.
+     * Envelopes of other layout than written by this wrapper are unwrapped the regular way.
+     */
+    public UnwrappedMessageContent unwrapContentView(byte[] json) {
+        UnwrappedMessageContent content = envelopeReader.read(json);
+        return content != null ? content : unwrapContent(json);
+    }
+
     private UnwrappedMessageContent unwrapMessageContent(byte[] json) {
         int rootIndex = indexOf(json, contentRootField);
         int metadataIndex = indexOf(json, metadataRootField);
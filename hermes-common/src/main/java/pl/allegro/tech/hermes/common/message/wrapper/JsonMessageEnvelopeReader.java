@@ -0,0 +1,144 @@
+package pl.allegro.tech.hermes.common.message.wrapper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableMap;
+
+import java.util.Map;
+
+import static com.google.common.base.Charsets.UTF_8;
+import static java.lang.String.format;
+
+/**
+ * Reads wrapped JSON message laid out the way {@link JsonMessageEnvelopeWriter} writes it, without copying any part
+ * of it. Envelope is walked once from the beginning: timestamp and id are read in place, external metadata object is
+ * only skipped over and parsed when accessed, and content is exposed as a view of the bytes between the content root
+ * field and the closing bracket. Envelopes of any other layout are left for the generic unwrapping.
+ */
+class JsonMessageEnvelopeReader {
+
+    private static final byte[] ID_FIELD = ",\"id\":\"".getBytes(UTF_8);
+    private static final byte[] EXTERNAL_METADATA_FIELD = ",\"externalMetadata\":".getBytes(UTF_8);
+    private static final byte[] EMPTY_OBJECT = "{}".getBytes(UTF_8);
+    private static final int NOT_MATCHED = -1;
+    // longer numbers could overflow, they are left for the generic unwrapping
+    private static final int MAX_TIMESTAMP_DIGITS = 18;
+
+    private final ObjectMapper mapper;
+    private final byte[] prefix;
+    private final byte[] contentRootField;
+
+    JsonMessageEnvelopeReader(String contentRootName, String metadataRootName, ObjectMapper mapper) {
+        this.mapper = mapper;
+        this.prefix = format("{\"_w\":true,\"%s\":{\"timestamp\":", metadataRootName).getBytes(UTF_8);
+        this.contentRootField = format("},\"%s\":", contentRootName).getBytes(UTF_8);
+    }
+
+    /**
+     * @return unwrapped content or null when envelope has a layout this reader does not know
+     */
+    UnwrappedMessageContent read(byte[] json) {
+        int position = matches(json, 0, prefix);
+        if (position == NOT_MATCHED) {
+            return null;
+        }
+
+        boolean negative = position < json.length && json[position] == '-';
+        if (negative) {
+            position++;
+        }
+        int digitsStart = position;
+        long timestamp = 0;
+        while (position < json.length && json[position] >= '0' && json[position] <= '9') {
+            timestamp = timestamp * 10 + (json[position] - '0');
+            position++;
+        }
+        if (position == digitsStart || position - digitsStart > MAX_TIMESTAMP_DIGITS) {
+            return null;
+        }
+        if (negative) {
+            timestamp = -timestamp;
+        }
+
+        String id = null;
+        int idStart = matches(json, position, ID_FIELD);
+        if (idStart != NOT_MATCHED) {
+            position = idStart;
+            while (position < json.length && json[position] != '"') {
+                if (json[position] == '\\') {
+                    // escaped ids are left for the generic unwrapping
+                    return null;
+                }
+                position++;
+            }
+            if (position == json.length) {
+                return null;
+            }
+            id = new String(json, idStart, position - idStart, UTF_8);
+            position++;
+        }
+
+        position = matches(json, position, EXTERNAL_METADATA_FIELD);
+        if (position == NOT_MATCHED) {
+            return null;
+        }
+        int metadataStart = position;
+        position = skipObject(json, position);
+        if (position == NOT_MATCHED) {
+            return null;
+        }
+        int metadataLength = position - metadataStart;
+
+        int contentStart = matches(json, position, contentRootField);
+        int contentEnd = json.length - 1;
+        if (contentStart == NOT_MATCHED || contentStart > contentEnd || json[contentEnd] != '}') {
+            return null;
+        }
+
+        Map<String, String> externalMetadata = matches(json, metadataStart, EMPTY_OBJECT) == position
+                ? ImmutableMap.of()
+                : new LazyExternalMetadata(mapper, json, metadataStart, metadataLength);
+        return new UnwrappedMessageContent(new MessageMetadata(timestamp, id, externalMetadata),
+                MessageContentView.of(json, contentStart, contentEnd - contentStart));
+    }
+
+    private static int matches(byte[] json, int position, byte[] expected) {
+        if (position < 0 || position + expected.length > json.length) {
+            return NOT_MATCHED;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if (json[position + i] != expected[i]) {
+                return NOT_MATCHED;
+            }
+        }
+        return position + expected.length;
+    }
+
+    // external metadata holds string values only, so skipping it needs to track strings and nested brackets only
+    private static int skipObject(byte[] json, int position) {
+        if (position >= json.length || json[position] != '{') {
+            return NOT_MATCHED;
+        }
+        int depth = 0;
+        boolean inString = false;
+        for (; position < json.length; position++) {
+            byte current = json[position];
+            if (inString) {
+                if (current == '\\') {
+                    position++;
+                } else if (current == '"') {
+                    inString = false;
+                }
+            } else if (current == '"') {
+                inString = true;
+            } else if (current == '{') {
+                depth++;
+            } else if (current == '}') {
+                depth--;
+                if (depth == 0) {
+                    return position + 1;
+                }
+            }
+        }
+        return NOT_MATCHED;
+    }
+}
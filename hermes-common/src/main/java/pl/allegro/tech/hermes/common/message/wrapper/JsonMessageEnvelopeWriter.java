@@ -0,0 +1,215 @@
+package pl.allegro.tech.hermes.common.message.wrapper;
+
+import java.util.Map;
+
+import static com.google.common.base.Charsets.UTF_8;
+import static java.lang.String.format;
+
+/**
+ * Writes wrapped JSON message straight into a single, exactly sized byte array. Fixed parts of the envelope are
+ * precomputed templates, metadata values are escaped the same way Jackson does it, so the output is byte
+ * compatible with serializing {@link MessageMetadata} with Hermes object mapper.
+ */
+class JsonMessageEnvelopeWriter {
+
+    private static final byte[] ID_FIELD = ",\"id\":\"".getBytes(UTF_8);
+    private static final byte[] EXTERNAL_METADATA_FIELD = ",\"externalMetadata\":{".getBytes(UTF_8);
+    private static final byte[] HEX = "0123456789ABCDEF".getBytes(UTF_8);
+    private static final byte GENERIC_ESCAPE = 'u';
+    // escape character written after backslash for each ASCII character, 0 when it is written as is
+    private static final byte[] ESCAPES = new byte[0x80];
+
+    static {
+        for (int c = 0; c < 0x20; c++) {
+            ESCAPES[c] = GENERIC_ESCAPE;
+        }
+        ESCAPES['"'] = '"';
+        ESCAPES['\\'] = '\\';
+        ESCAPES['\b'] = 'b';
+        ESCAPES['\t'] = 't';
+        ESCAPES['\f'] = 'f';
+        ESCAPES['\n'] = 'n';
+        ESCAPES['\r'] = 'r';
+    }
+
+    private final byte[] prefix;
+    private final byte[] contentRootField;
+
+    JsonMessageEnvelopeWriter(String contentRootName, String metadataRootName) {
+        this.prefix = format("{\"_w\":true,\"%s\":{\"timestamp\":", metadataRootName).getBytes(UTF_8);
+        this.contentRootField = format("},\"%s\":", contentRootName).getBytes(UTF_8);
+    }
+
+    byte[] write(byte[] json, int length, String id, long timestamp, Map<String, String> externalMetadata) {
+        int idLength = id != null ? escapedLength(id) : 0;
+        int[] metadataLengths = escapedLengths(externalMetadata);
+        byte[] envelope = new byte[envelopeLength(length, id, idLength, timestamp, metadataLengths)];
+
+        int position = write(prefix, envelope, 0);
+        position = writeLong(timestamp, envelope, position);
+        if (id != null) {
+            position = write(ID_FIELD, envelope, position);
+            position = writeEscaped(id, idLength, envelope, position);
+            envelope[position++] = '"';
+        }
+        position = write(EXTERNAL_METADATA_FIELD, envelope, position);
+        int entry = 0;
+        boolean first = true;
+        for (Map.Entry<String, String> metadata : externalMetadata.entrySet()) {
+            int keyLength = metadataLengths[2 * entry];
+            int valueLength = metadataLengths[2 * entry + 1];
+            if (valueLength >= 0) {
+                if (!first) {
+                    envelope[position++] = ',';
+                }
+                first = false;
+                envelope[position++] = '"';
+                position = writeEscaped(metadata.getKey(), keyLength, envelope, position);
+                envelope[position++] = '"';
+                envelope[position++] = ':';
+                envelope[position++] = '"';
+                position = writeEscaped(metadata.getValue(), valueLength, envelope, position);
+                envelope[position++] = '"';
+            }
+            entry++;
+        }
+        envelope[position++] = '}';
+        position = write(contentRootField, envelope, position);
+        System.arraycopy(json, 0, envelope, position, length);
+        envelope[position + length] = '}';
+        return envelope;
+    }
+
+    private static int[] escapedLengths(Map<String, String> externalMetadata) {
+        int[] lengths = new int[2 * externalMetadata.size()];
+        int entry = 0;
+        for (Map.Entry<String, String> metadata : externalMetadata.entrySet()) {
+            // null values are skipped, the same way object mapper skips them
+            boolean skipped = metadata.getValue() == null;
+            lengths[2 * entry] = skipped ? -1 : escapedLength(metadata.getKey());
+            lengths[2 * entry + 1] = skipped ? -1 : escapedLength(metadata.getValue());
+            entry++;
+        }
+        return lengths;
+    }
+
+    private int envelopeLength(int length, String id, int idLength, long timestamp, int[] metadataLengths) {
+        int envelopeLength = prefix.length + longLength(timestamp) + EXTERNAL_METADATA_FIELD.length + 1
+                + contentRootField.length + length + 1;
+        if (id != null) {
+            envelopeLength += ID_FIELD.length + idLength + 1;
+        }
+        int entries = 0;
+        for (int i = 0; i < metadataLengths.length; i += 2) {
+            if (metadataLengths[i + 1] >= 0) {
+                // two pairs of quotes and a colon
+                envelopeLength += metadataLengths[i] + metadataLengths[i + 1] + 5;
+                entries++;
+            }
+        }
+        return envelopeLength + Math.max(entries - 1, 0);
+    }
+
+    private static int write(byte[] template, byte[] envelope, int position) {
+        System.arraycopy(template, 0, envelope, position, template.length);
+        return position + template.length;
+    }
+
+    private static int longLength(long value) {
+        if (value < 0) {
+            return Long.toString(value).length();
+        }
+        int digits = 1;
+        for (long remaining = value / 10; remaining > 0; remaining /= 10) {
+            digits++;
+        }
+        return digits;
+    }
+
+    private static int writeLong(long value, byte[] envelope, int position) {
+        if (value < 0) {
+            return write(Long.toString(value).getBytes(UTF_8), envelope, position);
+        }
+        int end = position + longLength(value);
+        long remaining = value;
+        for (int i = end - 1; i >= position; i--) {
+            envelope[i] = (byte) ('0' + remaining % 10);
+            remaining /= 10;
+        }
+        return end;
+    }
+
+    private static int escapedLength(String value) {
+        int escapedLength = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                byte escape = ESCAPES[c];
+                escapedLength += escape == 0 ? 1 : (escape == GENERIC_ESCAPE ? 6 : 2);
+            } else if (c < 0x800) {
+                escapedLength += 2;
+            } else if (Character.isHighSurrogate(c)) {
+                checkSurrogatePair(value, i);
+                escapedLength += 4;
+                i++;
+            } else if (Character.isLowSurrogate(c)) {
+                throw new WrappingException("Invalid surrogate in message metadata", null);
+            } else {
+                escapedLength += 3;
+            }
+        }
+        return escapedLength;
+    }
+
+    @SuppressWarnings("deprecation")
+    private static int writeEscaped(String value, int escapedLength, byte[] envelope, int position) {
+        if (escapedLength == value.length()) {
+            // only ASCII characters which do not need escaping, each char maps to a single byte
+            value.getBytes(0, value.length(), envelope, position);
+            return position + escapedLength;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                byte escape = ESCAPES[c];
+                if (escape == 0) {
+                    envelope[position++] = (byte) c;
+                } else {
+                    position = writeEscape(c, escape, envelope, position);
+                }
+            } else if (c < 0x800) {
+                envelope[position++] = (byte) (0xC0 | (c >> 6));
+                envelope[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c)) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                envelope[position++] = (byte) (0xF0 | (codePoint >> 18));
+                envelope[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                envelope[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                envelope[position++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else {
+                envelope[position++] = (byte) (0xE0 | (c >> 12));
+                envelope[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                envelope[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        return position;
+    }
+
+    private static int writeEscape(char c, byte escape, byte[] envelope, int position) {
+        envelope[position++] = '\\';
+        envelope[position++] = escape;
+        if (escape == GENERIC_ESCAPE) {
+            envelope[position++] = '0';
+            envelope[position++] = '0';
+            envelope[position++] = HEX[c >> 4];
+            envelope[position++] = HEX[c & 0xF];
+        }
+        return position;
+    }
+
+    private static void checkSurrogatePair(String value, int index) {
+        if (index + 1 >= value.length() || !Character.isLowSurrogate(value.charAt(index + 1))) {
+            throw new WrappingException("Invalid surrogate in message metadata", null);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package pl.allegro.tech.hermes.common.message.wrapper;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableMap;
+
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Unmodifiable external metadata map backed by its JSON representation in wrapped message. The object is parsed
+ * when the map is accessed for the first time, so messages whose metadata is never read do not pay for it.
+ */
+class LazyExternalMetadata extends AbstractMap<String, String> {
+
+    private static final TypeReference<Map<String, String>> MAP_TYPE = new TypeReference<Map<String, String>>() {};
+
+    private final ObjectMapper mapper;
+    private final byte[] source;
+    private final int offset;
+    private final int length;
+
+    private volatile Map<String, String> parsed;
+
+    LazyExternalMetadata(ObjectMapper mapper, byte[] source, int offset, int length) {
+        this.mapper = mapper;
+        this.source = source;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        return parsed().entrySet();
+    }
+
+    @Override
+    public String get(Object key) {
+        return parsed().get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return parsed().containsKey(key);
+    }
+
+    @Override
+    public int size() {
+        return parsed().size();
+    }
+
+    private Map<String, String> parsed() {
+        Map<String, String> metadata = parsed;
+        if (metadata == null) {
+            try {
+                Map<String, String> read = mapper.readValue(source, offset, length, MAP_TYPE);
+                metadata = read == null ? ImmutableMap.of() : ImmutableMap.copyOf(read);
+            } catch (IOException | RuntimeException exception) {
+                throw new UnwrappingException("Could not read external metadata of json message", exception);
+            }
+            parsed = metadata;
+        }
+        return metadata;
+    }
+}
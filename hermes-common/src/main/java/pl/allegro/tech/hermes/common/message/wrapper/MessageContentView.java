@@ -0,0 +1,69 @@
+package pl.allegro.tech.hermes.common.message.wrapper;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Range of bytes holding message content, usually a part of Kafka record which message was read from. Content is
+ * copied into an array of its own only when {@link #toArray()} is called for the first time; streams and buffers
+ * are read straight from the underlying array.
+ */
+@SuppressFBWarnings({"EI_EXPOSE_REP", "EI_EXPOSE_REP2"})
+public final class MessageContentView {
+
+    private final byte[] source;
+    private final int offset;
+    private final int length;
+
+    private volatile byte[] array;
+
+    private MessageContentView(byte[] source, int offset, int length) {
+        this.source = source;
+        this.offset = offset;
+        this.length = length;
+        if (offset == 0 && length == source.length) {
+            this.array = source;
+        }
+    }
+
+    public static MessageContentView of(byte[] content) {
+        return new MessageContentView(content, 0, content.length);
+    }
+
+    public static MessageContentView of(byte[] source, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > source.length) {
+            throw new IndexOutOfBoundsException("Range [" + offset + ", " + (offset + length) + ") out of "
+                    + source.length + " bytes");
+        }
+        return new MessageContentView(source, offset, length);
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public byte[] toArray() {
+        byte[] content = array;
+        if (content == null) {
+            content = Arrays.copyOfRange(source, offset, offset + length);
+            array = content;
+        }
+        return content;
+    }
+
+    public InputStream asInputStream() {
+        return new ByteArrayInputStream(source, offset, length);
+    }
+
+    public ByteBuffer asByteBuffer() {
+        return ByteBuffer.wrap(source, offset, length).slice().asReadOnlyBuffer();
+    }
+
+    public boolean isMaterialized() {
+        return array != null;
+    }
+}
@@ -48,6 +48,10 @@ public class MessageContentWrapper {
         return jsonMessageContentWrapper.unwrapContent(data);
     }
 
+    public UnwrappedMessageContent unwrapJsonView(byte[] data) {
+        return jsonMessageContentWrapper.unwrapContentView(data);
+    }
+
     public UnwrappedMessageContent unwrapAvro(byte[] data, Topic topic) {
         return isPayloadAwareOfSchemaVersion(data, topic) ? deserializeSchemaVersionAwarePayload(data, topic) :
                 tryDeserializingUsingAnySchemaVersion(data, topic);
@@ -120,11 +124,20 @@ public class MessageContentWrapper {
     }
 
     public byte[] wrapAvro(byte[] data, String id, long timestamp, Topic topic, CompiledSchema<Schema> schema, Map<String, String> externalMetadata) {
-        byte[] wrapped = avroMessageContentWrapper.wrapContent(data, id, timestamp, schema.getSchema(), externalMetadata);
+        byte[] wrapped = avroMessageContentWrapper.wrapContent(data, id, timestamp, schema, externalMetadata);
         return topic.isSchemaVersionAwareSerializationEnabled() ? SchemaAwareSerDe.serialize(schema.getVersion(), wrapped) : wrapped;
     }
 
+    public byte[] wrapAvroWithoutSchemaVersion(byte[] data, String id, long timestamp, CompiledSchema<Schema> schema,
+                                               Map<String, String> externalMetadata) {
+        return avroMessageContentWrapper.wrapContent(data, id, timestamp, schema, externalMetadata);
+    }
+
     public byte[] wrapJson(byte[] data, String id, long timestamp, Map<String, String> externalMetadata) {
         return jsonMessageContentWrapper.wrapContent(data, id, timestamp, externalMetadata);
     }
+
+    public byte[] wrapJson(byte[] data, int length, String id, long timestamp, Map<String, String> externalMetadata) {
+        return jsonMessageContentWrapper.wrapContent(data, length, id, timestamp, externalMetadata);
+    }
 }
@@ -39,7 +39,8 @@ public class MessageMetadata {
     }
 
     public Map<String, String> getExternalMetadata() {
-        return ImmutableMap.copyOf(externalMetadata);
+        // lazy metadata is unmodifiable already and copying it would parse it right away
+        return externalMetadata instanceof LazyExternalMetadata ? externalMetadata : ImmutableMap.copyOf(externalMetadata);
     }
 
     @Override
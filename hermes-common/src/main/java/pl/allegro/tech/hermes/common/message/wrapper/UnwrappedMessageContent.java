@@ -9,10 +9,14 @@ import java.util.Optional;
 public class UnwrappedMessageContent {
 
     private final MessageMetadata messageMetadata;
-    private final byte[] content;
+    private final MessageContentView content;
     private final Optional<CompiledSchema<?>> schema;
 
     public UnwrappedMessageContent(MessageMetadata messageMetadata, byte[] content) {
+        this(messageMetadata, MessageContentView.of(content));
+    }
+
+    public UnwrappedMessageContent(MessageMetadata messageMetadata, MessageContentView content) {
         this.messageMetadata = messageMetadata;
         this.content = content;
         this.schema = Optional.empty();
@@ -20,11 +24,15 @@ public class UnwrappedMessageContent {
 
     public UnwrappedMessageContent(MessageMetadata messageMetadata, byte[] content, CompiledSchema schema) {
         this.messageMetadata = messageMetadata;
-        this.content = content;
+        this.content = MessageContentView.of(content);
         this.schema = Optional.of(schema);
     }
 
     public byte[] getContent() {
+        return content.toArray();
+    }
+
+    public MessageContentView getContentView() {
         return content;
     }
 
@@ -14,17 +14,25 @@ public class Gauges {
             LEADER_CONFIRMS_COMPRESSION_RATE = "leader-confirms-compression-rate-avg",
             BATCH_BUFFER_TOTAL_BYTES = "batch-buffer-total-bytes",
             BATCH_BUFFER_AVAILABLE_BYTES = "batch-buffer-available-bytes",
+            BATCH_HTTP_CLIENT_ACTIVE_CONNECTIONS = "batch-http-client.active-connections",
+            BATCH_HTTP_CLIENT_IDLE_CONNECTIONS = "batch-http-client.idle-connections",
+            BATCH_HTTP_CLIENT_QUEUED_REQUESTS = "batch-http-client.queued-requests",
+            BATCH_HTTP2_CLIENT_QUEUED_REQUESTS = "batch-http2-client.queued-requests",
             JMX_PREFIX = "jmx",
 
             THREADS = "threads",
             INFLIGHT_REQUESTS = "inflight-requests",
             OUTPUT_RATE = "output-rate." + GROUP + "." + TOPIC + "." + SUBSCRIPTION,
+            INFLIGHT_LIMIT = "inflight-limit." + GROUP + "." + TOPIC + "." + SUBSCRIPTION,
+            BATCH_SIZE = "batch-size." + GROUP + "." + TOPIC + "." + SUBSCRIPTION,
             BACKUP_STORAGE_SIZE = "backup-storage.size",
+            BACKUP_STORAGE_REPLAY_REMAINING = "backup-storage.replay.remaining",
             MAX_RATE_CALCULATION_DURATION = "consumers-rate.max-rate.coordinator.duration",
             MAX_RATE_VALUE =
                     "consumers-rate.max-rate.node." + GROUP + "." + TOPIC + "." + SUBSCRIPTION + ".max-rate",
             MAX_RATE_ACTUAL_RATE_VALUE =
                     "consumers-rate.max-rate.node." + GROUP + "." + TOPIC + "." + SUBSCRIPTION + ".rate",
             RUNNING_CONSUMER_PROCESSES_COUNT = "consumer-processes.running-consumer-processes.count",
-            DYING_CONSUMER_PROCESSES_COUNT = "consumer-processes.dying-consumer-processes.count";
+            DYING_CONSUMER_PROCESSES_COUNT = "consumer-processes.dying-consumer-processes.count",
+            MULTIPLEXED_CONSUMER_PROCESSES_COUNT = "consumer-processes.multiplexed-consumer-processes.count";
 }
@@ -107,6 +107,26 @@ public class HermesMetrics {
         metricRegistry.remove(normalizedMetricName);
     }
 
+    public void registerInflightLimitGauge(Subscription subscription, Gauge<Integer> gauge) {
+        metricRegistry.register(metricRegistryName(
+                Gauges.INFLIGHT_LIMIT, subscription.getTopicName(), subscription.getName()), gauge);
+    }
+
+    public void unregisterInflightLimitGauge(Subscription subscription) {
+        metricRegistry.remove(metricRegistryName(
+                Gauges.INFLIGHT_LIMIT, subscription.getTopicName(), subscription.getName()));
+    }
+
+    public void registerBatchSizeGauge(Subscription subscription, Gauge<Integer> gauge) {
+        metricRegistry.register(metricRegistryName(
+                Gauges.BATCH_SIZE, subscription.getTopicName(), subscription.getName()), gauge);
+    }
+
+    public void unregisterBatchSizeGauge(Subscription subscription) {
+        metricRegistry.remove(metricRegistryName(
+                Gauges.BATCH_SIZE, subscription.getTopicName(), subscription.getName()));
+    }
+
     public ConsumerLatencyTimer latencyTimer(Subscription subscription) {
         return new ConsumerLatencyTimer(this, subscription.getTopicName(), subscription.getName());
     }
@@ -225,6 +245,18 @@ public class HermesMetrics {
                 .build()));
     }
 
+    public Histogram batchCompressionRatioHistogram(Subscription subscription) {
+        return metricRegistry.histogram(pathCompiler.compile(Histograms.BATCH_COMPRESSION_RATIO, pathContext()
+                .withGroup(escapeDots(subscription.getTopicName().getGroupName()))
+                .withTopic(escapeDots(subscription.getTopicName().getName()))
+                .withSubscription(escapeDots(subscription.getName()))
+                .build()));
+    }
+
+    public Timer batchCompressionCpuTimer(Subscription subscription) {
+        return timer(Timers.BATCH_COMPRESSION_CPU_TIME, subscription.getTopicName(), subscription.getName());
+    }
+
     public void registerConsumerHttpAnswer(Subscription subscription, int statusCode) {
         PathContext pathContext = pathContext()
                 .withGroup(escapeDots(subscription.getTopicName().getGroupName()))
@@ -264,6 +296,14 @@ public class HermesMetrics {
         return metricRegistry.timer(pathCompiler.compile(Timers.CONSUMER_WORKLOAD_REBALANCE_DURATION, pathContext));
     }
 
+    public Timer sendingTimerLagTimer() {
+        return timer(Timers.CONSUMER_SENDING_TIMER_LAG);
+    }
+
+    public Counter pendingSendsCounter(Subscription subscription) {
+        return counter(Counters.PENDING_SENDS, subscription.getTopicName(), subscription.getName());
+    }
+
     public Timer subscriptionLatencyTimer(Subscription subscription) {
         return timer(SUBSCRIPTION_LATENCY, subscription.getTopicName(), subscription.getName());
     }
@@ -322,5 +362,9 @@ public class HermesMetrics {
     public void registerDyingConsumerProcessesCountGauge(Gauge<Integer> gauge) {
         metricRegistry.register(metricRegistryName(Gauges.DYING_CONSUMER_PROCESSES_COUNT), gauge);
     }
+
+    public void registerMultiplexedConsumerProcessesCountGauge(Gauge<Integer> gauge) {
+        metricRegistry.register(metricRegistryName(Gauges.MULTIPLEXED_CONSUMER_PROCESSES_COUNT), gauge);
+    }
 }
 
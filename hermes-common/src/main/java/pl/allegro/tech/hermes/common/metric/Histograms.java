@@ -7,5 +7,6 @@ import static pl.allegro.tech.hermes.metrics.PathsCompiler.TOPIC;
 public class Histograms {
     public static final String MESSAGE_SIZE = "message-size." + GROUP + "." + TOPIC,
             GLOBAL_MESSAGE_SIZE = "message-size",
-            INFLIGHT_TIME = "inflight." + GROUP + "." + TOPIC + "." + SUBSCRIPTION + ".time";
+            INFLIGHT_TIME = "inflight." + GROUP + "." + TOPIC + "." + SUBSCRIPTION + ".time",
+            BATCH_COMPRESSION_RATIO = "batch-compression." + GROUP + "." + TOPIC + "." + SUBSCRIPTION + ".ratio";
 }
@@ -34,6 +34,8 @@ public class Meters {
         DISCARDED_TOPIC_METER = DISCARDED_METER + "." + GROUP + "." + TOPIC,
         DISCARDED_SUBSCRIPTION_METER = DISCARDED_TOPIC_METER + "." + SUBSCRIPTION,
 
+        BACKUP_STORAGE_REPLAY = "backup-storage.replay",
+
         DELAYED_PROCESSING = "delayed-processing",
         TOPIC_DELAYED_PROCESSING = DELAYED_PROCESSING + "." + GROUP + "." + TOPIC,
 
@@ -40,6 +40,8 @@ public class Timers {
 
             CONSUMER_WORKLOAD_REBALANCE_DURATION = "consumers-workload." + KAFKA_CLUSTER + ".selective.rebalance-duration",
             CONSUMER_IDLE_TIME = "idle-time." + GROUP + "." + TOPIC + "." + SUBSCRIPTION,
+            CONSUMER_SENDING_TIMER_LAG = "consumer-sending-timer.lag",
+            BATCH_COMPRESSION_CPU_TIME = "batch-compression." + GROUP + "." + TOPIC + "." + SUBSCRIPTION + ".cpu-time",
 
             OAUTH_PROVIDER_TOKEN_REQUEST_LATENCY = "oauth.provider." + OAUTH_PROVIDER_NAME + ".token-request-latency",
 
@@ -29,9 +29,9 @@ public class ConsumerLatencyTimer {
             subscriptionLatencyTimerContext = subscriptionLatencyTimer.time();
         }
 
-        public void stop() {
+        public long stop() {
             latencyTimerContext.close();
-            subscriptionLatencyTimerContext.close();
+            return subscriptionLatencyTimerContext.stop();
         }
     }
 }
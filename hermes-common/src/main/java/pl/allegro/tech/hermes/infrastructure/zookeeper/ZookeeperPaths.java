@@ -23,6 +23,7 @@ public class ZookeeperPaths {
     public static final String BLACKLIST_PATH = "blacklist";
     public static final String MAX_RATE_PATH = "max-rate";
     public static final String MAX_RATE_HISTORY_PATH = "history";
+    public static final String FRONTEND_THROUGHPUT_PATH = "frontend-throughput";
 
     private final String basePath;
 
@@ -165,6 +166,14 @@ public class ZookeeperPaths {
                 metricName);
     }
 
+    public String frontendThroughputPath() {
+        return Joiner.on(URL_SEPARATOR).join(basePath, FRONTEND_THROUGHPUT_PATH);
+    }
+
+    public String frontendThroughputPath(String nodeName) {
+        return Joiner.on(URL_SEPARATOR).join(frontendThroughputPath(), nodeName);
+    }
+
     public String oAuthProvidersPath() {
         return Joiner.on(URL_SEPARATOR).join(basePath, OAUTH_PROVIDERS_PATH);
     }
@@ -1,11 +1,17 @@
 package pl.allegro.tech.hermes.common.message.wrapper;
 
 import java.util.HashMap;
+
+import com.google.common.collect.ImmutableMap;
 import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.generic.GenericData;
 import org.apache.avro.generic.GenericRecord;
 import org.apache.avro.util.Utf8;
 import org.junit.Before;
 import org.junit.Test;
+import pl.allegro.tech.hermes.schema.CompiledSchema;
+import pl.allegro.tech.hermes.schema.SchemaVersion;
 import pl.allegro.tech.hermes.test.helper.avro.AvroUser;
 
 import java.io.IOException;
@@ -40,7 +46,7 @@ public class AvroMessageContentWrapperTest {
     @Test
     public void shouldWrapAndUnwrapAvroMessageWithMetadata() throws IOException {
         // when
-        byte [] wrappedMessage = avroMessageContentWrapper.wrapContent(content, id, timestamp, avroUser.getSchema(), Collections.emptyMap());
+        byte [] wrappedMessage = avroMessageContentWrapper.wrapContent(content, id, timestamp, avroUser.getCompiledSchema(), Collections.emptyMap());
         UnwrappedMessageContent unwrappedMessageContent = avroMessageContentWrapper.unwrapContent(wrappedMessage, avroUser.getCompiledSchema());
 
         // then
@@ -53,7 +59,7 @@ public class AvroMessageContentWrapperTest {
     @SuppressWarnings("unchecked")
     public void shouldWrappedMessageContainsMetadata() throws IOException {
         // when
-        byte[] wrappedMessage = avroMessageContentWrapper.wrapContent(content, id, timestamp, avroUser.getSchema(), Collections.emptyMap());
+        byte[] wrappedMessage = avroMessageContentWrapper.wrapContent(content, id, timestamp, avroUser.getCompiledSchema(), Collections.emptyMap());
 
         // then
         GenericRecord messageWithMetadata = bytesToRecord(wrappedMessage, avroUser.getSchema());
@@ -91,6 +97,86 @@ public class AvroMessageContentWrapperTest {
         assertThat(unwrappedMessage.getContent()).contains(content);
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldReplaceMetadataSentWithMessage() throws Exception {
+        // given
+        byte[] messageWithMetadata = wrapContent(content, avroUser.getSchema(), metadataMapWithoutMessageId(123L));
+
+        // when
+        byte[] wrappedMessage = avroMessageContentWrapper.wrapContent(messageWithMetadata, id, timestamp,
+                avroUser.getCompiledSchema(), ImmutableMap.of("trace-id", "\u017c\u00f3\u0142w"));
+
+        // then
+        GenericRecord record = bytesToRecord(wrappedMessage, avroUser.getSchema());
+        Map<Utf8, Utf8> metadata = (Map<Utf8, Utf8>) record.get(METADATA_MARKER);
+        assertThat(metadata).hasSize(3);
+        assertThat(metadata.get(METADATA_MESSAGE_ID_KEY).toString()).isEqualTo(id);
+        assertThat(valueOf(metadata.get(METADATA_TIMESTAMP_KEY).toString())).isEqualTo(timestamp);
+        assertThat(metadata.get(new Utf8("trace-id")).toString()).isEqualTo("\u017c\u00f3\u0142w");
+        assertThat(record.get("name").toString()).isEqualTo("Bob");
+        assertThat(record.get("age")).isEqualTo(10);
+        assertThat(record.get("favoriteColor").toString()).isEqualTo("red");
+    }
+
+    @Test
+    public void shouldWrapMessageWithMetadataPrecededByConstantSizeFields() throws Exception {
+        // given
+        Schema schema = SchemaBuilder.record("Flagged").fields()
+                .requiredBoolean("flag")
+                .name("hash").type().fixed("Hash").size(4).noDefault()
+                .name(METADATA_MARKER).type().map().values().stringType().noDefault()
+                .requiredString("name")
+                .endRecord();
+        GenericRecord record = new GenericData.Record(schema);
+        record.put("flag", true);
+        record.put("hash", new GenericData.Fixed(schema.getField("hash").schema(), new byte[]{1, 2, 3, 4}));
+        record.put(METADATA_MARKER, metadataMapWithoutMessageId(123L));
+        record.put("name", "Bob");
+
+        // when
+        byte[] wrappedMessage = avroMessageContentWrapper.wrapContent(recordToBytes(record, schema), id, timestamp,
+                new CompiledSchema<>(schema, SchemaVersion.valueOf(1)), Collections.emptyMap());
+
+        // then
+        GenericRecord wrappedRecord = bytesToRecord(wrappedMessage, schema);
+        assertThat(wrappedRecord.get("flag")).isEqualTo(true);
+        assertThat(wrappedRecord.get("hash")).isEqualTo(record.get("hash"));
+        assertThat(wrappedRecord.get("name").toString()).isEqualTo("Bob");
+        assertThat(metadataOf(wrappedRecord)).containsEntry(METADATA_MESSAGE_ID_KEY, new Utf8(id));
+    }
+
+    @Test
+    public void shouldWrapMessageWithMetadataPrecededByVariableSizeFields() throws Exception {
+        // given
+        Schema schema = SchemaBuilder.record("Named").fields()
+                .requiredString("name")
+                .name(METADATA_MARKER).type().optional().map().values().stringType()
+                .endRecord();
+        GenericRecord record = new GenericData.Record(schema);
+        record.put("name", "Bob");
+
+        // when
+        byte[] wrappedMessage = avroMessageContentWrapper.wrapContent(recordToBytes(record, schema), id, timestamp,
+                new CompiledSchema<>(schema, SchemaVersion.valueOf(1)), Collections.emptyMap());
+
+        // then
+        GenericRecord wrappedRecord = bytesToRecord(wrappedMessage, schema);
+        assertThat(wrappedRecord.get("name").toString()).isEqualTo("Bob");
+        assertThat(metadataOf(wrappedRecord)).containsEntry(METADATA_MESSAGE_ID_KEY, new Utf8(id));
+    }
+
+    @Test(expected = WrappingException.class)
+    public void shouldNotWrapMalformedMessage() {
+        // when
+        avroMessageContentWrapper.wrapContent(new byte[]{2, 7}, id, timestamp, avroUser.getCompiledSchema(), Collections.emptyMap());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Utf8, Utf8> metadataOf(GenericRecord record) {
+        return (Map<Utf8, Utf8>) record.get(METADATA_MARKER);
+    }
+
     private byte[] wrapContentWithoutMetadata(byte[] message, Schema schema) throws Exception {
         return wrapContent(message, schema, null);
     }
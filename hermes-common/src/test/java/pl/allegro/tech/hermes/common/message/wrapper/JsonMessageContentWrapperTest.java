@@ -7,7 +7,10 @@ import org.assertj.core.data.MapEntry;
 import org.junit.Ignore;
 import org.junit.Test;
 
+import pl.allegro.tech.hermes.common.di.factories.ObjectMapperFactory;
+
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.Map;
 import java.util.UUID;
@@ -58,6 +61,90 @@ public class JsonMessageContentWrapperTest {
         assertThat(result.getMessageMetadata().getTimestamp()).isEqualTo(1L);
     }
 
+    @Test
+    public void shouldWrapContentExactlyAsSerializedMetadata() throws IOException {
+        //given
+        ObjectMapper hermesMapper = new ObjectMapperFactory().provide();
+        Map<String, String> externalMetadata = ImmutableMap.of(
+                "Trace-Id", TRACE_ID,
+                "quoted", "\"value\" with \\ backslash",
+                "control", "tab\t new line\n bell\u0007 del\u007f",
+                "unicode", "za\u017c\u00f3\u0142\u0107 \u20ac \uD83D\uDE00");
+        byte[] content = "{\"key\":\"value\"}   ".getBytes();
+
+        //when
+        byte[] result = new JsonMessageContentWrapper("message", "metadata", hermesMapper)
+                .wrapContent(content, CONTENT.length, metadata.getId(), metadata.getTimestamp(), externalMetadata);
+
+        //then
+        String expected = "{\"_w\":true,\"metadata\":"
+                + hermesMapper.writeValueAsString(new MessageMetadata(metadata.getTimestamp(), metadata.getId(), externalMetadata))
+                + ",\"message\":" + new String(CONTENT) + "}";
+        assertThat(result).isEqualTo(expected.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void shouldSkipMissingIdLikeSerializedMetadata() throws IOException {
+        //given
+        ObjectMapper hermesMapper = new ObjectMapperFactory().provide();
+
+        //when
+        byte[] result = new JsonMessageContentWrapper("message", "metadata", hermesMapper)
+                .wrapContent(CONTENT, null, -1L, externalMetadata);
+
+        //then
+        String expected = "{\"_w\":true,\"metadata\":"
+                + hermesMapper.writeValueAsString(new MessageMetadata(-1L, null, externalMetadata))
+                + ",\"message\":" + new String(CONTENT) + "}";
+        assertThat(new String(result, StandardCharsets.UTF_8)).isEqualTo(expected);
+    }
+
+    @Test
+    public void shouldUnwrapMessageWithoutCopyingContent() {
+        //given
+        Map<String, String> externalMetadata = ImmutableMap.of("Trace-Id", TRACE_ID, "quoted", "\"{value}\"");
+        byte[] wrapped = contentWrapper.wrapContent(CONTENT, metadata.getId(), metadata.getTimestamp(), externalMetadata);
+
+        //when
+        UnwrappedMessageContent result = contentWrapper.unwrapContentView(wrapped);
+
+        //then
+        assertThat(result.getContentView().isMaterialized()).isFalse();
+        assertThat(result.getContentView().length()).isEqualTo(CONTENT.length);
+        assertThat(result.getContent()).isEqualTo(CONTENT);
+        assertThat(result.getMessageMetadata()).isEqualTo(metadata);
+        assertThat(result.getMessageMetadata().getExternalMetadata()).isEqualTo(externalMetadata);
+    }
+
+    @Test
+    public void shouldUnwrapMessageWithoutCopyingWhenIdIsMissing() {
+        //given
+        byte[] wrapped = contentWrapper.wrapContent(CONTENT, null, metadata.getTimestamp(), externalMetadata);
+
+        //when
+        UnwrappedMessageContent result = contentWrapper.unwrapContentView(wrapped);
+
+        //then
+        assertThat(result.getContent()).isEqualTo(CONTENT);
+        assertThat(result.getMessageMetadata().getId()).isNull();
+        assertThat(result.getMessageMetadata().getTimestamp()).isEqualTo(metadata.getTimestamp());
+        assertThat(result.getMessageMetadata().getExternalMetadata()).isEmpty();
+    }
+
+    @Test
+    public void shouldFallBackToRegularUnwrappingForEnvelopeOfOtherLayout() {
+        //given
+        String wrapped = "{\"_w\":true,\"metadata\":{\"id\":\"" + metadata.getId() + "\",\"timestamp\":"
+                + metadata.getTimestamp() + ",\"externalMetadata\":{}},\"message\":" + new String(CONTENT) + "}";
+
+        //when
+        UnwrappedMessageContent result = contentWrapper.unwrapContentView(wrapped.getBytes(StandardCharsets.UTF_8));
+
+        //then
+        assertThat(result.getContent()).isEqualTo(CONTENT);
+        assertThat(result.getMessageMetadata()).isEqualTo(metadata);
+    }
+
     @Ignore
     @Test(expected = UnwrappingException.class)
     public void shouldThrowExceptionWhenMetadataNotFound() {
@@ -10,6 +10,7 @@ topics.factory('TopicFactory', ['TOPIC_CONFIG',
                     },
                     contentType: 'JSON',
                     ack: 'LEADER',
+                    partitioningStrategy: 'DEFAULT',
                     maxMessageSize: 10240,
                     owner: {
                         id: '',
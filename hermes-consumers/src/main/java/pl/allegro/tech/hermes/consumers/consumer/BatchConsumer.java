@@ -15,6 +15,7 @@ import pl.allegro.tech.hermes.common.config.Configs;
 import pl.allegro.tech.hermes.common.kafka.offset.PartitionOffset;
 import pl.allegro.tech.hermes.common.message.wrapper.MessageContentWrapper;
 import pl.allegro.tech.hermes.common.metric.HermesMetrics;
+import pl.allegro.tech.hermes.consumers.consumer.batch.AdaptiveBatchSize;
 import pl.allegro.tech.hermes.consumers.consumer.batch.BatchMonitoring;
 import pl.allegro.tech.hermes.consumers.consumer.batch.MessageBatch;
 import pl.allegro.tech.hermes.consumers.consumer.batch.MessageBatchFactory;
@@ -28,21 +29,36 @@ import pl.allegro.tech.hermes.consumers.consumer.receiver.MessageReceiver;
 import pl.allegro.tech.hermes.consumers.consumer.receiver.ReceiverFactory;
 import pl.allegro.tech.hermes.consumers.consumer.sender.MessageBatchSender;
 import pl.allegro.tech.hermes.consumers.consumer.sender.MessageSendingResult;
+import pl.allegro.tech.hermes.consumers.consumer.timer.HashedWheelTimer;
 import pl.allegro.tech.hermes.tracker.consumers.Trackers;
 
 import java.io.IOException;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 
 import static com.github.rholder.retry.WaitStrategies.fixedWait;
 import static java.util.Optional.of;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
+/**
+ * Delivers messages of batch subscription in batches. By default each batch is delivered, with retries, before the
+ * next one is filled. With pipeline depth above one the next batch is filled while up to that many previous batches
+ * are being delivered without blocking, with results handled on shared batch sender pool and retries scheduled on
+ * sending timer. Another batch is started only when batch buffer pool has enough memory left for it, so pipelines of
+ * all subscriptions together stay within the pool. Offsets of batches are committed in order, as offset committer
+ * never goes past the lowest offset still in flight.
+ */
 public class BatchConsumer implements Consumer {
 
     private static final Logger logger = LoggerFactory.getLogger(BatchConsumer.class);
 
+    private static final long DELIVERY_SLOT_WAIT_MILLIS = 100;
+    private static final long PIPELINE_DRAIN_TIMEOUT_MILLIS = 60_000;
+
     private final ReceiverFactory messageReceiverFactory;
     private final MessageBatchSender sender;
     private final MessageBatchFactory batchFactory;
@@ -51,10 +67,17 @@ public class BatchConsumer implements Consumer {
     private final MessageConverterResolver messageConverterResolver;
     private final MessageContentWrapper messageContentWrapper;
     private final Trackers trackers;
+    private final ExecutorService batchSenderExecutor;
+    private final HashedWheelTimer sendingTimer;
+    private final int pipelineDepth;
+    private final AdaptiveBatchSize adaptiveBatchSize;
+    private final Object pipelineLock = new Object();
+
+    private int batchesInDelivery;
 
     private Topic topic;
     private OffsetQueue offsetQueue;
-    private Subscription subscription;
+    private volatile Subscription subscription;
 
     private volatile boolean consuming = true;
 
@@ -71,7 +94,9 @@ public class BatchConsumer implements Consumer {
                          Trackers trackers,
                          Subscription subscription,
                          Topic topic,
-                         ConfigFactory configs) {
+                         ConfigFactory configs,
+                         ExecutorService batchSenderExecutor,
+                         HashedWheelTimer sendingTimer) {
         this.messageReceiverFactory = messageReceiverFactory;
         this.sender = sender;
         this.batchFactory = batchFactory;
@@ -84,10 +109,24 @@ public class BatchConsumer implements Consumer {
         this.messageContentWrapper = messageContentWrapper;
         this.topic = topic;
         this.trackers = trackers;
+        this.batchSenderExecutor = batchSenderExecutor;
+        this.sendingTimer = sendingTimer;
+        this.pipelineDepth = configs.getIntProperty(Configs.CONSUMER_BATCH_PIPELINE_DEPTH);
+        this.adaptiveBatchSize = configs.getBooleanProperty(Configs.CONSUMER_BATCH_ADAPTIVE_SIZE_ENABLED)
+                ? new AdaptiveBatchSize(subscription.getBatchSubscriptionPolicy())
+                : null;
     }
 
     @Override
     public void consume(Runnable signalsInterrupt) {
+        if (pipelineDepth > 1) {
+            consumePipelined(signalsInterrupt);
+        } else {
+            consumeSynchronously(signalsInterrupt);
+        }
+    }
+
+    private void consumeSynchronously(Runnable signalsInterrupt) {
         Optional<MessageBatch> inflight = Optional.empty();
         try {
             logger.debug("Trying to create new batch [subscription={}].", subscription.getQualifiedName());
@@ -100,6 +139,7 @@ public class BatchConsumer implements Consumer {
             inflight.ifPresent(batch -> {
                 logger.debug("Delivering batch [subscription={}].", subscription.getQualifiedName());
                 offerInflightOffsets(batch);
+                monitoring.markCompression(batch, subscription);
 
                 deliver(signalsInterrupt, batch, createRetryer(batch, subscription.getBatchSubscriptionPolicy()));
 
@@ -114,15 +154,84 @@ public class BatchConsumer implements Consumer {
         }
     }
 
+    private void consumePipelined(Runnable signalsInterrupt) {
+        signalsInterrupt.run();
+        if (!awaitDeliverySlot()) {
+            return;
+        }
+        MessageBatchingResult result;
+        try {
+            logger.debug("Trying to create new batch [subscription={}].", subscription.getQualifiedName());
+            result = receiver.next(subscription, signalsInterrupt);
+        } catch (RuntimeException e) {
+            deliveryFinished();
+            throw e;
+        }
+        MessageBatch batch = result.getBatch();
+        offerInflightOffsets(batch);
+        monitoring.markCompression(batch, subscription);
+        new PipelinedDelivery(batch).send();
+
+        result.getDiscarded().forEach(m -> monitoring.markDiscarded(m, subscription, "too large"));
+    }
+
+    private boolean awaitDeliverySlot() {
+        synchronized (pipelineLock) {
+            if (!canStartDelivery()) {
+                try {
+                    pipelineLock.wait(DELIVERY_SLOT_WAIT_MILLIS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            if (canStartDelivery()) {
+                batchesInDelivery++;
+                return true;
+            }
+            return false;
+        }
+    }
+
+    private boolean canStartDelivery() {
+        return batchesInDelivery == 0 || (batchesInDelivery < pipelineDepth
+                && batchFactory.availableMemory() >= subscription.getBatchSubscriptionPolicy().getBatchVolume());
+    }
+
+    private void deliveryFinished() {
+        synchronized (pipelineLock) {
+            batchesInDelivery--;
+            pipelineLock.notifyAll();
+        }
+    }
+
+    private void awaitPipelineDrained() {
+        long deadline = System.currentTimeMillis() + PIPELINE_DRAIN_TIMEOUT_MILLIS;
+        synchronized (pipelineLock) {
+            try {
+                for (long remaining = PIPELINE_DRAIN_TIMEOUT_MILLIS; batchesInDelivery > 0 && remaining > 0;
+                     remaining = deadline - System.currentTimeMillis()) {
+                    pipelineLock.wait(remaining);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (batchesInDelivery > 0) {
+                logger.warn("Stopping batch consumer with {} batches still in delivery [subscription={}]",
+                        batchesInDelivery, subscription.getQualifiedName());
+            }
+        }
+    }
+
     private void offerInflightOffsets(MessageBatch batch) {
         for (PartitionOffset offset : batch.getPartitionOffsets()) {
-            offsetQueue.offerInflightOffset(SubscriptionPartitionOffset.subscriptionPartitionOffset(offset, subscription));
+            offsetQueue.offerInflightOffset(subscription.getQualifiedName(), offset);
         }
     }
 
     private void offerCommittedOffsets(MessageBatch batch) {
         for (PartitionOffset offset : batch.getPartitionOffsets()) {
-            offsetQueue.offerCommittedOffset(SubscriptionPartitionOffset.subscriptionPartitionOffset(offset, subscription));
+            offsetQueue.offerCommittedOffset(subscription.getQualifiedName(), offset);
         }
     }
 
@@ -132,22 +241,33 @@ public class BatchConsumer implements Consumer {
         MessageReceiver receiver = messageReceiverFactory.createMessageReceiver(topic, subscription, new BatchConsumerRateLimiter());
 
         logger.debug("Consumer: preparing batch receiver for subscription {}", subscription.getQualifiedName());
-        this.receiver = new MessageBatchReceiver(receiver, batchFactory, hermesMetrics, messageConverterResolver, messageContentWrapper, topic, trackers);
+        this.receiver = new MessageBatchReceiver(receiver, batchFactory, hermesMetrics, messageConverterResolver, messageContentWrapper, topic, trackers,
+                adaptiveBatchSize);
+        if (adaptiveBatchSize != null) {
+            hermesMetrics.registerBatchSizeGauge(subscription, adaptiveBatchSize::getSize);
+        }
     }
 
     @Override
     public void tearDown() {
         consuming = false;
+        awaitPipelineDrained();
         if (receiver != null) {
             receiver.stop();
         } else {
             logger.info("No batch receiver to stop [subscription={}].", subscription.getQualifiedName());
         }
+        if (adaptiveBatchSize != null) {
+            hermesMetrics.unregisterBatchSizeGauge(subscription);
+        }
     }
 
     @Override
     public void updateSubscription(Subscription subscription) {
         this.subscription = subscription;
+        if (adaptiveBatchSize != null) {
+            adaptiveBatchSize.updatePolicy(subscription.getBatchSubscriptionPolicy());
+        }
     }
 
     @Override
@@ -216,12 +336,15 @@ public class BatchConsumer implements Consumer {
         try (Timer.Context timer = hermesMetrics.subscriptionLatencyTimer(subscription).time()) {
             MessageSendingResult result = retryer.call(() -> {
                 signalsInterrupt.run();
-                return sender.send(
+                long attemptStart = System.nanoTime();
+                MessageSendingResult attempt = sender.send(
                         batch,
                         subscription.getEndpoint(),
                         subscription.getEndpointAddressResolverMetadata(),
                         subscription.getBatchSubscriptionPolicy().getRequestTimeout()
                 );
+                recordAttempt(attempt, System.nanoTime() - attemptStart);
+                return attempt;
             });
             monitoring.markSendingResult(batch, subscription, result);
         } catch (Exception e) {
@@ -230,11 +353,96 @@ public class BatchConsumer implements Consumer {
         }
     }
 
+    private void recordAttempt(MessageSendingResult result, long latencyNanos) {
+        if (adaptiveBatchSize != null) {
+            adaptiveBatchSize.record(result, latencyNanos);
+        }
+    }
+
     private void clean(MessageBatch batch) {
         batchFactory.destroyBatch(batch);
         monitoring.closeInflightMetrics(batch, subscription);
     }
 
+    private class PipelinedDelivery {
+
+        private final MessageBatch batch;
+        private final Timer.Context timer;
+        private final long startedAt = System.currentTimeMillis();
+
+        PipelinedDelivery(MessageBatch batch) {
+            this.batch = batch;
+            this.timer = hermesMetrics.subscriptionLatencyTimer(subscription).time();
+        }
+
+        void send() {
+            Subscription subscription = BatchConsumer.this.subscription;
+            long attemptStart = System.nanoTime();
+            CompletableFuture<MessageSendingResult> response;
+            try {
+                response = sender.sendAsync(
+                        batch,
+                        subscription.getEndpoint(),
+                        subscription.getEndpointAddressResolverMetadata(),
+                        subscription.getBatchSubscriptionPolicy().getRequestTimeout()
+                );
+            } catch (RuntimeException e) {
+                response = CompletableFuture.completedFuture(MessageSendingResult.failedResult(e));
+            }
+            response.whenComplete((result, e) -> {
+                MessageSendingResult attempt = e == null ? result : MessageSendingResult.failedResult(e);
+                recordAttempt(attempt, System.nanoTime() - attemptStart);
+                report(attempt);
+            });
+        }
+
+        private void report(MessageSendingResult result) {
+            try {
+                batchSenderExecutor.execute(() -> handle(result));
+            } catch (RejectedExecutionException e) {
+                handle(result);
+            }
+        }
+
+        private void handle(MessageSendingResult result) {
+            Subscription subscription = BatchConsumer.this.subscription;
+            BatchSubscriptionPolicy policy = subscription.getBatchSubscriptionPolicy();
+            boolean retrying = false;
+            try {
+                if (!result.succeeded()) {
+                    monitoring.markFailed(batch, subscription, result);
+                    if (shouldRetry(result, policy)) {
+                        batch.incrementRetryCounter();
+                        sendingTimer.schedule(this::send, policy.getMessageBackoff());
+                        retrying = true;
+                        return;
+                    }
+                }
+                monitoring.markSendingResult(batch, subscription, result);
+            } finally {
+                if (!retrying) {
+                    finish();
+                }
+            }
+        }
+
+        private boolean shouldRetry(MessageSendingResult result, BatchSubscriptionPolicy policy) {
+            return consuming
+                    && shouldRetryOnClientError(policy.isRetryClientErrors(), result)
+                    && System.currentTimeMillis() - startedAt + policy.getMessageBackoff() <= SECONDS.toMillis(policy.getMessageTtl());
+        }
+
+        private void finish() {
+            try {
+                timer.stop();
+                offerCommittedOffsets(batch);
+                clean(batch);
+            } finally {
+                deliveryFinished();
+            }
+        }
+    }
+
     private RetryListener getRetryListener(java.util.function.Consumer<MessageSendingResult> consumer) {
         return new RetryListener() {
             @Override
@@ -1,11 +1,13 @@
 package pl.allegro.tech.hermes.consumers.consumer;
 
+import com.codahale.metrics.Counter;
 import org.eclipse.jetty.http.HttpStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import pl.allegro.tech.hermes.api.Subscription;
 import pl.allegro.tech.hermes.common.metric.HermesMetrics;
 import pl.allegro.tech.hermes.common.metric.timer.ConsumerLatencyTimer;
+import pl.allegro.tech.hermes.consumers.consumer.rate.InflightLimit;
 import pl.allegro.tech.hermes.consumers.consumer.rate.InflightsPool;
 import pl.allegro.tech.hermes.consumers.consumer.rate.SerialConsumerRateLimiter;
 import pl.allegro.tech.hermes.consumers.consumer.result.ErrorHandler;
@@ -15,16 +17,19 @@ import pl.allegro.tech.hermes.consumers.consumer.sender.MessageSenderFactory;
 import pl.allegro.tech.hermes.consumers.consumer.sender.MessageSendingResult;
 import pl.allegro.tech.hermes.consumers.consumer.sender.MessageSendingResultLogInfo;
 import pl.allegro.tech.hermes.consumers.consumer.sender.timeout.FutureAsyncTimeout;
+import pl.allegro.tech.hermes.consumers.consumer.timer.HashedWheelTimer;
+import pl.allegro.tech.hermes.consumers.consumer.timer.TimerTask;
 
 import java.net.URI;
 import java.time.Duration;
+import java.util.ArrayDeque;
 import java.util.List;
 import java.util.Objects;
+import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static java.lang.String.format;
 
@@ -37,15 +42,31 @@ public class ConsumerMessageSender {
     private final SerialConsumerRateLimiter rateLimiter;
     private final MessageSenderFactory messageSenderFactory;
     private final InflightsPool inflight;
+    private final InflightLimit inflightLimit;
     private final FutureAsyncTimeout<MessageSendingResult> async;
     private final int asyncTimeoutMs;
+    private final HashedWheelTimer sendingTimer;
+    private final Counter pendingSendsCounter;
+    private final AtomicInteger pendingSends = new AtomicInteger();
+    private final Queue<QueuedSend> queue = new ArrayDeque<>();
+    private final TimerTask drainTask = new TimerTask() {
+        @Override
+        public void run() {
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelQueued();
+        }
+    };
 
+    private boolean draining;
     private int requestTimeoutMs;
     private ConsumerLatencyTimer consumerLatencyTimer;
     private MessageSender messageSender;
     private Subscription subscription;
 
-    private ScheduledExecutorService retrySingleThreadExecutor;
     private volatile boolean running = true;
 
     public ConsumerMessageSender(Subscription subscription,
@@ -55,9 +76,11 @@ public class ConsumerMessageSender {
                                  SerialConsumerRateLimiter rateLimiter,
                                  ExecutorService deliveryReportingExecutor,
                                  InflightsPool inflight,
+                                 InflightLimit inflightLimit,
                                  HermesMetrics hermesMetrics,
                                  int asyncTimeoutMs,
-                                 FutureAsyncTimeout<MessageSendingResult> futureAsyncTimeout) {
+                                 FutureAsyncTimeout<MessageSendingResult> futureAsyncTimeout,
+                                 HashedWheelTimer sendingTimer) {
         this.deliveryReportingExecutor = deliveryReportingExecutor;
         this.successHandlers = successHandlers;
         this.errorHandlers = errorHandlers;
@@ -66,34 +89,125 @@ public class ConsumerMessageSender {
         this.messageSender = messageSenderFactory.create(subscription);
         this.subscription = subscription;
         this.inflight = inflight;
+        this.inflightLimit = inflightLimit;
         this.async = futureAsyncTimeout;
         this.requestTimeoutMs = subscription.getSerialSubscriptionPolicy().getRequestTimeout();
         this.asyncTimeoutMs = asyncTimeoutMs;
         this.consumerLatencyTimer = hermesMetrics.latencyTimer(subscription);
+        this.sendingTimer = sendingTimer;
+        this.pendingSendsCounter = hermesMetrics.pendingSendsCounter(subscription);
     }
 
     public void initialize() {
         running = true;
-        this.retrySingleThreadExecutor = Executors.newScheduledThreadPool(1);
     }
 
     public void shutdown() {
         running = false;
-        retrySingleThreadExecutor.shutdown();
-        try {
-            retrySingleThreadExecutor.awaitTermination(1, TimeUnit.MINUTES);
-        } catch (InterruptedException e) {
-            logger.warn("Failed to stop retry executor within one minute with following exception", e);
+        long deadline = System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(1);
+        synchronized (pendingSends) {
+            try {
+                long remaining = deadline - System.currentTimeMillis();
+                while (pendingSends.get() > 0 && remaining > 0) {
+                    pendingSends.wait(remaining);
+                    remaining = deadline - System.currentTimeMillis();
+                }
+            } catch (InterruptedException e) {
+                logger.warn("Failed to send pending messages within one minute with following exception", e);
+            }
         }
     }
 
-
     public void sendAsync(Message message) {
         sendAsync(message, delayForSubscription());
     }
 
-    private void sendAsync(Message message, int delayMillis) {
-        retrySingleThreadExecutor.schedule(() -> sendMessage(message), delayMillis, TimeUnit.MILLISECONDS);
+    private void sendAsync(Message message, long delayMillis) {
+        pendingSendStarted();
+        enqueue(message, delayMillis);
+    }
+
+    /**
+     * Messages are queued in order of calls and sent in the same order by a single drain task, which is scheduled
+     * on the shared timer whenever the queue is not empty. Message which is not due yet or does not get permit from
+     * rate limiter waits, together with all the following ones, until the drain task runs again.
+     */
+    private void enqueue(Message message, long delayMillis) {
+        synchronized (queue) {
+            queue.add(new QueuedSend(message, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis)));
+            if (!draining) {
+                draining = true;
+                sendingTimer.schedule(drainTask, delayMillis);
+            }
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            QueuedSend next;
+            synchronized (queue) {
+                next = queue.peek();
+                if (next == null) {
+                    draining = false;
+                    return;
+                }
+                long remainingMillis = TimeUnit.NANOSECONDS.toMillis(next.readyAtNanos - System.nanoTime());
+                if (remainingMillis > 0) {
+                    sendingTimer.schedule(drainTask, remainingMillis);
+                    return;
+                }
+                if (!rateLimiter.tryAcquire()) {
+                    sendingTimer.schedule(drainTask, rateLimiter.permitIntervalMillis());
+                    return;
+                }
+                queue.poll();
+            }
+            try {
+                sendPending(next.message);
+            } catch (RuntimeException e) {
+                // drain task has to keep running, otherwise following messages would never be sent
+                logger.error("Failed to send message {} of subscription {}", next.message.getId(),
+                        subscription.getQualifiedName(), e);
+            }
+        }
+    }
+
+    private void cancelQueued() {
+        int cancelled;
+        synchronized (queue) {
+            cancelled = queue.size();
+            queue.clear();
+            draining = false;
+        }
+        if (cancelled > 0) {
+            logger.warn("Sending timer stopped, dropping {} messages queued for subscription {}",
+                    cancelled, subscription.getQualifiedName());
+        }
+        for (int i = 0; i < cancelled; i++) {
+            pendingSendFinished();
+        }
+    }
+
+    private void sendPending(Message message) {
+        try {
+            sendMessage(message);
+        } finally {
+            pendingSendFinished();
+        }
+    }
+
+    private void pendingSendStarted() {
+        pendingSends.incrementAndGet();
+        pendingSendsCounter.inc();
+    }
+
+    private void pendingSendFinished() {
+        pendingSendsCounter.dec();
+        if (pendingSends.decrementAndGet() == 0) {
+            synchronized (pendingSends) {
+                pendingSends.notifyAll();
+            }
+        }
     }
 
     private int delayForSubscription() {
@@ -105,7 +219,6 @@ public class ConsumerMessageSender {
      * Main responsibility of this method is that no message will be fully processed or rejected without release on semaphore.
      */
     private void sendMessage(final Message message) {
-        rateLimiter.acquire();
         ConsumerLatencyTimer.Context timer = consumerLatencyTimer.time();
         CompletableFuture<MessageSendingResult> response = async.within(
                 messageSender.send(message),
@@ -156,12 +269,12 @@ public class ConsumerMessageSender {
     }
 
     private void handleMessageDiscarding(Message message, MessageSendingResult result) {
-        inflight.release();
+        inflight.release(message);
         errorHandlers.forEach(h -> h.handleDiscarded(message, subscription, result));
     }
 
     private void handleMessageSendingSuccess(Message message, MessageSendingResult result) {
-        inflight.release();
+        inflight.release(message);
         successHandlers.forEach(h -> h.handleSuccess(message, subscription, result));
     }
 
@@ -182,6 +295,17 @@ public class ConsumerMessageSender {
         return subscription.hasOAuthPolicy() && result.getStatusCode() == HttpStatus.UNAUTHORIZED_401;
     }
 
+    private static class QueuedSend {
+
+        private final Message message;
+        private final long readyAtNanos;
+
+        QueuedSend(Message message, long readyAtNanos) {
+            this.message = message;
+            this.readyAtNanos = readyAtNanos;
+        }
+    }
+
     class ResponseHandlingListener implements java.util.function.Consumer<MessageSendingResult> {
 
         private final Message message;
@@ -194,7 +318,7 @@ public class ConsumerMessageSender {
 
         @Override
         public void accept(MessageSendingResult result) {
-            timer.stop();
+            inflightLimit.record(result, timer.stop());
             if (result.succeeded()) {
                 rateLimiter.registerSuccessfulSending();
                 handleMessageSendingSuccess(message, result);
@@ -206,7 +330,18 @@ public class ConsumerMessageSender {
 
                 long retryDelay = extractRetryDelay(result);
                 if (running && shouldAttemptResending(result, retryDelay)) {
-                    retrySingleThreadExecutor.schedule(() -> retrySending(result), retryDelay, TimeUnit.MILLISECONDS);
+                    pendingSendStarted();
+                    sendingTimer.schedule(new TimerTask() {
+                        @Override
+                        public void run() {
+                            retrySending(result);
+                        }
+
+                        @Override
+                        public void cancel() {
+                            pendingSendFinished();
+                        }
+                    }, retryDelay);
                 } else {
                     handleMessageDiscarding(message, result);
                 }
@@ -228,7 +363,7 @@ public class ConsumerMessageSender {
                 result.getLogInfo().stream().forEach(this::logResultInfo);
             }
 
-            sendMessage(message);
+            enqueue(message, 0);
         }
 
         private void logResultInfo(MessageSendingResultLogInfo logInfo) {
@@ -7,6 +7,7 @@ import pl.allegro.tech.hermes.common.message.undelivered.UndeliveredMessageLog;
 import pl.allegro.tech.hermes.common.metric.HermesMetrics;
 import pl.allegro.tech.hermes.common.metric.executor.InstrumentedExecutorServiceFactory;
 import pl.allegro.tech.hermes.consumers.consumer.offset.OffsetQueue;
+import pl.allegro.tech.hermes.consumers.consumer.rate.InflightLimit;
 import pl.allegro.tech.hermes.consumers.consumer.rate.InflightsPool;
 import pl.allegro.tech.hermes.consumers.consumer.rate.SerialConsumerRateLimiter;
 import pl.allegro.tech.hermes.consumers.consumer.result.DefaultErrorHandler;
@@ -16,6 +17,7 @@ import pl.allegro.tech.hermes.consumers.consumer.result.SuccessHandler;
 import pl.allegro.tech.hermes.consumers.consumer.sender.MessageSenderFactory;
 import pl.allegro.tech.hermes.consumers.consumer.sender.MessageSendingResult;
 import pl.allegro.tech.hermes.consumers.consumer.sender.timeout.FutureAsyncTimeout;
+import pl.allegro.tech.hermes.consumers.consumer.timer.HashedWheelTimer;
 import pl.allegro.tech.hermes.tracker.consumers.Trackers;
 
 import javax.inject.Inject;
@@ -39,13 +41,15 @@ public class ConsumerMessageSenderFactory {
     private final Clock clock;
     private final ConsumerAuthorizationHandler consumerAuthorizationHandler;
     private final ExecutorService rateLimiterReportingExecutor;
+    private final HashedWheelTimer sendingTimer;
 
     @Inject
     public ConsumerMessageSenderFactory(ConfigFactory configFactory, HermesMetrics hermesMetrics, MessageSenderFactory messageSenderFactory,
                                         Trackers trackers, FutureAsyncTimeout<MessageSendingResult> futureAsyncTimeout,
                                         UndeliveredMessageLog undeliveredMessageLog, Clock clock,
                                         InstrumentedExecutorServiceFactory instrumentedExecutorServiceFactory,
-                                        ConsumerAuthorizationHandler consumerAuthorizationHandler) {
+                                        ConsumerAuthorizationHandler consumerAuthorizationHandler,
+                                        HashedWheelTimer sendingTimer) {
 
         this.configFactory = configFactory;
         this.hermesMetrics = hermesMetrics;
@@ -55,6 +59,7 @@ public class ConsumerMessageSenderFactory {
         this.undeliveredMessageLog = undeliveredMessageLog;
         this.clock = clock;
         this.consumerAuthorizationHandler = consumerAuthorizationHandler;
+        this.sendingTimer = sendingTimer;
         this.rateLimiterReportingExecutor = instrumentedExecutorServiceFactory.getExecutorService(
                 "rate-limiter-reporter", configFactory.getIntProperty(CONSUMER_RATE_LIMITER_REPORTING_THREAD_POOL_SIZE),
                 configFactory.getBooleanProperty(Configs.CONSUMER_RATE_LIMITER_REPORTING_THREAD_POOL_MONITORING));
@@ -62,6 +67,11 @@ public class ConsumerMessageSenderFactory {
 
     public ConsumerMessageSender create(Subscription subscription, SerialConsumerRateLimiter consumerRateLimiter,
                                         OffsetQueue offsetQueue, InflightsPool inflight) {
+        return create(subscription, consumerRateLimiter, offsetQueue, inflight, InflightLimit.FIXED);
+    }
+
+    public ConsumerMessageSender create(Subscription subscription, SerialConsumerRateLimiter consumerRateLimiter,
+                                        OffsetQueue offsetQueue, InflightsPool inflight, InflightLimit inflightLimit) {
 
         List<SuccessHandler> successHandlers = Arrays.asList(
                 consumerAuthorizationHandler,
@@ -79,9 +89,11 @@ public class ConsumerMessageSenderFactory {
                 consumerRateLimiter,
                 rateLimiterReportingExecutor,
                 inflight,
+                inflightLimit,
                 hermesMetrics,
                 configFactory.getIntProperty(CONSUMER_SENDER_ASYNC_TIMEOUT_MS),
-                futureAsyncTimeout);
+                futureAsyncTimeout,
+                sendingTimer);
     }
 
 }
@@ -0,0 +1,43 @@
+package pl.allegro.tech.hermes.consumers.consumer;
+
+/**
+ * Lets consumers wait without holding a thread when they are multiplexed over shared carrier threads. On a thread
+ * dedicated to a single consumer waiting simply sleeps. On a carrier thread the wait is only recorded: consumer should
+ * return from {@link Consumer#consume(Runnable)} right away and its process is resumed once the wait is over,
+ * so the carrier can run other consumers in the meantime.
+ */
+public final class ConsumerWait {
+
+    private static final ThreadLocal<long[]> REQUESTED_WAIT = new ThreadLocal<>();
+
+    private ConsumerWait() {
+    }
+
+    public static boolean isCooperative() {
+        return REQUESTED_WAIT.get() != null;
+    }
+
+    public static void idle(long millis) throws InterruptedException {
+        long[] requestedWait = REQUESTED_WAIT.get();
+        if (requestedWait == null) {
+            Thread.sleep(millis);
+        } else {
+            requestedWait[0] = Math.max(requestedWait[0], millis);
+        }
+    }
+
+    public static void enterCarrier() {
+        REQUESTED_WAIT.set(new long[1]);
+    }
+
+    public static long takeRequestedWait() {
+        long[] requestedWait = REQUESTED_WAIT.get();
+        long millis = requestedWait[0];
+        requestedWait[0] = 0;
+        return millis;
+    }
+
+    public static void leaveCarrier() {
+        REQUESTED_WAIT.remove();
+    }
+}
@@ -3,11 +3,11 @@ package pl.allegro.tech.hermes.consumers.consumer;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Sets;
-import org.apache.commons.lang.ArrayUtils;
 import pl.allegro.tech.hermes.api.ContentType;
 import pl.allegro.tech.hermes.api.Header;
 import pl.allegro.tech.hermes.common.kafka.KafkaTopicName;
 import pl.allegro.tech.hermes.common.kafka.offset.PartitionOffset;
+import pl.allegro.tech.hermes.common.message.wrapper.MessageContentView;
 import pl.allegro.tech.hermes.schema.CompiledSchema;
 
 import java.net.URI;
@@ -26,7 +26,7 @@ public class Message {
 
     private long publishingTimestamp;
     private long readingTimestamp;
-    private byte[] data;
+    private MessageContentView content;
 
     private int retryCounter = 0;
 
@@ -48,15 +48,33 @@ public class Message {
                    PartitionOffset partitionOffset,
                    Map<String, String> externalMetadata,
                    List<Header> additionalHeaders) {
+        this(id, topic, content != null ? MessageContentView.of(content) : null, contentType, schema, publishingTimestamp,
+                readingTimestamp, partitionOffset, ImmutableMap.copyOf(externalMetadata), additionalHeaders);
+    }
+
+    /**
+     * Creates message with content which is not copied until {@link #getData()} is called. External metadata is
+     * expected to be unmodifiable and is not copied either, so that lazily parsed metadata stays unparsed.
+     */
+    public Message(String id,
+                   String topic,
+                   MessageContentView content,
+                   ContentType contentType,
+                   Optional<CompiledSchema<Object>> schema,
+                   long publishingTimestamp,
+                   long readingTimestamp,
+                   PartitionOffset partitionOffset,
+                   Map<String, String> externalMetadata,
+                   List<Header> additionalHeaders) {
         this.id = id;
-        this.data = content;
+        this.content = content;
         this.topic = topic;
         this.contentType = contentType;
         this.schema = schema;
         this.publishingTimestamp = publishingTimestamp;
         this.readingTimestamp = readingTimestamp;
         this.partitionOffset = partitionOffset;
-        this.externalMetadata = ImmutableMap.copyOf(externalMetadata);
+        this.externalMetadata = externalMetadata;
         this.additionalHeaders = ImmutableList.copyOf(additionalHeaders);
     }
 
@@ -73,7 +91,15 @@ public class Message {
     }
 
     public byte[] getData() {
-        return data;
+        return content != null ? content.toArray() : null;
+    }
+
+    /**
+     * Content as a view of the record it was read from, for consumers which can read it without materializing
+     * it as an array of its own.
+     */
+    public MessageContentView getContent() {
+        return content;
     }
 
     public ContentType getContentType() {
@@ -153,7 +179,7 @@ public class Message {
     }
 
     public long getSize() {
-        return ArrayUtils.getLength(data);
+        return content != null ? content.length() : 0;
     }
 
     public static class Builder {
@@ -166,7 +192,7 @@ public class Message {
 
         public Builder fromMessage(Message message) {
             this.message.id = message.getId();
-            this.message.data = message.getData();
+            this.message.content = message.getContent();
             this.message.contentType = message.getContentType();
             this.message.topic = message.getTopic();
             this.message.publishingTimestamp = message.getPublishingTimestamp();
@@ -180,7 +206,7 @@ public class Message {
         }
 
         public Builder withData(byte [] data) {
-            this.message.data = data;
+            this.message.content = data != null ? MessageContentView.of(data) : null;
             return this;
         }
 
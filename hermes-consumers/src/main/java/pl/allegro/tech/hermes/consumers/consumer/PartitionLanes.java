@@ -0,0 +1,183 @@
+package pl.allegro.tech.hermes.consumers.consumer;
+
+import pl.allegro.tech.hermes.api.Subscription;
+import pl.allegro.tech.hermes.common.kafka.KafkaTopicName;
+import pl.allegro.tech.hermes.consumers.consumer.offset.OffsetQueue;
+import pl.allegro.tech.hermes.consumers.consumer.offset.SubscriptionPartition;
+import pl.allegro.tech.hermes.consumers.consumer.rate.InflightsPool;
+import pl.allegro.tech.hermes.consumers.consumer.rate.SerialConsumerRateLimiter;
+import pl.allegro.tech.hermes.consumers.consumer.receiver.MessageReceiver;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * Delivers messages of every Kafka partition through a lane of its own, with separate inflight window and sender.
+ * Messages which do not fit into the window of their lane wait in lane backlog and the partition is paused
+ * in receiver until the backlog is drained, so slow or failing partition does not hold back the others.
+ *
+ * Lanes are created, paused and resumed by consumer thread only, while backlogs are drained by threads
+ * reporting delivery results.
+ */
+class PartitionLanes {
+
+    private final ConsumerMessageSenderFactory senderFactory;
+    private final SerialConsumerRateLimiter rateLimiter;
+    private final OffsetQueue offsetQueue;
+
+    private final Map<LaneKey, PartitionLane> lanes = new HashMap<>();
+    private final Set<PartitionLane> pausedLanes = new HashSet<>();
+
+    private Subscription subscription;
+    private int inflightSize;
+
+    PartitionLanes(ConsumerMessageSenderFactory senderFactory,
+                   Subscription subscription,
+                   SerialConsumerRateLimiter rateLimiter,
+                   OffsetQueue offsetQueue,
+                   int inflightSize) {
+        this.senderFactory = senderFactory;
+        this.subscription = subscription;
+        this.rateLimiter = rateLimiter;
+        this.offsetQueue = offsetQueue;
+        this.inflightSize = inflightSize;
+    }
+
+    void deliver(Message message, MessageReceiver receiver) {
+        PartitionLane lane = lanes.computeIfAbsent(
+                new LaneKey(message.getPartitionOffset().getTopic(), message.getPartition()),
+                key -> createLane(message));
+
+        if (!lane.offer(message)) {
+            // pausing on every parked message restores the pause lost when partitions are rebalanced
+            receiver.pause(lane.partition);
+            pausedLanes.add(lane);
+        }
+    }
+
+    void resumeDrained(MessageReceiver receiver) {
+        Iterator<PartitionLane> paused = pausedLanes.iterator();
+        while (paused.hasNext()) {
+            PartitionLane lane = paused.next();
+            if (lane.isDrained()) {
+                receiver.resume(lane.partition);
+                paused.remove();
+            }
+        }
+    }
+
+    void updateSubscription(Subscription newSubscription, int newInflightSize) {
+        this.subscription = newSubscription;
+        this.inflightSize = newInflightSize;
+        lanes.values().forEach(lane -> lane.update(newSubscription, newInflightSize));
+    }
+
+    void shutdown() {
+        lanes.values().forEach(PartitionLane::shutdown);
+        lanes.clear();
+        pausedLanes.clear();
+    }
+
+    private PartitionLane createLane(Message message) {
+        SubscriptionPartition partition = new SubscriptionPartition(
+                message.getPartitionOffset().getTopic(), subscription.getQualifiedName(), message.getPartition());
+        PartitionLane lane = new PartitionLane(partition, inflightSize);
+        lane.sender = senderFactory.create(subscription, rateLimiter, offsetQueue, lane);
+        lane.sender.initialize();
+        return lane;
+    }
+
+    private static class PartitionLane implements InflightsPool {
+
+        private final SubscriptionPartition partition;
+        private final Queue<Message> backlog = new ArrayDeque<>();
+
+        private ConsumerMessageSender sender;
+        private int maxInflight;
+        private int inflight;
+        private boolean closed;
+
+        PartitionLane(SubscriptionPartition partition, int maxInflight) {
+            this.partition = partition;
+            this.maxInflight = maxInflight;
+        }
+
+        boolean offer(Message message) {
+            synchronized (this) {
+                if (!backlog.isEmpty() || inflight >= maxInflight) {
+                    backlog.add(message);
+                    return false;
+                }
+                inflight++;
+            }
+            sender.sendAsync(message);
+            return true;
+        }
+
+        @Override
+        public void release() {
+            Message next = null;
+            synchronized (this) {
+                if (!closed && inflight <= maxInflight) {
+                    next = backlog.poll();
+                }
+                if (next == null) {
+                    inflight--;
+                }
+            }
+            if (next != null) {
+                sender.sendAsync(next);
+            }
+        }
+
+        synchronized boolean isDrained() {
+            return backlog.isEmpty();
+        }
+
+        void update(Subscription newSubscription, int newMaxInflight) {
+            synchronized (this) {
+                maxInflight = newMaxInflight;
+            }
+            sender.updateSubscription(newSubscription);
+        }
+
+        void shutdown() {
+            synchronized (this) {
+                // parked messages stay inflight in offset queue, so they are consumed again after restart
+                closed = true;
+                backlog.clear();
+            }
+            sender.shutdown();
+        }
+    }
+
+    private static class LaneKey {
+
+        private final KafkaTopicName topic;
+        private final int partition;
+
+        LaneKey(KafkaTopicName topic, int partition) {
+            this.topic = topic;
+            this.partition = partition;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            LaneKey that = (LaneKey) o;
+            return partition == that.partition && Objects.equals(topic, that.topic);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(topic, partition);
+        }
+    }
+}
@@ -10,7 +10,10 @@ import pl.allegro.tech.hermes.common.metric.HermesMetrics;
 import pl.allegro.tech.hermes.consumers.consumer.converter.MessageConverterResolver;
 import pl.allegro.tech.hermes.consumers.consumer.offset.OffsetQueue;
 import pl.allegro.tech.hermes.consumers.consumer.offset.SubscriptionPartitionOffset;
+import pl.allegro.tech.hermes.consumers.consumer.ordering.KeyOrderedSender;
+import pl.allegro.tech.hermes.consumers.consumer.rate.AdaptiveInflightLimit;
 import pl.allegro.tech.hermes.consumers.consumer.rate.AdjustableSemaphore;
+import pl.allegro.tech.hermes.consumers.consumer.rate.InflightLimit;
 import pl.allegro.tech.hermes.consumers.consumer.rate.SerialConsumerRateLimiter;
 import pl.allegro.tech.hermes.consumers.consumer.receiver.MessageReceiver;
 import pl.allegro.tech.hermes.consumers.consumer.receiver.ReceiverFactory;
@@ -21,7 +24,9 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
+import static pl.allegro.tech.hermes.common.config.Configs.CONSUMER_INFLIGHT_ADAPTIVE_ENABLED;
 import static pl.allegro.tech.hermes.common.config.Configs.CONSUMER_INFLIGHT_SIZE;
+import static pl.allegro.tech.hermes.common.config.Configs.CONSUMER_PARTITION_LANES_ENABLED;
 import static pl.allegro.tech.hermes.common.config.Configs.CONSUMER_SIGNAL_PROCESSING_INTERVAL;
 import static pl.allegro.tech.hermes.consumers.consumer.message.MessageConverter.toMessageMetadata;
 
@@ -29,16 +34,21 @@ public class SerialConsumer implements Consumer {
 
     private static final Logger logger = LoggerFactory.getLogger(SerialConsumer.class);
 
+    private static final long INFLIGHT_RECHECK_INTERVAL_MS = 1;
+
     private final ReceiverFactory messageReceiverFactory;
     private final HermesMetrics hermesMetrics;
     private final SerialConsumerRateLimiter rateLimiter;
     private final Trackers trackers;
     private final MessageConverterResolver messageConverterResolver;
-    private final ConsumerMessageSender sender;
+    private final KeyOrderedSender sender;
     private final ConfigFactory configFactory;
     private final OffsetQueue offsetQueue;
     private final ConsumerAuthorizationHandler consumerAuthorizationHandler;
     private final AdjustableSemaphore inflightSemaphore;
+    private final AdaptiveInflightLimit adaptiveInflightLimit;
+    private final PartitionLanes partitionLanes;
+    private final boolean partitionLanesEnabled;
 
     private final int defaultInflight;
     private final int signalProcessingInterval;
@@ -74,7 +84,15 @@ public class SerialConsumer implements Consumer {
         this.messageConverterResolver = messageConverterResolver;
         this.messageReceiver = new UninitializedMessageReceiver();
         this.topic = topic;
-        this.sender = consumerMessageSenderFactory.create(subscription, rateLimiter, offsetQueue, inflightSemaphore::release);
+        this.adaptiveInflightLimit = configFactory.getBooleanProperty(CONSUMER_INFLIGHT_ADAPTIVE_ENABLED)
+                ? new AdaptiveInflightLimit(inflightSemaphore, calculateInflightSize(subscription), maxInflightSize(subscription))
+                : null;
+        InflightLimit inflightLimit = adaptiveInflightLimit != null ? adaptiveInflightLimit : InflightLimit.FIXED;
+        this.sender = new KeyOrderedSender(subscription, inflightSemaphore::release,
+                inflight -> consumerMessageSenderFactory.create(subscription, rateLimiter, offsetQueue, inflight, inflightLimit));
+        this.partitionLanesEnabled = configFactory.getBooleanProperty(CONSUMER_PARTITION_LANES_ENABLED);
+        this.partitionLanes = new PartitionLanes(consumerMessageSenderFactory, subscription, rateLimiter, offsetQueue,
+                calculateInflightSize(subscription));
     }
 
     private int calculateInflightSize(Subscription subscription) {
@@ -84,12 +102,20 @@ public class SerialConsumer implements Consumer {
         );
     }
 
+    private int maxInflightSize(Subscription subscription) {
+        return subscription.getSerialSubscriptionPolicy().getInflightSize();
+    }
+
     @Override
     public void consume(Runnable signalsInterrupt) {
+        if (partitionLanesEnabled && subscription.getSerialSubscriptionPolicy().getOrderingKey() == null) {
+            consumeWithPartitionLanes(signalsInterrupt);
+            return;
+        }
         try {
-            do {
-                signalsInterrupt.run();
-            } while (!inflightSemaphore.tryAcquire(signalProcessingInterval, TimeUnit.MILLISECONDS));
+            if (!acquireInflight(signalsInterrupt)) {
+                return;
+            }
 
             Optional<Message> maybeMessage = messageReceiver.next();
 
@@ -103,8 +129,9 @@ public class SerialConsumer implements Consumer {
                     );
                 }
 
+                Optional<String> orderingKey = sender.extractKey(message);
                 Message convertedMessage = messageConverterResolver.converterFor(message, subscription).convert(message, topic);
-                sendMessage(convertedMessage);
+                sendMessage(convertedMessage, orderingKey);
             } else {
                 inflightSemaphore.release();
             }
@@ -113,13 +140,49 @@ public class SerialConsumer implements Consumer {
         }
     }
 
-    private void sendMessage(Message message) {
-        offsetQueue.offerInflightOffset(SubscriptionPartitionOffset.subscriptionPartitionOffset(message, subscription));
+    private void consumeWithPartitionLanes(Runnable signalsInterrupt) {
+        try {
+            signalsInterrupt.run();
+            partitionLanes.resumeDrained(messageReceiver);
+
+            Optional<Message> maybeMessage = messageReceiver.next();
+
+            if (maybeMessage.isPresent()) {
+                Message message = maybeMessage.get();
+                Message convertedMessage = messageConverterResolver.converterFor(message, subscription).convert(message, topic);
+                registerInflight(convertedMessage);
+                partitionLanes.deliver(convertedMessage, messageReceiver);
+            }
+        } catch (Exception e) {
+            logger.error("Consumer loop failed for {}", subscription.getQualifiedName(), e);
+        }
+    }
+
+    private boolean acquireInflight(Runnable signalsInterrupt) throws InterruptedException {
+        if (ConsumerWait.isCooperative()) {
+            signalsInterrupt.run();
+            if (!inflightSemaphore.tryAcquire(0, TimeUnit.MILLISECONDS)) {
+                ConsumerWait.idle(INFLIGHT_RECHECK_INTERVAL_MS);
+                return false;
+            }
+            return true;
+        }
+        do {
+            signalsInterrupt.run();
+        } while (!inflightSemaphore.tryAcquire(signalProcessingInterval, TimeUnit.MILLISECONDS));
+        return true;
+    }
+
+    private void sendMessage(Message message, Optional<String> orderingKey) {
+        registerInflight(message);
+        sender.sendAsync(message, orderingKey);
+    }
+
+    private void registerInflight(Message message) {
+        offsetQueue.offerInflightOffset(subscription.getQualifiedName(), message.getPartitionOffset());
 
         hermesMetrics.incrementInflightCounter(subscription);
         trackers.get(subscription).logInflight(toMessageMetadata(message, subscription));
-
-        sender.sendAsync(message);
     }
 
     @Override
@@ -128,6 +191,9 @@ public class SerialConsumer implements Consumer {
         initializeMessageReceiver();
         sender.initialize();
         rateLimiter.initialize();
+        if (adaptiveInflightLimit != null) {
+            hermesMetrics.registerInflightLimitGauge(subscription, adaptiveInflightLimit::getLimit);
+        }
         consumerAuthorizationHandler.createSubscriptionHandler(subscription.getQualifiedName());
     }
 
@@ -141,17 +207,26 @@ public class SerialConsumer implements Consumer {
     @Override
     public void tearDown() {
         messageReceiver.stop();
+        partitionLanes.shutdown();
         sender.shutdown();
         rateLimiter.shutdown();
+        if (adaptiveInflightLimit != null) {
+            hermesMetrics.unregisterInflightLimitGauge(subscription);
+        }
         consumerAuthorizationHandler.removeSubscriptionHandler(subscription.getQualifiedName());
     }
 
     @Override
     public void updateSubscription(Subscription newSubscription) {
         logger.info("Updating consumer for subscription {}", subscription.getQualifiedName());
-        inflightSemaphore.setMaxPermits(calculateInflightSize(newSubscription));
+        if (adaptiveInflightLimit != null) {
+            adaptiveInflightLimit.updateMaxLimit(maxInflightSize(newSubscription));
+        } else {
+            inflightSemaphore.setMaxPermits(calculateInflightSize(newSubscription));
+        }
         rateLimiter.updateSubscription(newSubscription);
         sender.updateSubscription(newSubscription);
+        partitionLanes.updateSubscription(newSubscription, calculateInflightSize(newSubscription));
         messageReceiver.update(newSubscription);
         consumerAuthorizationHandler.updateSubscription(newSubscription.getQualifiedName());
         this.subscription = newSubscription;
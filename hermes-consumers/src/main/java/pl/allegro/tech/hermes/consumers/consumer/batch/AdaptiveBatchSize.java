@@ -0,0 +1,66 @@
+package pl.allegro.tech.hermes.consumers.consumer.batch;
+
+import com.google.common.base.Ticker;
+import pl.allegro.tech.hermes.api.BatchSubscriptionPolicy;
+import pl.allegro.tech.hermes.consumers.consumer.rate.OverloadBackoff;
+import pl.allegro.tech.hermes.consumers.consumer.sender.MessageSendingResult;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Number of messages put into a batch, tuned from latency and outcome of recent delivery attempts. Size starts at
+ * subscription batch size, which stays the maximum. Attempt which failed on subscriber side, as told by
+ * {@link OverloadBackoff}, or took more than half of the request timeout, halves the size, as often as
+ * {@link OverloadBackoff} allows. Size grows by a quarter, and at least by one message, after attempt which took less
+ * than a quarter of the request timeout, once the exponentially weighted rate of failed attempts drops below
+ * {@value #MAX_GROWTH_ERROR_RATE}.
+ */
+public class AdaptiveBatchSize {
+
+    private static final double BACKOFF_RATIO = 0.5;
+    private static final double GROWTH_RATIO = 1.25;
+    private static final double TARGET_LATENCY_RATIO = 0.5;
+    private static final double GROWTH_LATENCY_RATIO = 0.25;
+    private static final double ERROR_RATE_WEIGHT = 0.1;
+    private static final double MAX_GROWTH_ERROR_RATE = 0.05;
+
+    private final OverloadBackoff backoff;
+
+    private int maxSize;
+    private long requestTimeoutNanos;
+    private double size;
+    private double errorRate;
+
+    public AdaptiveBatchSize(BatchSubscriptionPolicy policy) {
+        this(policy, Ticker.systemTicker());
+    }
+
+    public AdaptiveBatchSize(BatchSubscriptionPolicy policy, Ticker ticker) {
+        this.backoff = new OverloadBackoff(ticker);
+        this.maxSize = policy.getBatchSize();
+        this.requestTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(policy.getRequestTimeout());
+        this.size = maxSize;
+    }
+
+    public synchronized void record(MessageSendingResult result, long latencyNanos) {
+        boolean failed = OverloadBackoff.isFailedOnSubscriberSide(result);
+        errorRate = errorRate * (1 - ERROR_RATE_WEIGHT) + (failed ? ERROR_RATE_WEIGHT : 0);
+        if (failed || latencyNanos > requestTimeoutNanos * TARGET_LATENCY_RATIO) {
+            if (backoff.tryBackoff(latencyNanos)) {
+                size = Math.max(size * BACKOFF_RATIO, 1);
+            }
+        } else if (latencyNanos < requestTimeoutNanos * GROWTH_LATENCY_RATIO && errorRate < MAX_GROWTH_ERROR_RATE) {
+            size = Math.min(Math.max(size * GROWTH_RATIO, size + 1), maxSize);
+        }
+    }
+
+    public synchronized void updatePolicy(BatchSubscriptionPolicy policy) {
+        maxSize = policy.getBatchSize();
+        requestTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(policy.getRequestTimeout());
+        size = Math.min(size, maxSize);
+    }
+
+    public synchronized int getSize() {
+        return (int) size;
+    }
+}
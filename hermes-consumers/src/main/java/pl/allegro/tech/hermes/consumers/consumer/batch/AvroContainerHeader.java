@@ -0,0 +1,64 @@
+package pl.allegro.tech.hermes.consumers.consumer.batch;
+
+import org.apache.avro.Schema;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.EncoderFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.SecureRandom;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Header of Avro object container file: magic bytes, metadata with the schema and {@code null} codec, and sync marker
+ * closing the header and each data block. Header is built once per schema and shared by all batches of that schema.
+ */
+class AvroContainerHeader {
+
+    static final int SYNC_SIZE = 16;
+
+    private static final byte[] MAGIC = new byte[] {'O', 'b', 'j', 1};
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final byte[] header;
+    private final byte[] sync;
+
+    private AvroContainerHeader(byte[] header, byte[] sync) {
+        this.header = header;
+        this.sync = sync;
+    }
+
+    static AvroContainerHeader forSchema(Schema schema) {
+        byte[] sync = new byte[SYNC_SIZE];
+        RANDOM.nextBytes(sync);
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            BinaryEncoder encoder = EncoderFactory.get().directBinaryEncoder(out, null);
+            encoder.writeFixed(MAGIC);
+            encoder.writeMapStart();
+            encoder.setItemCount(2);
+            encoder.startItem();
+            encoder.writeString("avro.schema");
+            encoder.writeBytes(schema.toString().getBytes(UTF_8));
+            encoder.startItem();
+            encoder.writeString("avro.codec");
+            encoder.writeBytes("null".getBytes(UTF_8));
+            encoder.writeMapEnd();
+            encoder.writeFixed(sync);
+            encoder.flush();
+            return new AvroContainerHeader(out.toByteArray(), sync);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    byte[] getHeader() {
+        return header;
+    }
+
+    byte[] getSync() {
+        return sync;
+    }
+}
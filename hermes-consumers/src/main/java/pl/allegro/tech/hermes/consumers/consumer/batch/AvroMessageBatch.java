@@ -0,0 +1,234 @@
+package pl.allegro.tech.hermes.consumers.consumer.batch;
+
+import org.apache.avro.Schema;
+import org.apache.avro.io.BinaryData;
+import pl.allegro.tech.hermes.api.ContentType;
+import pl.allegro.tech.hermes.api.Header;
+import pl.allegro.tech.hermes.api.Subscription;
+import pl.allegro.tech.hermes.common.kafka.KafkaTopicName;
+import pl.allegro.tech.hermes.common.kafka.offset.PartitionOffset;
+import pl.allegro.tech.hermes.consumers.consumer.Message;
+import pl.allegro.tech.hermes.schema.CompiledSchema;
+import pl.allegro.tech.hermes.tracker.consumers.MessageMetadata;
+
+import javax.annotation.concurrent.NotThreadSafe;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static pl.allegro.tech.hermes.consumers.consumer.batch.AvroContainerHeader.SYNC_SIZE;
+
+/**
+ * Batch written as Avro object container file with a single data block, so the schema is sent once per batch and
+ * binary encoded messages are copied as they are. Messages are written right after space reserved for container header
+ * and block counters, which are filled in on close, just before the first message. All messages of a batch have to
+ * share the same schema version, message of another version does not fit and goes to the next batch.
+ */
+@NotThreadSafe
+public class AvroMessageBatch implements MessageBatch {
+
+    private static final int MAX_BLOCK_PREFIX_SIZE = 20;
+
+    private final Clock clock;
+
+    private final int maxBatchTime;
+    private final int batchSize;
+
+    private final String id;
+    private final ByteBuffer byteBuffer;
+    private final List<MessageMetadata> metadata = new ArrayList<>();
+    private final List<Header> additionalHeaders;
+
+    private CompiledSchema<Schema> schema;
+    private AvroContainerHeader containerHeader;
+    private int dataStart;
+    private int contentStart = 0;
+    private int elements = 0;
+    private long batchStart;
+    private boolean closed = false;
+    private int retryCounter = 0;
+
+    public AvroMessageBatch(String id, ByteBuffer buffer, int size, int batchTime, Clock clock, List<Header> additionalHeaders) {
+        this.id = id;
+        this.clock = clock;
+        this.maxBatchTime = batchTime;
+        this.batchSize = size;
+        this.byteBuffer = buffer;
+        this.additionalHeaders = additionalHeaders;
+    }
+
+    public AvroMessageBatch(String id, ByteBuffer buffer, Subscription subscription, Clock clock) {
+        this(id, buffer,
+                subscription.getBatchSubscriptionPolicy().getBatchSize(),
+                subscription.getBatchSubscriptionPolicy().getBatchTime(),
+                clock,
+                subscription.getHeaders());
+    }
+
+    @Override
+    public boolean isFull() {
+        return elements >= batchSize || (!isEmpty() && byteBuffer.remaining() <= SYNC_SIZE);
+    }
+
+    @Override
+    public void append(Message message, MessageMetadata metadata) {
+        checkState(!closed, "Batch already closed.");
+        if (!canFit(message)) throw new BufferOverflowException();
+        if (isEmpty()) {
+            batchStart = clock.millis();
+            schema = message.<Schema>getSchema().get();
+            containerHeader = headerFor(schema);
+            dataStart = containerHeader.getHeader().length + MAX_BLOCK_PREFIX_SIZE;
+            byteBuffer.position(dataStart);
+        }
+
+        byteBuffer.put(message.getData());
+        this.metadata.add(metadata);
+        elements++;
+    }
+
+    @Override
+    public boolean canFit(Message message) {
+        Optional<CompiledSchema<Schema>> messageSchema = message.getSchema();
+        checkArgument(messageSchema.isPresent(), "Avro batch needs schema of appended message");
+        if (isEmpty()) {
+            return requiredSpaceInEmptyBatch(message.getData(), messageSchema.get()) <= byteBuffer.capacity();
+        }
+        return schema.equals(messageSchema.get()) && byteBuffer.remaining() >= message.getData().length + SYNC_SIZE;
+    }
+
+    @Override
+    public boolean isExpired() {
+        return !isEmpty() && getLifetime() > maxBatchTime;
+    }
+
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public ContentType getContentType() {
+        return ContentType.AVRO;
+    }
+
+    @Override
+    public MessageBatch close() {
+        if (isEmpty()) {
+            byteBuffer.limit(0);
+        } else {
+            byteBuffer.put(containerHeader.getSync());
+            int end = byteBuffer.position();
+            byte[] blockPrefix = blockPrefix(elements, end - SYNC_SIZE - dataStart);
+            byte[] header = containerHeader.getHeader();
+            contentStart = dataStart - blockPrefix.length - header.length;
+            byteBuffer.position(contentStart);
+            byteBuffer.put(header).put(blockPrefix);
+            byteBuffer.limit(end);
+        }
+        byteBuffer.position(contentStart);
+        this.closed = true;
+        return this;
+    }
+
+    @Override
+    public ByteBuffer getContent() {
+        if (closed) byteBuffer.position(contentStart);
+        return byteBuffer;
+    }
+
+    @Override
+    public Optional<String> getContentEncoding() {
+        return Optional.empty();
+    }
+
+    @Override
+    public long getUncompressedSize() {
+        return byteBuffer.limit() - contentStart;
+    }
+
+    @Override
+    public long getCompressionCpuTime() {
+        return 0;
+    }
+
+    @Override
+    public List<PartitionOffset> getPartitionOffsets() {
+        return metadata.stream()
+                .map(m -> new PartitionOffset(KafkaTopicName.valueOf(m.getKafkaTopic()), m.getOffset(), m.getPartition()))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<MessageMetadata> getMessagesMetadata() {
+        return Collections.unmodifiableList(metadata);
+    }
+
+    @Override
+    public List<Header> getAdditionalHeaders() {
+        return Collections.unmodifiableList(additionalHeaders);
+    }
+
+    @Override
+    public int size() {
+        return elements;
+    }
+
+    @Override
+    public long getLifetime() {
+        return clock.millis() - batchStart;
+    }
+
+    @Override
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return elements == 0;
+    }
+
+    @Override
+    public boolean isBiggerThanTotalCapacity(Message message) {
+        return requiredSpaceInEmptyBatch(message.getData(), message.<Schema>getSchema().get()) > getCapacity();
+    }
+
+    @Override
+    public int getCapacity() {
+        return byteBuffer.capacity();
+    }
+
+    @Override
+    public void incrementRetryCounter() {
+        this.retryCounter++;
+    }
+
+    @Override
+    public int getRetryCounter() {
+        return retryCounter;
+    }
+
+    private static int requiredSpaceInEmptyBatch(byte[] data, CompiledSchema<Schema> schema) {
+        return headerFor(schema).getHeader().length + MAX_BLOCK_PREFIX_SIZE + data.length + SYNC_SIZE;
+    }
+
+    private static AvroContainerHeader headerFor(CompiledSchema<Schema> schema) {
+        return schema.getDerived(AvroContainerHeader.class, AvroContainerHeader::forSchema);
+    }
+
+    private static byte[] blockPrefix(long count, long size) {
+        byte[] prefix = new byte[MAX_BLOCK_PREFIX_SIZE];
+        int length = BinaryData.encodeLong(count, prefix, 0);
+        length += BinaryData.encodeLong(size, prefix, length);
+        return Arrays.copyOf(prefix, length);
+    }
+}
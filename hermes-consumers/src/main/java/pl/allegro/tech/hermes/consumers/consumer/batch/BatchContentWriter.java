@@ -0,0 +1,28 @@
+package pl.allegro.tech.hermes.consumers.consumer.batch;
+
+import java.nio.ByteBuffer;
+import java.util.Optional;
+
+/**
+ * Writes batch content into pooled buffer, either as is or through a compressing stream.
+ */
+interface BatchContentWriter {
+
+    boolean canFit(int length);
+
+    boolean fitsEmptyBuffer(int length);
+
+    void write(byte data);
+
+    void write(byte[] data);
+
+    void finish();
+
+    ByteBuffer getBuffer();
+
+    Optional<String> getContentEncoding();
+
+    long getUncompressedSize();
+
+    long getCompressionCpuTime();
+}
@@ -9,6 +9,7 @@ import pl.allegro.tech.hermes.consumers.consumer.sender.MessageSendingResult;
 import pl.allegro.tech.hermes.tracker.consumers.MessageMetadata;
 import pl.allegro.tech.hermes.tracker.consumers.Trackers;
 
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import static pl.allegro.tech.hermes.api.TopicName.fromQualifiedName;
 import static pl.allegro.tech.hermes.common.metric.Meters.METER;
 import static pl.allegro.tech.hermes.common.metric.Meters.SUBSCRIPTION_METER;
@@ -29,6 +30,16 @@ public class BatchMonitoring {
         metrics.inflightTimeHistogram(subscription).update(batch.getLifetime());
     }
 
+    public void markCompression(MessageBatch batch, Subscription subscription) {
+        batch.getContentEncoding().ifPresent(encoding -> {
+            if (batch.getUncompressedSize() > 0) {
+                metrics.batchCompressionRatioHistogram(subscription)
+                        .update(batch.getContent().remaining() * 100L / batch.getUncompressedSize());
+            }
+            metrics.batchCompressionCpuTimer(subscription).update(batch.getCompressionCpuTime(), NANOSECONDS);
+        });
+    }
+
     public void markSendingResult(MessageBatch batch, Subscription subscription, MessageSendingResult result) {
         metrics.registerConsumerHttpAnswer(subscription, result.getStatusCode());
         if (result.succeeded()) {
@@ -31,6 +31,7 @@ public class ByteBufferMessageBatchFactory implements MessageBatchFactory {
                 case JSON:
                     return new JsonMessageBatch(randomUUID().toString(), buffer, subscription, clock);
                 case AVRO:
+                    return new AvroMessageBatch(randomUUID().toString(), buffer, subscription, clock);
                 default:
                     throw new UnsupportedOperationException("Batching is not supported yet for contentType " + subscription.getContentType());
             }
@@ -44,4 +45,9 @@ public class ByteBufferMessageBatchFactory implements MessageBatchFactory {
         checkNotNull(batch);
         bufferPool.deallocate(batch.getContent());
     }
+
+    @Override
+    public long availableMemory() {
+        return bufferPool.availableMemory();
+    }
 }
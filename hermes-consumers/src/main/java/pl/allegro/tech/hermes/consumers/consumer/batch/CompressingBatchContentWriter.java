@@ -0,0 +1,167 @@
+package pl.allegro.tech.hermes.consumers.consumer.batch;
+
+import com.github.luben.zstd.ZstdOutputStream;
+import pl.allegro.tech.hermes.api.BatchCompression;
+import pl.allegro.tech.hermes.common.exception.InternalProcessingException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.ByteBuffer;
+import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compresses batch content while it is appended, straight into pooled buffer. Codec buffers data written since the
+ * last flush, so whether the next message fits is decided on worst case size of compressed pending data. When the
+ * worst case does not fit, pending data is flushed and the check is repeated on actual buffer position, so buffer is
+ * filled up to its capacity without ever overflowing.
+ *
+ * Uncompressed size and CPU time spent in codec are tracked for compression metrics.
+ */
+class CompressingBatchContentWriter implements BatchContentWriter {
+
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+    private static final int GZIP_BUFFER_SIZE = 8192;
+    private static final int FLUSH_OVERHEAD = 64;
+    private static final int TRAILER_SIZE = 32;
+
+    private final ByteBuffer buffer;
+    private final String encoding;
+    private final OutputStream stream;
+    private final int headerSize;
+
+    private long pending = 0;
+    private long uncompressedSize = 0;
+    private long cpuTime = 0;
+
+    CompressingBatchContentWriter(ByteBuffer buffer, BatchCompression compression) {
+        this.buffer = buffer;
+        this.encoding = compression.name().toLowerCase();
+        long start = currentThreadCpuTime();
+        this.stream = open(compression, new ByteBufferOutputStream(buffer));
+        this.cpuTime = currentThreadCpuTime() - start;
+        this.headerSize = buffer.position();
+    }
+
+    @Override
+    public boolean canFit(int length) {
+        if (fits(buffer.position(), pending + length)) {
+            return true;
+        }
+        if (pending == 0) {
+            return false;
+        }
+        timed(stream::flush);
+        pending = 0;
+        return fits(buffer.position(), length);
+    }
+
+    @Override
+    public boolean fitsEmptyBuffer(int length) {
+        return fits(headerSize, length);
+    }
+
+    @Override
+    public void write(byte data) {
+        timed(() -> stream.write(data));
+        pending++;
+        uncompressedSize++;
+    }
+
+    @Override
+    public void write(byte[] data) {
+        timed(() -> stream.write(data));
+        pending += data.length;
+        uncompressedSize += data.length;
+    }
+
+    @Override
+    public void finish() {
+        timed(stream::close);
+        buffer.flip();
+    }
+
+    @Override
+    public ByteBuffer getBuffer() {
+        return buffer;
+    }
+
+    @Override
+    public Optional<String> getContentEncoding() {
+        return Optional.of(encoding);
+    }
+
+    @Override
+    public long getUncompressedSize() {
+        return uncompressedSize;
+    }
+
+    @Override
+    public long getCompressionCpuTime() {
+        return cpuTime;
+    }
+
+    private boolean fits(int position, long length) {
+        return position + compressBound(length) + TRAILER_SIZE <= buffer.capacity();
+    }
+
+    private static long compressBound(long length) {
+        return length + (length >> 7) + FLUSH_OVERHEAD;
+    }
+
+    private void timed(StreamOperation operation) {
+        long start = currentThreadCpuTime();
+        try {
+            operation.run();
+        } catch (IOException e) {
+            throw new InternalProcessingException(e);
+        } finally {
+            cpuTime += currentThreadCpuTime() - start;
+        }
+    }
+
+    private static long currentThreadCpuTime() {
+        return THREAD_MX_BEAN.getCurrentThreadCpuTime();
+    }
+
+    private static OutputStream open(BatchCompression compression, OutputStream out) {
+        try {
+            switch (compression) {
+                case GZIP:
+                    return new GZIPOutputStream(out, GZIP_BUFFER_SIZE, true);
+                case ZSTD:
+                    return new ZstdOutputStream(out);
+                default:
+                    throw new IllegalArgumentException("Unsupported batch compression " + compression);
+            }
+        } catch (IOException e) {
+            throw new InternalProcessingException(e);
+        }
+    }
+
+    private interface StreamOperation {
+        void run() throws IOException;
+    }
+
+    private static class ByteBufferOutputStream extends OutputStream {
+
+        private final ByteBuffer buffer;
+
+        ByteBufferOutputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public void write(int b) {
+            buffer.put((byte) b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            buffer.put(b, off, len);
+        }
+    }
+}
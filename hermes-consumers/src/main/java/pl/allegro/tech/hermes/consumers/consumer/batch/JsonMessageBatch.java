@@ -1,10 +1,12 @@
 package pl.allegro.tech.hermes.consumers.consumer.batch;
 
+import pl.allegro.tech.hermes.api.BatchCompression;
 import pl.allegro.tech.hermes.api.ContentType;
 import pl.allegro.tech.hermes.api.Header;
 import pl.allegro.tech.hermes.api.Subscription;
 import pl.allegro.tech.hermes.common.kafka.KafkaTopicName;
 import pl.allegro.tech.hermes.common.kafka.offset.PartitionOffset;
+import pl.allegro.tech.hermes.consumers.consumer.Message;
 import pl.allegro.tech.hermes.tracker.consumers.MessageMetadata;
 
 import javax.annotation.concurrent.NotThreadSafe;
@@ -14,6 +16,7 @@ import java.time.Clock;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 import static com.google.common.base.Preconditions.checkState;
@@ -27,7 +30,7 @@ public class JsonMessageBatch implements MessageBatch {
     private final int batchSize;
 
     private final String id;
-    private final ByteBuffer byteBuffer;
+    private final BatchContentWriter writer;
     private final List<MessageMetadata> metadata = new ArrayList<>();
     private final List<Header> additionalHeaders;
 
@@ -37,11 +40,18 @@ public class JsonMessageBatch implements MessageBatch {
     private int retryCounter = 0;
 
     public JsonMessageBatch(String id, ByteBuffer buffer, int size, int batchTime, Clock clock, List<Header> additionalHeaders) {
+        this(id, buffer, size, batchTime, clock, additionalHeaders, BatchCompression.NONE);
+    }
+
+    public JsonMessageBatch(String id, ByteBuffer buffer, int size, int batchTime, Clock clock, List<Header> additionalHeaders,
+                            BatchCompression compression) {
         this.id = id;
         this.clock = clock;
         this.maxBatchTime = batchTime;
         this.batchSize = size;
-        this.byteBuffer = buffer;
+        this.writer = compression == BatchCompression.NONE
+                ? new RawBatchContentWriter(buffer)
+                : new CompressingBatchContentWriter(buffer, compression);
         this.additionalHeaders = additionalHeaders;
     }
 
@@ -50,28 +60,38 @@ public class JsonMessageBatch implements MessageBatch {
                 subscription.getBatchSubscriptionPolicy().getBatchSize(),
                 subscription.getBatchSubscriptionPolicy().getBatchTime(),
                 clock,
-                subscription.getHeaders());
+                subscription.getHeaders(),
+                subscription.getBatchSubscriptionPolicy().getCompression());
     }
 
     @Override
     public boolean isFull() {
-        return elements >= batchSize || byteBuffer.remaining() < 2;
+        return elements >= batchSize || !writer.canFit(2);
     }
 
     @Override
+    public void append(Message message, MessageMetadata metadata) {
+        append(message.getData(), metadata);
+    }
+
     public void append(byte[] data, MessageMetadata metadata) {
         checkState(!closed, "Batch already closed.");
         if (!canFit(data)) throw new BufferOverflowException();
         if (isEmpty()) batchStart = clock.millis();
 
-        byteBuffer.put((byte) (isEmpty() ? '[' : ',')).put(data);
+        writer.write((byte) (isEmpty() ? '[' : ','));
+        writer.write(data);
         this.metadata.add(metadata);
         elements++;
     }
 
     @Override
+    public boolean canFit(Message message) {
+        return canFit(message.getData());
+    }
+
     public boolean canFit(byte[] data) {
-        return byteBuffer.remaining() >= requiredFreeSpace(data);
+        return writer.canFit(requiredFreeSpace(data));
     }
 
     private int requiredFreeSpace(byte[] data) {
@@ -95,18 +115,32 @@ public class JsonMessageBatch implements MessageBatch {
 
     @Override
     public MessageBatch close() {
-        if (!isEmpty()) byteBuffer.put((byte)']');
-        int position = byteBuffer.position();
-        byteBuffer.position(0);
-        byteBuffer.limit(position);
+        if (!isEmpty()) writer.write((byte)']');
+        writer.finish();
         this.closed = true;
         return this;
     }
 
     @Override
     public ByteBuffer getContent() {
-        if (closed) byteBuffer.position(0);
-        return byteBuffer;
+        ByteBuffer content = writer.getBuffer();
+        if (closed) content.position(0);
+        return content;
+    }
+
+    @Override
+    public Optional<String> getContentEncoding() {
+        return writer.getContentEncoding();
+    }
+
+    @Override
+    public long getUncompressedSize() {
+        return writer.getUncompressedSize();
+    }
+
+    @Override
+    public long getCompressionCpuTime() {
+        return writer.getCompressionCpuTime();
     }
 
     @Override
@@ -147,13 +181,17 @@ public class JsonMessageBatch implements MessageBatch {
     }
 
     @Override
+    public boolean isBiggerThanTotalCapacity(Message message) {
+        return isBiggerThanTotalCapacity(message.getData());
+    }
+
     public boolean isBiggerThanTotalCapacity(byte[] data) {
-        return requiredFreeSpace(data) > getCapacity();
+        return !writer.fitsEmptyBuffer(requiredFreeSpace(data));
     }
 
     @Override
     public int getCapacity() {
-        return byteBuffer.capacity();
+        return writer.getBuffer().capacity();
     }
 
     @Override
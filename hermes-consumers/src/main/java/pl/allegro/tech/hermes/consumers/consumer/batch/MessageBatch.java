@@ -3,12 +3,14 @@ package pl.allegro.tech.hermes.consumers.consumer.batch;
 import pl.allegro.tech.hermes.api.ContentType;
 import pl.allegro.tech.hermes.api.Header;
 import pl.allegro.tech.hermes.common.kafka.offset.PartitionOffset;
+import pl.allegro.tech.hermes.consumers.consumer.Message;
 import pl.allegro.tech.hermes.tracker.consumers.MessageMetadata;
 
 import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 public interface MessageBatch {
 
@@ -16,9 +18,9 @@ public interface MessageBatch {
         return isClosed() || isFull() || isExpired();
     }
 
-    void append(byte[] data, MessageMetadata batchMessageMetadata) throws BufferOverflowException;
+    void append(Message message, MessageMetadata batchMessageMetadata) throws BufferOverflowException;
 
-    boolean canFit(byte[] data);
+    boolean canFit(Message message);
 
     boolean isExpired();
 
@@ -32,6 +34,12 @@ public interface MessageBatch {
 
     ByteBuffer getContent();
 
+    Optional<String> getContentEncoding();
+
+    long getUncompressedSize();
+
+    long getCompressionCpuTime();
+
     List<PartitionOffset> getPartitionOffsets();
 
     List<MessageMetadata> getMessagesMetadata();
@@ -46,7 +54,7 @@ public interface MessageBatch {
 
     boolean isEmpty();
 
-    boolean isBiggerThanTotalCapacity(byte[] data);
+    boolean isBiggerThanTotalCapacity(Message message);
 
     int getCapacity();
 
@@ -7,4 +7,6 @@ public interface MessageBatchFactory {
     MessageBatch createBatch(Subscription subscription);
 
     void destroyBatch(MessageBatch batch);
+
+    long availableMemory();
 }
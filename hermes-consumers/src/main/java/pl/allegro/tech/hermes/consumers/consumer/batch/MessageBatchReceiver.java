@@ -40,6 +40,7 @@ public class MessageBatchReceiver {
     private final Trackers trackers;
     private final Queue<Message> inflight;
     private final Topic topic;
+    private final AdaptiveBatchSize adaptiveBatchSize;
     private boolean receiving = true;
 
     public MessageBatchReceiver(MessageReceiver receiver,
@@ -48,7 +49,8 @@ public class MessageBatchReceiver {
                                 MessageConverterResolver messageConverterResolver,
                                 MessageContentWrapper messageContentWrapper,
                                 Topic topic,
-                                Trackers trackers) {
+                                Trackers trackers,
+                                AdaptiveBatchSize adaptiveBatchSize) {
         this.receiver = receiver;
         this.batchFactory = batchFactory;
         this.hermesMetrics = hermesMetrics;
@@ -56,6 +58,7 @@ public class MessageBatchReceiver {
         this.messageContentWrapper = messageContentWrapper;
         this.topic = topic;
         this.trackers = trackers;
+        this.adaptiveBatchSize = adaptiveBatchSize;
         this.inflight = new ArrayDeque<>(1);
     }
 
@@ -70,7 +73,7 @@ public class MessageBatchReceiver {
         }
         List<MessageMetadata> discarded = new ArrayList<>();
 
-        while (isReceiving() && !batch.isReadyForDelivery() && !Thread.currentThread().isInterrupted()) {
+        while (isReceiving() && !batch.isReadyForDelivery() && !reachedAdaptiveSize(batch) && !Thread.currentThread().isInterrupted()) {
             signalsInterrupt.run();
             Optional<Message> maybeMessage = inflight.isEmpty() ?
                     readAndTransform(subscription, batch.getId()) : Optional.ofNullable(inflight.poll());
@@ -78,9 +81,9 @@ public class MessageBatchReceiver {
             if (maybeMessage.isPresent()) {
                 Message message = maybeMessage.get();
 
-                if (batch.canFit(message.getData())) {
-                    batch.append(message.getData(), messageMetadata(subscription, batch.getId(), message));
-                } else if (batch.isBiggerThanTotalCapacity(message.getData())) {
+                if (batch.canFit(message)) {
+                    batch.append(message, messageMetadata(subscription, batch.getId(), message));
+                } else if (batch.isBiggerThanTotalCapacity(message)) {
                     logger.error("Message size exceeds buffer total capacity [size={}, capacity={}, subscription={}]",
                             message.getData().length, batch.getCapacity(), subscription.getQualifiedName());
                     discarded.add(toMessageMetadata(message, subscription));
@@ -119,7 +122,7 @@ public class MessageBatchReceiver {
     private byte[] wrap(Subscription subscription, Message next) {
         switch (subscription.getContentType()) {
             case AVRO:
-                return messageContentWrapper.wrapAvro(next.getData(), next.getId(), next.getPublishingTimestamp(), topic, next.<Schema>getSchema().get(), next.getExternalMetadata());
+                return messageContentWrapper.wrapAvroWithoutSchemaVersion(next.getData(), next.getId(), next.getPublishingTimestamp(), next.<Schema>getSchema().get(), next.getExternalMetadata());
             case JSON:
                 return messageContentWrapper.wrapJson(next.getData(), next.getId(), next.getPublishingTimestamp(), next.getExternalMetadata());
             default:
@@ -133,6 +136,10 @@ public class MessageBatchReceiver {
                 message.getPublishingTimestamp(), message.getReadingTimestamp());
     }
 
+    private boolean reachedAdaptiveSize(MessageBatch batch) {
+        return adaptiveBatchSize != null && batch.size() >= adaptiveBatchSize.getSize();
+    }
+
     private boolean isReceiving() {
         return receiving;
     }
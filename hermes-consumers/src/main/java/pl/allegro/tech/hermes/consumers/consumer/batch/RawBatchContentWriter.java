@@ -0,0 +1,58 @@
+package pl.allegro.tech.hermes.consumers.consumer.batch;
+
+import java.nio.ByteBuffer;
+import java.util.Optional;
+
+class RawBatchContentWriter implements BatchContentWriter {
+
+    private final ByteBuffer buffer;
+
+    RawBatchContentWriter(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    @Override
+    public boolean canFit(int length) {
+        return buffer.remaining() >= length;
+    }
+
+    @Override
+    public boolean fitsEmptyBuffer(int length) {
+        return length <= buffer.capacity();
+    }
+
+    @Override
+    public void write(byte data) {
+        buffer.put(data);
+    }
+
+    @Override
+    public void write(byte[] data) {
+        buffer.put(data);
+    }
+
+    @Override
+    public void finish() {
+        buffer.flip();
+    }
+
+    @Override
+    public ByteBuffer getBuffer() {
+        return buffer;
+    }
+
+    @Override
+    public Optional<String> getContentEncoding() {
+        return Optional.empty();
+    }
+
+    @Override
+    public long getUncompressedSize() {
+        return buffer.limit();
+    }
+
+    @Override
+    public long getCompressionCpuTime() {
+        return 0;
+    }
+}
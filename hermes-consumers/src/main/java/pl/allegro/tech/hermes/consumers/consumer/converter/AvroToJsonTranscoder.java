@@ -0,0 +1,154 @@
+package pl.allegro.tech.hermes.consumers.consumer.converter;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.Decoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.Encoder;
+import org.apache.avro.io.NoWrappingJsonEncoder;
+import tech.allegro.schema.json2avro.converter.AvroConversionException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+import static pl.allegro.tech.hermes.common.message.wrapper.AvroMetadataMarker.METADATA_MARKER;
+
+/**
+ * Writes binary encoded Avro record straight as JSON, the same JSON {@code JsonAvroConverter} produces for the record
+ * without metadata field. Values are copied from decoder to JSON encoder one by one, without decoding intermediate
+ * records, and the metadata field is skipped. Transcoder is created once per writer schema and is thread safe.
+ * Every thread reuses its output buffer, unless a large message grew it past {@value #MAX_RETAINED_BUFFER_SIZE} bytes.
+ */
+class AvroToJsonTranscoder {
+
+    private static final int INITIAL_BUFFER_SIZE = 1024;
+    private static final int MAX_RETAINED_BUFFER_SIZE = 64 * 1024;
+
+    private static final ThreadLocal<Buffers> BUFFERS = ThreadLocal.withInitial(Buffers::new);
+
+    private final Schema schemaWithoutMetadata;
+    private final List<Schema.Field> fields;
+
+    AvroToJsonTranscoder(Schema schema) {
+        this.schemaWithoutMetadata = removeMetadataField(schema);
+        this.fields = schema.getFields();
+    }
+
+    byte[] transcode(byte[] data) {
+        Buffers buffers = BUFFERS.get();
+        try {
+            buffers.decoder = DecoderFactory.get().binaryDecoder(data, buffers.decoder);
+            buffers.output.reset();
+            NoWrappingJsonEncoder encoder = new NoWrappingJsonEncoder(schemaWithoutMetadata, buffers.output);
+            for (Schema.Field field : fields) {
+                if (METADATA_MARKER.equals(field.name())) {
+                    GenericDatumReader.skip(field.schema(), buffers.decoder);
+                } else {
+                    copy(field.schema(), buffers.decoder, encoder);
+                }
+            }
+            encoder.flush();
+            return buffers.output.toByteArray();
+        } catch (IOException | RuntimeException e) {
+            throw new AvroConversionException("Failed to convert avro record to JSON.", e);
+        } finally {
+            buffers.releaseLargeOutput();
+        }
+    }
+
+    private static void copy(Schema schema, Decoder in, Encoder out) throws IOException {
+        switch (schema.getType()) {
+            case RECORD:
+                for (Schema.Field field : schema.getFields()) {
+                    copy(field.schema(), in, out);
+                }
+                break;
+            case ENUM:
+                out.writeEnum(in.readEnum());
+                break;
+            case ARRAY:
+                out.writeArrayStart();
+                for (long items = in.readArrayStart(); items > 0; items = in.arrayNext()) {
+                    out.setItemCount(items);
+                    for (long i = 0; i < items; i++) {
+                        out.startItem();
+                        copy(schema.getElementType(), in, out);
+                    }
+                }
+                out.writeArrayEnd();
+                break;
+            case MAP:
+                out.writeMapStart();
+                for (long entries = in.readMapStart(); entries > 0; entries = in.mapNext()) {
+                    out.setItemCount(entries);
+                    for (long i = 0; i < entries; i++) {
+                        out.startItem();
+                        out.writeString(in.readString(null));
+                        copy(schema.getValueType(), in, out);
+                    }
+                }
+                out.writeMapEnd();
+                break;
+            case UNION:
+                int index = in.readIndex();
+                out.writeIndex(index);
+                copy(schema.getTypes().get(index), in, out);
+                break;
+            case FIXED:
+                byte[] fixed = new byte[schema.getFixedSize()];
+                in.readFixed(fixed);
+                out.writeFixed(fixed);
+                break;
+            case STRING:
+                out.writeString(in.readString(null));
+                break;
+            case BYTES:
+                out.writeBytes(in.readBytes(null));
+                break;
+            case INT:
+                out.writeInt(in.readInt());
+                break;
+            case LONG:
+                out.writeLong(in.readLong());
+                break;
+            case FLOAT:
+                out.writeFloat(in.readFloat());
+                break;
+            case DOUBLE:
+                out.writeDouble(in.readDouble());
+                break;
+            case BOOLEAN:
+                out.writeBoolean(in.readBoolean());
+                break;
+            case NULL:
+                in.readNull();
+                out.writeNull();
+                break;
+            default:
+                throw new AvroConversionException("Unsupported avro type: " + schema.getType());
+        }
+    }
+
+    private static Schema removeMetadataField(Schema schema) {
+        return Schema.createRecord(
+                schema.getFields().stream()
+                        .filter(field -> !METADATA_MARKER.equals(field.name()))
+                        .map(field -> new Schema.Field(field.name(), field.schema(), field.doc(), field.defaultValue()))
+                        .collect(toList()));
+    }
+
+    private static class Buffers {
+        private ByteArrayOutputStream output = new ByteArrayOutputStream(INITIAL_BUFFER_SIZE);
+        private BinaryDecoder decoder;
+
+        // output never shrinks on reset, so buffer grown by a large message is dropped instead of being held by the thread
+        private void releaseLargeOutput() {
+            if (output.size() > MAX_RETAINED_BUFFER_SIZE) {
+                output = new ByteArrayOutputStream(INITIAL_BUFFER_SIZE);
+            }
+        }
+    }
+}
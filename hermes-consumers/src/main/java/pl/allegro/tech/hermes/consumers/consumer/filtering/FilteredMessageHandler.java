@@ -9,7 +9,6 @@ import pl.allegro.tech.hermes.common.metric.Meters;
 import pl.allegro.tech.hermes.consumers.consumer.Message;
 import pl.allegro.tech.hermes.consumers.consumer.filtering.chain.FilterResult;
 import pl.allegro.tech.hermes.consumers.consumer.offset.OffsetQueue;
-import pl.allegro.tech.hermes.consumers.consumer.offset.SubscriptionPartitionOffset;
 import pl.allegro.tech.hermes.consumers.consumer.rate.ConsumerRateLimiter;
 import pl.allegro.tech.hermes.tracker.consumers.Trackers;
 
@@ -40,7 +39,7 @@ public class FilteredMessageHandler {
                 logger.debug("Message filtered for subscription {} {}", subscription.getQualifiedName(), result);
             }
 
-            offsetQueue.offerCommittedOffset(SubscriptionPartitionOffset.subscriptionPartitionOffset(message, subscription));
+            offsetQueue.offerCommittedOffset(subscription.getQualifiedName(), message.getPartitionOffset());
 
             updateMetrics(message, subscription);
 
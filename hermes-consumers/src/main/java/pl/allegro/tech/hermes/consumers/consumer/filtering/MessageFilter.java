@@ -19,6 +19,13 @@ public class MessageFilter implements Predicate<Message> {
         return predicate.test(message);
     }
 
+    public boolean test(ParsedMessage message) {
+        if (predicate instanceof ParsedMessagePredicate) {
+            return ((ParsedMessagePredicate) predicate).test(message);
+        }
+        return test(message.getMessage());
+    }
+
     public String getType() {
         return type;
     }
@@ -0,0 +1,38 @@
+package pl.allegro.tech.hermes.consumers.consumer.filtering;
+
+import com.jayway.jsonpath.Configuration;
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.JsonPath;
+import com.jayway.jsonpath.spi.json.JsonProvider;
+import pl.allegro.tech.hermes.consumers.consumer.Message;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Message passed through a filter chain, together with JSON document parsed out of its content. The document is parsed
+ * on first request and shared by all following filters of the chain, so a message is parsed once no matter how many
+ * JSON filters read it. It is used by a single thread at a time, for the duration of one chain run.
+ */
+public class ParsedMessage {
+
+    private final Message message;
+
+    private JsonProvider jsonProvider;
+    private Object json;
+
+    public ParsedMessage(Message message) {
+        this.message = message;
+    }
+
+    public Message getMessage() {
+        return message;
+    }
+
+    public DocumentContext json(Configuration configuration) {
+        if (json == null || jsonProvider != configuration.jsonProvider()) {
+            json = configuration.jsonProvider().parse(message.getContent().asInputStream(), UTF_8.name());
+            jsonProvider = configuration.jsonProvider();
+        }
+        return JsonPath.parse(json, configuration);
+    }
+}
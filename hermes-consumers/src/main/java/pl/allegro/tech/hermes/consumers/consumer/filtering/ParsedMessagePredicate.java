@@ -0,0 +1,18 @@
+package pl.allegro.tech.hermes.consumers.consumer.filtering;
+
+import pl.allegro.tech.hermes.consumers.consumer.Message;
+
+import java.util.function.Predicate;
+
+/**
+ * Predicate reading JSON document parsed out of message content, which it shares with other filters of the chain.
+ */
+public interface ParsedMessagePredicate extends Predicate<Message> {
+
+    boolean test(ParsedMessage message);
+
+    @Override
+    default boolean test(Message message) {
+        return test(new ParsedMessage(message));
+    }
+}
@@ -1,7 +1,9 @@
 package pl.allegro.tech.hermes.consumers.consumer.filtering.avro;
 
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import org.apache.avro.Schema;
-import org.apache.avro.generic.GenericRecord;
 import pl.allegro.tech.hermes.api.ContentType;
 import pl.allegro.tech.hermes.consumers.consumer.Message;
 import pl.allegro.tech.hermes.consumers.consumer.filtering.FilteringException;
@@ -9,23 +11,29 @@ import pl.allegro.tech.hermes.schema.CompiledSchema;
 
 import java.io.IOException;
 import java.util.Arrays;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Predicate;
 import java.util.regex.Pattern;
 
-import static java.util.Optional.empty;
 import static org.apache.commons.lang.StringUtils.strip;
-import static pl.allegro.tech.hermes.common.message.converter.AvroRecordToBytesConverter.bytesToRecord;
 import static pl.allegro.tech.hermes.consumers.consumer.filtering.FilteringException.check;
 
 public class AvroPathPredicate implements Predicate<Message> {
-    private static final String NULL_AS_STRING = "null";
     private List<String> path;
     private Pattern pattern;
 
+    // projections are planned once per schema version, weak keys compare schemas by identity
+    private final LoadingCache<Schema, AvroPathProjection> projections = CacheBuilder.newBuilder()
+            .weakKeys()
+            .build(new CacheLoader<Schema, AvroPathProjection>() {
+                @Override
+                public AvroPathProjection load(Schema schema) {
+                    return AvroPathProjection.compile(schema, path);
+                }
+            });
+
     public AvroPathPredicate(String path, Pattern pattern) {
         this.path = Arrays.asList(strip(path, ".").split("\\."));
         this.pattern = pattern;
@@ -43,23 +51,7 @@ public class AvroPathPredicate implements Predicate<Message> {
 
     private Optional<Object> select(final Message message) throws IOException {
         CompiledSchema<Schema> compiledSchema = message.<Schema>getSchema().get();
-        return select(bytesToRecord(message.getData(), compiledSchema.getSchema()));
-    }
-
-    private Optional<Object> select(GenericRecord record) {
-        Object current = record;
-        Iterator<String> iter = path.iterator();
-        while (iter.hasNext()) {
-            String selector = iter.next();
-            current = ((GenericRecord) current).get(selector);
-            if (!(current instanceof GenericRecord)) {
-                if (current == null) {
-                    current = NULL_AS_STRING;
-                }
-                break;
-            }
-        }
-        return iter.hasNext() ? empty() : Optional.ofNullable(current);
+        return projections.getUnchecked(compiledSchema.getSchema()).select(message.getData());
     }
 
     private boolean matches(Object value) {
@@ -0,0 +1,95 @@
+package pl.allegro.tech.hermes.consumers.consumer.filtering.avro;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.io.Decoder;
+import org.apache.avro.io.DecoderFactory;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+
+import static java.util.Optional.empty;
+
+/**
+ * Reads value under avro path straight from binary encoding of a record. Plan for given writer schema lists fields
+ * preceding each step of the path, which are skipped without being decoded, so only the selected value is
+ * materialized. Selected values are the same as in a fully decoded record: null is selected as {@code "null"} string
+ * and nothing is selected when path goes on past a value which is not a record.
+ */
+public class AvroPathProjection {
+
+    private static final String NULL_AS_STRING = "null";
+    private static final Object NULL_VALUE = new Object();
+
+    private final Target root;
+
+    private AvroPathProjection(Target root) {
+        this.root = root;
+    }
+
+    public static AvroPathProjection compile(Schema schema, List<String> path) {
+        return new AvroPathProjection(target(schema, path));
+    }
+
+    public Optional<Object> select(byte[] data) throws IOException {
+        return read(data).map(value -> value == NULL_VALUE ? NULL_AS_STRING : value);
+    }
+
+    /**
+     * Same as {@link #select(byte[])}, but selects nothing instead of null.
+     */
+    public Optional<Object> selectNonNull(byte[] data) throws IOException {
+        return read(data).filter(value -> value != NULL_VALUE);
+    }
+
+    private Optional<Object> read(byte[] data) throws IOException {
+        return root.read(DecoderFactory.get().binaryDecoder(data, null));
+    }
+
+    private static Target target(Schema schema, List<String> remainingPath) {
+        switch (schema.getType()) {
+            case NULL:
+                return decoder -> {
+                    decoder.readNull();
+                    return remainingPath.isEmpty() ? Optional.of(NULL_VALUE) : empty();
+                };
+            case UNION:
+                Target[] branches = schema.getTypes().stream()
+                        .map(branch -> target(branch, remainingPath))
+                        .toArray(Target[]::new);
+                return decoder -> branches[decoder.readIndex()].read(decoder);
+            case RECORD:
+                return remainingPath.isEmpty() ? value(schema) : field(schema, remainingPath);
+            default:
+                return remainingPath.isEmpty() ? value(schema) : decoder -> empty();
+        }
+    }
+
+    private static Target field(Schema record, List<String> path) {
+        Schema.Field field = record.getField(path.get(0));
+        List<String> remainingPath = path.subList(1, path.size());
+        if (field == null) {
+            return decoder -> remainingPath.isEmpty() ? Optional.of(NULL_VALUE) : empty();
+        }
+        Schema[] skipped = record.getFields().subList(0, field.pos()).stream()
+                .map(Schema.Field::schema)
+                .toArray(Schema[]::new);
+        Target target = target(field.schema(), remainingPath);
+        return decoder -> {
+            for (Schema schema : skipped) {
+                GenericDatumReader.skip(schema, decoder);
+            }
+            return target.read(decoder);
+        };
+    }
+
+    private static Target value(Schema schema) {
+        GenericDatumReader<Object> reader = new GenericDatumReader<>(schema);
+        return decoder -> Optional.ofNullable(reader.read(null, decoder));
+    }
+
+    private interface Target {
+        Optional<Object> read(Decoder decoder) throws IOException;
+    }
+}
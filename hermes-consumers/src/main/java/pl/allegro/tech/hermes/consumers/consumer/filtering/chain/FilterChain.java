@@ -2,6 +2,7 @@ package pl.allegro.tech.hermes.consumers.consumer.filtering.chain;
 
 import pl.allegro.tech.hermes.consumers.consumer.Message;
 import pl.allegro.tech.hermes.consumers.consumer.filtering.MessageFilter;
+import pl.allegro.tech.hermes.consumers.consumer.filtering.ParsedMessage;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -14,9 +15,10 @@ public final class FilterChain {
     }
 
     public FilterResult apply(final Message message) {
+        ParsedMessage parsedMessage = new ParsedMessage(message);
         for (MessageFilter filter : messageFilters) {
             try {
-                if (!filter.test(message)) {
+                if (!filter.test(parsedMessage)) {
                     return FilterResult.failed(filter.getType(), "logical");
                 }
             } catch (Exception ex) {
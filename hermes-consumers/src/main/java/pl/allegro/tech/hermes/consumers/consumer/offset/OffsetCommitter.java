@@ -1,8 +1,6 @@
 package pl.allegro.tech.hermes.consumers.consumer.offset;
 
 import com.codahale.metrics.Timer;
-import com.google.common.collect.Sets;
-import org.jctools.queues.MessagePassingQueue;
 import org.jctools.queues.MpscArrayQueue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -10,16 +8,12 @@ import pl.allegro.tech.hermes.api.SubscriptionName;
 import pl.allegro.tech.hermes.common.metric.HermesMetrics;
 import pl.allegro.tech.hermes.consumers.consumer.receiver.MessageCommitter;
 
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.HashSet;
-import java.util.Iterator;
-import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
-import java.util.function.BiFunction;
-import java.util.function.Function;
 
 /**
  * Note on algorithm used to calculate offsets to actually commit.
@@ -36,18 +30,16 @@ import java.util.function.Function;
  * * inflightOffsets: message offsets that are currently being sent (inflight)
  * * committedOffsets: message offsets that are ready to get committed
  * <p>
- * This committer class holds internal state in form of inflightOffsets and failedToCommitOffsets set.
- * inlfightOffsets are all offsets that are currently in inflight state.
- * failedToCommitOffsets are offsets that could not be committed in previous algorithm iteration
+ * This committer class holds internal state in form of inflight offsets of every subscription partition, kept in
+ * {@link PartitionOffsets} indexed by partition id assigned in {@link OffsetQueue}. Offsets are tracked as primitive
+ * longs, so running the algorithm does not allocate per message.
  * <p>
  * In scheduled periods, commit algorithm is run. It has three phases. First one is draining the queues and performing
  * reductions:
- * * drain committedOffsets queue to collection - it needs to be done before draining inflights, so this collection
- * will not grow anymore, resulting in having inflights unmatched by commits; commits are incremented by 1 to match
- * Kafka commit definition
- * * add all previously uncommitted offsets from failedToCommitOffsets collection to committedOffsets and clear
- * failedToCommitOffsets collection
- * * drain inflightOffset
+ * * drain committedOffsets queue to partition collections - it needs to be done before draining inflights, so these
+ * collections will not grow anymore, resulting in having inflights unmatched by commits; maximal committed offset is
+ * incremented by 1 to match Kafka commit definition
+ * * drain inflightOffsets and remove the ones which were committed
  * <p>
  * Second phase is calculating the offsets:
  * <p>
@@ -74,7 +66,13 @@ public class OffsetCommitter implements Runnable {
 
     private final HermesMetrics metrics;
 
-    private final Set<SubscriptionPartitionOffset> inflightOffsets = new HashSet<>();
+    private final PartitionOffsetConsumer committedOffsetsConsumer = (partitionId, offset) ->
+            partitionOffsets(partitionId).addCommitted(offset);
+
+    private final PartitionOffsetConsumer inflightOffsetsConsumer = (partitionId, offset) ->
+            partitionOffsets(partitionId).addInflight(offset);
+
+    private PartitionOffsets[] offsetsByPartitionId = new PartitionOffsets[16];
 
     private final MpscArrayQueue<SubscriptionName> subscriptionsToCleanup = new MpscArrayQueue<>(1000);
 
@@ -95,22 +93,20 @@ public class OffsetCommitter implements Runnable {
         try (Timer.Context c = metrics.timer("offset-committer.duration").time()) {
             // committed offsets need to be drained first so that there is no possibility of new committed offsets
             // showing up after inflight queue is drained - this would lead to stall in committing offsets
-            ReducingConsumer committedOffsetsReducer = processCommittedOffsets();
-            Map<SubscriptionPartition, Long> maxCommittedOffsets = committedOffsetsReducer.reduced;
-
-            ReducingConsumer inflightOffsetReducer = processInflightOffsets(committedOffsetsReducer.all);
-            Map<SubscriptionPartition, Long> minInflightOffsets = inflightOffsetReducer.reduced;
+            offsetQueue.drainCommittedOffsets(committedOffsetsConsumer);
+            offsetQueue.drainInflightOffsets(inflightOffsetsConsumer);
 
             int scheduledToCommit = 0;
             OffsetsToCommit offsetsToCommit = new OffsetsToCommit();
-            for (SubscriptionPartition partition : Sets.union(minInflightOffsets.keySet(), maxCommittedOffsets.keySet())) {
-                long offset = Math.min(
-                        minInflightOffsets.getOrDefault(partition, Long.MAX_VALUE),
-                        maxCommittedOffsets.getOrDefault(partition, Long.MAX_VALUE)
-                );
+            for (int partitionId = 0; partitionId < offsetsByPartitionId.length; partitionId++) {
+                PartitionOffsets partitionOffsets = offsetsByPartitionId[partitionId];
+                if (partitionOffsets == null) {
+                    continue;
+                }
+                long offset = partitionOffsets.offsetToCommit();
                 if (offset >= 0 && offset < Long.MAX_VALUE) {
                     scheduledToCommit++;
-                    offsetsToCommit.add(new SubscriptionPartitionOffset(partition, offset));
+                    offsetsToCommit.add(new SubscriptionPartitionOffset(offsetQueue.subscriptionPartition(partitionId), offset));
                 }
             }
 
@@ -124,30 +120,16 @@ public class OffsetCommitter implements Runnable {
         }
     }
 
-    private ReducingConsumer processCommittedOffsets() {
-        ReducingConsumer committedOffsetsReducer = new ReducingConsumer(Math::max, c -> c + 1);
-        offsetQueue.drainCommittedOffsets(committedOffsetsReducer);
-        committedOffsetsReducer.resetModifierFunction();
-        return committedOffsetsReducer;
-    }
-
-    private ReducingConsumer processInflightOffsets(Set<SubscriptionPartitionOffset> committedOffsets) {
-        ReducingConsumer inflightOffsetReducer = new ReducingConsumer(Math::min);
-        offsetQueue.drainInflightOffsets(o -> reduceIfNotCommitted(o, inflightOffsetReducer, committedOffsets));
-        inflightOffsets.forEach(o -> reduceIfNotCommitted(o, inflightOffsetReducer, committedOffsets));
-
-        inflightOffsets.clear();
-        inflightOffsets.addAll(inflightOffsetReducer.all);
-
-        return inflightOffsetReducer;
-    }
-
-    private void reduceIfNotCommitted(SubscriptionPartitionOffset offset,
-                                      ReducingConsumer inflightOffsetReducer,
-                                      Set<SubscriptionPartitionOffset> committedOffsets) {
-        if (!committedOffsets.contains(offset)) {
-            inflightOffsetReducer.accept(offset);
+    private PartitionOffsets partitionOffsets(int partitionId) {
+        if (partitionId >= offsetsByPartitionId.length) {
+            offsetsByPartitionId = Arrays.copyOf(offsetsByPartitionId, Math.max(partitionId + 1, offsetsByPartitionId.length * 2));
+        }
+        PartitionOffsets partitionOffsets = offsetsByPartitionId[partitionId];
+        if (partitionOffsets == null) {
+            partitionOffsets = new PartitionOffsets();
+            offsetsByPartitionId[partitionId] = partitionOffsets;
         }
+        return partitionOffsets;
     }
 
     public void removeUncommittedOffsets(SubscriptionName subscriptionName) {
@@ -157,9 +139,14 @@ public class OffsetCommitter implements Runnable {
     private void cleanupUnusedSubscriptions() {
         Set<SubscriptionName> subscriptionNames = new HashSet<>();
         subscriptionsToCleanup.drain(subscriptionNames::add);
-        for (Iterator<SubscriptionPartitionOffset> iterator = inflightOffsets.iterator(); iterator.hasNext(); ) {
-            if (subscriptionNames.contains(iterator.next().getSubscriptionName())) {
-                iterator.remove();
+        if (subscriptionNames.isEmpty()) {
+            return;
+        }
+        for (int partitionId = 0; partitionId < offsetsByPartitionId.length; partitionId++) {
+            PartitionOffsets partitionOffsets = offsetsByPartitionId[partitionId];
+            if (partitionOffsets != null
+                    && subscriptionNames.contains(offsetQueue.subscriptionPartition(partitionId).getSubscriptionName())) {
+                partitionOffsets.clearInflight();
             }
         }
     }
@@ -175,36 +162,4 @@ public class OffsetCommitter implements Runnable {
     public void shutdown() {
         scheduledExecutor.shutdown();
     }
-
-    private static final class ReducingConsumer implements MessagePassingQueue.Consumer<SubscriptionPartitionOffset> {
-        private final BiFunction<Long, Long, Long> reductor;
-        private Function<Long, Long> modifier;
-        private final Map<SubscriptionPartition, Long> reduced = new HashMap<>();
-        private final Set<SubscriptionPartitionOffset> all = new HashSet<>();
-
-        private ReducingConsumer(BiFunction<Long, Long, Long> reductor, Function<Long, Long> offsetModifier) {
-            this.reductor = reductor;
-            this.modifier = offsetModifier;
-        }
-
-        private ReducingConsumer(BiFunction<Long, Long, Long> reductor) {
-            this(reductor, Function.identity());
-        }
-
-        private void resetModifierFunction() {
-            this.modifier = Function.identity();
-        }
-
-        @Override
-        public void accept(SubscriptionPartitionOffset p) {
-            all.add(p);
-            reduced.compute(
-                    p.getSubscriptionPartition(),
-                    (k, v) -> {
-                        long offset = modifier.apply(p.getOffset());
-                        return v == null ? offset : reductor.apply(v, offset);
-                    }
-            );
-        }
-    }
 }
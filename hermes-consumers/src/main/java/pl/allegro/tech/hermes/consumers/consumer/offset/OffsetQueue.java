@@ -1,40 +1,66 @@
 package pl.allegro.tech.hermes.consumers.consumer.offset;
 
-import org.jctools.queues.MessagePassingQueue;
+import pl.allegro.tech.hermes.api.SubscriptionName;
 import pl.allegro.tech.hermes.common.config.ConfigFactory;
 import pl.allegro.tech.hermes.common.config.Configs;
+import pl.allegro.tech.hermes.common.kafka.KafkaTopicName;
+import pl.allegro.tech.hermes.common.kafka.offset.PartitionOffset;
 import pl.allegro.tech.hermes.common.metric.HermesMetrics;
-import pl.allegro.tech.hermes.consumers.queue.MonitoredMpscQueue;
 
 import javax.inject.Inject;
 
+/**
+ * Passes offsets of sent and delivered messages to {@link OffsetCommitter} as primitive (partition id, offset) pairs.
+ * Partition ids are assigned on first use and resolved back with {@link #subscriptionPartition(int)}.
+ */
 public class OffsetQueue {
 
-    private final MonitoredMpscQueue<SubscriptionPartitionOffset> inflightOffsetsQueue;
+    private final SubscriptionPartitionIds partitionIds = new SubscriptionPartitionIds();
 
-    private final MonitoredMpscQueue<SubscriptionPartitionOffset> commitOffsetsQueue;
+    private final PartitionOffsetQueue inflightOffsetsQueue;
+
+    private final PartitionOffsetQueue commitOffsetsQueue;
 
     @Inject
     public OffsetQueue(HermesMetrics metrics, ConfigFactory configFactory) {
         int queueSize = configFactory.getIntProperty(Configs.CONSUMER_COMMIT_OFFSET_QUEUES_SIZE);
 
-        this.inflightOffsetsQueue = new MonitoredMpscQueue<>(metrics, "inflightOffsets", queueSize);
-        this.commitOffsetsQueue = new MonitoredMpscQueue<>(metrics, "committedOffsets", queueSize);
+        this.inflightOffsetsQueue = new PartitionOffsetQueue(metrics, "inflightOffsets", queueSize);
+        this.commitOffsetsQueue = new PartitionOffsetQueue(metrics, "committedOffsets", queueSize);
+    }
+
+    public void offerInflightOffset(SubscriptionName subscriptionName, PartitionOffset offset) {
+        offer(inflightOffsetsQueue, offset.getTopic(), subscriptionName, offset.getPartition(), offset.getOffset());
+    }
+
+    public void offerCommittedOffset(SubscriptionName subscriptionName, PartitionOffset offset) {
+        offer(commitOffsetsQueue, offset.getTopic(), subscriptionName, offset.getPartition(), offset.getOffset());
     }
 
     public void offerInflightOffset(SubscriptionPartitionOffset offset) {
-        inflightOffsetsQueue.offer(offset);
+        offer(inflightOffsetsQueue, offset.getKafkaTopicName(), offset.getSubscriptionName(), offset.getPartition(),
+                offset.getOffset());
     }
 
     public void offerCommittedOffset(SubscriptionPartitionOffset offset) {
-        commitOffsetsQueue.offer(offset);
+        offer(commitOffsetsQueue, offset.getKafkaTopicName(), offset.getSubscriptionName(), offset.getPartition(),
+                offset.getOffset());
     }
 
-    public void drainInflightOffsets(MessagePassingQueue.Consumer<SubscriptionPartitionOffset> consumer) {
+    public void drainInflightOffsets(PartitionOffsetConsumer consumer) {
         inflightOffsetsQueue.drain(consumer);
     }
 
-    public void drainCommittedOffsets(MessagePassingQueue.Consumer<SubscriptionPartitionOffset> consumer) {
+    public void drainCommittedOffsets(PartitionOffsetConsumer consumer) {
         commitOffsetsQueue.drain(consumer);
     }
+
+    public SubscriptionPartition subscriptionPartition(int partitionId) {
+        return partitionIds.partition(partitionId);
+    }
+
+    private void offer(PartitionOffsetQueue queue, KafkaTopicName kafkaTopicName, SubscriptionName subscriptionName,
+                       int partition, long offset) {
+        queue.offer(partitionIds.idOf(kafkaTopicName, subscriptionName, partition), offset);
+    }
 }
@@ -0,0 +1,7 @@
+package pl.allegro.tech.hermes.consumers.consumer.offset;
+
+@FunctionalInterface
+public interface PartitionOffsetConsumer {
+
+    void accept(int partitionId, long offset);
+}
@@ -0,0 +1,93 @@
+package pl.allegro.tech.hermes.consumers.consumer.offset;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pl.allegro.tech.hermes.common.metric.HermesMetrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded multi-producer single-consumer queue of (partition id, offset) pairs, kept in primitive arrays so that
+ * reporting an offset allocates nothing. Every slot has a sequence number which tells whether it is free for
+ * the producer claiming given index or filled for the consumer expecting it.
+ */
+class PartitionOffsetQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(PartitionOffsetQueue.class);
+
+    private final int capacity;
+    private final int mask;
+
+    private final int[] partitionIds;
+    private final long[] offsets;
+    private final AtomicLongArray sequences;
+
+    private final AtomicLong producerIndex = new AtomicLong();
+    private volatile long consumerIndex;
+
+    private final String name;
+    private final HermesMetrics metrics;
+
+    PartitionOffsetQueue(HermesMetrics metrics, String name, int capacity) {
+        this.capacity = powerOfTwoNotLessThan(capacity);
+        this.mask = this.capacity - 1;
+        this.partitionIds = new int[this.capacity];
+        this.offsets = new long[this.capacity];
+        this.sequences = new AtomicLongArray(this.capacity);
+        for (int i = 0; i < this.capacity; i++) {
+            sequences.lazySet(i, i);
+        }
+        this.name = name;
+        this.metrics = metrics;
+        metrics.registerGauge("queue." + name + ".utilization", () -> size() / this.capacity);
+    }
+
+    boolean offer(int partitionId, long offset) {
+        while (true) {
+            long index = producerIndex.get();
+            int slot = (int) (index & mask);
+            long sequence = sequences.get(slot);
+            if (sequence == index) {
+                if (producerIndex.compareAndSet(index, index + 1)) {
+                    partitionIds[slot] = partitionId;
+                    offsets[slot] = offset;
+                    sequences.lazySet(slot, index + 1);
+                    return true;
+                }
+            } else if (sequence < index) {
+                metrics.counter("queue." + name + ".failures").inc();
+                logger.error("[Queue: {}] Unable to add item: queue is full. Offered item: partition {} offset {}",
+                        name, partitionId, offset);
+                return false;
+            }
+        }
+    }
+
+    void drain(PartitionOffsetConsumer consumer) {
+        long index = consumerIndex;
+        try {
+            while (true) {
+                int slot = (int) (index & mask);
+                if (sequences.get(slot) != index + 1) {
+                    break;
+                }
+                int partitionId = partitionIds[slot];
+                long offset = offsets[slot];
+                sequences.lazySet(slot, index + capacity);
+                index++;
+                consumer.accept(partitionId, offset);
+            }
+        } finally {
+            consumerIndex = index;
+        }
+    }
+
+    int size() {
+        return (int) Math.max(0, Math.min(capacity, producerIndex.get() - consumerIndex));
+    }
+
+    private static int powerOfTwoNotLessThan(int value) {
+        return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+}
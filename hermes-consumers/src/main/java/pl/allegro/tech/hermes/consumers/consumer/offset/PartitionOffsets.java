@@ -0,0 +1,125 @@
+package pl.allegro.tech.hermes.consumers.consumer.offset;
+
+import java.util.Arrays;
+
+/**
+ * Offsets of a single subscription partition tracked by {@link OffsetCommitter}: inflight offsets kept in an open
+ * addressing hash set of longs and committed offsets reported since the last commit. Arrays are reused between
+ * commits, so tracking does not allocate once they are large enough.
+ */
+class PartitionOffsets {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private long[] inflight = emptyTable(INITIAL_CAPACITY);
+    private int inflightCount;
+
+    private long[] committed = new long[INITIAL_CAPACITY];
+    private int committedCount;
+    private long maxCommitted = EMPTY;
+
+    void addInflight(long offset) {
+        if (inflightCount * 2 >= inflight.length) {
+            resize(inflight.length * 2);
+        }
+        int mask = inflight.length - 1;
+        int slot = slot(offset, mask);
+        while (inflight[slot] != EMPTY) {
+            if (inflight[slot] == offset) {
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        inflight[slot] = offset;
+        inflightCount++;
+    }
+
+    void addCommitted(long offset) {
+        if (committedCount == committed.length) {
+            committed = Arrays.copyOf(committed, committed.length * 2);
+        }
+        committed[committedCount++] = offset;
+        maxCommitted = Math.max(maxCommitted, offset);
+    }
+
+    /**
+     * Removes committed offsets from inflight ones and returns offset to commit in Kafka way: the smallest inflight
+     * offset or the largest committed offset incremented by 1, whichever is smaller; {@code Long.MAX_VALUE} when
+     * there is nothing to commit.
+     */
+    long offsetToCommit() {
+        for (int i = 0; i < committedCount; i++) {
+            removeInflight(committed[i]);
+        }
+        long maxCommittedIncremented = maxCommitted == EMPTY ? Long.MAX_VALUE : maxCommitted + 1;
+        committedCount = 0;
+        maxCommitted = EMPTY;
+        return Math.min(minInflight(), maxCommittedIncremented);
+    }
+
+    void clearInflight() {
+        inflight = emptyTable(INITIAL_CAPACITY);
+        inflightCount = 0;
+    }
+
+    private long minInflight() {
+        long min = Long.MAX_VALUE;
+        if (inflightCount > 0) {
+            for (long offset : inflight) {
+                if (offset != EMPTY && offset < min) {
+                    min = offset;
+                }
+            }
+        }
+        return min;
+    }
+
+    private void removeInflight(long offset) {
+        int mask = inflight.length - 1;
+        int slot = slot(offset, mask);
+        while (inflight[slot] != offset) {
+            if (inflight[slot] == EMPTY) {
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        inflight[slot] = EMPTY;
+        inflightCount--;
+
+        // shift following entries of the probe sequence back, so that lookups never stop at the freed slot
+        int free = slot;
+        slot = (slot + 1) & mask;
+        while (inflight[slot] != EMPTY) {
+            int home = slot(inflight[slot], mask);
+            if (((slot - home) & mask) >= ((slot - free) & mask)) {
+                inflight[free] = inflight[slot];
+                inflight[slot] = EMPTY;
+                free = slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private void resize(int capacity) {
+        long[] previous = inflight;
+        inflight = emptyTable(capacity);
+        inflightCount = 0;
+        for (long offset : previous) {
+            if (offset != EMPTY) {
+                addInflight(offset);
+            }
+        }
+    }
+
+    private static int slot(long offset, int mask) {
+        long hash = offset * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private static long[] emptyTable(int capacity) {
+        long[] table = new long[capacity];
+        Arrays.fill(table, EMPTY);
+        return table;
+    }
+}
@@ -45,18 +45,20 @@ public class SubscriptionPartition {
         if (o == null || getClass() != o.getClass()) return false;
         SubscriptionPartition that = (SubscriptionPartition) o;
         return partition == that.partition &&
+                Objects.equals(kafkaTopicName, that.kafkaTopicName) &&
                 Objects.equals(subscription, that.subscription);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(subscription, partition);
+        return Objects.hash(kafkaTopicName, subscription, partition);
     }
 
     @Override
     public String toString() {
         return "SubscriptionPartition{" +
-                "subscription=" + subscription +
+                "kafkaTopicName=" + kafkaTopicName +
+                ", subscription=" + subscription +
                 ", partition=" + partition +
                 '}';
     }
@@ -0,0 +1,73 @@
+package pl.allegro.tech.hermes.consumers.consumer.offset;
+
+import pl.allegro.tech.hermes.api.SubscriptionName;
+import pl.allegro.tech.hermes.common.kafka.KafkaTopicName;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Interns subscription partitions as consecutive ints, so that offsets can be passed around and tracked as primitive
+ * pairs. Partitions are identified the same way as {@link SubscriptionPartition#equals(Object)} does, by Kafka topic,
+ * subscription and partition number, so primary and secondary Kafka topics of a topic get separate ids. Looking up an
+ * id which is already assigned takes no locks and allocates nothing.
+ */
+class SubscriptionPartitionIds {
+
+    private static final int NO_ID = -1;
+
+    private final ConcurrentMap<SubscriptionName, ConcurrentMap<KafkaTopicName, PartitionIds>> bySubscription =
+            new ConcurrentHashMap<>();
+
+    private volatile SubscriptionPartition[] partitions = new SubscriptionPartition[16];
+
+    private int count;
+
+    int idOf(KafkaTopicName kafkaTopicName, SubscriptionName subscriptionName, int partition) {
+        ConcurrentMap<KafkaTopicName, PartitionIds> byKafkaTopic = bySubscription.get(subscriptionName);
+        PartitionIds ids = byKafkaTopic == null ? null : byKafkaTopic.get(kafkaTopicName);
+        int id = ids == null ? NO_ID : ids.get(partition);
+        return id == NO_ID ? register(kafkaTopicName, subscriptionName, partition) : id;
+    }
+
+    SubscriptionPartition partition(int id) {
+        return partitions[id];
+    }
+
+    private synchronized int register(KafkaTopicName kafkaTopicName, SubscriptionName subscriptionName, int partition) {
+        PartitionIds ids = bySubscription.computeIfAbsent(subscriptionName, name -> new ConcurrentHashMap<>())
+                .computeIfAbsent(kafkaTopicName, name -> new PartitionIds());
+        int id = ids.get(partition);
+        if (id != NO_ID) {
+            return id;
+        }
+        id = count++;
+        SubscriptionPartition[] current = partitions;
+        SubscriptionPartition[] updated = id < current.length ? current : Arrays.copyOf(current, current.length * 2);
+        updated[id] = new SubscriptionPartition(kafkaTopicName, subscriptionName, partition);
+        partitions = updated;
+        ids.set(partition, id);
+        return id;
+    }
+
+    private static class PartitionIds {
+
+        private volatile int[] ids = new int[0];
+
+        int get(int partition) {
+            int[] current = ids;
+            return partition < current.length ? current[partition] : NO_ID;
+        }
+
+        void set(int partition, int id) {
+            int[] current = ids;
+            if (partition >= current.length) {
+                current = Arrays.copyOf(current, partition + 1);
+                Arrays.fill(current, ids.length, current.length, NO_ID);
+            }
+            current[partition] = id;
+            ids = current;
+        }
+    }
+}
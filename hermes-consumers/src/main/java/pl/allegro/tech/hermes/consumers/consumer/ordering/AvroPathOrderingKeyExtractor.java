@@ -0,0 +1,52 @@
+package pl.allegro.tech.hermes.consumers.consumer.ordering;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import org.apache.avro.AvroRuntimeException;
+import org.apache.avro.Schema;
+import pl.allegro.tech.hermes.api.ContentType;
+import pl.allegro.tech.hermes.consumers.consumer.Message;
+import pl.allegro.tech.hermes.consumers.consumer.filtering.avro.AvroPathProjection;
+import pl.allegro.tech.hermes.schema.CompiledSchema;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.apache.commons.lang.StringUtils.strip;
+
+class AvroPathOrderingKeyExtractor implements OrderingKeyExtractor {
+
+    private final List<String> path;
+
+    // projections are planned once per schema version, weak keys compare schemas by identity
+    private final LoadingCache<Schema, AvroPathProjection> projections = CacheBuilder.newBuilder()
+            .weakKeys()
+            .build(new CacheLoader<Schema, AvroPathProjection>() {
+                @Override
+                public AvroPathProjection load(Schema schema) {
+                    return AvroPathProjection.compile(schema, path);
+                }
+            });
+
+    AvroPathOrderingKeyExtractor(String path) {
+        this.path = Arrays.asList(strip(path, ".").split("\\."));
+    }
+
+    @Override
+    public Optional<String> extract(Message message) {
+        Optional<CompiledSchema<Schema>> schema = message.getSchema();
+        if (message.getContentType() != ContentType.AVRO || !schema.isPresent()) {
+            return Optional.empty();
+        }
+        try {
+            return projections.getUnchecked(schema.get().getSchema())
+                    .selectNonNull(message.getData())
+                    .map(Object::toString);
+        } catch (IOException | AvroRuntimeException e) {
+            return Optional.empty();
+        }
+    }
+}
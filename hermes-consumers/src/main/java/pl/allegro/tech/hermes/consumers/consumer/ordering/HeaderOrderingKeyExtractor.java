@@ -0,0 +1,23 @@
+package pl.allegro.tech.hermes.consumers.consumer.ordering;
+
+import pl.allegro.tech.hermes.consumers.consumer.Message;
+
+import java.util.Optional;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Strings.isNullOrEmpty;
+
+class HeaderOrderingKeyExtractor implements OrderingKeyExtractor {
+
+    private final String header;
+
+    HeaderOrderingKeyExtractor(String header) {
+        checkArgument(!isNullOrEmpty(header), "Header ordering key requires header name");
+        this.header = header;
+    }
+
+    @Override
+    public Optional<String> extract(Message message) {
+        return Optional.ofNullable(message.getExternalMetadata().get(header));
+    }
+}
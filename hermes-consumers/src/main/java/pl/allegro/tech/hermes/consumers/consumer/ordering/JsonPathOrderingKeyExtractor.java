@@ -0,0 +1,31 @@
+package pl.allegro.tech.hermes.consumers.consumer.ordering;
+
+import com.jayway.jsonpath.Configuration;
+import com.jayway.jsonpath.JsonPath;
+import com.jayway.jsonpath.Option;
+import pl.allegro.tech.hermes.api.ContentType;
+import pl.allegro.tech.hermes.consumers.consumer.Message;
+
+import java.util.Optional;
+
+import static com.jayway.jsonpath.Configuration.defaultConfiguration;
+
+class JsonPathOrderingKeyExtractor implements OrderingKeyExtractor {
+
+    private static final Configuration CONFIGURATION = defaultConfiguration().addOptions(Option.SUPPRESS_EXCEPTIONS);
+
+    private final JsonPath path;
+
+    JsonPathOrderingKeyExtractor(String path) {
+        this.path = JsonPath.compile(path);
+    }
+
+    @Override
+    public Optional<String> extract(Message message) {
+        if (message.getContentType() != ContentType.JSON) {
+            return Optional.empty();
+        }
+        Object key = JsonPath.parse(message.getContent().asInputStream(), CONFIGURATION).read(path);
+        return Optional.ofNullable(key).map(Object::toString);
+    }
+}
@@ -0,0 +1,129 @@
+package pl.allegro.tech.hermes.consumers.consumer.ordering;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pl.allegro.tech.hermes.api.OrderingKey;
+import pl.allegro.tech.hermes.api.Subscription;
+import pl.allegro.tech.hermes.consumers.consumer.ConsumerMessageSender;
+import pl.allegro.tech.hermes.consumers.consumer.Message;
+import pl.allegro.tech.hermes.consumers.consumer.rate.InflightsPool;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.function.Function;
+
+/**
+ * Sends messages with the same ordering key one after another, while messages with different keys are in flight
+ * at the same time. Message waits until delivery of the previous message with the same key ends, either with success
+ * or with discarding it after retries, so ordering holds through the whole retry flow of {@link ConsumerMessageSender}.
+ * Messages without a key, or of subscriptions without ordering key, are sent right away.
+ * <p>
+ * Key is extracted from the message as it was read, before it is converted to the subscription content type, the same
+ * way message filters see it, and then travels along with the converted message.
+ */
+public class KeyOrderedSender implements InflightsPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(KeyOrderedSender.class);
+
+    private final InflightsPool inflight;
+    private final ConsumerMessageSender sender;
+
+    private final Map<String, Queue<Message>> waitingByKey = new HashMap<>();
+    private final Map<Message, String> sentKeys = new IdentityHashMap<>();
+
+    private OrderingKey orderingKey;
+    private volatile OrderingKeyExtractor keyExtractor;
+    private volatile boolean running;
+
+    public KeyOrderedSender(Subscription subscription,
+                            InflightsPool inflight,
+                            Function<InflightsPool, ConsumerMessageSender> senderFactory) {
+        this.inflight = inflight;
+        this.orderingKey = subscription.getSerialSubscriptionPolicy().getOrderingKey();
+        this.keyExtractor = OrderingKeyExtractors.create(orderingKey);
+        this.sender = senderFactory.apply(this);
+    }
+
+    public void initialize() {
+        running = true;
+        sender.initialize();
+    }
+
+    public void shutdown() {
+        synchronized (this) {
+            // waiting messages stay inflight in offset queue, so they are consumed again after restart
+            running = false;
+            waitingByKey.clear();
+            sentKeys.clear();
+        }
+        sender.shutdown();
+    }
+
+    public void sendAsync(Message message, Optional<String> key) {
+        if (key.isPresent()) {
+            synchronized (this) {
+                Queue<Message> waiting = waitingByKey.get(key.get());
+                if (waiting != null) {
+                    waiting.add(message);
+                    return;
+                }
+                waitingByKey.put(key.get(), new ArrayDeque<>());
+                sentKeys.put(message, key.get());
+            }
+        }
+        sender.sendAsync(message);
+    }
+
+    @Override
+    public void release(Message message) {
+        Message next = null;
+        synchronized (this) {
+            String key = sentKeys.remove(message);
+            if (key != null && running) {
+                Queue<Message> waiting = waitingByKey.get(key);
+                next = waiting.poll();
+                if (next == null) {
+                    waitingByKey.remove(key);
+                } else {
+                    sentKeys.put(next, key);
+                }
+            }
+        }
+        if (next != null) {
+            sender.sendAsync(next);
+        }
+        inflight.release();
+    }
+
+    @Override
+    public void release() {
+        inflight.release();
+    }
+
+    public void updateSubscription(Subscription newSubscription) {
+        OrderingKey newOrderingKey = newSubscription.getSerialSubscriptionPolicy().getOrderingKey();
+        if (!Objects.equals(orderingKey, newOrderingKey)) {
+            this.orderingKey = newOrderingKey;
+            this.keyExtractor = OrderingKeyExtractors.create(newOrderingKey);
+        }
+        sender.updateSubscription(newSubscription);
+    }
+
+    public Optional<String> extractKey(Message message) {
+        OrderingKeyExtractor extractor = keyExtractor;
+        if (extractor == OrderingKeyExtractors.NONE) {
+            return Optional.empty();
+        }
+        try {
+            return extractor.extract(message);
+        } catch (Exception e) {
+            logger.warn("Failed to extract ordering key of message {}, sending it unordered", message.getId(), e);
+            return Optional.empty();
+        }
+    }
+}
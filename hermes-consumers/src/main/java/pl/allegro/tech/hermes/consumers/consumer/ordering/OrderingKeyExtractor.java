@@ -0,0 +1,10 @@
+package pl.allegro.tech.hermes.consumers.consumer.ordering;
+
+import pl.allegro.tech.hermes.consumers.consumer.Message;
+
+import java.util.Optional;
+
+public interface OrderingKeyExtractor {
+
+    Optional<String> extract(Message message);
+}
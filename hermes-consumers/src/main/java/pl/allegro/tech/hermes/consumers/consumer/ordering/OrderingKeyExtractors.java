@@ -0,0 +1,42 @@
+package pl.allegro.tech.hermes.consumers.consumer.ordering;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pl.allegro.tech.hermes.api.OrderingKey;
+
+import java.util.Optional;
+
+public final class OrderingKeyExtractors {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderingKeyExtractors.class);
+
+    static final OrderingKeyExtractor NONE = message -> Optional.empty();
+
+    private OrderingKeyExtractors() {
+    }
+
+    public static OrderingKeyExtractor create(OrderingKey orderingKey) {
+        if (orderingKey == null) {
+            return NONE;
+        }
+        try {
+            return extractorFor(orderingKey);
+        } catch (RuntimeException e) {
+            logger.error("Invalid ordering key {}, delivering messages without ordering", orderingKey, e);
+            return NONE;
+        }
+    }
+
+    private static OrderingKeyExtractor extractorFor(OrderingKey orderingKey) {
+        switch (orderingKey.getType()) {
+            case OrderingKey.HEADER:
+                return new HeaderOrderingKeyExtractor(orderingKey.getHeader());
+            case OrderingKey.JSON_PATH:
+                return new JsonPathOrderingKeyExtractor(orderingKey.getPath());
+            case OrderingKey.AVRO_PATH:
+                return new AvroPathOrderingKeyExtractor(orderingKey.getPath());
+            default:
+                throw new IllegalArgumentException("Unknown ordering key type " + orderingKey.getType());
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package pl.allegro.tech.hermes.consumers.consumer.rate;
+
+import com.google.common.base.Ticker;
+import pl.allegro.tech.hermes.consumers.consumer.sender.MessageSendingResult;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inflight limit tuned with additive increase, multiplicative decrease. Every attempt which does not show signs of
+ * overload raises the limit by one per full window, up to the subscription inflight size. Attempts which failed on
+ * subscriber side, as told by {@link OverloadBackoff}, or took more than twice the lowest recently observed latency,
+ * cut the limit by a tenth, as often as {@link OverloadBackoff} allows. Few milliseconds of slack keep jitter of very
+ * fast subscribers from being taken for overload.
+ *
+ * The lowest latency is taken from the last {@value #LATENCY_WINDOW_SAMPLES} attempts, so the limit follows
+ * subscriber which permanently becomes slower.
+ */
+public class AdaptiveInflightLimit implements InflightLimit {
+
+    private static final double BACKOFF_RATIO = 0.9;
+    private static final double LATENCY_TOLERANCE = 2.0;
+    private static final long LATENCY_SLACK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final int LATENCY_WINDOW_SAMPLES = 1000;
+
+    private final AdjustableSemaphore semaphore;
+    private final OverloadBackoff backoff;
+
+    private int maxLimit;
+    private double limit;
+    private long minLatencyNanos = Long.MAX_VALUE;
+    private long windowMinLatencyNanos = Long.MAX_VALUE;
+    private int windowSamples;
+
+    public AdaptiveInflightLimit(AdjustableSemaphore semaphore, int initialLimit, int maxLimit) {
+        this(semaphore, initialLimit, maxLimit, Ticker.systemTicker());
+    }
+
+    public AdaptiveInflightLimit(AdjustableSemaphore semaphore, int initialLimit, int maxLimit, Ticker ticker) {
+        this.semaphore = semaphore;
+        this.backoff = new OverloadBackoff(ticker);
+        this.maxLimit = maxLimit;
+        this.limit = Math.min(initialLimit, maxLimit);
+        semaphore.setMaxPermits(getLimit());
+    }
+
+    @Override
+    public synchronized void record(MessageSendingResult result, long latencyNanos) {
+        updateMinLatency(latencyNanos);
+        if (isOverloaded(result, latencyNanos)) {
+            if (backoff.tryBackoff(latencyNanos)) {
+                limit = Math.max(limit * BACKOFF_RATIO, 1);
+            }
+        } else {
+            limit = Math.min(limit + 1 / limit, maxLimit);
+        }
+        semaphore.setMaxPermits(getLimit());
+    }
+
+    public synchronized void updateMaxLimit(int newMaxLimit) {
+        maxLimit = newMaxLimit;
+        limit = Math.min(limit, maxLimit);
+        semaphore.setMaxPermits(getLimit());
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    private boolean isOverloaded(MessageSendingResult result, long latencyNanos) {
+        return OverloadBackoff.isFailedOnSubscriberSide(result) || latencyNanos > minLatencyNanos * LATENCY_TOLERANCE + LATENCY_SLACK_NANOS;
+    }
+
+    private void updateMinLatency(long latencyNanos) {
+        minLatencyNanos = Math.min(minLatencyNanos, latencyNanos);
+        windowMinLatencyNanos = Math.min(windowMinLatencyNanos, latencyNanos);
+        if (++windowSamples == LATENCY_WINDOW_SAMPLES) {
+            minLatencyNanos = windowMinLatencyNanos;
+            windowMinLatencyNanos = Long.MAX_VALUE;
+            windowSamples = 0;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package pl.allegro.tech.hermes.consumers.consumer.rate;
+
+import pl.allegro.tech.hermes.consumers.consumer.sender.MessageSendingResult;
+
+/**
+ * Limit of messages sent concurrently to subscriber, fed with result and latency of every sending attempt.
+ */
+public interface InflightLimit {
+
+    InflightLimit FIXED = (result, latencyNanos) -> { };
+
+    void record(MessageSendingResult result, long latencyNanos);
+}
@@ -1,5 +1,11 @@
 package pl.allegro.tech.hermes.consumers.consumer.rate;
 
+import pl.allegro.tech.hermes.consumers.consumer.Message;
+
 public interface InflightsPool {
     void release();
+
+    default void release(Message message) {
+        release();
+    }
 }
@@ -0,0 +1,40 @@
+package pl.allegro.tech.hermes.consumers.consumer.rate;
+
+import com.google.common.base.Ticker;
+import pl.allegro.tech.hermes.consumers.consumer.sender.MessageSendingResult;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * Tells adaptive limits when subscriber shows signs of overload and when they may back off. Attempt which timed out,
+ * failed with server error or with 429 status is taken for overload. Backing off is allowed at most once per observed
+ * latency, so failures of attempts which were in flight together count once. Time is read from a monotonic ticker,
+ * so wall clock adjustments do not hold back or speed up backing off.
+ */
+@NotThreadSafe
+public class OverloadBackoff {
+
+    private static final int TOO_MANY_REQUESTS = 429;
+
+    private final Ticker ticker;
+
+    private long lastBackoffNanos;
+
+    public OverloadBackoff(Ticker ticker) {
+        this.ticker = ticker;
+        this.lastBackoffNanos = ticker.read();
+    }
+
+    public static boolean isFailedOnSubscriberSide(MessageSendingResult result) {
+        return !result.succeeded() && (!result.isClientError() || result.getStatusCode() == TOO_MANY_REQUESTS);
+    }
+
+    public boolean tryBackoff(long latencyNanos) {
+        long now = ticker.read();
+        if (now - lastBackoffNanos >= latencyNanos) {
+            lastBackoffNanos = now;
+            return true;
+        }
+        return false;
+    }
+}
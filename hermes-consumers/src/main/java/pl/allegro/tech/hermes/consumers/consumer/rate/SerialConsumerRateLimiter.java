@@ -65,6 +65,18 @@ public class SerialConsumerRateLimiter implements ConsumerRateLimiter {
         sendCounters.incrementAttempted();
     }
 
+    public boolean tryAcquire() {
+        if (rateLimiter.tryAcquire()) {
+            sendCounters.incrementAttempted();
+            return true;
+        }
+        return false;
+    }
+
+    public long permitIntervalMillis() {
+        return Math.max((long) Math.ceil(1000 / rateLimiter.getRate()), 1);
+    }
+
     @Override
     public void acquireFiltered() {
         filterRateLimiter.acquire();
@@ -2,6 +2,7 @@ package pl.allegro.tech.hermes.consumers.consumer.receiver;
 
 import pl.allegro.tech.hermes.api.Subscription;
 import pl.allegro.tech.hermes.consumers.consumer.Message;
+import pl.allegro.tech.hermes.consumers.consumer.offset.SubscriptionPartition;
 import pl.allegro.tech.hermes.consumers.consumer.offset.SubscriptionPartitionOffset;
 
 import java.util.Optional;
@@ -18,4 +19,8 @@ public interface MessageReceiver {
     void commit(Set<SubscriptionPartitionOffset> offsets);
 
     void moveOffset(SubscriptionPartitionOffset offset);
+
+    default void pause(SubscriptionPartition partition) {}
+
+    default void resume(SubscriptionPartition partition) {}
 }
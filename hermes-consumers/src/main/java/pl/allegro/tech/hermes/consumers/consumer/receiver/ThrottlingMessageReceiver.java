@@ -1,14 +1,16 @@
 package pl.allegro.tech.hermes.consumers.consumer.receiver;
 
-import com.codahale.metrics.Timer;
 import pl.allegro.tech.hermes.api.Subscription;
 import pl.allegro.tech.hermes.common.metric.HermesMetrics;
+import pl.allegro.tech.hermes.consumers.consumer.ConsumerWait;
 import pl.allegro.tech.hermes.consumers.consumer.Message;
 import pl.allegro.tech.hermes.consumers.consumer.idleTime.IdleTimeCalculator;
+import pl.allegro.tech.hermes.consumers.consumer.offset.SubscriptionPartition;
 import pl.allegro.tech.hermes.consumers.consumer.offset.SubscriptionPartitionOffset;
 
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import static pl.allegro.tech.hermes.common.metric.Timers.CONSUMER_IDLE_TIME;
 
@@ -41,10 +43,11 @@ public class ThrottlingMessageReceiver implements MessageReceiver {
     }
 
     private void awaitUntilNextPoll() {
-        try (Timer.Context ctx = metrics.timer(CONSUMER_IDLE_TIME,
-                subscription.getTopicName(),
-                subscription.getName()).time()) {
-            Thread.sleep(idleTimeCalculator.increaseIdleTime());
+        long idleTime = idleTimeCalculator.increaseIdleTime();
+        metrics.timer(CONSUMER_IDLE_TIME, subscription.getTopicName(), subscription.getName())
+                .update(idleTime, TimeUnit.MILLISECONDS);
+        try {
+            ConsumerWait.idle(idleTime);
         } catch (InterruptedException ex) {
             Thread.currentThread().interrupt();
         }
@@ -60,6 +63,16 @@ public class ThrottlingMessageReceiver implements MessageReceiver {
         receiver.moveOffset(offset);
     }
 
+    @Override
+    public void pause(SubscriptionPartition partition) {
+        receiver.pause(partition);
+    }
+
+    @Override
+    public void resume(SubscriptionPartition partition) {
+        receiver.resume(partition);
+    }
+
     @Override
     public void stop() {
         receiver.stop();
@@ -6,6 +6,7 @@ import pl.allegro.tech.hermes.consumers.consumer.filtering.FilteredMessageHandle
 import pl.allegro.tech.hermes.consumers.consumer.filtering.chain.FilterChain;
 import pl.allegro.tech.hermes.consumers.consumer.filtering.chain.FilterChainFactory;
 import pl.allegro.tech.hermes.consumers.consumer.filtering.chain.FilterResult;
+import pl.allegro.tech.hermes.consumers.consumer.offset.SubscriptionPartition;
 import pl.allegro.tech.hermes.consumers.consumer.offset.SubscriptionPartitionOffset;
 import pl.allegro.tech.hermes.consumers.consumer.receiver.MessageReceiver;
 
@@ -68,4 +69,14 @@ public class FilteringMessageReceiver implements MessageReceiver {
     public void moveOffset(SubscriptionPartitionOffset offset) {
         receiver.moveOffset(offset);
     }
+
+    @Override
+    public void pause(SubscriptionPartition partition) {
+        receiver.pause(partition);
+    }
+
+    @Override
+    public void resume(SubscriptionPartition partition) {
+        receiver.resume(partition);
+    }
 }
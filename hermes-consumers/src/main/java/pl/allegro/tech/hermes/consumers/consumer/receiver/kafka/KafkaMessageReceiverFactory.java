@@ -73,7 +73,8 @@ public class KafkaMessageReceiverFactory implements ReceiverFactory {
                 clock,
                 configs.getIntProperty(Configs.CONSUMER_RECEIVER_POOL_TIMEOUT),
                 configs.getIntProperty(Configs.CONSUMER_RECEIVER_READ_QUEUE_CAPACITY),
-                configs.getIntProperty(Configs.CONSUMER_RETRANSMISSION_QUEUE_CAPACITY));
+                configs.getIntProperty(Configs.CONSUMER_RETRANSMISSION_QUEUE_CAPACITY),
+                configs.getBooleanProperty(Configs.CONSUMER_RECEIVER_ZERO_COPY_JSON_UNWRAPPING));
 
 
         if (configs.getBooleanProperty(Configs.CONSUMER_RECEIVER_WAIT_BETWEEN_UNSUCCESSFUL_POLLS)) {
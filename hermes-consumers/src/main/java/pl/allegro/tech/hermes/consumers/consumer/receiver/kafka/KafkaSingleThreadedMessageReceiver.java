@@ -21,13 +21,16 @@ import pl.allegro.tech.hermes.common.message.wrapper.MessageContentWrapper;
 import pl.allegro.tech.hermes.common.message.wrapper.UnsupportedContentTypeException;
 import pl.allegro.tech.hermes.common.message.wrapper.UnwrappedMessageContent;
 import pl.allegro.tech.hermes.common.metric.HermesMetrics;
+import pl.allegro.tech.hermes.consumers.consumer.ConsumerWait;
 import pl.allegro.tech.hermes.consumers.consumer.Message;
+import pl.allegro.tech.hermes.consumers.consumer.offset.SubscriptionPartition;
 import pl.allegro.tech.hermes.consumers.consumer.offset.SubscriptionPartitionOffset;
 import pl.allegro.tech.hermes.consumers.consumer.offset.kafka.broker.PartitionAssigningAwareRetransmitter;
 import pl.allegro.tech.hermes.consumers.consumer.receiver.MessageReceiver;
 
 import java.time.Clock;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -54,6 +57,7 @@ public class KafkaSingleThreadedMessageReceiver implements MessageReceiver {
     private Map<String, KafkaTopic> topics;
 
     private final int pollTimeout;
+    private final boolean zeroCopyJsonUnwrapping;
 
     public KafkaSingleThreadedMessageReceiver(KafkaConsumer<byte[], byte[]> consumer,
                                               MessageContentWrapper messageContentWrapper,
@@ -64,11 +68,13 @@ public class KafkaSingleThreadedMessageReceiver implements MessageReceiver {
                                               Clock clock,
                                               int pollTimeout,
                                               int readQueueCapacity,
-                                              int retransmissionQueueCapacity) {
+                                              int retransmissionQueueCapacity,
+                                              boolean zeroCopyJsonUnwrapping) {
         this.metrics = metrics;
         this.topic = topic;
         this.subscription = subscription;
         this.pollTimeout = pollTimeout;
+        this.zeroCopyJsonUnwrapping = zeroCopyJsonUnwrapping;
         this.topics = getKafkaTopics(topic, kafkaNamesMapper).stream()
                 .collect(Collectors.toMap(t -> t.name().asString(), Function.identity()));
         this.consumer = consumer;
@@ -93,7 +99,8 @@ public class KafkaSingleThreadedMessageReceiver implements MessageReceiver {
     public Optional<Message> next() {
         try {
             if (readQueue.isEmpty()) {
-                ConsumerRecords<byte[], byte[]> records = consumer.poll(pollTimeout);
+                // multiplexed consumers must not block their carrier thread, they are throttled between empty polls instead
+                ConsumerRecords<byte[], byte[]> records = consumer.poll(ConsumerWait.isCooperative() ? 0 : pollTimeout);
                 try {
                     for (ConsumerRecord<byte[], byte[]> record : records) {
                         readQueue.add(convertToMessage(record));
@@ -131,7 +138,7 @@ public class KafkaSingleThreadedMessageReceiver implements MessageReceiver {
         return new Message(
                 unwrappedContent.getMessageMetadata().getId(),
                 topic.getQualifiedName(),
-                unwrappedContent.getContent(),
+                unwrappedContent.getContentView(),
                 kafkaTopic.contentType(),
                 unwrappedContent.getSchema(),
                 unwrappedContent.getMessageMetadata().getTimestamp(),
@@ -147,7 +154,8 @@ public class KafkaSingleThreadedMessageReceiver implements MessageReceiver {
         if (contentType == ContentType.AVRO) {
             return messageContentWrapper.unwrapAvro(message.value(), topic);
         } else if (contentType == ContentType.JSON) {
-            return messageContentWrapper.unwrapJson(message.value());
+            return zeroCopyJsonUnwrapping ? messageContentWrapper.unwrapJsonView(message.value())
+                    : messageContentWrapper.unwrapJson(message.value());
         }
         throw new UnsupportedContentTypeException(topic);
     }
@@ -197,4 +205,26 @@ public class KafkaSingleThreadedMessageReceiver implements MessageReceiver {
     public void moveOffset(SubscriptionPartitionOffset offset) {
         retransmitter.moveOffsetOrSchedule(offset);
     }
+
+    @Override
+    public void pause(SubscriptionPartition partition) {
+        try {
+            consumer.pause(Collections.singleton(toTopicPartition(partition)));
+        } catch (IllegalStateException ex) {
+            logger.debug("Partition {} is no longer assigned, skipping pause", partition);
+        }
+    }
+
+    @Override
+    public void resume(SubscriptionPartition partition) {
+        try {
+            consumer.resume(Collections.singleton(toTopicPartition(partition)));
+        } catch (IllegalStateException ex) {
+            logger.debug("Partition {} is no longer assigned, skipping resume", partition);
+        }
+    }
+
+    private TopicPartition toTopicPartition(SubscriptionPartition partition) {
+        return new TopicPartition(partition.getKafkaTopicName().asString(), partition.getPartition());
+    }
 }
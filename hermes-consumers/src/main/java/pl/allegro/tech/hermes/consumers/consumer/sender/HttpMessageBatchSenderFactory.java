@@ -1,29 +1,88 @@
 package pl.allegro.tech.hermes.consumers.consumer.sender;
 
+import org.eclipse.jetty.client.DuplexConnectionPool;
+import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.jetty.client.HttpDestination;
+import org.eclipse.jetty.client.PoolingHttpDestination;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import pl.allegro.tech.hermes.api.Subscription;
 import pl.allegro.tech.hermes.common.config.ConfigFactory;
 import pl.allegro.tech.hermes.common.config.Configs;
-import pl.allegro.tech.hermes.consumers.consumer.sender.http.ApacheHttpClientMessageBatchSender;
+import pl.allegro.tech.hermes.common.metric.Gauges;
+import pl.allegro.tech.hermes.common.metric.HermesMetrics;
+import pl.allegro.tech.hermes.consumers.consumer.sender.http.HttpClientFactory;
+import pl.allegro.tech.hermes.consumers.consumer.sender.http.JettyMessageBatchSender;
 import pl.allegro.tech.hermes.consumers.consumer.sender.resolver.SimpleEndpointAddressResolver;
 
 import javax.inject.Inject;
+import java.util.Optional;
+import java.util.function.ToIntFunction;
 
 import static com.google.common.base.Preconditions.checkState;
+import static java.util.Optional.empty;
 
 public class HttpMessageBatchSenderFactory implements MessageBatchSenderFactory {
-    private ConfigFactory configFactory;
+
+    private static final Logger logger = LoggerFactory.getLogger(HttpMessageBatchSenderFactory.class);
+
+    private final ConfigFactory configFactory;
+    private final HttpClient httpClient;
+    private final Optional<HttpClient> http2Client;
 
     @Inject
-    public HttpMessageBatchSenderFactory(ConfigFactory configFactory) {
+    public HttpMessageBatchSenderFactory(ConfigFactory configFactory, HttpClientFactory httpClientFactory,
+                                         HermesMetrics hermesMetrics) {
         this.configFactory = configFactory;
+        this.httpClient = httpClientFactory.createClientForHttp1("jetty-http-batch-client");
+        this.http2Client = configFactory.getBooleanProperty(Configs.CONSUMER_HTTP2_ENABLED) ?
+                Optional.of(httpClientFactory.createClientForHttp2("jetty-http2-batch-client")) : empty();
+        long connectTimeout = configFactory.getIntProperty(Configs.CONSUMER_BATCH_CONNECTION_TIMEOUT);
+        httpClient.setConnectTimeout(connectTimeout);
+        http2Client.ifPresent(client -> client.setConnectTimeout(connectTimeout));
+
+        hermesMetrics.registerGauge(Gauges.BATCH_HTTP_CLIENT_ACTIVE_CONNECTIONS,
+                () -> sumOverPools(httpClient, DuplexConnectionPool::getActiveConnectionCount));
+        hermesMetrics.registerGauge(Gauges.BATCH_HTTP_CLIENT_IDLE_CONNECTIONS,
+                () -> sumOverPools(httpClient, DuplexConnectionPool::getIdleConnectionCount));
+        hermesMetrics.registerGauge(Gauges.BATCH_HTTP_CLIENT_QUEUED_REQUESTS, () -> queuedRequests(httpClient));
+        http2Client.ifPresent(client ->
+                hermesMetrics.registerGauge(Gauges.BATCH_HTTP2_CLIENT_QUEUED_REQUESTS, () -> queuedRequests(client)));
     }
 
     @Override
     public MessageBatchSender create(Subscription subscription) {
         checkState(subscription.getEndpoint().getProtocol().contains("http"), "Batching is only supported for http/s currently.");
-        return new ApacheHttpClientMessageBatchSender(
-                configFactory.getIntProperty(Configs.CONSUMER_BATCH_CONNECTION_TIMEOUT),
-                configFactory.getIntProperty(Configs.CONSUMER_BATCH_SOCKET_TIMEOUT),
-                new SimpleEndpointAddressResolver());
+        return new JettyMessageBatchSender(
+                startedClient(subscription),
+                new SimpleEndpointAddressResolver(),
+                configFactory.getIntProperty(Configs.CONSUMER_BATCH_SOCKET_TIMEOUT));
+    }
+
+    private HttpClient startedClient(Subscription subscription) {
+        HttpClient client = subscription.isHttp2Enabled() && http2Client.isPresent() ? http2Client.get() : httpClient;
+        synchronized (client) {
+            if (client.isStopped()) {
+                try {
+                    client.start();
+                } catch (Exception ex) {
+                    logger.error("Could not start batch http client.", ex);
+                }
+            }
+        }
+        return client;
+    }
+
+    private static int sumOverPools(HttpClient client, ToIntFunction<DuplexConnectionPool> count) {
+        return client.getDestinations().stream()
+                .filter(destination -> destination instanceof PoolingHttpDestination)
+                .mapToInt(destination -> count.applyAsInt(((PoolingHttpDestination<?>) destination).getConnectionPool()))
+                .sum();
+    }
+
+    private static int queuedRequests(HttpClient client) {
+        return client.getDestinations().stream()
+                .mapToInt(destination -> ((HttpDestination) destination).getQueuedRequestCount())
+                .sum();
     }
 }
@@ -4,6 +4,15 @@ import pl.allegro.tech.hermes.api.EndpointAddress;
 import pl.allegro.tech.hermes.api.EndpointAddressResolverMetadata;
 import pl.allegro.tech.hermes.consumers.consumer.batch.MessageBatch;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface MessageBatchSender {
-    MessageSendingResult send(MessageBatch message, EndpointAddress address, EndpointAddressResolverMetadata metadata, int requestTimeout);
+
+    CompletableFuture<MessageSendingResult> sendAsync(MessageBatch batch, EndpointAddress address,
+                                                      EndpointAddressResolverMetadata metadata, int requestTimeout);
+
+    default MessageSendingResult send(MessageBatch batch, EndpointAddress address, EndpointAddressResolverMetadata metadata,
+                                      int requestTimeout) {
+        return sendAsync(batch, address, metadata, requestTimeout).join();
+    }
 }
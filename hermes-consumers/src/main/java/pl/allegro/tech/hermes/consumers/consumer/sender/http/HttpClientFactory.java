@@ -48,7 +48,11 @@ public class HttpClientFactory implements Factory<HttpClient> {
     }
 
     public HttpClient createClientForHttp2() {
-        ExecutorService executor = executorFactory.getExecutorService("jetty-http2-client",
+        return createClientForHttp2("jetty-http2-client");
+    }
+
+    public HttpClient createClientForHttp2(String name) {
+        ExecutorService executor = executorFactory.getExecutorService(name,
                 configFactory.getIntProperty(CONSUMER_HTTP2_CLIENT_THREAD_POOL_SIZE),
                 configFactory.getBooleanProperty(CONSUMER_HTTP2_CLIENT_THREAD_POOL_MONITORING));
 
@@ -2,7 +2,7 @@ package pl.allegro.tech.hermes.consumers.consumer.sender.http;
 
 import org.eclipse.jetty.client.HttpClient;
 import org.eclipse.jetty.client.api.Request;
-import org.eclipse.jetty.client.util.BytesContentProvider;
+import org.eclipse.jetty.client.util.ByteBufferContentProvider;
 import org.eclipse.jetty.http.HttpHeader;
 import org.eclipse.jetty.http.HttpMethod;
 import org.eclipse.jetty.http.HttpVersion;
@@ -50,7 +50,7 @@ class HttpRequestFactory {
                 .header(RETRY_COUNT.getName(), Integer.toString(message.getRetryCounter()))
                 .header(HttpHeader.CONTENT_TYPE.toString(), contentTypeToMediaType.apply(message.getContentType()))
                 .timeout(timeout, TimeUnit.MILLISECONDS)
-                .content(new BytesContentProvider(message.getData()));
+                .content(new ByteBufferContentProvider(message.getContent().asByteBuffer()));
 
         message.getSchema().ifPresent(schema -> request.header(SCHEMA_VERSION.getName(), valueOf(schema.getVersion().value())));
         authorizationProvider.ifPresent(p -> p.authorizationToken()
@@ -0,0 +1,77 @@
+package pl.allegro.tech.hermes.consumers.consumer.sender.http;
+
+import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.jetty.client.api.Request;
+import org.eclipse.jetty.client.util.ByteBufferContentProvider;
+import org.eclipse.jetty.http.HttpHeader;
+import org.eclipse.jetty.http.HttpMethod;
+import pl.allegro.tech.hermes.api.ContentType;
+import pl.allegro.tech.hermes.api.EndpointAddress;
+import pl.allegro.tech.hermes.api.EndpointAddressResolverMetadata;
+import pl.allegro.tech.hermes.consumers.consumer.batch.MessageBatch;
+import pl.allegro.tech.hermes.consumers.consumer.sender.MessageBatchSender;
+import pl.allegro.tech.hermes.consumers.consumer.sender.MessageSendingResult;
+import pl.allegro.tech.hermes.consumers.consumer.sender.resolver.EndpointAddressResolutionException;
+import pl.allegro.tech.hermes.consumers.consumer.sender.resolver.EndpointAddressResolver;
+
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
+import static pl.allegro.tech.hermes.api.AvroMediaType.AVRO_BINARY;
+import static pl.allegro.tech.hermes.api.ContentType.AVRO;
+import static pl.allegro.tech.hermes.common.http.MessageMetadataHeaders.BATCH_ID;
+import static pl.allegro.tech.hermes.common.http.MessageMetadataHeaders.RETRY_COUNT;
+
+/**
+ * Sends batches with Jetty client, so batches to the same endpoint reuse pooled connections or a multiplexed HTTP/2
+ * connection. Batch buffer is sent as it is, without being copied.
+ */
+public class JettyMessageBatchSender implements MessageBatchSender {
+
+    private final HttpClient client;
+    private final EndpointAddressResolver resolver;
+    private final long idleTimeout;
+
+    public JettyMessageBatchSender(HttpClient client, EndpointAddressResolver resolver, long idleTimeout) {
+        this.client = client;
+        this.resolver = resolver;
+        this.idleTimeout = idleTimeout;
+    }
+
+    @Override
+    public CompletableFuture<MessageSendingResult> sendAsync(MessageBatch batch, EndpointAddress address,
+                                                             EndpointAddressResolverMetadata metadata, int requestTimeout) {
+        CompletableFuture<MessageSendingResult> resultFuture = new CompletableFuture<>();
+        try {
+            buildRequest(batch, resolver.resolve(address, batch, metadata), requestTimeout)
+                    .send(result -> resultFuture.complete(MessageSendingResult.of(result)));
+        } catch (EndpointAddressResolutionException e) {
+            resultFuture.complete(MessageSendingResult.failedResult(e));
+        }
+        return resultFuture;
+    }
+
+    private Request buildRequest(MessageBatch batch, URI uri, int requestTimeout) {
+        String mediaType = getMediaType(batch.getContentType());
+        Request request = client.newRequest(uri)
+                .method(HttpMethod.POST)
+                .header(HttpHeader.KEEP_ALIVE.toString(), "true")
+                .header(BATCH_ID.getName(), batch.getId())
+                .header(HttpHeader.CONTENT_TYPE.toString(), mediaType)
+                .header(RETRY_COUNT.getName(), Integer.toString(batch.getRetryCounter()))
+                .timeout(requestTimeout, TimeUnit.MILLISECONDS)
+                .idleTimeout(idleTimeout, TimeUnit.MILLISECONDS)
+                .content(new ByteBufferContentProvider(mediaType, batch.getContent()));
+
+        batch.getContentEncoding().ifPresent(encoding -> request.header(HttpHeader.CONTENT_ENCODING.toString(), encoding));
+        batch.getAdditionalHeaders().forEach(header -> request.header(header.getName(), header.getValue()));
+
+        return request;
+    }
+
+    private String getMediaType(ContentType contentType) {
+        return AVRO.equals(contentType) ? AVRO_BINARY : APPLICATION_JSON;
+    }
+}
@@ -0,0 +1,182 @@
+package pl.allegro.tech.hermes.consumers.consumer.timer;
+
+import com.codahale.metrics.Timer;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Node-wide timer running delayed tasks on a shared pool of workers. Scheduled tasks are put into buckets of a wheel
+ * which is turned by single ticker thread, one bucket per tick, so scheduling costs the same no matter how many tasks
+ * are pending and tasks run up to one tick after their delay elapsed. Tasks without delay go straight to workers.
+ * Tasks run concurrently, so callers which need order of their tasks have to keep it on their own.
+ *
+ * Tasks still pending when the timer is shut down, as well as tasks scheduled afterwards, are cancelled instead of run.
+ *
+ * Delay between task deadline and the moment a worker starts running it is reported as timer lag.
+ */
+public class HashedWheelTimer {
+
+    private static final Logger logger = LoggerFactory.getLogger(HashedWheelTimer.class);
+
+    private final long tickNanos;
+    private final List<Timeout>[] wheel;
+    private final int mask;
+    private final Queue<Timeout> scheduled = new ConcurrentLinkedQueue<>();
+    private final ExecutorService workers;
+    private final Timer lag;
+    private final Thread ticker;
+    private final long startTime;
+
+    private volatile boolean running = true;
+    private long tick;
+
+    @SuppressWarnings("unchecked")
+    public HashedWheelTimer(String name, long tickMillis, int wheelSize, ExecutorService workers, Timer lag) {
+        checkArgument(tickMillis > 0, "Tick duration must be positive");
+        checkArgument(wheelSize > 0, "Wheel size must be positive");
+        this.tickNanos = MILLISECONDS.toNanos(tickMillis);
+        this.wheel = new List[1 << (32 - Integer.numberOfLeadingZeros(wheelSize - 1))];
+        for (int i = 0; i < wheel.length; i++) {
+            wheel[i] = new ArrayList<>();
+        }
+        this.mask = wheel.length - 1;
+        this.workers = workers;
+        this.lag = lag;
+        this.startTime = System.nanoTime();
+        this.ticker = new ThreadFactoryBuilder().setNameFormat(name + "-ticker").setDaemon(true).build()
+                .newThread(this::run);
+        this.ticker.start();
+    }
+
+    public void schedule(TimerTask task, long delayMillis) {
+        long deadline = System.nanoTime() + MILLISECONDS.toNanos(Math.max(delayMillis, 0));
+        if (delayMillis <= 0) {
+            dispatch(new Timeout(task, deadline));
+        } else {
+            scheduled.add(new Timeout(task, deadline));
+            if (!running) {
+                // ticker might have already cancelled pending timeouts and stopped
+                cancelScheduled();
+            }
+        }
+    }
+
+    public void shutdown() {
+        running = false;
+        LockSupport.unpark(ticker);
+        try {
+            ticker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        workers.shutdown();
+    }
+
+    private void run() {
+        while (running) {
+            long tickDeadline = startTime + (tick + 1) * tickNanos;
+            long sleepNanos = tickDeadline - System.nanoTime();
+            if (sleepNanos > 0) {
+                LockSupport.parkNanos(this, sleepNanos);
+                continue;
+            }
+            try {
+                transferScheduled();
+                expire(wheel[(int) (tick & mask)]);
+            } catch (RuntimeException e) {
+                logger.error("Failed to expire timeouts of tick {}", tick, e);
+            }
+            tick++;
+        }
+        cancelPending();
+    }
+
+    private void cancelPending() {
+        for (List<Timeout> bucket : wheel) {
+            bucket.forEach(Timeout::cancel);
+            bucket.clear();
+        }
+        cancelScheduled();
+    }
+
+    private void cancelScheduled() {
+        for (Timeout timeout = scheduled.poll(); timeout != null; timeout = scheduled.poll()) {
+            timeout.cancel();
+        }
+    }
+
+    private void transferScheduled() {
+        for (Timeout timeout = scheduled.poll(); timeout != null; timeout = scheduled.poll()) {
+            long elapsed = timeout.deadline - startTime;
+            long dueTick = Math.max((elapsed + tickNanos - 1) / tickNanos - 1, tick);
+            timeout.remainingRounds = (dueTick - tick) / wheel.length;
+            wheel[(int) (dueTick & mask)].add(timeout);
+        }
+    }
+
+    private void expire(List<Timeout> bucket) {
+        int kept = 0;
+        for (int i = 0; i < bucket.size(); i++) {
+            Timeout timeout = bucket.get(i);
+            if (timeout.remainingRounds <= 0) {
+                dispatch(timeout);
+            } else {
+                timeout.remainingRounds--;
+                bucket.set(kept++, timeout);
+            }
+        }
+        bucket.subList(kept, bucket.size()).clear();
+    }
+
+    private void dispatch(Timeout timeout) {
+        try {
+            workers.execute(timeout);
+        } catch (RejectedExecutionException e) {
+            logger.warn("Timer is shut down, cancelling scheduled task");
+            timeout.cancel();
+        }
+    }
+
+    private class Timeout implements Runnable {
+
+        private final TimerTask task;
+        private final long deadline;
+        private long remainingRounds;
+
+        Timeout(TimerTask task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public void run() {
+            lag.update(Math.max(System.nanoTime() - deadline, 0), NANOSECONDS);
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                logger.error("Scheduled task failed", e);
+            }
+        }
+
+        void cancel() {
+            try {
+                task.cancel();
+            } catch (RuntimeException e) {
+                logger.error("Cancelling scheduled task failed", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package pl.allegro.tech.hermes.consumers.consumer.timer;
+
+import org.glassfish.hk2.api.Factory;
+import pl.allegro.tech.hermes.common.config.ConfigFactory;
+import pl.allegro.tech.hermes.common.metric.HermesMetrics;
+import pl.allegro.tech.hermes.common.metric.executor.InstrumentedExecutorServiceFactory;
+
+import javax.inject.Inject;
+
+import static pl.allegro.tech.hermes.common.config.Configs.CONSUMER_SENDING_TIMER_THREAD_POOL_MONITORING;
+import static pl.allegro.tech.hermes.common.config.Configs.CONSUMER_SENDING_TIMER_THREAD_POOL_SIZE;
+import static pl.allegro.tech.hermes.common.config.Configs.CONSUMER_SENDING_TIMER_TICK_MS;
+import static pl.allegro.tech.hermes.common.config.Configs.CONSUMER_SENDING_TIMER_WHEEL_SIZE;
+
+public class HashedWheelTimerFactory implements Factory<HashedWheelTimer> {
+
+    private final ConfigFactory configFactory;
+    private final HermesMetrics hermesMetrics;
+    private final InstrumentedExecutorServiceFactory executorFactory;
+
+    @Inject
+    public HashedWheelTimerFactory(ConfigFactory configFactory, HermesMetrics hermesMetrics,
+                                   InstrumentedExecutorServiceFactory executorFactory) {
+        this.configFactory = configFactory;
+        this.hermesMetrics = hermesMetrics;
+        this.executorFactory = executorFactory;
+    }
+
+    @Override
+    public HashedWheelTimer provide() {
+        return new HashedWheelTimer("sending-timer",
+                configFactory.getIntProperty(CONSUMER_SENDING_TIMER_TICK_MS),
+                configFactory.getIntProperty(CONSUMER_SENDING_TIMER_WHEEL_SIZE),
+                executorFactory.getExecutorService("sending-timer",
+                        configFactory.getIntProperty(CONSUMER_SENDING_TIMER_THREAD_POOL_SIZE),
+                        configFactory.getBooleanProperty(CONSUMER_SENDING_TIMER_THREAD_POOL_MONITORING)),
+                hermesMetrics.sendingTimerLagTimer());
+    }
+
+    @Override
+    public void dispose(HashedWheelTimer instance) {
+        instance.shutdown();
+    }
+}
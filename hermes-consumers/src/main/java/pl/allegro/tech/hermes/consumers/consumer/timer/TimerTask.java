@@ -0,0 +1,12 @@
+package pl.allegro.tech.hermes.consumers.consumer.timer;
+
+/**
+ * Task scheduled on {@link HashedWheelTimer}. Every task is either run or, when the timer is shut down before the task
+ * got its turn, cancelled.
+ */
+@FunctionalInterface
+public interface TimerTask extends Runnable {
+
+    default void cancel() {
+    }
+}
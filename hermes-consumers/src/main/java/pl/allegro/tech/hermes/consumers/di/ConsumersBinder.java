@@ -55,6 +55,8 @@ import pl.allegro.tech.hermes.consumers.consumer.sender.resolver.EndpointAddress
 import pl.allegro.tech.hermes.consumers.consumer.sender.resolver.InterpolatingEndpointAddressResolver;
 import pl.allegro.tech.hermes.consumers.consumer.sender.timeout.FutureAsyncTimeout;
 import pl.allegro.tech.hermes.consumers.consumer.sender.timeout.FutureAsyncTimeoutFactory;
+import pl.allegro.tech.hermes.consumers.consumer.timer.HashedWheelTimer;
+import pl.allegro.tech.hermes.consumers.consumer.timer.HashedWheelTimerFactory;
 import pl.allegro.tech.hermes.consumers.consumer.trace.MetadataAppender;
 import pl.allegro.tech.hermes.consumers.health.ConsumerHttpServer;
 import pl.allegro.tech.hermes.consumers.health.ConsumerMonitor;
@@ -118,6 +120,7 @@ public class ConsumersBinder extends AbstractBinder {
         bind(DefaultHttpMetadataAppender.class).in(Singleton.class)
                 .to(new TypeLiteral<MetadataAppender<Request>>() {});
 
+        bindFactory(HashedWheelTimerFactory.class).in(Singleton.class).to(HashedWheelTimer.class);
         bindFactory(FutureAsyncTimeoutFactory.class).in(Singleton.class)
                 .to(new TypeLiteral<FutureAsyncTimeout<MessageSendingResult>>(){});
         bindSingleton(HttpClientFactory.class);
@@ -3,8 +3,10 @@ package pl.allegro.tech.hermes.consumers.supervisor;
 import pl.allegro.tech.hermes.api.Subscription;
 import pl.allegro.tech.hermes.api.Topic;
 import pl.allegro.tech.hermes.common.config.ConfigFactory;
+import pl.allegro.tech.hermes.common.config.Configs;
 import pl.allegro.tech.hermes.common.message.wrapper.MessageContentWrapper;
 import pl.allegro.tech.hermes.common.metric.HermesMetrics;
+import pl.allegro.tech.hermes.common.metric.executor.InstrumentedExecutorServiceFactory;
 import pl.allegro.tech.hermes.consumers.consumer.BatchConsumer;
 import pl.allegro.tech.hermes.consumers.consumer.Consumer;
 import pl.allegro.tech.hermes.consumers.consumer.ConsumerAuthorizationHandler;
@@ -18,11 +20,13 @@ import pl.allegro.tech.hermes.consumers.consumer.rate.SerialConsumerRateLimiter;
 import pl.allegro.tech.hermes.consumers.consumer.rate.calculator.OutputRateCalculatorFactory;
 import pl.allegro.tech.hermes.consumers.consumer.receiver.ReceiverFactory;
 import pl.allegro.tech.hermes.consumers.consumer.sender.MessageBatchSenderFactory;
+import pl.allegro.tech.hermes.consumers.consumer.timer.HashedWheelTimer;
 import pl.allegro.tech.hermes.domain.topic.TopicRepository;
 import pl.allegro.tech.hermes.tracker.consumers.Trackers;
 
 import javax.inject.Inject;
 import java.time.Clock;
+import java.util.concurrent.ExecutorService;
 
 public class ConsumerFactory {
 
@@ -41,6 +45,8 @@ public class ConsumerFactory {
     private final MessageBatchSenderFactory batchSenderFactory;
     private final ConsumerAuthorizationHandler consumerAuthorizationHandler;
     private final Clock clock;
+    private final ExecutorService batchSenderExecutor;
+    private final HashedWheelTimer sendingTimer;
 
     @Inject
     public ConsumerFactory(ReceiverFactory messageReceiverFactory,
@@ -57,7 +63,9 @@ public class ConsumerFactory {
                            MessageContentWrapper messageContentWrapper,
                            MessageBatchSenderFactory batchSenderFactory,
                            ConsumerAuthorizationHandler consumerAuthorizationHandler,
-                           Clock clock) {
+                           Clock clock,
+                           InstrumentedExecutorServiceFactory executorFactory,
+                           HashedWheelTimer sendingTimer) {
 
         this.messageReceiverFactory = messageReceiverFactory;
         this.hermesMetrics = hermesMetrics;
@@ -74,6 +82,10 @@ public class ConsumerFactory {
         this.batchSenderFactory = batchSenderFactory;
         this.consumerAuthorizationHandler = consumerAuthorizationHandler;
         this.clock = clock;
+        this.batchSenderExecutor = executorFactory.getExecutorService("batch-sender",
+                configFactory.getIntProperty(Configs.CONSUMER_BATCH_SENDER_THREAD_POOL_SIZE),
+                configFactory.getBooleanProperty(Configs.CONSUMER_BATCH_SENDER_THREAD_POOL_MONITORING));
+        this.sendingTimer = sendingTimer;
     }
 
     public Consumer createConsumer(Subscription subscription) {
@@ -89,7 +101,9 @@ public class ConsumerFactory {
                     trackers,
                     subscription,
                     topic,
-                    configFactory);
+                    configFactory,
+                    batchSenderExecutor,
+                    sendingTimer);
         } else {
             SerialConsumerRateLimiter consumerRateLimiter = new SerialConsumerRateLimiter(subscription,
                     outputRateCalculatorFactory, hermesMetrics, consumerRateLimitSupervisor, clock);
@@ -9,8 +9,11 @@ import pl.allegro.tech.hermes.common.metric.HermesMetrics;
 import pl.allegro.tech.hermes.consumers.supervisor.process.ConsumerProcess;
 
 import javax.inject.Inject;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
@@ -19,6 +22,10 @@ public class ConsumersExecutorService {
 
     private static final Logger logger = LoggerFactory.getLogger(ConsumersExecutorService.class);
     private final ThreadPoolExecutor executor;
+    private final ScheduledThreadPoolExecutor carriers;
+    private final ExecutionModel executionModel;
+    private final long timeSliceMs;
+    private final Set<MultiplexedConsumerProcess> multiplexedProcesses = ConcurrentHashMap.newKeySet();
 
     @Inject
     public ConsumersExecutorService(ConfigFactory configFactory, HermesMetrics hermesMetrics) {
@@ -29,20 +36,47 @@ public class ConsumersExecutorService {
 
         executor = (ThreadPoolExecutor) Executors.newFixedThreadPool(poolSize, threadFactory);
 
-        hermesMetrics.registerConsumersThreadGauge(() -> executor.getActiveCount());
+        executionModel = ExecutionModel.valueOf(configFactory.getStringProperty(Configs.CONSUMER_EXECUTION_MODEL).toUpperCase());
+        timeSliceMs = configFactory.getIntProperty(Configs.CONSUMER_MULTIPLEXED_TIME_SLICE);
+        carriers = new ScheduledThreadPoolExecutor(
+                configFactory.getIntProperty(Configs.CONSUMER_MULTIPLEXED_THREAD_POOL_SIZE),
+                new ThreadFactoryBuilder().setNameFormat("consumer-carrier-%d").build());
+
+        hermesMetrics.registerConsumersThreadGauge(() -> executor.getActiveCount() + carriers.getActiveCount());
+        hermesMetrics.registerMultiplexedConsumerProcessesCountGauge(multiplexedProcesses::size);
     }
 
     public Future execute(ConsumerProcess consumer) {
+        // batch consumers block on filling and sending whole batches, so they keep threads of their own
+        if (executionModel == ExecutionModel.MULTIPLEXED && !consumer.getSubscription().isBatchSubscription()) {
+            return executeMultiplexed(consumer);
+        }
         return executor.submit(consumer);
     }
 
+    private Future executeMultiplexed(ConsumerProcess consumer) {
+        MultiplexedConsumerProcess process =
+                new MultiplexedConsumerProcess(consumer, carriers, timeSliceMs, multiplexedProcesses::remove);
+        multiplexedProcesses.add(process);
+        process.start();
+        return process;
+    }
+
     public void shutdown() {
         executor.shutdownNow();
+        multiplexedProcesses.forEach(process -> process.cancel(true));
+        carriers.shutdown();
         try {
             executor.awaitTermination(1, TimeUnit.MINUTES);
+            if (!carriers.awaitTermination(1, TimeUnit.MINUTES)) {
+                carriers.shutdownNow();
+            }
         } catch (InterruptedException e) {
             logger.error("Termination of consumers executor service interrupted.", e);
         }
     }
 
+    private enum ExecutionModel {
+        THREAD, MULTIPLEXED
+    }
 }
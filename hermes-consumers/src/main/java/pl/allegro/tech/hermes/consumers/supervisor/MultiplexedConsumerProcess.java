@@ -0,0 +1,156 @@
+package pl.allegro.tech.hermes.consumers.supervisor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pl.allegro.tech.hermes.consumers.consumer.ConsumerWait;
+import pl.allegro.tech.hermes.consumers.supervisor.process.ConsumerProcess;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * Runs consumer process in time slices on a pool of carrier threads shared by many subscriptions. Process yields
+ * its carrier when time slice ends or when consumer requests a wait via {@link ConsumerWait} and is resumed
+ * on any carrier later, so idle subscriptions do not hold threads.
+ */
+class MultiplexedConsumerProcess implements Runnable, Future<Void> {
+
+    private static final Logger logger = LoggerFactory.getLogger(MultiplexedConsumerProcess.class);
+
+    private static final long FINISHED = -1;
+
+    private final ConsumerProcess process;
+
+    private final ScheduledExecutorService carriers;
+
+    private final long timeSliceNanos;
+
+    private final Consumer<MultiplexedConsumerProcess> onReleased;
+
+    private final CompletableFuture<Void> completion = new CompletableFuture<>();
+
+    private volatile boolean cancelled = false;
+
+    private Thread carrier;
+
+    MultiplexedConsumerProcess(ConsumerProcess process, ScheduledExecutorService carriers, long timeSliceMs,
+                               Consumer<MultiplexedConsumerProcess> onReleased) {
+        this.process = process;
+        this.carriers = carriers;
+        this.timeSliceNanos = TimeUnit.MILLISECONDS.toNanos(timeSliceMs);
+        this.onReleased = onReleased;
+    }
+
+    void start() {
+        resume(0);
+    }
+
+    @Override
+    public void run() {
+        long wait = FINISHED;
+        attach(Thread.currentThread());
+        ConsumerWait.enterCarrier();
+        try {
+            wait = runSlice();
+        } catch (Exception ex) {
+            logger.error("Consumer process of subscription {} failed", process.getSubscription().getQualifiedName(), ex);
+        } finally {
+            ConsumerWait.leaveCarrier();
+            if (wait == FINISHED) {
+                release();
+            }
+            detach();
+        }
+        if (wait != FINISHED) {
+            resume(wait);
+        }
+    }
+
+    private long runSlice() {
+        long sliceEnd = System.nanoTime() + timeSliceNanos;
+        while (process.isRunning() && !cancelled && !Thread.currentThread().isInterrupted()) {
+            process.consume();
+            long wait = ConsumerWait.takeRequestedWait();
+            if (wait > 0) {
+                return wait;
+            }
+            if (System.nanoTime() - sliceEnd >= 0) {
+                return 0;
+            }
+        }
+        return FINISHED;
+    }
+
+    private void resume(long wait) {
+        try {
+            if (wait > 0) {
+                carriers.schedule(this, wait, TimeUnit.MILLISECONDS);
+            } else {
+                carriers.execute(this);
+            }
+        } catch (RejectedExecutionException ex) {
+            logger.warn("Carrier threads are shut down, releasing consumer process of subscription {}",
+                    process.getSubscription().getQualifiedName());
+            release();
+        }
+    }
+
+    private void release() {
+        try {
+            process.release();
+        } finally {
+            completion.complete(null);
+            onReleased.accept(this);
+        }
+    }
+
+    private synchronized void attach(Thread thread) {
+        carrier = thread;
+    }
+
+    private void detach() {
+        synchronized (this) {
+            carrier = null;
+        }
+        // carrier is shared with other processes, so it must not carry over interruption meant for this one
+        Thread.interrupted();
+    }
+
+    @Override
+    public synchronized boolean cancel(boolean mayInterruptIfRunning) {
+        if (completion.isDone()) {
+            return false;
+        }
+        cancelled = true;
+        if (mayInterruptIfRunning && carrier != null) {
+            carrier.interrupt();
+        }
+        return true;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    @Override
+    public boolean isDone() {
+        return completion.isDone();
+    }
+
+    @Override
+    public Void get() throws InterruptedException, ExecutionException {
+        return completion.get();
+    }
+
+    @Override
+    public Void get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+        return completion.get(timeout, unit);
+    }
+}
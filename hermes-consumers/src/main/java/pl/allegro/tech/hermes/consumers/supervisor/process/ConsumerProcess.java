@@ -59,20 +59,32 @@ public class ConsumerProcess implements Runnable {
         try {
             Thread.currentThread().setName("consumer-" + getSubscriptionName());
 
-            while (running && !Thread.currentThread().isInterrupted()) {
-                consumer.consume(this::processSignals);
+            while (isRunning() && !Thread.currentThread().isInterrupted()) {
+                consume();
             }
         } catch (Exception ex) {
             logger.error("Consumer process of subscription {} failed", getSubscriptionName(), ex);
         } finally {
-            logger.info("Releasing consumer process thread of subscription {}", getSubscriptionName());
-            refreshHealthcheck();
-            stop();
-            onConsumerStopped.accept(getSubscriptionName());
+            release();
             Thread.currentThread().setName("consumer-released-thread");
         }
     }
 
+    public boolean isRunning() {
+        return running;
+    }
+
+    public void consume() {
+        consumer.consume(this::processSignals);
+    }
+
+    public void release() {
+        logger.info("Releasing consumer process thread of subscription {}", getSubscriptionName());
+        refreshHealthcheck();
+        stop();
+        onConsumerStopped.accept(getSubscriptionName());
+    }
+
     public ConsumerProcess accept(Signal signal) {
         this.signals.add(signal);
         return this;
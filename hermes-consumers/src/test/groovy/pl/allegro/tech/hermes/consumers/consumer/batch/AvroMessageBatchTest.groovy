@@ -0,0 +1,113 @@
+package pl.allegro.tech.hermes.consumers.consumer.batch
+
+import org.apache.avro.Schema
+import org.apache.avro.file.DataFileStream
+import org.apache.avro.generic.GenericData
+import org.apache.avro.generic.GenericDatumReader
+import org.apache.avro.generic.GenericDatumWriter
+import org.apache.avro.generic.GenericRecord
+import org.apache.avro.generic.GenericRecordBuilder
+import org.apache.avro.io.EncoderFactory
+import pl.allegro.tech.hermes.api.ContentType
+import pl.allegro.tech.hermes.consumers.consumer.Message
+import pl.allegro.tech.hermes.consumers.test.MessageBuilder
+import pl.allegro.tech.hermes.tracker.consumers.MessageMetadata
+import spock.lang.Specification
+
+import java.nio.BufferOverflowException
+import java.nio.ByteBuffer
+
+import static java.nio.ByteBuffer.allocateDirect
+import static java.time.Clock.systemDefaultZone
+import static java.util.Collections.emptyList
+
+class AvroMessageBatchTest extends Specification {
+
+    static def LARGE_BATCH_SIZE = 100
+    static def LARGE_BATCH_TIME = Integer.MAX_VALUE
+    static def LARGE_BATCH_VOLUME = 1024
+
+    static def BATCH_ID = "1"
+
+    static def SCHEMA = new Schema.Parser().parse('''
+        {
+            "type": "record",
+            "name": "User",
+            "fields": [{"name": "name", "type": "string"}]
+        }
+    ''')
+
+    def "should write appended messages as avro container with single schema"() {
+        given:
+        AvroMessageBatch batch = new AvroMessageBatch(BATCH_ID, allocateDirect(LARGE_BATCH_VOLUME), LARGE_BATCH_SIZE, LARGE_BATCH_TIME, systemDefaultZone(), emptyList())
+
+        when:
+        ["alice", "bob", "carol"].each { batch.append(message(it, 1), Stub(MessageMetadata)) }
+        batch.close()
+
+        then:
+        def container = read(batch.getContent())
+        container.schema == SCHEMA
+        container.records.collect { it.get("name").toString() } == ["alice", "bob", "carol"]
+    }
+
+    def "should return the same content when read again"() {
+        given:
+        AvroMessageBatch batch = new AvroMessageBatch(BATCH_ID, allocateDirect(LARGE_BATCH_VOLUME), LARGE_BATCH_SIZE, LARGE_BATCH_TIME, systemDefaultZone(), emptyList())
+        batch.append(message("alice", 1), Stub(MessageMetadata))
+        batch.close()
+
+        when:
+        read(batch.getContent())
+
+        then:
+        read(batch.getContent()).records.size() == 1
+    }
+
+    def "should not fit message of another schema version"() {
+        given:
+        AvroMessageBatch batch = new AvroMessageBatch(BATCH_ID, allocateDirect(LARGE_BATCH_VOLUME), LARGE_BATCH_SIZE, LARGE_BATCH_TIME, systemDefaultZone(), emptyList())
+        batch.append(message("alice", 1), Stub(MessageMetadata))
+
+        expect:
+        batch.canFit(message("bob", 1))
+        !batch.canFit(message("bob", 2))
+        !batch.isBiggerThanTotalCapacity(message("bob", 2))
+    }
+
+    def "should throw exception when there is no remaining space for message"() {
+        given:
+        AvroMessageBatch batch = new AvroMessageBatch(BATCH_ID, allocateDirect(capacity), LARGE_BATCH_SIZE, LARGE_BATCH_TIME, systemDefaultZone(), emptyList())
+        def message = message("x" * 64, 1)
+
+        when:
+        batch.append(message, Stub(MessageMetadata))
+
+        then:
+        batch.isBiggerThanTotalCapacity(message)
+        thrown BufferOverflowException
+
+        where:
+        capacity << [64, 128]
+    }
+
+    private static Message message(String name, int version) {
+        GenericData.Record record = new GenericRecordBuilder(SCHEMA).set("name", name).build()
+        def out = new ByteArrayOutputStream()
+        def encoder = EncoderFactory.get().binaryEncoder(out, null)
+        new GenericDatumWriter<GenericData.Record>(SCHEMA).write(record, encoder)
+        encoder.flush()
+        MessageBuilder.withTestMessage()
+                .withContent(out.toByteArray())
+                .withSchema(SCHEMA, version)
+                .withContentType(ContentType.AVRO)
+                .build()
+    }
+
+    private static Map read(ByteBuffer content) {
+        byte[] bytes = new byte[content.remaining()]
+        content.duplicate().get(bytes)
+        def stream = new DataFileStream<GenericRecord>(new ByteArrayInputStream(bytes), new GenericDatumReader<GenericRecord>())
+        [schema: stream.schema, records: stream.collect()]
+    }
+}
@@ -1,5 +1,7 @@
 package pl.allegro.tech.hermes.consumers.consumer.batch
 
+import com.github.luben.zstd.ZstdInputStream
+import pl.allegro.tech.hermes.api.BatchCompression
 import pl.allegro.tech.hermes.tracker.consumers.MessageMetadata
 import spock.lang.Specification
 import spock.lang.Unroll
@@ -7,6 +9,7 @@ import spock.lang.Unroll
 import java.nio.BufferOverflowException
 import java.nio.ByteBuffer
 import java.time.Clock
+import java.util.zip.GZIPInputStream
 
 import static java.nio.ByteBuffer.allocateDirect
 import static java.time.Clock.systemDefaultZone
@@ -92,4 +95,62 @@ class JsonMessageBatchTest extends Specification {
         then:
         !jsonMessageBatch.isReadyForDelivery()
     }
+
+    @Unroll
+    def "should compress appended data with #compression"() {
+        given:
+        JsonMessageBatch batch = new JsonMessageBatch(BATCH_ID, allocateDirect(LARGE_BATCH_VOLUME), LARGE_BATCH_SIZE,
+                LARGE_BATCH_TIME, systemDefaultZone(), emptyList(), compression)
+
+        when:
+        ["first", "second", "third"].each { batch.append(it.bytes, Stub(MessageMetadata)) }
+        batch.close()
+
+        then:
+        decompress(batch.getContent(), compression) == '[first,second,third]'
+        batch.getContentEncoding() == Optional.of(encoding)
+        batch.getUncompressedSize() == '[first,second,third]'.length()
+
+        where:
+        compression          | encoding
+        BatchCompression.GZIP | 'gzip'
+        BatchCompression.ZSTD | 'zstd'
+    }
+
+    @Unroll
+    def "should fill compressed batch up to its capacity with #compression"() {
+        given:
+        JsonMessageBatch batch = new JsonMessageBatch(BATCH_ID, allocateDirect(LARGE_BATCH_VOLUME), Integer.MAX_VALUE,
+                LARGE_BATCH_TIME, systemDefaultZone(), emptyList(), compression)
+        def appended = []
+
+        when:
+        while (!batch.isFull()) {
+            def data = /{"id":${appended.size()},"status":"ACTIVE"}/
+            if (!batch.canFit(data.bytes)) {
+                break
+            }
+            batch.append(data.bytes, Stub(MessageMetadata))
+            appended << data
+        }
+        batch.close()
+
+        then:
+        decompress(batch.getContent(), compression) == '[' + appended.join(',') + ']'
+        batch.getContent().remaining() <= LARGE_BATCH_VOLUME
+        batch.getUncompressedSize() > LARGE_BATCH_VOLUME
+
+        where:
+        compression << [BatchCompression.GZIP, BatchCompression.ZSTD]
+    }
+
+    private static String decompress(ByteBuffer content, BatchCompression compression) {
+        byte[] bytes = new byte[content.remaining()]
+        content.duplicate().get(bytes)
+        def input = new ByteArrayInputStream(bytes)
+        switch (compression) {
+            case BatchCompression.GZIP: return new GZIPInputStream(input).text
+            case BatchCompression.ZSTD: return new ZstdInputStream(input).text
+        }
+    }
 }
@@ -1,5 +1,10 @@
 package pl.allegro.tech.hermes.consumers.consumer.filtering
 
+import org.apache.avro.Schema
+import org.apache.avro.generic.GenericData
+import org.apache.avro.generic.GenericDatumWriter
+import org.apache.avro.generic.GenericRecordBuilder
+import org.apache.avro.io.EncoderFactory
 import pl.allegro.tech.hermes.api.ContentType
 import pl.allegro.tech.hermes.api.MessageFilterSpecification
 import pl.allegro.tech.hermes.consumers.consumer.filtering.avro.AvroPathSubscriptionMessageFilterCompiler
@@ -9,6 +14,8 @@ import spock.lang.Specification
 import spock.lang.Unroll
 import tech.allegro.schema.json2avro.converter.JsonAvroConverter
 
+import java.nio.ByteBuffer
+
 class AvroPathMessageFilterSpec extends Specification {
 
     @Unroll
@@ -66,6 +73,73 @@ class AvroPathMessageFilterSpec extends Specification {
         ".topping.ingredients"    | ".*syrup.*" | true
     }
 
+    @Unroll
+    def "should skip fields preceding '#path'"(String path, String matcher, boolean result) {
+        given:
+        def schema = new Schema.Parser().parse('''
+            {
+                "type": "record",
+                "name": "Wide",
+                "fields": [
+                    {"name": "tags", "type": {"type": "map", "values": "string"}},
+                    {"name": "items", "type": {"type": "array", "items": {
+                        "type": "record", "name": "Item", "fields": [{"name": "sku", "type": "string"}]}}},
+                    {"name": "state", "type": {"type": "enum", "name": "State", "symbols": ["NEW", "PAID"]}},
+                    {"name": "hash", "type": {"type": "fixed", "name": "Hash", "size": 4}},
+                    {"name": "payload", "type": "bytes"},
+                    {"name": "version", "type": ["null", "long"]},
+                    {"name": "flags", "type": {"type": "record", "name": "Flags", "fields": [
+                        {"name": "active", "type": "boolean"},
+                        {"name": "score", "type": "float"}
+                    ]}},
+                    {"name": "owner", "type": "string"},
+                    {"name": "note", "type": ["null", "string"]}
+                ]
+            }
+        ''')
+        def record = new GenericRecordBuilder(schema)
+                .set("tags", [color: "red", size: "XL"])
+                .set("items", [new GenericRecordBuilder(schema.getField("items").schema().elementType).set("sku", "A-1").build()])
+                .set("state", new GenericData.EnumSymbol(schema.getField("state").schema(), "PAID"))
+                .set("hash", new GenericData.Fixed(schema.getField("hash").schema(), [1, 2, 3, 4] as byte[]))
+                .set("payload", ByteBuffer.wrap([5, 6, 7] as byte[]))
+                .set("version", 42L)
+                .set("flags", new GenericRecordBuilder(schema.getField("flags").schema()).set("active", true).set("score", 0.5f).build())
+                .set("owner", "alice")
+                .set("note", null)
+                .build()
+        def msg = MessageBuilder
+                .withTestMessage()
+                .withContent(serialize(record, schema))
+                .withSchema(schema, 0)
+                .withContentType(ContentType.AVRO)
+                .build()
+        def spec = new MessageFilterSpecification([path: path, matcher: matcher])
+
+        expect:
+        result == new AvroPathSubscriptionMessageFilterCompiler().compile(spec).test(msg)
+
+        where:
+        path            | matcher  | result
+        ".owner"        | "alice"  | true
+        ".owner"        | "bob"    | false
+        ".state"        | "PAID"   | true
+        ".version"      | "42"     | true
+        ".flags.score"  | "0.5"    | true
+        ".flags.active" | "true"   | true
+        ".note"         | "null"   | true
+        ".owner.name"   | ".*"     | false
+        ".missing"      | "null"   | true
+    }
+
+    private static byte[] serialize(GenericData.Record record, Schema schema) {
+        def out = new ByteArrayOutputStream()
+        def encoder = EncoderFactory.get().binaryEncoder(out, null)
+        new GenericDatumWriter<GenericData.Record>(schema).write(record, encoder)
+        encoder.flush()
+        out.toByteArray()
+    }
+
     def "should throw exception for malformed message"() {
         given:
         def schema = AvroUserSchemaLoader.load("/cake.avsc")
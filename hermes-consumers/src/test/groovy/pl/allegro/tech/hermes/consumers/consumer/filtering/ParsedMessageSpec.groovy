@@ -0,0 +1,26 @@
+package pl.allegro.tech.hermes.consumers.consumer.filtering
+
+import com.jayway.jsonpath.Configuration
+import spock.lang.Specification
+
+import static java.nio.charset.Charset.defaultCharset
+import static pl.allegro.tech.hermes.consumers.test.MessageBuilder.withTestMessage
+
+class ParsedMessageSpec extends Specification {
+
+    def json = '{"id": "0001", "type": "donut", "name": "Cake", "ppu": 0.55}'
+
+    def "should parse json content once for all filters of the chain"() {
+        given:
+        def message = new ParsedMessage(withTestMessage().withContent(json, defaultCharset()).build())
+        def configuration = Configuration.defaultConfiguration()
+
+        when:
+        def first = message.json(configuration)
+        def second = message.json(configuration)
+
+        then:
+        first.json().is(second.json())
+        second.read('$.type') == 'donut'
+    }
+}
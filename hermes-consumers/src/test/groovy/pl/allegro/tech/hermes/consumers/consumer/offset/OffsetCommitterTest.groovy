@@ -120,7 +120,64 @@ class OffsetCommitterTest extends Specification {
         messageCommitter.wereCommitted(2)
     }
 
+    def "should commit offset of message delivered after inflight offset was drained in previous iteration"() {
+        given:
+        queue.offerInflightOffset(offset(1, 3))
+        queue.offerInflightOffset(offset(1, 4))
+        queue.offerCommittedOffset(offset(1, 4))
+        committer.run()
+
+        when:
+        queue.offerCommittedOffset(offset(1, 3))
+        committer.run()
+
+        then:
+        messageCommitter.wereCommitted(1, offset(1, 3))
+        messageCommitter.wereCommitted(2, offset(1, 4))
+    }
+
+    def "should commit smallest uncommitted offset out of many inflight offsets"() {
+        given:
+        (0..9999).each { queue.offerInflightOffset(offset(1, it)) }
+        (0..9999).findAll { it != 7777 && it != 8888 }.each { queue.offerCommittedOffset(offset(1, it)) }
+
+        when:
+        committer.run()
+
+        then:
+        messageCommitter.wereCommitted(1, offset(1, 7777))
+
+        when:
+        queue.offerCommittedOffset(offset(1, 7777))
+        committer.run()
+        committer.run()
+
+        then:
+        messageCommitter.wereCommitted(2, offset(1, 7778))
+        messageCommitter.wereCommitted(3, offset(1, 8888))
+    }
+
+    def "should track offsets of primary and secondary kafka topics of subscription partition separately"() {
+        given:
+        queue.offerInflightOffset(kafkaTopicOffset('group_topic', 1, 3))
+        queue.offerInflightOffset(kafkaTopicOffset('group_topic_avro', 1, 10))
+        queue.offerInflightOffset(kafkaTopicOffset('group_topic_avro', 1, 11))
+
+        queue.offerCommittedOffset(kafkaTopicOffset('group_topic', 1, 3))
+        queue.offerCommittedOffset(kafkaTopicOffset('group_topic_avro', 1, 11))
+
+        when:
+        committer.run()
+
+        then:
+        messageCommitter.wereCommitted(1, kafkaTopicOffset('group_topic', 1, 4), kafkaTopicOffset('group_topic_avro', 1, 10))
+    }
+
     private SubscriptionPartitionOffset offset(int partition, long offset) {
-        return SubscriptionPartitionOffset.subscriptionPartitionOffset("group_topic", 'group.topic$sub', partition, offset)
+        return kafkaTopicOffset("group_topic", partition, offset)
+    }
+
+    private SubscriptionPartitionOffset kafkaTopicOffset(String kafkaTopic, int partition, long offset) {
+        return SubscriptionPartitionOffset.subscriptionPartitionOffset(kafkaTopic, 'group.topic$sub', partition, offset)
     }
 }
@@ -47,7 +47,7 @@ class DefaultErrorHandlerTest extends Specification {
 
         then:
         sendingTracker.hasFailedLog('kafka_topic', 0, 123L)
-        offsetQueue.drainCommittedOffsets({ o -> assert !(o.partition == 0 && o.offset == 123L) })
+        offsetQueue.drainCommittedOffsets({ id, offset -> assert !(offsetQueue.subscriptionPartition(id).partition == 0 && offset == 123L) })
     }
 
     def "should commit message and save tracking information on message discard"() {
@@ -60,6 +60,6 @@ class DefaultErrorHandlerTest extends Specification {
 
         then:
         sendingTracker.hasDiscardedLog('kafka_topic', 0, 123L)
-        offsetQueue.drainCommittedOffsets({ o -> assert o.partition == 0 && o.offset == 123L })
+        offsetQueue.drainCommittedOffsets({ id, offset -> assert offsetQueue.subscriptionPartition(id).partition == 0 && offset == 123L })
     }
 }
@@ -41,6 +41,6 @@ class DefaultSuccessHandlerTest extends Specification {
 
         then:
         sendingTracker.hasSuccessfulLog('kafka_topic', 0, 123L)
-        offsetQueue.drainCommittedOffsets({ o -> assert o.partition == 0 && o.offset == 123L })
+        offsetQueue.drainCommittedOffsets({ id, offset -> assert offsetQueue.subscriptionPartition(id).partition == 0 && offset == 123L })
     }
 }
@@ -65,6 +65,7 @@ class ConsumerProcessSupervisorTest extends Specification {
         }
 
         configFactory.overrideProperty(Configs.CONSUMER_BACKGROUND_SUPERVISOR_KILL_AFTER, killAfter)
+        configure(configFactory)
         metrics = new HermesMetrics(new MetricRegistry(), new PathsCompiler("localhost"))
 
         supervisor = new ConsumerProcessSupervisor(
@@ -75,6 +76,9 @@ class ConsumerProcessSupervisorTest extends Specification {
                 processFactory)
     }
 
+    void configure(MutableConfigFactory configFactory) {
+    }
+
     def cleanup() {
         supervisor.shutdown()
     }
@@ -170,13 +174,13 @@ class ConsumerProcessSupervisorTest extends Specification {
         }
     }
 
-    private static runAndWait(ConsumerProcessSupervisor supervisor) {
+    protected static runAndWait(ConsumerProcessSupervisor supervisor) {
         supervisor.run()
         // this helps to pass tests consistently on CI
         Thread.sleep(adjust(30))
     }
 
-    private static ConditionFactory await() {
+    protected static ConditionFactory await() {
         Awaitility.await().pollInterval(adjust(50), MILLISECONDS).atMost(adjust(500), MILLISECONDS)
     }
 
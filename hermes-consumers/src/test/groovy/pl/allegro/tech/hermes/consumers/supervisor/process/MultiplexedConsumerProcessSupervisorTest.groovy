@@ -0,0 +1,58 @@
+package pl.allegro.tech.hermes.consumers.supervisor.process
+
+import com.codahale.metrics.MetricRegistry
+import pl.allegro.tech.hermes.api.Subscription
+import pl.allegro.tech.hermes.common.config.Configs
+import pl.allegro.tech.hermes.common.metric.HermesMetrics
+import pl.allegro.tech.hermes.consumers.supervisor.ConsumersExecutorService
+import pl.allegro.tech.hermes.metrics.PathsCompiler
+import pl.allegro.tech.hermes.test.helper.config.MutableConfigFactory
+
+import java.util.concurrent.Future
+
+import static pl.allegro.tech.hermes.consumers.supervisor.process.Signal.SignalType.START
+import static pl.allegro.tech.hermes.consumers.supervisor.process.Signal.SignalType.STOP
+import static pl.allegro.tech.hermes.test.helper.builder.SubscriptionBuilder.subscription
+
+class MultiplexedConsumerProcessSupervisorTest extends ConsumerProcessSupervisorTest {
+
+    @Override
+    void configure(MutableConfigFactory configFactory) {
+        configFactory.overrideProperty(Configs.CONSUMER_EXECUTION_MODEL, 'multiplexed')
+        configFactory.overrideProperty(Configs.CONSUMER_MULTIPLEXED_THREAD_POOL_SIZE, 1)
+    }
+
+    def "should run more consumer processes than there are carrier threads"() {
+        given:
+        MutableConfigFactory configFactory = new MutableConfigFactory()
+        configure(configFactory)
+        ConsumersExecutorService executor = new ConsumersExecutorService(configFactory,
+                new HermesMetrics(new MetricRegistry(), new PathsCompiler("localhost")))
+        List<Subscription> subscriptions = (1..3).collect { subscription(topic1.getQualifiedName(), "sub$it").build() }
+        List<ConsumerStub> consumers = subscriptions.collect { new ConsumerStub(it) }
+        List<ConsumerProcess> processes = consumers.collect {
+            new ConsumerProcess(Signal.of(START, it.subscription.qualifiedName, it.subscription),
+                    it, Stub(Retransmitter), clock, unhealthyAfter, {})
+        }
+
+        when:
+        List<Future> handles = processes.collect { executor.execute(it) }
+
+        then:
+        await().until {
+            consumers.each { assert it.initialized && it.consumptionStarted }
+        }
+
+        when:
+        processes.each { it.accept(Signal.of(STOP, it.subscriptionName)) }
+
+        then:
+        await().until {
+            handles.each { assert it.done }
+            consumers.each { assert it.tearDown }
+        }
+
+        cleanup:
+        executor.shutdown()
+    }
+}
@@ -0,0 +1,321 @@
+package pl.allegro.tech.hermes.consumers.consumer;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import pl.allegro.tech.hermes.api.BatchSubscriptionPolicy;
+import pl.allegro.tech.hermes.api.ContentType;
+import pl.allegro.tech.hermes.api.EndpointAddress;
+import pl.allegro.tech.hermes.api.EndpointAddressResolverMetadata;
+import pl.allegro.tech.hermes.api.Subscription;
+import pl.allegro.tech.hermes.api.Topic;
+import pl.allegro.tech.hermes.common.config.ConfigFactory;
+import pl.allegro.tech.hermes.common.config.Configs;
+import pl.allegro.tech.hermes.common.message.wrapper.MessageContentWrapper;
+import pl.allegro.tech.hermes.common.metric.Counters;
+import pl.allegro.tech.hermes.common.metric.HermesMetrics;
+import pl.allegro.tech.hermes.consumers.consumer.batch.ByteBufferMessageBatchFactory;
+import pl.allegro.tech.hermes.consumers.consumer.batch.MessageBatch;
+import pl.allegro.tech.hermes.consumers.consumer.converter.MessageConverterResolver;
+import pl.allegro.tech.hermes.consumers.consumer.converter.NoOperationMessageConverter;
+import pl.allegro.tech.hermes.consumers.consumer.offset.OffsetCommitter;
+import pl.allegro.tech.hermes.consumers.consumer.offset.OffsetQueue;
+import pl.allegro.tech.hermes.consumers.consumer.offset.OffsetsToCommit;
+import pl.allegro.tech.hermes.consumers.consumer.offset.SubscriptionPartitionOffset;
+import pl.allegro.tech.hermes.consumers.consumer.receiver.MessageReceiver;
+import pl.allegro.tech.hermes.consumers.consumer.receiver.ReceiverFactory;
+import pl.allegro.tech.hermes.consumers.consumer.sender.MessageBatchSender;
+import pl.allegro.tech.hermes.consumers.consumer.sender.MessageSendingResult;
+import pl.allegro.tech.hermes.consumers.consumer.timer.HashedWheelTimer;
+import pl.allegro.tech.hermes.consumers.test.MessageBuilder;
+import pl.allegro.tech.hermes.metrics.PathsCompiler;
+import pl.allegro.tech.hermes.tracker.consumers.SendingTracker;
+import pl.allegro.tech.hermes.tracker.consumers.Trackers;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static com.jayway.awaitility.Awaitility.await;
+import static com.jayway.awaitility.Duration.ONE_SECOND;
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyMapOf;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static pl.allegro.tech.hermes.api.BatchSubscriptionPolicy.Builder.batchSubscriptionPolicy;
+import static pl.allegro.tech.hermes.test.helper.builder.SubscriptionBuilder.subscription;
+import static pl.allegro.tech.hermes.test.helper.builder.TopicBuilder.topic;
+
+public class BatchConsumerTest {
+
+    private static final Runnable NO_INTERRUPTS = () -> { };
+
+    private final Topic topic = topic("group.topic").build();
+
+    private final HermesMetrics hermesMetrics = new HermesMetrics(new MetricRegistry(), new PathsCompiler("host"));
+
+    private final OffsetQueue offsetQueue = new OffsetQueue(hermesMetrics, new ConfigFactory());
+
+    private final List<OffsetsToCommit> commits = new CopyOnWriteArrayList<>();
+
+    private final OffsetCommitter offsetCommitter = new OffsetCommitter(offsetQueue, commits::add, 10, hermesMetrics);
+
+    private final Queue<Message> messages = new ConcurrentLinkedQueue<>();
+
+    private final StubBatchSender sender = new StubBatchSender();
+
+    private final ExecutorService batchSenderExecutor = Executors.newSingleThreadExecutor();
+
+    private final HashedWheelTimer sendingTimer = new HashedWheelTimer("test-timer", 1, 64,
+            Executors.newFixedThreadPool(2), new Timer());
+
+    private final ReceiverFactory receiverFactory = mock(ReceiverFactory.class);
+
+    private final MessageConverterResolver converterResolver = mock(MessageConverterResolver.class);
+
+    private final MessageContentWrapper contentWrapper = mock(MessageContentWrapper.class);
+
+    private final Trackers trackers = mock(Trackers.class);
+
+    @Before
+    public void setUp() {
+        when(receiverFactory.createMessageReceiver(any(Topic.class), any(Subscription.class), any()))
+                .thenReturn(new QueueMessageReceiver());
+        when(converterResolver.converterFor(any(Message.class), any(Subscription.class)))
+                .thenReturn(new NoOperationMessageConverter());
+        when(contentWrapper.wrapJson(any(byte[].class), anyString(), anyLong(), anyMapOf(String.class, String.class)))
+                .thenAnswer(invocation -> invocation.getArguments()[0]);
+        when(trackers.get(any(Subscription.class))).thenReturn(mock(SendingTracker.class));
+    }
+
+    @After
+    public void tearDown() {
+        batchSenderExecutor.shutdownNow();
+    }
+
+    @Test
+    public void shouldFillNextBatchWhilePreviousOneIsBeingDelivered() {
+        // given
+        BatchConsumer consumer = batchConsumer(subscriptionWith(policy().build()), 2);
+        messages.add(message(1));
+        messages.add(message(2));
+        messages.add(message(3));
+
+        // when
+        consumer.consume(NO_INTERRUPTS);
+        consumer.consume(NO_INTERRUPTS);
+        consumer.consume(NO_INTERRUPTS);
+
+        // then
+        assertThat(sender.requests()).hasSize(2);
+        assertThat(messages).hasSize(1);
+
+        // when
+        sender.respond(0, MessageSendingResult.succeededResult());
+        await().atMost(ONE_SECOND).until(() -> {
+            consumer.consume(NO_INTERRUPTS);
+            return sender.requests().size() == 3;
+        });
+
+        // then
+        assertThat(messages).isEmpty();
+    }
+
+    @Test
+    public void shouldRetryBatchAfterFailedDelivery() {
+        // given
+        Subscription subscription = subscriptionWith(policy().build());
+        BatchConsumer consumer = batchConsumer(subscription, 2);
+        messages.add(message(1));
+
+        // when
+        consumer.consume(NO_INTERRUPTS);
+        sender.respond(0, MessageSendingResult.failedResult(503));
+        await().atMost(ONE_SECOND).until(() -> sender.requests().size() == 2);
+        sender.respond(1, MessageSendingResult.succeededResult());
+
+        // then
+        await().atMost(ONE_SECOND).until(() -> delivered(subscription) == 1);
+        assertThat(discarded(subscription)).isZero();
+    }
+
+    @Test
+    public void shouldRetryBatchWithCurrentSubscription() {
+        // given
+        Subscription subscription = subscriptionWith(policy().build());
+        Subscription updated = subscription(topic, "subscription")
+                .withEndpoint("http://localhost:8081/updated")
+                .withSubscriptionPolicy(policy().withRequestTimeout(500).build())
+                .build();
+        BatchConsumer consumer = batchConsumer(subscription, 2);
+        messages.add(message(1));
+
+        // when
+        consumer.consume(NO_INTERRUPTS);
+        consumer.updateSubscription(updated);
+        sender.respond(0, MessageSendingResult.failedResult(503));
+
+        // then
+        await().atMost(ONE_SECOND).until(() -> sender.requests().size() == 2);
+        assertThat(sender.requests().get(1).address).isEqualTo(updated.getEndpoint());
+        assertThat(sender.requests().get(1).requestTimeout).isEqualTo(500);
+    }
+
+    @Test
+    public void shouldDiscardBatchWhenTtlIsExceeded() {
+        // given
+        Subscription subscription = subscriptionWith(policy().withMessageTtl(0).build());
+        BatchConsumer consumer = batchConsumer(subscription, 2);
+        messages.add(message(1));
+
+        // when
+        consumer.consume(NO_INTERRUPTS);
+        sender.respond(0, MessageSendingResult.failedResult(503));
+
+        // then
+        await().atMost(ONE_SECOND).until(() -> discarded(subscription) == 1);
+        assertThat(sender.requests()).hasSize(1);
+    }
+
+    @Test
+    public void shouldNotCommitOffsetsPastBatchStillInDelivery() {
+        // given
+        Subscription subscription = subscriptionWith(policy().build());
+        BatchConsumer consumer = batchConsumer(subscription, 2);
+        messages.add(message(1));
+        messages.add(message(2));
+        consumer.consume(NO_INTERRUPTS);
+        consumer.consume(NO_INTERRUPTS);
+
+        // when
+        sender.respond(1, MessageSendingResult.succeededResult());
+        await().atMost(ONE_SECOND).until(() -> delivered(subscription) == 1);
+        offsetCommitter.run();
+
+        // then
+        assertThat(lastCommittedOffsets(subscription)).containsExactly(1L);
+
+        // when
+        sender.respond(0, MessageSendingResult.succeededResult());
+        await().atMost(ONE_SECOND).until(() -> delivered(subscription) == 2);
+        offsetCommitter.run();
+
+        // then
+        assertThat(lastCommittedOffsets(subscription)).containsExactly(2L);
+    }
+
+    private BatchConsumer batchConsumer(Subscription subscription, int pipelineDepth) {
+        ConfigFactory configs = mock(ConfigFactory.class);
+        when(configs.getIntProperty(Configs.CONSUMER_BATCH_PIPELINE_DEPTH)).thenReturn(pipelineDepth);
+        BatchConsumer consumer = new BatchConsumer(receiverFactory, sender,
+                new ByteBufferMessageBatchFactory(1024 * 1024, 10 * 1024 * 1024, Clock.systemDefaultZone(), hermesMetrics),
+                offsetQueue, converterResolver, contentWrapper, hermesMetrics, trackers, subscription, topic, configs,
+                batchSenderExecutor, sendingTimer);
+        consumer.initialize();
+        return consumer;
+    }
+
+    private Subscription subscriptionWith(BatchSubscriptionPolicy policy) {
+        return subscription(topic, "subscription")
+                .withEndpoint("http://localhost:8080/batch")
+                .withSubscriptionPolicy(policy)
+                .build();
+    }
+
+    private BatchSubscriptionPolicy.Builder policy() {
+        return batchSubscriptionPolicy()
+                .withMessageTtl(60)
+                .withMessageBackoff(10)
+                .withRequestTimeout(1000)
+                .withBatchSize(1)
+                .withBatchTime(30_000)
+                .withBatchVolume(1024);
+    }
+
+    private Message message(long offset) {
+        return MessageBuilder.withTestMessage()
+                .withContent("{\"offset\":" + offset + "}", StandardCharsets.UTF_8)
+                .withContentType(ContentType.JSON)
+                .withPartitionOffset("kafka_topic", 0, offset)
+                .build();
+    }
+
+    private long delivered(Subscription subscription) {
+        return hermesMetrics.counter(Counters.DELIVERED, subscription.getTopicName(), subscription.getName()).getCount();
+    }
+
+    private long discarded(Subscription subscription) {
+        return hermesMetrics.counter(Counters.DISCARDED, subscription.getTopicName(), subscription.getName()).getCount();
+    }
+
+    private List<Long> lastCommittedOffsets(Subscription subscription) {
+        Set<SubscriptionPartitionOffset> offsets = commits.get(commits.size() - 1).batchFor(subscription.getQualifiedName());
+        return offsets.stream().map(SubscriptionPartitionOffset::getOffset).collect(toList());
+    }
+
+    private class QueueMessageReceiver implements MessageReceiver {
+
+        @Override
+        public Optional<Message> next() {
+            return Optional.ofNullable(messages.poll());
+        }
+
+        @Override
+        public void commit(Set<SubscriptionPartitionOffset> offsets) {
+        }
+
+        @Override
+        public void moveOffset(SubscriptionPartitionOffset offset) {
+        }
+    }
+
+    private static class StubBatchSender implements MessageBatchSender {
+
+        private final List<Request> requests = new CopyOnWriteArrayList<>();
+
+        @Override
+        public CompletableFuture<MessageSendingResult> sendAsync(MessageBatch batch, EndpointAddress address,
+                                                                 EndpointAddressResolverMetadata metadata,
+                                                                 int requestTimeout) {
+            Request request = new Request(address, requestTimeout);
+            requests.add(request);
+            return request.response;
+        }
+
+        List<Request> requests() {
+            return Collections.unmodifiableList(new ArrayList<>(requests));
+        }
+
+        void respond(int request, MessageSendingResult result) {
+            requests.get(request).response.complete(result);
+        }
+    }
+
+    private static class Request {
+
+        private final EndpointAddress address;
+        private final int requestTimeout;
+        private final CompletableFuture<MessageSendingResult> response = new CompletableFuture<>();
+
+        Request(EndpointAddress address, int requestTimeout) {
+            this.address = address;
+            this.requestTimeout = requestTimeout;
+        }
+    }
+}
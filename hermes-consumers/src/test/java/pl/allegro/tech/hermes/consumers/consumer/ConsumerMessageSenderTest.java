@@ -1,9 +1,12 @@
 package pl.allegro.tech.hermes.consumers.consumer;
 
+import com.codahale.metrics.Counter;
 import com.codahale.metrics.Meter;
+import com.codahale.metrics.Timer;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 import pl.allegro.tech.hermes.api.Subscription;
@@ -11,6 +14,7 @@ import pl.allegro.tech.hermes.common.metric.HermesMetrics;
 import pl.allegro.tech.hermes.common.metric.Meters;
 import pl.allegro.tech.hermes.common.metric.timer.ConsumerLatencyTimer;
 import pl.allegro.tech.hermes.consumers.consumer.rate.AdjustableSemaphore;
+import pl.allegro.tech.hermes.consumers.consumer.rate.InflightLimit;
 import pl.allegro.tech.hermes.consumers.consumer.rate.SerialConsumerRateLimiter;
 import pl.allegro.tech.hermes.consumers.consumer.result.ErrorHandler;
 import pl.allegro.tech.hermes.consumers.consumer.result.SuccessHandler;
@@ -18,6 +22,7 @@ import pl.allegro.tech.hermes.consumers.consumer.sender.MessageSender;
 import pl.allegro.tech.hermes.consumers.consumer.sender.MessageSenderFactory;
 import pl.allegro.tech.hermes.consumers.consumer.sender.MessageSendingResult;
 import pl.allegro.tech.hermes.consumers.consumer.sender.timeout.FutureAsyncTimeout;
+import pl.allegro.tech.hermes.consumers.consumer.timer.HashedWheelTimer;
 import pl.allegro.tech.hermes.consumers.test.MessageBuilder;
 import pl.allegro.tech.hermes.test.helper.builder.SubscriptionBuilder;
 
@@ -30,6 +35,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.times;
@@ -82,8 +88,12 @@ public class ConsumerMessageSenderTest {
 
     private ConsumerMessageSender sender;
 
+    private final HashedWheelTimer sendingTimer = new HashedWheelTimer("test-timer", 1, 64,
+            Executors.newFixedThreadPool(2), new Timer());
+
     @Before
     public void setUp() {
+        when(rateLimiter.tryAcquire()).thenReturn(true);
         setUpMetrics(subscription);
         setUpMetrics(subscriptionWith4xxRetry);
         inflightSemaphore = new AdjustableSemaphore(0);
@@ -94,6 +104,7 @@ public class ConsumerMessageSenderTest {
         when(hermesMetrics.latencyTimer(subscription)).thenReturn(consumerLatencyTimer);
         when(hermesMetrics.consumerErrorsOtherMeter(subscription)).thenReturn(errors);
         when(consumerLatencyTimer.time()).thenReturn(consumerLatencyTimerContext);
+        when(hermesMetrics.pendingSendsCounter(subscription)).thenReturn(new Counter());
         when(hermesMetrics.meter(Meters.FAILED_METER_SUBSCRIPTION, subscription.getTopicName(), subscription.getName())).thenReturn(failedMeter);
     }
 
@@ -368,6 +379,93 @@ public class ConsumerMessageSenderTest {
         assertThat(sendingTime).isGreaterThan(500);
     }
 
+    @Test
+    public void shouldWaitForRateLimiterPermitWithoutReorderingMessages() {
+        // given
+        Message first = MessageBuilder.withTestMessage().withId("first").build();
+        Message second = MessageBuilder.withTestMessage().withId("second").build();
+        when(messageSender.send(first)).thenReturn(success());
+        when(messageSender.send(second)).thenReturn(success());
+        when(rateLimiter.tryAcquire()).thenReturn(false, true);
+        when(rateLimiter.permitIntervalMillis()).thenReturn(50L);
+
+        // when
+        sender.sendAsync(first);
+        sender.sendAsync(second);
+
+        // then
+        verify(messageSender, timeout(1000).times(2)).send(any(Message.class));
+        InOrder inOrder = inOrder(messageSender);
+        inOrder.verify(messageSender).send(first);
+        inOrder.verify(messageSender).send(second);
+    }
+
+    @Test
+    public void shouldSendMessagesWithoutDelayInOrderOfArrival() {
+        // given
+        when(messageSender.send(any(Message.class))).thenReturn(success());
+        Message[] messages = new Message[100];
+        for (int i = 0; i < messages.length; i++) {
+            messages[i] = MessageBuilder.withTestMessage().withId("message-" + i).build();
+        }
+
+        // when
+        for (Message message : messages) {
+            sender.sendAsync(message);
+        }
+
+        // then
+        verify(messageSender, timeout(1000).times(messages.length)).send(any(Message.class));
+        InOrder inOrder = inOrder(messageSender);
+        for (Message message : messages) {
+            inOrder.verify(messageSender).send(message);
+        }
+    }
+
+    @Test
+    public void shouldNotWaitForMessagesCancelledByStoppedTimer() {
+        // given
+        Subscription subscription = subscriptionBuilderWithTestValues()
+                .withSubscriptionPolicy(subscriptionPolicy().applyDefaults()
+                        .withSendingDelay(10_000)
+                        .build())
+                .build();
+        setUpMetrics(subscription);
+        Message message = message();
+        ConsumerMessageSender sender = consumerMessageSender(subscription);
+        sender.sendAsync(message);
+
+        // when
+        sendingTimer.shutdown();
+        long shutdownStartTime = System.currentTimeMillis();
+        sender.shutdown();
+
+        // then
+        assertThat(System.currentTimeMillis() - shutdownStartTime).isLessThan(1000);
+        verifyZeroInteractions(messageSender);
+    }
+
+    @Test
+    public void shouldSendPendingMessagesBeforeShutdownCompletes() {
+        // given
+        Subscription subscription = subscriptionBuilderWithTestValues()
+                .withSubscriptionPolicy(subscriptionPolicy().applyDefaults()
+                        .withSendingDelay(200)
+                        .build())
+                .build();
+        setUpMetrics(subscription);
+        Message message = message();
+        when(messageSender.send(message)).thenReturn(success());
+        ConsumerMessageSender sender = consumerMessageSender(subscription);
+        sender.sendAsync(message);
+
+        // when
+        sender.shutdown();
+
+        // then
+        verify(messageSender).send(message);
+    }
+
     private ConsumerMessageSender consumerMessageSender(Subscription subscription) {
         when(messageSenderFactory.create(subscription)).thenReturn(messageSender);
         ConsumerMessageSender sender = new ConsumerMessageSender(
@@ -378,9 +476,11 @@ public class ConsumerMessageSenderTest {
                 rateLimiter,
                 Executors.newSingleThreadExecutor(),
                 () -> inflightSemaphore.release(),
+                InflightLimit.FIXED,
                 hermesMetrics,
                 ASYNC_TIMEOUT_MS,
-                new FutureAsyncTimeout<>(MessageSendingResult::failedResult, Executors.newSingleThreadScheduledExecutor())
+                new FutureAsyncTimeout<>(MessageSendingResult::failedResult, Executors.newSingleThreadScheduledExecutor()),
+                sendingTimer
         );
         sender.initialize();
 
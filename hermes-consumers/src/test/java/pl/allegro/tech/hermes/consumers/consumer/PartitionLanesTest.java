@@ -0,0 +1,147 @@
+package pl.allegro.tech.hermes.consumers.consumer;
+
+import org.junit.Before;
+import org.junit.Test;
+import pl.allegro.tech.hermes.api.Subscription;
+import pl.allegro.tech.hermes.consumers.consumer.offset.OffsetQueue;
+import pl.allegro.tech.hermes.consumers.consumer.offset.SubscriptionPartition;
+import pl.allegro.tech.hermes.consumers.consumer.rate.InflightsPool;
+import pl.allegro.tech.hermes.consumers.consumer.rate.SerialConsumerRateLimiter;
+import pl.allegro.tech.hermes.consumers.consumer.receiver.MessageReceiver;
+import pl.allegro.tech.hermes.consumers.test.MessageBuilder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static pl.allegro.tech.hermes.test.helper.builder.SubscriptionBuilder.subscription;
+
+public class PartitionLanesTest {
+
+    private static final String KAFKA_TOPIC = "group_topic";
+
+    private final Subscription subscription = subscription("group.topic", "subscription").build();
+
+    private final ConsumerMessageSenderFactory senderFactory = mock(ConsumerMessageSenderFactory.class);
+
+    private final MessageReceiver receiver = mock(MessageReceiver.class);
+
+    private final List<ConsumerMessageSender> senders = new ArrayList<>();
+
+    private final Map<ConsumerMessageSender, InflightsPool> inflights = new HashMap<>();
+
+    private PartitionLanes lanes;
+
+    @Before
+    public void setUp() {
+        when(senderFactory.create(any(), any(), any(), any())).thenAnswer(invocation -> {
+            ConsumerMessageSender sender = mock(ConsumerMessageSender.class);
+            senders.add(sender);
+            inflights.put(sender, (InflightsPool) invocation.getArguments()[3]);
+            return sender;
+        });
+        lanes = new PartitionLanes(senderFactory, subscription, mock(SerialConsumerRateLimiter.class),
+                mock(OffsetQueue.class), 1);
+    }
+
+    @Test
+    public void shouldDeliverEveryPartitionThroughLaneOfItsOwn() {
+        // when
+        lanes.deliver(message(0, 1), receiver);
+        lanes.deliver(message(1, 1), receiver);
+
+        // then
+        assertThat(senders).hasSize(2);
+        senders.forEach(sender -> {
+            verify(sender).initialize();
+            verify(sender).sendAsync(any(Message.class));
+        });
+    }
+
+    @Test
+    public void shouldPausePartitionWithFullInflightWindowWithoutHoldingBackOtherPartitions() {
+        // given
+        Message blocked = message(0, 2);
+        lanes.deliver(message(0, 1), receiver);
+
+        // when
+        lanes.deliver(blocked, receiver);
+        lanes.deliver(message(1, 1), receiver);
+
+        // then
+        verify(receiver).pause(partition(0));
+        verify(receiver, never()).pause(partition(1));
+        verify(senderOf(0), never()).sendAsync(blocked);
+        verify(senderOf(1)).sendAsync(any(Message.class));
+    }
+
+    @Test
+    public void shouldSendParkedMessageAndResumePartitionWhenInflightIsReleased() {
+        // given
+        Message parked = message(0, 2);
+        lanes.deliver(message(0, 1), receiver);
+        lanes.deliver(parked, receiver);
+        lanes.resumeDrained(receiver);
+        verify(receiver, never()).resume(any());
+
+        // when
+        inflights.get(senderOf(0)).release();
+        lanes.resumeDrained(receiver);
+
+        // then
+        verify(senderOf(0)).sendAsync(parked);
+        verify(receiver).resume(partition(0));
+    }
+
+    @Test
+    public void shouldKeepInflightWindowWhenSendingParkedMessages() {
+        // given
+        lanes.deliver(message(0, 1), receiver);
+        lanes.deliver(message(0, 2), receiver);
+        lanes.deliver(message(0, 3), receiver);
+        ConsumerMessageSender sender = senderOf(0);
+
+        // when
+        inflights.get(sender).release();
+
+        // then
+        verify(sender, times(2)).sendAsync(any(Message.class));
+    }
+
+    @Test
+    public void shouldShutdownSendersOfAllLanes() {
+        // given
+        lanes.deliver(message(0, 1), receiver);
+        lanes.deliver(message(1, 1), receiver);
+
+        // when
+        lanes.shutdown();
+
+        // then
+        senders.forEach(sender -> verify(sender).shutdown());
+    }
+
+    private ConsumerMessageSender senderOf(int partition) {
+        // partitions are delivered in order in every test, so lanes are created in the same order
+        return senders.get(partition);
+    }
+
+    private SubscriptionPartition partition(int partition) {
+        return SubscriptionPartition.subscriptionPartition(KAFKA_TOPIC, subscription.getQualifiedName().toString(), partition);
+    }
+
+    private Message message(int partition, long offset) {
+        return MessageBuilder.withTestMessage()
+                .withId(partition + "-" + offset)
+                .withPartitionOffset(KAFKA_TOPIC, partition, offset)
+                .build();
+    }
+}
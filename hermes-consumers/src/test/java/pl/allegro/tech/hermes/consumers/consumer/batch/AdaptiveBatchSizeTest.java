@@ -0,0 +1,127 @@
+package pl.allegro.tech.hermes.consumers.consumer.batch;
+
+import org.junit.Test;
+import pl.allegro.tech.hermes.api.BatchSubscriptionPolicy;
+import pl.allegro.tech.hermes.test.helper.cache.FakeTicker;
+
+import java.time.Duration;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static pl.allegro.tech.hermes.api.BatchSubscriptionPolicy.Builder.batchSubscriptionPolicy;
+import static pl.allegro.tech.hermes.consumers.consumer.sender.MessageSendingResult.failedResult;
+import static pl.allegro.tech.hermes.consumers.consumer.sender.MessageSendingResult.succeededResult;
+
+public class AdaptiveBatchSizeTest {
+
+    private static final int REQUEST_TIMEOUT = 100;
+    private static final long FAST = MILLISECONDS.toNanos(10);
+    private static final long SLOW = MILLISECONDS.toNanos(60);
+
+    private final FakeTicker ticker = new FakeTicker();
+
+    @Test
+    public void shouldStartWithSubscriptionBatchSize() {
+        // when
+        AdaptiveBatchSize size = new AdaptiveBatchSize(policy(100), ticker);
+
+        // then
+        assertThat(size.getSize()).isEqualTo(100);
+    }
+
+    @Test
+    public void shouldHalveSizeWhenSubscriberFailsWithServerError() {
+        // given
+        AdaptiveBatchSize size = new AdaptiveBatchSize(policy(100), ticker);
+        ticker.advance(Duration.ofNanos(FAST));
+
+        // when
+        size.record(failedResult(503), FAST);
+
+        // then
+        assertThat(size.getSize()).isEqualTo(50);
+    }
+
+    @Test
+    public void shouldHalveSizeWhenLatencyApproachesRequestTimeout() {
+        // given
+        AdaptiveBatchSize size = new AdaptiveBatchSize(policy(100), ticker);
+        ticker.advance(Duration.ofNanos(SLOW));
+
+        // when
+        size.record(succeededResult(), SLOW);
+
+        // then
+        assertThat(size.getSize()).isEqualTo(50);
+    }
+
+    @Test
+    public void shouldHalveSizeOnceForFailuresOfSingleLatencyWindow() {
+        // given
+        AdaptiveBatchSize size = new AdaptiveBatchSize(policy(100), ticker);
+        ticker.advance(Duration.ofNanos(FAST));
+
+        // when
+        size.record(failedResult(503), FAST);
+        size.record(failedResult(503), FAST);
+        size.record(failedResult(503), FAST);
+
+        // then
+        assertThat(size.getSize()).isEqualTo(50);
+    }
+
+    @Test
+    public void shouldNotShrinkWhenSubscriberRejectsBatch() {
+        // given
+        AdaptiveBatchSize size = new AdaptiveBatchSize(policy(100), ticker);
+        ticker.advance(Duration.ofNanos(FAST));
+
+        // when
+        size.record(failedResult(400), FAST);
+
+        // then
+        assertThat(size.getSize()).isEqualTo(100);
+    }
+
+    @Test
+    public void shouldGrowBackUpToSubscriptionBatchSizeOnceErrorsStop() {
+        // given
+        AdaptiveBatchSize size = new AdaptiveBatchSize(policy(100), ticker);
+        ticker.advance(Duration.ofNanos(FAST));
+        size.record(failedResult(503), FAST);
+
+        // when
+        size.record(succeededResult(), FAST);
+
+        // then
+        assertThat(size.getSize()).isEqualTo(50);
+
+        // when
+        for (int i = 0; i < 100; i++) {
+            size.record(succeededResult(), FAST);
+        }
+
+        // then
+        assertThat(size.getSize()).isEqualTo(100);
+    }
+
+    @Test
+    public void shouldLimitSizeToUpdatedBatchSize() {
+        // given
+        AdaptiveBatchSize size = new AdaptiveBatchSize(policy(100), ticker);
+
+        // when
+        size.updatePolicy(policy(10));
+
+        // then
+        assertThat(size.getSize()).isEqualTo(10);
+    }
+
+    private static BatchSubscriptionPolicy policy(int batchSize) {
+        return batchSubscriptionPolicy()
+                .applyDefaults()
+                .withBatchSize(batchSize)
+                .withRequestTimeout(REQUEST_TIMEOUT)
+                .build();
+    }
+}
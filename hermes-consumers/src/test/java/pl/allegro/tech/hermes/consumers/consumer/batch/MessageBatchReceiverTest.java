@@ -0,0 +1,134 @@
+package pl.allegro.tech.hermes.consumers.consumer.batch;
+
+import com.codahale.metrics.MetricRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import pl.allegro.tech.hermes.api.BatchSubscriptionPolicy;
+import pl.allegro.tech.hermes.api.Subscription;
+import pl.allegro.tech.hermes.api.Topic;
+import pl.allegro.tech.hermes.common.message.wrapper.MessageContentWrapper;
+import pl.allegro.tech.hermes.common.metric.HermesMetrics;
+import pl.allegro.tech.hermes.consumers.consumer.Message;
+import pl.allegro.tech.hermes.consumers.consumer.converter.MessageConverterResolver;
+import pl.allegro.tech.hermes.consumers.consumer.converter.NoOperationMessageConverter;
+import pl.allegro.tech.hermes.consumers.consumer.receiver.MessageReceiver;
+import pl.allegro.tech.hermes.consumers.test.MessageBuilder;
+import pl.allegro.tech.hermes.metrics.PathsCompiler;
+import pl.allegro.tech.hermes.test.helper.cache.FakeTicker;
+import pl.allegro.tech.hermes.tracker.consumers.SendingTracker;
+import pl.allegro.tech.hermes.tracker.consumers.Trackers;
+
+import java.nio.ByteBuffer;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Optional;
+import java.util.Queue;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyMapOf;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static pl.allegro.tech.hermes.api.BatchSubscriptionPolicy.Builder.batchSubscriptionPolicy;
+import static pl.allegro.tech.hermes.consumers.consumer.sender.MessageSendingResult.failedResult;
+import static pl.allegro.tech.hermes.test.helper.builder.SubscriptionBuilder.subscription;
+import static pl.allegro.tech.hermes.test.helper.builder.TopicBuilder.topic;
+
+public class MessageBatchReceiverTest {
+
+    private static final long LATENCY = MILLISECONDS.toNanos(10);
+
+    private final Topic topic = topic("group.topic").build();
+
+    private final Subscription subscription = subscription(topic, "subscription")
+            .withSubscriptionPolicy(policy(4))
+            .build();
+
+    private final Queue<Message> messages = new ArrayDeque<>();
+
+    private final MessageReceiver messageReceiver = mock(MessageReceiver.class);
+
+    private final MessageBatchFactory batchFactory = mock(MessageBatchFactory.class);
+
+    private final MessageConverterResolver converterResolver = mock(MessageConverterResolver.class);
+
+    private final MessageContentWrapper contentWrapper = mock(MessageContentWrapper.class);
+
+    private final Trackers trackers = mock(Trackers.class);
+
+    private final FakeTicker ticker = new FakeTicker();
+
+    @Before
+    public void setUp() {
+        when(messageReceiver.next()).thenAnswer(invocation -> Optional.ofNullable(messages.poll()));
+        when(batchFactory.createBatch(subscription)).thenAnswer(invocation ->
+                new JsonMessageBatch("batch", ByteBuffer.allocate(1024), subscription, Clock.systemDefaultZone()));
+        when(converterResolver.converterFor(any(Message.class), any(Subscription.class)))
+                .thenReturn(new NoOperationMessageConverter());
+        when(contentWrapper.wrapJson(any(byte[].class), anyString(), anyLong(), anyMapOf(String.class, String.class)))
+                .thenAnswer(invocation -> invocation.getArguments()[0]);
+        when(trackers.get(any(Subscription.class))).thenReturn(mock(SendingTracker.class));
+    }
+
+    @Test
+    public void shouldCloseBatchAtAdaptiveSize() {
+        // given
+        AdaptiveBatchSize adaptiveBatchSize = new AdaptiveBatchSize(subscription.getBatchSubscriptionPolicy(), ticker);
+        ticker.advance(Duration.ofNanos(LATENCY));
+        adaptiveBatchSize.record(failedResult(503), LATENCY);
+        MessageBatchReceiver receiver = batchReceiver(adaptiveBatchSize);
+        for (int offset = 0; offset < 4; offset++) {
+            messages.add(message(offset));
+        }
+
+        // when
+        MessageBatch batch = receiver.next(subscription, () -> { }).getBatch();
+
+        // then
+        assertThat(batch.size()).isEqualTo(2);
+        assertThat(messages).hasSize(2);
+    }
+
+    @Test
+    public void shouldCloseBatchAtSubscriptionBatchSizeWithoutAdaptiveSize() {
+        // given
+        MessageBatchReceiver receiver = batchReceiver(null);
+        for (int offset = 0; offset < 4; offset++) {
+            messages.add(message(offset));
+        }
+
+        // when
+        MessageBatch batch = receiver.next(subscription, () -> { }).getBatch();
+
+        // then
+        assertThat(batch.size()).isEqualTo(4);
+        assertThat(messages).isEmpty();
+    }
+
+    private MessageBatchReceiver batchReceiver(AdaptiveBatchSize adaptiveBatchSize) {
+        return new MessageBatchReceiver(messageReceiver, batchFactory,
+                new HermesMetrics(new MetricRegistry(), new PathsCompiler("host")), converterResolver, contentWrapper,
+                topic, trackers, adaptiveBatchSize);
+    }
+
+    private static Message message(long offset) {
+        return MessageBuilder.withTestMessage()
+                .withPartitionOffset("kafka_topic", 0, offset)
+                .build();
+    }
+
+    private static BatchSubscriptionPolicy policy(int batchSize) {
+        return batchSubscriptionPolicy()
+                .withMessageTtl(60)
+                .withMessageBackoff(500)
+                .withRequestTimeout(1000)
+                .withBatchSize(batchSize)
+                .withBatchTime(30_000)
+                .withBatchVolume(1024)
+                .build();
+    }
+}
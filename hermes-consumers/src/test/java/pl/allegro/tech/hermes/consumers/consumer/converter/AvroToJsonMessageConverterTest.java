@@ -1,5 +1,12 @@
 package pl.allegro.tech.hermes.consumers.consumer.converter;
 
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.generic.GenericRecordBuilder;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.EncoderFactory;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.runners.MockitoJUnitRunner;
@@ -8,11 +15,18 @@ import pl.allegro.tech.hermes.consumers.consumer.Message;
 import pl.allegro.tech.hermes.schema.CompiledSchema;
 import pl.allegro.tech.hermes.schema.SchemaVersion;
 import pl.allegro.tech.hermes.test.helper.avro.AvroUser;
+import tech.allegro.schema.json2avro.converter.JsonAvroConverter;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
 
 import static com.google.common.collect.ImmutableMap.of;
+import static java.util.stream.Collectors.toList;
 import static net.javacrumbs.jsonunit.fluent.JsonFluentAssert.assertThatJson;
+import static org.assertj.core.api.Assertions.assertThat;
 import static pl.allegro.tech.hermes.consumers.consumer.Message.message;
 import static pl.allegro.tech.hermes.test.helper.builder.TopicBuilder.topic;
 
@@ -38,4 +52,67 @@ public class AvroToJsonMessageConverterTest {
         assertThatJson(new String(target.getData())).isEqualTo("{\"name\": \"Bob\", \"age\": 18, \"favoriteColor\": \"blue\"}");
     }
 
-}
\ No newline at end of file
+    @Test
+    public void shouldWriteSameJsonAsConverterOfRecordWithoutMetadata() throws IOException {
+        // given
+        Schema schema = new Schema.Parser().parse("{\"type\": \"record\", \"name\": \"Order\", \"fields\": ["
+                + "{\"name\": \"id\", \"type\": \"string\"},"
+                + "{\"name\": \"__metadata\", \"type\": [\"null\", {\"type\": \"map\", \"values\": \"string\"}], \"default\": null},"
+                + "{\"name\": \"state\", \"type\": {\"type\": \"enum\", \"name\": \"State\", \"symbols\": [\"NEW\", \"PAID\"]}},"
+                + "{\"name\": \"items\", \"type\": {\"type\": \"array\", \"items\": {\"type\": \"record\", \"name\": \"Item\", \"fields\": ["
+                + "{\"name\": \"sku\", \"type\": \"string\"}, {\"name\": \"price\", \"type\": \"double\"}]}}},"
+                + "{\"name\": \"tags\", \"type\": {\"type\": \"map\", \"values\": \"long\"}},"
+                + "{\"name\": \"note\", \"type\": [\"null\", \"string\"]},"
+                + "{\"name\": \"hash\", \"type\": {\"type\": \"fixed\", \"name\": \"Hash\", \"size\": 2}},"
+                + "{\"name\": \"payload\", \"type\": \"bytes\"},"
+                + "{\"name\": \"paid\", \"type\": \"boolean\"},"
+                + "{\"name\": \"discount\", \"type\": \"float\"},"
+                + "{\"name\": \"quantity\", \"type\": \"int\"}]}");
+        Schema item = schema.getField("items").schema().getElementType();
+        GenericRecord record = new GenericRecordBuilder(schema)
+                .set("id", "order-1")
+                .set("__metadata", Collections.singletonMap("messageId", "abc"))
+                .set("state", new GenericData.EnumSymbol(schema.getField("state").schema(), "PAID"))
+                .set("items", Arrays.asList(
+                        new GenericRecordBuilder(item).set("sku", "A-1").set("price", 9.99).build(),
+                        new GenericRecordBuilder(item).set("sku", "B-2").set("price", 0.5).build()))
+                .set("tags", Collections.singletonMap("priority", 3L))
+                .set("note", "leave at the door")
+                .set("hash", new GenericData.Fixed(schema.getField("hash").schema(), new byte[]{1, 2}))
+                .set("payload", ByteBuffer.wrap(new byte[]{3, 4, 5}))
+                .set("paid", true)
+                .set("discount", 0.25f)
+                .set("quantity", 2)
+                .build();
+        Message source = message()
+                .withData(serialize(record))
+                .withSchema(new CompiledSchema<>(schema, SchemaVersion.valueOf(0)))
+                .withExternalMetadata(of())
+                .build();
+        AvroToJsonMessageConverter converter = new AvroToJsonMessageConverter();
+
+        // when
+        Message target = converter.convert(source, topic("group.topic").build());
+
+        // then
+        assertThat(new String(target.getData())).isEqualTo(new String(new JsonAvroConverter().convertToJson(withoutMetadata(record))));
+    }
+
+    private static byte[] serialize(GenericRecord record) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, null);
+        new GenericDatumWriter<GenericRecord>(record.getSchema()).write(record, encoder);
+        encoder.flush();
+        return out.toByteArray();
+    }
+
+    private static GenericRecord withoutMetadata(GenericRecord record) {
+        Schema schema = Schema.createRecord(record.getSchema().getFields().stream()
+                .filter(field -> !field.name().equals("__metadata"))
+                .map(field -> new Schema.Field(field.name(), field.schema(), field.doc(), field.defaultValue()))
+                .collect(toList()));
+        GenericRecordBuilder builder = new GenericRecordBuilder(schema);
+        schema.getFields().forEach(field -> builder.set(field, record.get(field.name())));
+        return builder.build();
+    }
+}
@@ -0,0 +1,204 @@
+package pl.allegro.tech.hermes.consumers.consumer.ordering;
+
+import com.google.common.collect.ImmutableMap;
+import org.junit.Before;
+import org.junit.Test;
+import pl.allegro.tech.hermes.api.ContentType;
+import pl.allegro.tech.hermes.api.OrderingKey;
+import pl.allegro.tech.hermes.api.Subscription;
+import pl.allegro.tech.hermes.consumers.consumer.ConsumerMessageSender;
+import pl.allegro.tech.hermes.consumers.consumer.Message;
+import pl.allegro.tech.hermes.consumers.consumer.converter.AvroToJsonMessageConverter;
+import pl.allegro.tech.hermes.consumers.consumer.converter.MessageConverter;
+import pl.allegro.tech.hermes.consumers.consumer.rate.InflightsPool;
+import pl.allegro.tech.hermes.consumers.test.MessageBuilder;
+import pl.allegro.tech.hermes.test.helper.avro.AvroUser;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static pl.allegro.tech.hermes.api.SubscriptionPolicy.Builder.subscriptionPolicy;
+import static pl.allegro.tech.hermes.test.helper.builder.SubscriptionBuilder.subscription;
+
+public class KeyOrderedSenderTest {
+
+    private static final String KEY_HEADER = "Entity-Id";
+
+    private final ConsumerMessageSender messageSender = mock(ConsumerMessageSender.class);
+
+    private final AtomicInteger released = new AtomicInteger();
+
+    private final InflightsPool inflight = released::incrementAndGet;
+
+    private KeyOrderedSender sender;
+
+    @Before
+    public void setUp() {
+        sender = new KeyOrderedSender(subscriptionOrderedBy(OrderingKey.header(KEY_HEADER)), inflight, pool -> messageSender);
+        sender.initialize();
+    }
+
+    @Test
+    public void shouldSendMessagesWithDifferentKeysAtTheSameTime() {
+        // given
+        Message first = message("1", "a");
+        Message second = message("2", "b");
+
+        // when
+        send(sender, first);
+        send(sender, second);
+
+        // then
+        verify(messageSender).sendAsync(first);
+        verify(messageSender).sendAsync(second);
+    }
+
+    @Test
+    public void shouldSendMessageWithTheSameKeyOnlyAfterPreviousOneIsDelivered() {
+        // given
+        Message first = message("1", "a");
+        Message second = message("2", "a");
+        Message third = message("3", "a");
+        send(sender, first);
+        send(sender, second);
+        send(sender, third);
+        verify(messageSender, never()).sendAsync(second);
+
+        // when
+        sender.release(first);
+
+        // then
+        verify(messageSender).sendAsync(second);
+        verify(messageSender, never()).sendAsync(third);
+        assertThat(released.get()).isEqualTo(1);
+
+        // when
+        sender.release(second);
+
+        // then
+        verify(messageSender).sendAsync(third);
+        assertThat(released.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldSendMessageWithKeyRightAwayWhenPreviousOneWithTheSameKeyIsAlreadyDelivered() {
+        // given
+        Message first = message("1", "a");
+        send(sender, first);
+        sender.release(first);
+
+        // when
+        Message second = message("2", "a");
+        send(sender, second);
+
+        // then
+        verify(messageSender).sendAsync(second);
+    }
+
+    @Test
+    public void shouldSendMessagesWithoutKeyRightAway() {
+        // given
+        Message first = MessageBuilder.testMessage();
+        Message second = MessageBuilder.testMessage();
+
+        // when
+        send(sender, first);
+        send(sender, second);
+
+        // then
+        verify(messageSender, times(2)).sendAsync(any(Message.class));
+    }
+
+    @Test
+    public void shouldNotOrderMessagesOfSubscriptionWithoutOrderingKey() {
+        // given
+        KeyOrderedSender unordered = new KeyOrderedSender(subscriptionOrderedBy(null), inflight, pool -> messageSender);
+
+        // when
+        send(unordered, message("1", "a"));
+        send(unordered, message("2", "a"));
+
+        // then
+        verify(messageSender, times(2)).sendAsync(any(Message.class));
+    }
+
+    @Test
+    public void shouldStartOrderingWhenOrderingKeyIsAddedToSubscription() {
+        // given
+        KeyOrderedSender sender = new KeyOrderedSender(subscriptionOrderedBy(null), inflight, pool -> messageSender);
+
+        // when
+        sender.updateSubscription(subscriptionOrderedBy(OrderingKey.header(KEY_HEADER)));
+        send(sender, message("1", "a"));
+        send(sender, message("2", "a"));
+
+        // then
+        verify(messageSender, times(1)).sendAsync(any(Message.class));
+    }
+
+    @Test
+    public void shouldNotSendWaitingMessagesAfterShutdown() {
+        // given
+        Message first = message("1", "a");
+        Message second = message("2", "a");
+        send(sender, first);
+        send(sender, second);
+
+        // when
+        sender.shutdown();
+        sender.release(first);
+
+        // then
+        verify(messageSender, never()).sendAsync(second);
+        assertThat(released.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldOrderMessagesOfAvroTopicConvertedToJsonByKeyOfAvroRecord() throws Exception {
+        // given
+        KeyOrderedSender sender = new KeyOrderedSender(subscriptionOrderedBy(OrderingKey.avroPath(".name")), inflight,
+                pool -> messageSender);
+        sender.initialize();
+        Message first = avroMessage("1", new AvroUser("Bob", 50, "blue"));
+        Message second = avroMessage("2", new AvroUser("Bob", 51, "red"));
+        MessageConverter converter = new AvroToJsonMessageConverter();
+
+        // when
+        sender.sendAsync(converter.convert(first, null), sender.extractKey(first));
+        sender.sendAsync(converter.convert(second, null), sender.extractKey(second));
+
+        // then
+        verify(messageSender, times(1)).sendAsync(any(Message.class));
+    }
+
+    private void send(KeyOrderedSender sender, Message message) {
+        sender.sendAsync(message, sender.extractKey(message));
+    }
+
+    private Subscription subscriptionOrderedBy(OrderingKey orderingKey) {
+        return subscription("group.topic", "subscription")
+                .withSubscriptionPolicy(subscriptionPolicy().withOrderingKey(orderingKey).build())
+                .build();
+    }
+
+    private Message message(String id, String key) {
+        return MessageBuilder.withTestMessage()
+                .withId(id)
+                .withExternalMetadata(ImmutableMap.of(KEY_HEADER, key))
+                .build();
+    }
+
+    private Message avroMessage(String id, AvroUser user) {
+        return MessageBuilder.withTestMessage()
+                .withId(id)
+                .withContent(user.asBytes())
+                .withContentType(ContentType.AVRO)
+                .withSchema(user.getSchema(), 1)
+                .build();
+    }
+}
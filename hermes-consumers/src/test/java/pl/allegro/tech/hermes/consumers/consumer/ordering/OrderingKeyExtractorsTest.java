@@ -0,0 +1,77 @@
+package pl.allegro.tech.hermes.consumers.consumer.ordering;
+
+import com.google.common.collect.ImmutableMap;
+import org.junit.Test;
+import pl.allegro.tech.hermes.api.ContentType;
+import pl.allegro.tech.hermes.api.OrderingKey;
+import pl.allegro.tech.hermes.consumers.consumer.Message;
+import pl.allegro.tech.hermes.consumers.test.MessageBuilder;
+import pl.allegro.tech.hermes.test.helper.avro.AvroUser;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OrderingKeyExtractorsTest {
+
+    @Test
+    public void shouldExtractKeyFromHeader() {
+        // given
+        Message message = MessageBuilder.withTestMessage()
+                .withExternalMetadata(ImmutableMap.of("Entity-Id", "42"))
+                .build();
+
+        // when & then
+        assertThat(OrderingKeyExtractors.create(OrderingKey.header("Entity-Id")).extract(message)).contains("42");
+        assertThat(OrderingKeyExtractors.create(OrderingKey.header("Other-Id")).extract(message)).isEmpty();
+    }
+
+    @Test
+    public void shouldExtractKeyFromJsonMessage() {
+        // given
+        Message message = MessageBuilder.withTestMessage()
+                .withContent("{\"order\": {\"id\": 42}}", StandardCharsets.UTF_8)
+                .withContentType(ContentType.JSON)
+                .build();
+
+        // when & then
+        assertThat(OrderingKeyExtractors.create(OrderingKey.jsonPath("$.order.id")).extract(message)).contains("42");
+        assertThat(OrderingKeyExtractors.create(OrderingKey.jsonPath("$.order.customer")).extract(message)).isEmpty();
+    }
+
+    @Test
+    public void shouldExtractKeyFromAvroMessage() throws Exception {
+        // given
+        AvroUser user = new AvroUser("Bob", 50, "blue");
+        Message message = MessageBuilder.withTestMessage()
+                .withContent(user.asBytes())
+                .withContentType(ContentType.AVRO)
+                .withSchema(user.getSchema(), 1)
+                .build();
+
+        // when & then
+        assertThat(OrderingKeyExtractors.create(OrderingKey.avroPath(".name")).extract(message)).contains("Bob");
+        assertThat(OrderingKeyExtractors.create(OrderingKey.avroPath(".name.first")).extract(message)).isEmpty();
+    }
+
+    @Test
+    public void shouldNotExtractKeyFromMessageOfOtherContentType() {
+        // given
+        Message message = MessageBuilder.withTestMessage()
+                .withContent("{\"id\": 42}", StandardCharsets.UTF_8)
+                .withContentType(ContentType.AVRO)
+                .build();
+
+        // when & then
+        assertThat(OrderingKeyExtractors.create(OrderingKey.jsonPath("$.id")).extract(message)).isEmpty();
+    }
+
+    @Test
+    public void shouldFallBackToUnorderedDeliveryForOrderingKeyWithoutArgument() {
+        // when & then
+        assertThat(OrderingKeyExtractors.create(new OrderingKey(OrderingKey.JSON_PATH, null, null)))
+                .isSameAs(OrderingKeyExtractors.NONE);
+        assertThat(OrderingKeyExtractors.create(new OrderingKey(OrderingKey.HEADER, null, null)))
+                .isSameAs(OrderingKeyExtractors.NONE);
+    }
+}
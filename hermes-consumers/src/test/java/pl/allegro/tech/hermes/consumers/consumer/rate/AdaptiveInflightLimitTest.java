@@ -0,0 +1,118 @@
+package pl.allegro.tech.hermes.consumers.consumer.rate;
+
+import org.junit.Test;
+import pl.allegro.tech.hermes.test.helper.cache.FakeTicker;
+
+import java.time.Duration;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static pl.allegro.tech.hermes.consumers.consumer.sender.MessageSendingResult.failedResult;
+import static pl.allegro.tech.hermes.consumers.consumer.sender.MessageSendingResult.succeededResult;
+
+public class AdaptiveInflightLimitTest {
+
+    private static final long LATENCY = MILLISECONDS.toNanos(10);
+
+    private final AdjustableSemaphore semaphore = new AdjustableSemaphore(0);
+
+    private final FakeTicker ticker = new FakeTicker();
+
+    @Test
+    public void shouldRaiseLimitUpToSubscriptionInflightSize() {
+        // given
+        AdaptiveInflightLimit limit = new AdaptiveInflightLimit(semaphore, 2, 4, ticker);
+
+        // when
+        for (int i = 0; i < 100; i++) {
+            limit.record(succeededResult(), LATENCY);
+        }
+
+        // then
+        assertThat(limit.getLimit()).isEqualTo(4);
+        assertThat(semaphore.availablePermits()).isEqualTo(4);
+    }
+
+    @Test
+    public void shouldCutLimitWhenSubscriberFailsWithServerError() {
+        // given
+        AdaptiveInflightLimit limit = new AdaptiveInflightLimit(semaphore, 20, 20, ticker);
+        ticker.advance(Duration.ofNanos(LATENCY));
+
+        // when
+        limit.record(failedResult(503), LATENCY);
+
+        // then
+        assertThat(limit.getLimit()).isEqualTo(18);
+    }
+
+    @Test
+    public void shouldCutLimitOnceForFailuresOfSingleLatencyWindow() {
+        // given
+        AdaptiveInflightLimit limit = new AdaptiveInflightLimit(semaphore, 20, 20, ticker);
+        ticker.advance(Duration.ofNanos(LATENCY));
+
+        // when
+        limit.record(failedResult(503), LATENCY);
+        limit.record(failedResult(503), LATENCY);
+        limit.record(failedResult(503), LATENCY);
+
+        // then
+        assertThat(limit.getLimit()).isEqualTo(18);
+    }
+
+    @Test
+    public void shouldCutLimitAgainForFailuresOfNextLatencyWindow() {
+        // given
+        AdaptiveInflightLimit limit = new AdaptiveInflightLimit(semaphore, 20, 20, ticker);
+        ticker.advance(Duration.ofNanos(LATENCY));
+        limit.record(failedResult(503), LATENCY);
+
+        // when
+        ticker.advance(Duration.ofNanos(LATENCY));
+        limit.record(failedResult(503), LATENCY);
+
+        // then
+        assertThat(limit.getLimit()).isEqualTo(16);
+    }
+
+    @Test
+    public void shouldNotCutLimitWhenSubscriberRejectsMessage() {
+        // given
+        AdaptiveInflightLimit limit = new AdaptiveInflightLimit(semaphore, 20, 20, ticker);
+        ticker.advance(Duration.ofNanos(LATENCY));
+
+        // when
+        limit.record(failedResult(400), LATENCY);
+
+        // then
+        assertThat(limit.getLimit()).isEqualTo(20);
+    }
+
+    @Test
+    public void shouldCutLimitWhenLatencyGrows() {
+        // given
+        AdaptiveInflightLimit limit = new AdaptiveInflightLimit(semaphore, 20, 20, ticker);
+        limit.record(succeededResult(), LATENCY);
+        ticker.advance(Duration.ofNanos(3 * LATENCY));
+
+        // when
+        limit.record(succeededResult(), 3 * LATENCY);
+
+        // then
+        assertThat(limit.getLimit()).isEqualTo(18);
+    }
+
+    @Test
+    public void shouldLowerLimitWhenSubscriptionInflightSizeDecreases() {
+        // given
+        AdaptiveInflightLimit limit = new AdaptiveInflightLimit(semaphore, 10, 10, ticker);
+
+        // when
+        limit.updateMaxLimit(5);
+
+        // then
+        assertThat(limit.getLimit()).isEqualTo(5);
+        assertThat(semaphore.availablePermits()).isEqualTo(5);
+    }
+}
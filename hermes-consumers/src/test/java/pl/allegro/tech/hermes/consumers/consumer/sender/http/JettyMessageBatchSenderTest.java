@@ -0,0 +1,157 @@
+package pl.allegro.tech.hermes.consumers.consumer.sender.http;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.verification.LoggedRequest;
+import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.jetty.util.HttpCookieStore;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import pl.allegro.tech.hermes.api.BatchCompression;
+import pl.allegro.tech.hermes.api.EndpointAddress;
+import pl.allegro.tech.hermes.api.EndpointAddressResolverMetadata;
+import pl.allegro.tech.hermes.consumers.consumer.batch.JsonMessageBatch;
+import pl.allegro.tech.hermes.consumers.consumer.batch.MessageBatch;
+import pl.allegro.tech.hermes.consumers.consumer.sender.MessageSendingResult;
+import pl.allegro.tech.hermes.consumers.consumer.sender.resolver.SimpleEndpointAddressResolver;
+import pl.allegro.tech.hermes.test.helper.endpoint.RemoteServiceEndpoint;
+import pl.allegro.tech.hermes.test.helper.util.Ports;
+import pl.allegro.tech.hermes.tracker.consumers.MessageMetadata;
+
+import java.nio.ByteBuffer;
+import java.time.Clock;
+import java.util.concurrent.TimeUnit;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.emptyList;
+import static javax.ws.rs.core.Response.Status.INTERNAL_SERVER_ERROR;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+public class JettyMessageBatchSenderTest {
+
+    private static final int ENDPOINT_PORT = Ports.nextAvailable();
+    private static final EndpointAddress ENDPOINT = EndpointAddress.of(format("http://localhost:%d/", ENDPOINT_PORT));
+    private static final EndpointAddressResolverMetadata METADATA = EndpointAddressResolverMetadata.empty();
+
+    private static HttpClient client;
+    private static WireMockServer wireMockServer;
+
+    private RemoteServiceEndpoint remoteServiceEndpoint;
+    private JettyMessageBatchSender batchSender;
+
+    @BeforeClass
+    public static void setupEnvironment() throws Exception {
+        wireMockServer = new WireMockServer(ENDPOINT_PORT);
+        wireMockServer.start();
+
+        client = new HttpClient();
+        client.setCookieStore(new HttpCookieStore.Empty());
+        client.setConnectTimeout(1000);
+        client.start();
+    }
+
+    @AfterClass
+    public static void cleanEnvironment() throws Exception {
+        wireMockServer.shutdown();
+        client.stop();
+    }
+
+    @Before
+    public void setUp() {
+        remoteServiceEndpoint = new RemoteServiceEndpoint(wireMockServer);
+        batchSender = new JettyMessageBatchSender(client, new SimpleEndpointAddressResolver(), 1000);
+    }
+
+    @Test
+    public void shouldSendBatchContentWithBatchHeaders() throws Exception {
+        // given
+        remoteServiceEndpoint.expectMessages("[{\"a\":1},{\"b\":2}]");
+        MessageBatch batch = batch("{\"a\":1}", "{\"b\":2}");
+        batch.incrementRetryCounter();
+
+        // when
+        MessageSendingResult result = batchSender.sendAsync(batch, ENDPOINT, METADATA, 1000).get(1, TimeUnit.SECONDS);
+
+        // then
+        assertThat(result.succeeded()).isTrue();
+        remoteServiceEndpoint.waitUntilReceived();
+        LoggedRequest request = remoteServiceEndpoint.getLastReceivedRequest();
+        assertThat(request.getBodyAsString()).isEqualTo("[{\"a\":1},{\"b\":2}]");
+        assertThat(request.getHeader("Hermes-Batch-Id")).isEqualTo("batch");
+        assertThat(request.getHeader("Hermes-Retry-Count")).isEqualTo("1");
+        assertThat(request.getHeader("Content-Type")).startsWith("application/json");
+    }
+
+    @Test
+    public void shouldSendContentEncodingHeaderForCompressedBatch() throws Exception {
+        // given
+        remoteServiceEndpoint.expectMessages("[{\"a\":1}]");
+        JsonMessageBatch batch = new JsonMessageBatch("batch", ByteBuffer.allocateDirect(1024), 100, Integer.MAX_VALUE,
+                Clock.systemDefaultZone(), emptyList(), BatchCompression.GZIP);
+        batch.append("{\"a\":1}".getBytes(UTF_8), mock(MessageMetadata.class));
+
+        // when
+        MessageSendingResult result = batchSender.sendAsync(batch.close(), ENDPOINT, METADATA, 1000).get(1, TimeUnit.SECONDS);
+
+        // then
+        assertThat(result.succeeded()).isTrue();
+        remoteServiceEndpoint.waitUntilReceived();
+        assertThat(remoteServiceEndpoint.getLastReceivedRequest().getHeader("Content-Encoding")).isEqualTo("gzip");
+    }
+
+    @Test
+    public void shouldSendSameContentWhenRetried() throws Exception {
+        // given
+        remoteServiceEndpoint.expectMessages("[{\"a\":1}]", "[{\"a\":1}]");
+        MessageBatch batch = batch("{\"a\":1}");
+
+        // when
+        batchSender.sendAsync(batch, ENDPOINT, METADATA, 1000).get(1, TimeUnit.SECONDS);
+        batchSender.sendAsync(batch, ENDPOINT, METADATA, 1000).get(1, TimeUnit.SECONDS);
+
+        // then
+        remoteServiceEndpoint.waitUntilReceived();
+        assertThat(remoteServiceEndpoint.getLastReceivedRequest().getBodyAsString()).isEqualTo("[{\"a\":1}]");
+    }
+
+    @Test
+    public void shouldReturnFailedResultWhenSubscriberFails() throws Exception {
+        // given
+        remoteServiceEndpoint.setReturnedStatusCode(INTERNAL_SERVER_ERROR.getStatusCode());
+        remoteServiceEndpoint.expectMessages("[{\"a\":1}]");
+
+        // when
+        MessageSendingResult result = batchSender.sendAsync(batch("{\"a\":1}"), ENDPOINT, METADATA, 1000)
+                .get(1, TimeUnit.SECONDS);
+
+        // then
+        assertThat(result.succeeded()).isFalse();
+        assertThat(result.getStatusCode()).isEqualTo(INTERNAL_SERVER_ERROR.getStatusCode());
+    }
+
+    @Test
+    public void shouldUseSuppliedTimeout() throws Exception {
+        // given
+        remoteServiceEndpoint.setDelay(500);
+        remoteServiceEndpoint.expectMessages("[{\"a\":1}]");
+
+        // when
+        MessageSendingResult result = batchSender.sendAsync(batch("{\"a\":1}"), ENDPOINT, METADATA, 100)
+                .get(1, TimeUnit.SECONDS);
+
+        // then
+        assertThat(result.isTimeout()).isTrue();
+    }
+
+    private static MessageBatch batch(String... messages) {
+        JsonMessageBatch batch = new JsonMessageBatch("batch", ByteBuffer.allocateDirect(1024), 100, Integer.MAX_VALUE,
+                Clock.systemDefaultZone(), emptyList());
+        for (String message : messages) {
+            batch.append(message.getBytes(UTF_8), mock(MessageMetadata.class));
+        }
+        return batch.close();
+    }
+}
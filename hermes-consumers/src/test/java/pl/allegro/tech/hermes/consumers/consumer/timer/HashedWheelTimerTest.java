@@ -0,0 +1,112 @@
+package pl.allegro.tech.hermes.consumers.consumer.timer;
+
+import com.codahale.metrics.Timer;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HashedWheelTimerTest {
+
+    private final Timer lag = new Timer();
+
+    private final HashedWheelTimer timer = new HashedWheelTimer("test-timer", 5, 8, Executors.newFixedThreadPool(2), lag);
+
+    @After
+    public void tearDown() {
+        timer.shutdown();
+    }
+
+    @Test
+    public void shouldRunTaskNotEarlierThanAfterItsDelay() throws InterruptedException {
+        // given
+        CountDownLatch latch = new CountDownLatch(1);
+        long scheduledAt = System.nanoTime();
+
+        // when
+        timer.schedule(latch::countDown, 50);
+
+        // then
+        assertThat(latch.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(System.nanoTime() - scheduledAt).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(50));
+        assertThat(lag.getCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldRunTasksWithDelaysSpanningManyTurnsOfWheelInOrderOfDeadlines() throws InterruptedException {
+        // given
+        List<Integer> executed = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(3);
+
+        // when
+        timer.schedule(() -> { executed.add(3); latch.countDown(); }, 150);
+        timer.schedule(() -> { executed.add(1); latch.countDown(); }, 10);
+        timer.schedule(() -> { executed.add(2); latch.countDown(); }, 80);
+
+        // then
+        assertThat(latch.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(executed).isEqualTo(asList(1, 2, 3));
+    }
+
+    @Test
+    public void shouldRunTaskWithoutDelayRightAway() throws InterruptedException {
+        // given
+        CountDownLatch latch = new CountDownLatch(1);
+
+        // when
+        timer.schedule(latch::countDown, 0);
+
+        // then
+        assertThat(latch.await(100, TimeUnit.MILLISECONDS)).isTrue();
+    }
+
+    @Test
+    public void shouldCancelPendingTasksOnShutdown() throws InterruptedException {
+        // given
+        CountDownLatch ran = new CountDownLatch(1);
+        CountDownLatch cancelled = new CountDownLatch(2);
+        timer.schedule(task(ran, cancelled), 10_000);
+
+        // when
+        timer.shutdown();
+        timer.schedule(task(ran, cancelled), 0);
+
+        // then
+        assertThat(cancelled.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(ran.getCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldKeepRunningTasksWhenOneOfThemFails() throws InterruptedException {
+        // given
+        CountDownLatch latch = new CountDownLatch(1);
+
+        // when
+        timer.schedule(() -> { throw new IllegalStateException(); }, 10);
+        timer.schedule(latch::countDown, 20);
+
+        // then
+        assertThat(latch.await(1, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private static TimerTask task(CountDownLatch ran, CountDownLatch cancelled) {
+        return new TimerTask() {
+            @Override
+            public void run() {
+                ran.countDown();
+            }
+
+            @Override
+            public void cancel() {
+                cancelled.countDown();
+            }
+        };
+    }
+}
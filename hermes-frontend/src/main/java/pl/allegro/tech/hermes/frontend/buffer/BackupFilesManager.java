@@ -27,22 +27,30 @@ public class BackupFilesManager {
     private static final String TIMESTAMPED_BACKUP_FILE_PATTERN = FILE_NAME + "-\\d+\\.dat";
     private static final String OLD_V2_BACKUP_PREFIX = "hermes-buffer";
     private static final String OLD_V2_BACKUP_SUFFIX = "-v2-old.tmp";
+    private static final String WAL_DIRECTORY_NAME = "hermes-buffer-wal";
+    private static final String TIMESTAMPED_WAL_DIRECTORY_PATTERN = WAL_DIRECTORY_NAME + "-\\d+";
 
     private final String baseDir;
     private final Clock clock;
     private final File backupFile;
+    private final File walDirectory;
 
     public BackupFilesManager(String baseDir, Clock clock) {
         this.baseDir = baseDir;
         this.clock = clock;
 
         backupFile = getBackupFile();
+        walDirectory = new File(baseDir, WAL_DIRECTORY_NAME);
     }
 
     public File getCurrentBackupFile() {
         return backupFile;
     }
 
+    public File getCurrentWalDirectory() {
+        return walDirectory;
+    }
+
     public Optional<File> rolloverBackupFileIfExists() {
         if (!backupFile.exists()) {
             logger.info("Backup file doesn't exist.");
@@ -64,6 +72,27 @@ public class BackupFilesManager {
         return Optional.of(timestampedBackupFile);
     }
 
+    public Optional<File> rolloverWalDirectoryIfExists() {
+        if (!walDirectory.exists()) {
+            logger.info("Backup write-ahead log doesn't exist.");
+            return Optional.empty();
+        }
+
+        File timestampedWalDirectory = new File(format("%s/%s-%s", baseDir, WAL_DIRECTORY_NAME, clock.millis()));
+
+        try {
+            FileUtils.moveDirectory(walDirectory, timestampedWalDirectory);
+        } catch (IOException e) {
+            logger.error("Error while moving backup write-ahead log from path {} to path {}.",
+                    walDirectory.getAbsolutePath(),
+                    timestampedWalDirectory.getAbsolutePath(),
+                    e);
+            return Optional.empty();
+        }
+
+        return Optional.of(timestampedWalDirectory);
+    }
+
     public List<File> getTemporaryBackupV2Files(String temporaryDir) {
         try {
             Path dir = Paths.get(temporaryDir);
@@ -92,4 +121,8 @@ public class BackupFilesManager {
     public List<File> getRolledBackupFiles() {
         return newArrayList(new File(baseDir).listFiles(new PatternFilenameFilter(TIMESTAMPED_BACKUP_FILE_PATTERN)));
     }
+
+    public List<File> getRolledWalDirectories() {
+        return newArrayList(new File(baseDir).listFiles(new PatternFilenameFilter(TIMESTAMPED_WAL_DIRECTORY_PATTERN)));
+    }
 }
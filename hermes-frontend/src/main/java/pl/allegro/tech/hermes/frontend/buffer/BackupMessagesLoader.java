@@ -1,13 +1,20 @@
 package pl.allegro.tech.hermes.frontend.buffer;
 
+import com.codahale.metrics.Meter;
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.RateLimiter;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import pl.allegro.tech.hermes.api.Topic;
 import pl.allegro.tech.hermes.common.config.ConfigFactory;
+import pl.allegro.tech.hermes.common.metric.Gauges;
+import pl.allegro.tech.hermes.common.metric.HermesMetrics;
+import pl.allegro.tech.hermes.common.metric.Meters;
 import pl.allegro.tech.hermes.common.metric.timer.StartedTimersPair;
+import pl.allegro.tech.hermes.frontend.buffer.wal.WalSnapshot;
 import pl.allegro.tech.hermes.frontend.cache.topic.TopicsCache;
 import pl.allegro.tech.hermes.frontend.listeners.BrokerListeners;
 import pl.allegro.tech.hermes.frontend.metric.CachedTopic;
@@ -26,15 +33,29 @@ import java.nio.charset.Charset;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
-import java.util.HashSet;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import static pl.allegro.tech.hermes.common.config.Configs.MESSAGES_LOADING_PAUSE_BETWEEN_RESENDS;
+import static pl.allegro.tech.hermes.common.config.Configs.MESSAGES_LOADING_RATE_PER_TOPIC;
+import static pl.allegro.tech.hermes.common.config.Configs.MESSAGES_LOADING_THREADS;
 import static pl.allegro.tech.hermes.common.config.Configs.MESSAGES_LOADING_WAIT_FOR_BROKER_TOPIC_INFO;
 import static pl.allegro.tech.hermes.common.config.Configs.MESSAGES_LOCAL_STORAGE_MAX_AGE_HOURS;
 import static pl.allegro.tech.hermes.common.config.Configs.MESSAGES_LOCAL_STORAGE_MAX_RESEND_RETRIES;
@@ -51,8 +72,13 @@ public class BackupMessagesLoader {
     private final int maxResendRetries;
     private final long resendSleep;
     private final long readTopicInfoSleep;
+    private final int replayThreads;
+    private final double replayRatePerTopic;
+    private final Meter replayMeter;
 
-    private final Set<Topic> topicsAvailabilityCache = new HashSet<>();
+    private final Set<Topic> topicsAvailabilityCache = ConcurrentHashMap.newKeySet();
+    private final Map<String, RateLimiter> topicsReplayRateLimiters = new ConcurrentHashMap<>();
+    private final AtomicLong remainingMessages = new AtomicLong();
     private final AtomicReference<ConcurrentLinkedQueue<Pair<Message, CachedTopic>>> toResend = new AtomicReference<>();
 
     @Inject
@@ -60,7 +86,8 @@ public class BackupMessagesLoader {
                                 BrokerListeners brokerListeners,
                                 TopicsCache topicsCache,
                                 Trackers trackers,
-                                ConfigFactory config) {
+                                ConfigFactory config,
+                                HermesMetrics hermesMetrics) {
         this.brokerMessageProducer = brokerMessageProducer;
         this.brokerListeners = brokerListeners;
         this.topicsCache = topicsCache;
@@ -69,11 +96,20 @@ public class BackupMessagesLoader {
         this.resendSleep = config.getIntProperty(MESSAGES_LOADING_PAUSE_BETWEEN_RESENDS);
         this.readTopicInfoSleep = TimeUnit.SECONDS.toMillis(config.getIntProperty(MESSAGES_LOADING_WAIT_FOR_BROKER_TOPIC_INFO));
         this.maxResendRetries = config.getIntProperty(MESSAGES_LOCAL_STORAGE_MAX_RESEND_RETRIES);
+        this.replayThreads = Math.max(1, config.getIntProperty(MESSAGES_LOADING_THREADS));
+        this.replayRatePerTopic = config.getDoubleProperty(MESSAGES_LOADING_RATE_PER_TOPIC);
+        this.replayMeter = hermesMetrics.meter(Meters.BACKUP_STORAGE_REPLAY);
+        hermesMetrics.registerGauge(Gauges.BACKUP_STORAGE_REPLAY_REMAINING, remainingMessages::get);
     }
 
     public void loadMessages(List<BackupMessage> messages) {
-        logger.info("Loading {} messages from backup storage.", messages.size());
+        loadMessages(messages.stream(), messages.size());
+    }
+
+    public void loadMessages(Stream<BackupMessage> messages, long count) {
+        logger.info("Loading {} messages from backup storage.", count);
         toResend.set(new ConcurrentLinkedQueue<>());
+        remainingMessages.set(count);
 
         sendMessages(messages);
 
@@ -97,6 +133,7 @@ public class BackupMessagesLoader {
         } while (toResend.get().size() > 0 && retry <= maxResendRetries);
 
         logger.info("Finished resending messages from backup storage after retry #{} with {} unsent messages.", retry - 1, toResend.get().size());
+        remainingMessages.set(0);
     }
 
     public void loadFromTemporaryBackupV2File(File file) {
@@ -115,49 +152,88 @@ public class BackupMessagesLoader {
         }
     }
 
+    public void loadFromWalDirectory(File directory) {
+        try (WalSnapshot snapshot = WalSnapshot.read(directory)) {
+            logger.info("Found {} messages in backup write-ahead log: {}", snapshot.count(), directory.toString());
+            loadMessages(snapshot.stream(), snapshot.count());
+        }
+    }
+
     public void clearTopicsAvailabilityCache() {
         topicsAvailabilityCache.clear();
     }
 
-    private void sendMessages(List<BackupMessage> messages) {
-        logger.info("Sending {} messages from backup storage.", messages.size());
-        int sentCounter = 0;
-        int discardedCounter = 0;
-        for (BackupMessage backupMessage : messages) {
+    private void sendMessages(Stream<BackupMessage> messages) {
+        logger.info("Sending messages from backup storage using {} threads.", replayThreads);
+        AtomicInteger sentCounter = new AtomicInteger();
+        AtomicInteger discardedCounter = new AtomicInteger();
+        replay(messages.iterator(), backupMessage -> {
             Message message = new JsonMessage(backupMessage.getMessageId(), backupMessage.getData(), backupMessage.getTimestamp());
             String topicQualifiedName = backupMessage.getQualifiedTopicName();
             Optional<CachedTopic> optionalCachedTopic = topicsCache.getTopic(topicQualifiedName);
             if (sendMessageIfNeeded(message, topicQualifiedName, optionalCachedTopic, "sending")) {
-                sentCounter++;
+                sentCounter.incrementAndGet();
             } else {
-                discardedCounter++;
+                discardedCounter.incrementAndGet();
             }
-        }
+        });
         logger.info("Loaded and sent {} messages and discarded {} messages from the backup storage.", sentCounter, discardedCounter);
     }
 
     private void resendMessages(List<Pair<Message, CachedTopic>> messageAndTopicList, int retry) {
         logger.info("Resending {} messages from backup storage retry {}.", messageAndTopicList.size(), retry);
+        remainingMessages.set(messageAndTopicList.size());
 
-        int sentCounter = 0;
-        int discardedCounter = 0;
-        for (Pair<Message, CachedTopic> messageAndTopic : messageAndTopicList) {
+        AtomicInteger sentCounter = new AtomicInteger();
+        AtomicInteger discardedCounter = new AtomicInteger();
+        replay(messageAndTopicList.iterator(), messageAndTopic -> {
             Message message = messageAndTopic.getKey();
             Optional<CachedTopic> cachedTopic = Optional.of(messageAndTopic.getValue());
             if (sendMessageIfNeeded(message, cachedTopic.get().getQualifiedName(), cachedTopic, "resending")) {
-                sentCounter++;
+                sentCounter.incrementAndGet();
             } else {
-                discardedCounter++;
+                discardedCounter.incrementAndGet();
             }
-        }
+        });
 
         logger.info("Resent {}/{} messages and discarded {} messages from the backup storage retry {}.", sentCounter, messageAndTopicList.size(), discardedCounter, retry);
     }
 
+    private <T> void replay(Iterator<T> messages, Consumer<T> sender) {
+        ExecutorService executor = Executors.newFixedThreadPool(replayThreads,
+                new ThreadFactoryBuilder().setNameFormat("backup-messages-loader-%d").build());
+        Callable<Void> worker = () -> {
+            for (T message = next(messages); message != null; message = next(messages)) {
+                sender.accept(message);
+                remainingMessages.decrementAndGet();
+            }
+            return null;
+        };
+        try {
+            for (Future<Void> result : executor.invokeAll(Collections.nCopies(replayThreads, worker))) {
+                result.get();
+            }
+        } catch (InterruptedException e) {
+            logger.warn("Replaying messages from backup storage interrupted", e);
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            logger.error("Error while replaying messages from backup storage", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static <T> T next(Iterator<T> messages) {
+        synchronized (messages) {
+            return messages.hasNext() ? messages.next() : null;
+        }
+    }
+
     private boolean sendMessageIfNeeded(Message message, String topicQualifiedName, Optional<CachedTopic> cachedTopic, String contextName) {
         if (cachedTopic.isPresent()) {
             if (isNotStale(message)) {
                 waitOnBrokerTopicAvailability(cachedTopic.get());
+                throttle(topicQualifiedName);
                 sendMessage(message, cachedTopic.get());
                 return true;
             }
@@ -170,6 +246,12 @@ public class BackupMessagesLoader {
         return false;
     }
 
+    private void throttle(String topicQualifiedName) {
+        if (replayRatePerTopic > 0) {
+            topicsReplayRateLimiters.computeIfAbsent(topicQualifiedName, name -> RateLimiter.create(replayRatePerTopic)).acquire();
+        }
+    }
+
     private void waitOnBrokerTopicAvailability(CachedTopic cachedTopic) {
         int tries = 0;
         while (!isBrokerTopicAvailable(cachedTopic)) {
@@ -216,6 +298,7 @@ public class BackupMessagesLoader {
             @Override
             public void onPublished(Message message, Topic topic) {
                 brokerTimers.close();
+                replayMeter.mark();
                 cachedTopic.incrementPublished();
                 brokerListeners.onAcknowledge(message, topic);
                 trackers.get(topic).logPublished(message.getId(), topic.getName(), "");
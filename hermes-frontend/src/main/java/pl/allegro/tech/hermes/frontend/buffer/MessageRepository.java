@@ -4,6 +4,7 @@ import pl.allegro.tech.hermes.api.Topic;
 import pl.allegro.tech.hermes.frontend.publishing.message.Message;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface MessageRepository {
 
@@ -13,5 +14,16 @@ public interface MessageRepository {
 
     List<BackupMessage> findAll();
 
+    /**
+     * Lazily reads stored messages, so that large backups can be replayed without loading all of them into memory.
+     */
+    default Stream<BackupMessage> stream() {
+        return findAll().stream();
+    }
+
+    default long count() {
+        return findAll().size();
+    }
+
     void close();
 }
@@ -15,6 +15,7 @@ import java.io.File;
 import java.io.IOException;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class ChronicleMapMessageRepository implements MessageRepository {
 
@@ -58,6 +59,16 @@ public class ChronicleMapMessageRepository implements MessageRepository {
         return map.entrySet().stream().map((e) -> toBackupMessage(e.getKey(), e.getValue())).collect(Collectors.toList());
     }
 
+    @Override
+    public Stream<BackupMessage> stream() {
+        return map.entrySet().stream().map((e) -> toBackupMessage(e.getKey(), e.getValue()));
+    }
+
+    @Override
+    public long count() {
+        return map.longSize();
+    }
+
     @Override
     public void close() {
         map.close();
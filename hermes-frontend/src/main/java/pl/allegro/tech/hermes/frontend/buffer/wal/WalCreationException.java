@@ -0,0 +1,14 @@
+package pl.allegro.tech.hermes.frontend.buffer.wal;
+
+import java.io.File;
+
+public class WalCreationException extends RuntimeException {
+
+    public WalCreationException(File directory) {
+        super("Could not create backup write-ahead log directory " + directory.getAbsolutePath());
+    }
+
+    public WalCreationException(File directory, String reason) {
+        super("Could not create backup write-ahead log in " + directory.getAbsolutePath() + ": " + reason);
+    }
+}
@@ -0,0 +1,211 @@
+package pl.allegro.tech.hermes.frontend.buffer.wal;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pl.allegro.tech.hermes.api.Topic;
+import pl.allegro.tech.hermes.common.metric.HermesMetrics;
+import pl.allegro.tech.hermes.frontend.buffer.BackupMessage;
+import pl.allegro.tech.hermes.frontend.buffer.MessageRepository;
+import pl.allegro.tech.hermes.frontend.publishing.message.Message;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Message repository backed by a write-ahead log: rolling, memory mapped, append-only segment files. Deleting a message
+ * appends a tombstone, so both operations are sequential writes and the log never has to be sized up front.
+ * Only the oldest segment is compacted: when few of its messages are still waiting for the broker, they are appended
+ * again to the newest segment and the oldest one is deleted. Tombstones always follow the message they remove, so
+ * dropping the oldest segment never brings a removed message back.
+ */
+public class WalMessageRepository implements MessageRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(WalMessageRepository.class);
+
+    private static final long CLOSE_TIMEOUT_MS = 5000;
+
+    private final File directory;
+    private final int segmentSize;
+    private final double compactionThreshold;
+    private final Deque<WalSegment> segments = new ArrayDeque<>();
+    private final Map<String, WalPosition> locations = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService compactionExecutor;
+
+    private WalSegment head;
+    private long nextSequence;
+    private boolean closed;
+
+    public WalMessageRepository(File directory, int segmentSize, double compactionThreshold, long compactionIntervalMs) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.compactionThreshold = compactionThreshold;
+
+        logger.info("Creating backup write-ahead log in path: {}", directory.getAbsolutePath());
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new WalCreationException(directory);
+        }
+        if (!WalSegment.list(directory).isEmpty()) {
+            throw new WalCreationException(directory, "directory already contains segments");
+        }
+        rollSegment(0);
+
+        this.compactionExecutor = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("backup-wal-compaction-%d").setDaemon(true).build());
+        compactionExecutor.scheduleWithFixedDelay(this::compact, compactionIntervalMs, compactionIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public WalMessageRepository(File directory, int segmentSize, double compactionThreshold, long compactionIntervalMs,
+                                HermesMetrics hermesMetrics) {
+        this(directory, segmentSize, compactionThreshold, compactionIntervalMs);
+        hermesMetrics.registerMessageRepositorySizeGauge(locations::size);
+    }
+
+    @Override
+    public synchronized void save(Message message, Topic topic) {
+        checkState(!closed, "Backup write-ahead log in path %s is closed", directory.getAbsolutePath());
+        append(new BackupMessage(message.getId(), message.getData(), message.getTimestamp(), topic.getQualifiedName()));
+    }
+
+    @Override
+    public synchronized void delete(String messageId) {
+        WalPosition location = locations.remove(messageId);
+        if (location != null) {
+            location.getSegment().messageRemoved();
+            ensureCapacity(WalSegment.tombstoneRecordSize(messageId));
+            head.appendTombstone(messageId);
+        }
+    }
+
+    @Override
+    public synchronized List<BackupMessage> findAll() {
+        return stream().collect(toList());
+    }
+
+    @Override
+    public Stream<BackupMessage> stream() {
+        return locations.keySet().stream().map(this::read).filter(Objects::nonNull);
+    }
+
+    @Override
+    public long count() {
+        return locations.size();
+    }
+
+    /**
+     * Segments are unmapped only after running compaction has finished, as reading an unmapped segment crashes the JVM.
+     * Messages of a closed repository are left in segment files for the next process.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+        }
+        compactionExecutor.shutdownNow();
+        try {
+            if (!compactionExecutor.awaitTermination(CLOSE_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                logger.warn("Backup write-ahead log compaction in path {} did not finish, leaving segments mapped",
+                        directory.getAbsolutePath());
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        synchronized (this) {
+            locations.clear();
+            segments.forEach(WalSegment::close);
+            segments.clear();
+        }
+    }
+
+    synchronized int segmentsCount() {
+        return segments.size();
+    }
+
+    void compact() {
+        try {
+            while (compactOldestSegment()) {
+                // keep compacting as long as the oldest segment is mostly garbage
+            }
+        } catch (Exception e) {
+            logger.error("Failed to compact backup write-ahead log in path {}", directory.getAbsolutePath(), e);
+        }
+    }
+
+    private boolean compactOldestSegment() {
+        WalSegment oldest;
+        synchronized (this) {
+            oldest = segments.peekFirst();
+            if (oldest == head || oldest.liveMessagesRatio() > compactionThreshold) {
+                return false;
+            }
+        }
+        if (oldest.liveMessages() > 0) {
+            locations.forEach((messageId, location) -> {
+                if (location.getSegment() == oldest) {
+                    moveToHead(messageId, oldest);
+                }
+            });
+        }
+        synchronized (this) {
+            segments.removeFirst();
+        }
+        oldest.delete();
+        return true;
+    }
+
+    /**
+     * Location is looked up under the lock, so the message is never read from a segment already deleted by compaction.
+     */
+    private synchronized BackupMessage read(String messageId) {
+        WalPosition location = locations.get(messageId);
+        return location == null ? null : location.read();
+    }
+
+    private synchronized void moveToHead(String messageId, WalSegment segment) {
+        WalPosition location = locations.get(messageId);
+        if (location != null && location.getSegment() == segment) {
+            append(location.read());
+        }
+    }
+
+    private void append(BackupMessage message) {
+        ensureCapacity(WalSegment.messageRecordSize(message));
+        int position = head.appendMessage(message);
+        WalPosition previous = locations.put(message.getMessageId(), new WalPosition(head, position));
+        if (previous != null) {
+            previous.getSegment().messageRemoved();
+        }
+    }
+
+    private void ensureCapacity(int recordSize) {
+        if (!head.fits(recordSize)) {
+            rollSegment(recordSize);
+        }
+    }
+
+    private void rollSegment(int recordSize) {
+        try {
+            head = WalSegment.create(directory, nextSequence++, Math.max(segmentSize, recordSize + Integer.BYTES));
+            segments.addLast(head);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create backup segment in path " + directory.getAbsolutePath(), e);
+        }
+    }
+
+}
@@ -0,0 +1,22 @@
+package pl.allegro.tech.hermes.frontend.buffer.wal;
+
+import pl.allegro.tech.hermes.frontend.buffer.BackupMessage;
+
+class WalPosition {
+
+    private final WalSegment segment;
+    private final int position;
+
+    WalPosition(WalSegment segment, int position) {
+        this.segment = segment;
+        this.position = position;
+    }
+
+    WalSegment getSegment() {
+        return segment;
+    }
+
+    BackupMessage read() {
+        return segment.readMessage(position);
+    }
+}
@@ -0,0 +1,264 @@
+package pl.allegro.tech.hermes.frontend.buffer.wal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pl.allegro.tech.hermes.frontend.buffer.BackupMessage;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Memory mapped, append-only file of records. Every record is prefixed with its length and CRC32 checksum, so reading
+ * stops at the first zero length (end of written data) or at a record torn by a crash.
+ *
+ * <pre>
+ * int    length of the rest of the record, excluding checksum
+ * int    checksum
+ * byte   type: message or tombstone
+ * short  message id length, message id
+ * (message only)
+ * long   timestamp
+ * short  topic name length, topic name
+ * int    data length, data
+ * </pre>
+ *
+ * Segment keeps its file channel open and unmaps the buffer when closed or deleted, so disk space is freed right away
+ * instead of when the buffer is garbage collected. Segment must not be read after it is closed.
+ */
+class WalSegment implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(WalSegment.class);
+
+    private static final String FILE_NAME_FORMAT = "segment-%020d.wal";
+    private static final String FILE_NAME_PATTERN = "segment-\\d{20}\\.wal";
+
+    private static final int HEADER_SIZE = 2 * Integer.BYTES;
+    private static final byte MESSAGE = 1;
+    private static final byte TOMBSTONE = 2;
+
+    private final File file;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final AtomicInteger messages = new AtomicInteger();
+    private final AtomicInteger liveMessages = new AtomicInteger();
+
+    private WalSegment(File file, FileChannel channel, MappedByteBuffer buffer) {
+        this.file = file;
+        this.channel = channel;
+        this.buffer = buffer;
+    }
+
+    static WalSegment create(File directory, long sequence, int capacity) throws IOException {
+        File file = new File(directory, format(FILE_NAME_FORMAT, sequence));
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+        try {
+            randomAccessFile.setLength(capacity);
+            FileChannel channel = randomAccessFile.getChannel();
+            return new WalSegment(file, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity));
+        } catch (IOException e) {
+            randomAccessFile.close();
+            throw e;
+        }
+    }
+
+    static WalSegment open(File file) throws IOException {
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+        try {
+            FileChannel channel = randomAccessFile.getChannel();
+            return new WalSegment(file, channel, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (IOException e) {
+            randomAccessFile.close();
+            throw e;
+        }
+    }
+
+    static List<File> list(File directory) {
+        File[] files = directory.listFiles(file -> file.getName().matches(FILE_NAME_PATTERN));
+        if (files == null) {
+            return new ArrayList<>();
+        }
+        Arrays.sort(files);
+        return Arrays.asList(files);
+    }
+
+    static int messageRecordSize(BackupMessage message) {
+        return HEADER_SIZE + 1 + Short.BYTES + utf8Length(message.getMessageId()) + Long.BYTES
+                + Short.BYTES + utf8Length(message.getQualifiedTopicName()) + Integer.BYTES + message.getData().length;
+    }
+
+    static int tombstoneRecordSize(String messageId) {
+        return HEADER_SIZE + 1 + Short.BYTES + utf8Length(messageId);
+    }
+
+    boolean fits(int recordSize) {
+        // leave room for the zero length which marks the end of data
+        return buffer.remaining() >= recordSize + Integer.BYTES;
+    }
+
+    int appendMessage(BackupMessage message) {
+        int start = beginRecord(MESSAGE, message.getMessageId());
+        buffer.putLong(message.getTimestamp());
+        putString(message.getQualifiedTopicName());
+        buffer.putInt(message.getData().length);
+        buffer.put(message.getData());
+        endRecord(start);
+        messages.incrementAndGet();
+        liveMessages.incrementAndGet();
+        return start;
+    }
+
+    void appendTombstone(String messageId) {
+        endRecord(beginRecord(TOMBSTONE, messageId));
+    }
+
+    BackupMessage readMessage(int position) {
+        ByteBuffer record = buffer.duplicate();
+        record.position(position + HEADER_SIZE + 1);
+        return readMessage(record, getString(record));
+    }
+
+    /**
+     * Replays records in order of appending: positions of messages are put into and tombstones remove them
+     * from the given map.
+     */
+    void replay(Map<String, WalPosition> positions) {
+        ByteBuffer records = buffer.duplicate();
+        records.position(0);
+        CRC32 checksum = new CRC32();
+        while (records.remaining() >= HEADER_SIZE) {
+            int length = records.getInt();
+            if (length == 0) {
+                return;
+            }
+            int expectedChecksum = records.getInt();
+            if (length < 0 || length > records.remaining() || checksum(checksum, records, records.position(), length) != expectedChecksum) {
+                logger.warn("Found corrupted record in backup segment {} at position {}, skipping rest of the segment",
+                        file.getName(), records.position() - HEADER_SIZE);
+                return;
+            }
+            int start = records.position() - HEADER_SIZE;
+            int next = records.position() + length;
+            byte type = records.get();
+            String messageId = getString(records);
+            if (type == MESSAGE) {
+                positions.put(messageId, new WalPosition(this, start));
+            } else {
+                positions.remove(messageId);
+            }
+            records.position(next);
+        }
+    }
+
+    void messageRemoved() {
+        liveMessages.decrementAndGet();
+    }
+
+    int liveMessages() {
+        return liveMessages.get();
+    }
+
+    double liveMessagesRatio() {
+        int all = messages.get();
+        return all == 0 ? 0 : (double) liveMessages.get() / all;
+    }
+
+    @Override
+    public void close() {
+        unmap(buffer);
+        try {
+            channel.close();
+        } catch (IOException e) {
+            logger.warn("Could not close backup segment {}", file.getAbsolutePath(), e);
+        }
+    }
+
+    void delete() {
+        close();
+        if (!file.delete()) {
+            logger.warn("Could not delete backup segment {}", file.getAbsolutePath());
+        }
+    }
+
+    File getFile() {
+        return file;
+    }
+
+    private int beginRecord(byte type, String messageId) {
+        int start = buffer.position();
+        buffer.position(start + HEADER_SIZE);
+        buffer.put(type);
+        putString(messageId);
+        return start;
+    }
+
+    private void endRecord(int start) {
+        int end = buffer.position();
+        int length = end - start - HEADER_SIZE;
+        buffer.putInt(start + Integer.BYTES, checksum(new CRC32(), buffer, start + HEADER_SIZE, length));
+        // length is written last, so a record torn by a crash is either invisible or fails the checksum
+        buffer.putInt(start, length);
+    }
+
+    private void putString(String value) {
+        byte[] bytes = value.getBytes(UTF_8);
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static BackupMessage readMessage(ByteBuffer record, String messageId) {
+        long timestamp = record.getLong();
+        String qualifiedTopicName = getString(record);
+        byte[] data = new byte[record.getInt()];
+        record.get(data);
+        return new BackupMessage(messageId, data, timestamp, qualifiedTopicName);
+    }
+
+    private static String getString(ByteBuffer record) {
+        byte[] bytes = new byte[record.getShort() & 0xFFFF];
+        record.get(bytes);
+        return new String(bytes, UTF_8);
+    }
+
+    private static int checksum(CRC32 checksum, ByteBuffer buffer, int position, int length) {
+        ByteBuffer data = buffer.duplicate();
+        data.position(position);
+        data.limit(position + length);
+        checksum.reset();
+        checksum.update(data);
+        return (int) checksum.getValue();
+    }
+
+    private static void unmap(MappedByteBuffer buffer) {
+        // there is no public API to unmap a buffer, so the JDK cleaner of direct buffers is called when accessible
+        try {
+            Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+            cleanerMethod.setAccessible(true);
+            Object cleaner = cleanerMethod.invoke(buffer);
+            if (cleaner != null) {
+                Method cleanMethod = cleaner.getClass().getMethod("clean");
+                cleanMethod.setAccessible(true);
+                cleanMethod.invoke(cleaner);
+            }
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            logger.debug("Could not unmap backup segment, it will be unmapped when garbage collected", e);
+        }
+    }
+
+    private static int utf8Length(String value) {
+        return value.getBytes(UTF_8).length;
+    }
+}
@@ -0,0 +1,61 @@
+package pl.allegro.tech.hermes.frontend.buffer.wal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pl.allegro.tech.hermes.frontend.buffer.BackupMessage;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Messages left in a write-ahead log by a previous process. Segments are scanned sequentially once to find positions
+ * of messages without tombstones; message contents are read from the memory mapped segments only when streamed, so
+ * snapshot has to be closed only after its stream is consumed.
+ */
+public class WalSnapshot implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(WalSnapshot.class);
+
+    private final Map<String, WalPosition> positions;
+    private final List<WalSegment> segments;
+
+    private WalSnapshot(Map<String, WalPosition> positions, List<WalSegment> segments) {
+        this.positions = positions;
+        this.segments = segments;
+    }
+
+    public static WalSnapshot read(File directory) {
+        Map<String, WalPosition> positions = new LinkedHashMap<>();
+        List<WalSegment> segments = new ArrayList<>();
+        for (File file : WalSegment.list(directory)) {
+            try {
+                WalSegment segment = WalSegment.open(file);
+                segments.add(segment);
+                segment.replay(positions);
+            } catch (IOException e) {
+                logger.error("Failed to read backup segment from path {}", file.getAbsolutePath(), e);
+            }
+        }
+        return new WalSnapshot(positions, segments);
+    }
+
+    public Stream<BackupMessage> stream() {
+        return positions.values().stream().map(WalPosition::read);
+    }
+
+    public long count() {
+        return positions.size();
+    }
+
+    @Override
+    public void close() {
+        positions.clear();
+        segments.forEach(WalSegment::close);
+        segments.clear();
+    }
+}
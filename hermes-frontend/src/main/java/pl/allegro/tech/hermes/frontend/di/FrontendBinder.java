@@ -11,15 +11,18 @@ import pl.allegro.tech.hermes.frontend.producer.BrokerMessageProducer;
 import pl.allegro.tech.hermes.frontend.producer.kafka.KafkaBrokerMessageProducerFactory;
 import pl.allegro.tech.hermes.frontend.producer.kafka.KafkaMessageProducerFactory;
 import pl.allegro.tech.hermes.frontend.producer.kafka.Producers;
+import pl.allegro.tech.hermes.frontend.publishing.handlers.BatchHandlersChainFactory;
 import pl.allegro.tech.hermes.frontend.publishing.handlers.HandlersChainFactory;
 import pl.allegro.tech.hermes.frontend.publishing.handlers.ThroughputLimiter;
 import pl.allegro.tech.hermes.frontend.publishing.handlers.ThroughputLimiterFactory;
+import pl.allegro.tech.hermes.frontend.publishing.handlers.end.BatchEndProcessor;
 import pl.allegro.tech.hermes.frontend.publishing.handlers.end.MessageEndProcessor;
 import pl.allegro.tech.hermes.frontend.publishing.handlers.end.MessageErrorProcessor;
 import pl.allegro.tech.hermes.frontend.publishing.message.MessageContentTypeEnforcer;
 import pl.allegro.tech.hermes.frontend.publishing.message.MessageFactory;
 import pl.allegro.tech.hermes.frontend.publishing.metadata.DefaultHeadersPropagator;
 import pl.allegro.tech.hermes.frontend.publishing.metadata.HeadersPropagator;
+import pl.allegro.tech.hermes.frontend.publishing.pool.MessageContentPool;
 import pl.allegro.tech.hermes.frontend.publishing.preview.MessagePreviewFactory;
 import pl.allegro.tech.hermes.frontend.publishing.preview.MessagePreviewLog;
 import pl.allegro.tech.hermes.frontend.publishing.preview.MessagePreviewPersister;
@@ -52,6 +55,7 @@ public class FrontendBinder extends AbstractBinder {
         bindSingleton(HermesServer.class);
         bindSingleton(MessageErrorProcessor.class);
         bindSingleton(MessageEndProcessor.class);
+        bindSingleton(BatchEndProcessor.class);
         bindSingleton(MessageValidators.class);
 
         bind(hooksHandler).to(HooksHandler.class);
@@ -65,7 +69,10 @@ public class FrontendBinder extends AbstractBinder {
         bindSingleton(HealthCheckService.class);
         bind(DefaultHeadersPropagator.class).to(HeadersPropagator.class).in(Singleton.class);
 
-        bindFactory(HandlersChainFactory.class).to(HttpHandler.class).in(Singleton.class);
+        bindFactory(HandlersChainFactory.class).to(HttpHandler.class).named(HandlersChainFactory.PUBLISHING_HANDLER)
+                .in(Singleton.class);
+        bindFactory(BatchHandlersChainFactory.class).to(HttpHandler.class).named(BatchHandlersChainFactory.BATCH_PUBLISHING_HANDLER)
+                .in(Singleton.class);
         bindFactory(KafkaMessageProducerFactory.class).to(Producers.class).in(Singleton.class);
         bindFactory(KafkaBrokerMessageProducerFactory.class).to(BrokerMessageProducer.class).in(Singleton.class);
         bindFactory(ThroughputLimiterFactory.class).to(ThroughputLimiter.class).in(Singleton.class);
@@ -77,6 +84,7 @@ public class FrontendBinder extends AbstractBinder {
         bindFactory(TopicMessageValidatorListFactory.class).in(Singleton.class).to(new TypeLiteral<List<TopicMessageValidator>>() {
         });
         bindSingleton(MessageFactory.class);
+        bindSingleton(MessageContentPool.class);
         bindSingleton(BackupMessagesLoader.class);
         bindSingleton(PersistentBufferExtension.class);
         bindSingleton(MessagePreviewPersister.class);
@@ -9,7 +9,9 @@ import pl.allegro.tech.hermes.frontend.buffer.BackupFilesManager;
 import pl.allegro.tech.hermes.frontend.buffer.BackupMessagesLoader;
 import pl.allegro.tech.hermes.frontend.buffer.BrokerListener;
 import pl.allegro.tech.hermes.frontend.buffer.MessageRepository;
+import pl.allegro.tech.hermes.frontend.buffer.NoOpMessageRepository;
 import pl.allegro.tech.hermes.frontend.buffer.chronicle.ChronicleMapMessageRepository;
+import pl.allegro.tech.hermes.frontend.buffer.wal.WalMessageRepository;
 import pl.allegro.tech.hermes.frontend.listeners.BrokerListeners;
 
 import javax.inject.Inject;
@@ -24,12 +26,18 @@ import static pl.allegro.tech.hermes.common.config.Configs.MESSAGES_LOCAL_STORAG
 import static pl.allegro.tech.hermes.common.config.Configs.MESSAGES_LOCAL_STORAGE_ENABLED;
 import static pl.allegro.tech.hermes.common.config.Configs.MESSAGES_LOCAL_STORAGE_SIZE_REPORTING_ENABLED;
 import static pl.allegro.tech.hermes.common.config.Configs.MESSAGES_LOCAL_STORAGE_TEMPORARY_DIRECTORY;
+import static pl.allegro.tech.hermes.common.config.Configs.MESSAGES_LOCAL_STORAGE_TYPE;
 import static pl.allegro.tech.hermes.common.config.Configs.MESSAGES_LOCAL_STORAGE_V2_MIGRATION_ENABLED;
+import static pl.allegro.tech.hermes.common.config.Configs.MESSAGES_LOCAL_STORAGE_WAL_COMPACTION_INTERVAL;
+import static pl.allegro.tech.hermes.common.config.Configs.MESSAGES_LOCAL_STORAGE_WAL_COMPACTION_THRESHOLD;
+import static pl.allegro.tech.hermes.common.config.Configs.MESSAGES_LOCAL_STORAGE_WAL_SEGMENT_SIZE;
 
 public class PersistentBufferExtension {
 
     private static final Logger logger = LoggerFactory.getLogger(PersistentBufferExtension.class);
 
+    private enum MessageRepositoryType { CHRONICLE, WAL, NOOP }
+
     private final ConfigFactory config;
 
     private final Clock clock;
@@ -78,6 +86,12 @@ public class PersistentBufferExtension {
             rollBackupFiles(backupFilesManager, rolledBackupFiles);
         }
 
+        backupFilesManager.rolloverWalDirectoryIfExists();
+        List<File> rolledWalDirectories = backupFilesManager.getRolledWalDirectories();
+        if (!rolledWalDirectories.isEmpty()) {
+            rollWalDirectories(backupFilesManager, rolledWalDirectories);
+        }
+
         if (config.getBooleanProperty(MESSAGES_LOCAL_STORAGE_ENABLED)) {
             enableLocalStorage(backupFilesManager);
         }
@@ -103,10 +117,19 @@ public class PersistentBufferExtension {
         });
     }
 
+    private void rollWalDirectories(BackupFilesManager backupFilesManager, List<File> rolledWalDirectories) {
+        logger.info("Backup write-ahead logs were found. Number of logs: {}. Directories: {}",
+                rolledWalDirectories.size(),
+                rolledWalDirectories.stream().map(File::getName).collect(joining(", ")));
+
+        hooksHandler.addStartupHook((s) -> {
+            rolledWalDirectories.forEach(d -> loadWalMessages(backupFilesManager, d));
+            backupMessagesLoader.clearTopicsAvailabilityCache();
+        });
+    }
+
     private void enableLocalStorage(BackupFilesManager backupFilesManager) {
-        MessageRepository repository = config.getBooleanProperty(MESSAGES_LOCAL_STORAGE_SIZE_REPORTING_ENABLED)
-                ? new ChronicleMapMessageRepository(backupFilesManager.getCurrentBackupFile(), entries, avgMessageSize, hermesMetrics)
-                : new ChronicleMapMessageRepository(backupFilesManager.getCurrentBackupFile(), entries, avgMessageSize);
+        MessageRepository repository = createMessageRepository(backupFilesManager);
 
         BrokerListener brokerListener = new BrokerListener(repository);
 
@@ -115,6 +138,28 @@ public class PersistentBufferExtension {
         listeners.addTimeoutListener(brokerListener);
     }
 
+    private MessageRepository createMessageRepository(BackupFilesManager backupFilesManager) {
+        boolean sizeReportingEnabled = config.getBooleanProperty(MESSAGES_LOCAL_STORAGE_SIZE_REPORTING_ENABLED);
+        switch (MessageRepositoryType.valueOf(config.getStringProperty(MESSAGES_LOCAL_STORAGE_TYPE).toUpperCase())) {
+            case CHRONICLE:
+                return sizeReportingEnabled
+                        ? new ChronicleMapMessageRepository(backupFilesManager.getCurrentBackupFile(), entries, avgMessageSize, hermesMetrics)
+                        : new ChronicleMapMessageRepository(backupFilesManager.getCurrentBackupFile(), entries, avgMessageSize);
+            case WAL:
+                File directory = backupFilesManager.getCurrentWalDirectory();
+                int segmentSize = config.getIntProperty(MESSAGES_LOCAL_STORAGE_WAL_SEGMENT_SIZE);
+                double compactionThreshold = config.getDoubleProperty(MESSAGES_LOCAL_STORAGE_WAL_COMPACTION_THRESHOLD);
+                long compactionInterval = config.getLongProperty(MESSAGES_LOCAL_STORAGE_WAL_COMPACTION_INTERVAL);
+                return sizeReportingEnabled
+                        ? new WalMessageRepository(directory, segmentSize, compactionThreshold, compactionInterval, hermesMetrics)
+                        : new WalMessageRepository(directory, segmentSize, compactionThreshold, compactionInterval);
+            case NOOP:
+                return new NoOpMessageRepository();
+            default:
+                throw new IllegalArgumentException("Unknown message repository type.");
+        }
+    }
+
     private void loadTemporaryBackupV2Messages(BackupFilesManager backupFilesManager, File temporaryBackup) {
         logger.info("Loading messages from temporary backup v2 file: {}", temporaryBackup.getName());
         backupMessagesLoader.loadFromTemporaryBackupV2File(temporaryBackup);
@@ -124,8 +169,14 @@ public class PersistentBufferExtension {
     private void loadOldMessages(BackupFilesManager backupFilesManager, File oldBackup) {
         logger.info("Loading messages from backup file: {}", oldBackup.getName());
         MessageRepository oldMessageRepository = new ChronicleMapMessageRepository(oldBackup, entries, avgMessageSize);
-        backupMessagesLoader.loadMessages(oldMessageRepository.findAll());
+        backupMessagesLoader.loadMessages(oldMessageRepository.stream(), oldMessageRepository.count());
         oldMessageRepository.close();
         backupFilesManager.delete(oldBackup);
     }
+
+    private void loadWalMessages(BackupFilesManager backupFilesManager, File walDirectory) {
+        logger.info("Loading messages from backup write-ahead log: {}", walDirectory.getName());
+        backupMessagesLoader.loadFromWalDirectory(walDirectory);
+        backupFilesManager.delete(walDirectory);
+    }
 }
@@ -1,5 +1,6 @@
 package pl.allegro.tech.hermes.frontend.producer.kafka;
 
+import org.apache.kafka.clients.producer.Producer;
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.kafka.clients.producer.RecordMetadata;
 import org.slf4j.Logger;
@@ -13,6 +14,7 @@ import pl.allegro.tech.hermes.frontend.publishing.message.Message;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import java.nio.charset.StandardCharsets;
 
 @Singleton
 public class KafkaBrokerMessageProducer implements BrokerMessageProducer {
@@ -20,26 +22,52 @@ public class KafkaBrokerMessageProducer implements BrokerMessageProducer {
     private static final Logger logger = LoggerFactory.getLogger(KafkaBrokerMessageProducer.class);
     private final Producers producers;
     private final HermesMetrics metrics;
+    private final StickyPartitioner stickyPartitioner;
 
     @Inject
-    public KafkaBrokerMessageProducer(Producers producers, HermesMetrics metrics) {
+    public KafkaBrokerMessageProducer(Producers producers, HermesMetrics metrics, StickyPartitioner stickyPartitioner) {
         this.producers = producers;
         this.metrics = metrics;
+        this.stickyPartitioner = stickyPartitioner;
         producers.registerGauges(metrics);
     }
 
     @Override
     public void send(Message message, CachedTopic cachedTopic, final PublishingCallback callback) {
         String kafkaTopicName = cachedTopic.getKafkaTopics().getPrimary().name().asString();
-        ProducerRecord<byte[], byte[]> producerRecord = new ProducerRecord<>(kafkaTopicName, message.getData());
         try {
-            producers.get(cachedTopic.getTopic()).send(producerRecord, new SendCallback(message, cachedTopic.getTopic(), callback));
+            Producer<byte[], byte[]> producer = producers.get(cachedTopic.getTopic());
+            ProducerRecord<byte[], byte[]> producerRecord = producerRecord(producer, kafkaTopicName, message, cachedTopic.getTopic());
+            producer.send(producerRecord, new SendCallback(message, cachedTopic.getTopic(), callback));
         } catch (Exception e) {
             // message didn't get to internal producer buffer and it will not be send to a broker
             callback.onUnpublished(message, cachedTopic.getTopic(), e);
         }
     }
 
+    private ProducerRecord<byte[], byte[]> producerRecord(Producer<byte[], byte[]> producer, String kafkaTopicName,
+                                                          Message message, Topic topic) {
+        switch (topic.getPartitioningStrategy()) {
+            case KEY:
+                if (message.getPartitionKey().isPresent()) {
+                    // Kafka default partitioner hashes the key, so messages with the same key land on the same partition
+                    byte[] key = message.getPartitionKey().get().getBytes(StandardCharsets.UTF_8);
+                    return new ProducerRecord<>(kafkaTopicName, key, message.getData());
+                }
+                return stickyProducerRecord(producer, kafkaTopicName, message);
+            case STICKY:
+                return stickyProducerRecord(producer, kafkaTopicName, message);
+            default:
+                return new ProducerRecord<>(kafkaTopicName, message.getData());
+        }
+    }
+
+    private ProducerRecord<byte[], byte[]> stickyProducerRecord(Producer<byte[], byte[]> producer, String kafkaTopicName,
+                                                                Message message) {
+        Integer partition = stickyPartitioner.partition(producer, kafkaTopicName, message.getData().length);
+        return new ProducerRecord<>(kafkaTopicName, partition, null, message.getData());
+    }
+
     @Override
     public boolean isTopicAvailable(CachedTopic cachedTopic) {
         String kafkaTopicName = cachedTopic.getKafkaTopics().getPrimary().name().asString();
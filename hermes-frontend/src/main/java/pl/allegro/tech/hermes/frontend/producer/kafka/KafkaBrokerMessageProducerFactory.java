@@ -1,24 +1,31 @@
 package pl.allegro.tech.hermes.frontend.producer.kafka;
 
 import org.glassfish.hk2.api.Factory;
+import pl.allegro.tech.hermes.common.config.ConfigFactory;
 import pl.allegro.tech.hermes.common.metric.HermesMetrics;
 
 import javax.inject.Inject;
+import java.time.Clock;
 
 public class KafkaBrokerMessageProducerFactory implements Factory<KafkaBrokerMessageProducer> {
 
     private final Producers producers;
     private final HermesMetrics hermesMetrics;
+    private final ConfigFactory configFactory;
+    private final Clock clock;
 
     @Inject
-    public KafkaBrokerMessageProducerFactory(Producers producers, HermesMetrics hermesMetrics) {
+    public KafkaBrokerMessageProducerFactory(Producers producers, HermesMetrics hermesMetrics, ConfigFactory configFactory,
+                                             Clock clock) {
         this.producers = producers;
         this.hermesMetrics = hermesMetrics;
+        this.configFactory = configFactory;
+        this.clock = clock;
     }
 
     @Override
     public KafkaBrokerMessageProducer provide() {
-        return new KafkaBrokerMessageProducer(producers, hermesMetrics);
+        return new KafkaBrokerMessageProducer(producers, hermesMetrics, new StickyPartitioner(configFactory, clock));
     }
 
     @Override
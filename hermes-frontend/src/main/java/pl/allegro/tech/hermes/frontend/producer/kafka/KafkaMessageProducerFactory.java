@@ -8,7 +8,9 @@ import pl.allegro.tech.hermes.common.config.ConfigFactory;
 import pl.allegro.tech.hermes.common.config.Configs;
 
 import javax.inject.Inject;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.apache.kafka.clients.producer.ProducerConfig.*;
@@ -31,7 +33,13 @@ public class KafkaMessageProducerFactory implements Factory<Producers> {
         common.put(BOOTSTRAP_SERVERS_CONFIG, getString(KAFKA_BROKER_LIST));
         common.put(MAX_BLOCK_MS_CONFIG, getInt(KAFKA_PRODUCER_MAX_BLOCK_MS));
         common.put(COMPRESSION_TYPE_CONFIG, getString(KAFKA_PRODUCER_COMPRESSION_CODEC));
-        common.put(BUFFER_MEMORY_CONFIG, configFactory.getLongProperty(MESSAGES_LOCAL_BUFFERED_STORAGE_SIZE));
+        int shards = getInt(KAFKA_PRODUCER_SHARDS);
+        if (shards < 1) {
+            throw new IllegalArgumentException(
+                    String.format("%s must be at least 1, got %d", KAFKA_PRODUCER_SHARDS.getName(), shards));
+        }
+        // buffer size is split between shards, so the total memory used by producers does not depend on their number
+        common.put(BUFFER_MEMORY_CONFIG, configFactory.getLongProperty(MESSAGES_LOCAL_BUFFERED_STORAGE_SIZE) / shards);
         common.put(REQUEST_TIMEOUT_MS_CONFIG, getInt(KAFKA_PRODUCER_REQUEST_TIMEOUT_MS));
         common.put(BATCH_SIZE_CONFIG, getInt(KAFKA_PRODUCER_BATCH_SIZE));
         common.put(SEND_BUFFER_CONFIG, getInt(KAFKA_PRODUCER_TCP_SEND_BUFFER));
@@ -45,11 +53,19 @@ public class KafkaMessageProducerFactory implements Factory<Producers> {
         common.put(METRICS_SAMPLE_WINDOW_MS_CONFIG, getInt(KAFKA_PRODUCER_METRICS_SAMPLE_WINDOW_MS));
         common.put(MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, getInt(KAFKA_PRODUCER_MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION));
 
-        Producer<byte[], byte[]> leaderConfirms = new KafkaProducer<>(copyWithEntryAdded(common, ACKS_CONFIG, ACK_LEADER));
-        Producer<byte[], byte[]> everyoneConfirms = new KafkaProducer<>(copyWithEntryAdded(common, ACKS_CONFIG, ACK_ALL));
+        List<Producer<byte[], byte[]>> leaderConfirms = createProducers(copyWithEntryAdded(common, ACKS_CONFIG, ACK_LEADER), shards);
+        List<Producer<byte[], byte[]>> everyoneConfirms = createProducers(copyWithEntryAdded(common, ACKS_CONFIG, ACK_ALL), shards);
         return new Producers(leaderConfirms, everyoneConfirms, configFactory);
     }
 
+    private List<Producer<byte[], byte[]>> createProducers(Map<String, Object> config, int shards) {
+        List<Producer<byte[], byte[]>> producers = new ArrayList<>(shards);
+        for (int i = 0; i < shards; i++) {
+            producers.add(new KafkaProducer<>(config));
+        }
+        return producers;
+    }
+
     private ImmutableMap<String, Object> copyWithEntryAdded(Map<String, Object> common, String key, String value) {
         return ImmutableMap.<String, Object>builder().putAll(common).put(key, value).build();
     }
@@ -1,5 +1,6 @@
 package pl.allegro.tech.hermes.frontend.producer.kafka;
 
+import com.google.common.hash.Hashing;
 import org.apache.kafka.clients.producer.Producer;
 import org.apache.kafka.common.Metric;
 import org.apache.kafka.common.MetricName;
@@ -15,13 +16,19 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Predicate;
+import java.util.stream.DoubleStream;
 
+import static java.util.Collections.singletonList;
 import static pl.allegro.tech.hermes.common.metric.HermesMetrics.escapeDots;
 
-
+/**
+ * Kafka producers grouped by acknowledgment level. Each level may be backed by many producers (shards), so that
+ * publishing is not bottlenecked on a single sender thread and record accumulator. Topics are assigned to shards
+ * with consistent hashing, so all messages of a topic go through the same producer.
+ */
 public class Producers {
-    private final Producer<byte[], byte[]> leaderConfirms;
-    private final Producer<byte[], byte[]> everyoneConfirms;
+    private final List<Producer<byte[], byte[]>> leaderConfirms;
+    private final List<Producer<byte[], byte[]>> everyoneConfirms;
 
     private boolean reportNodeMetrics;
     private AtomicBoolean nodeMetricsRegistered = new AtomicBoolean(false);
@@ -29,13 +36,20 @@ public class Producers {
     public Producers(Producer<byte[], byte[]> leaderConfirms,
                      Producer<byte[], byte[]> everyoneConfirms,
                      ConfigFactory configFactory) {
+        this(singletonList(leaderConfirms), singletonList(everyoneConfirms), configFactory);
+    }
+
+    public Producers(List<Producer<byte[], byte[]>> leaderConfirms,
+                     List<Producer<byte[], byte[]>> everyoneConfirms,
+                     ConfigFactory configFactory) {
         this.leaderConfirms = leaderConfirms;
         this.everyoneConfirms = everyoneConfirms;
         this.reportNodeMetrics = configFactory.getBooleanProperty(Configs.KAFKA_PRODUCER_REPORT_NODE_METRICS);
     }
 
     public Producer<byte[], byte[]> get(Topic topic) {
-        return topic.isReplicationConfirmRequired() ? everyoneConfirms : leaderConfirms;
+        List<Producer<byte[], byte[]>> shards = topic.isReplicationConfirmRequired() ? everyoneConfirms : leaderConfirms;
+        return shards.size() == 1 ? shards.get(0) : shards.get(Hashing.consistentHash(topic.getName().hashCode(), shards.size()));
     }
 
     public void registerGauges(HermesMetrics metrics) {
@@ -54,70 +68,121 @@ public class Producers {
     }
 
     private void registerLatencyPerBrokerGauge(HermesMetrics metrics) {
-        List<Node> brokers = ProducerBrokerNodeReader.read(leaderConfirms);
-        registerLatencyPerBrokerGauge(everyoneConfirms, metrics, "request-latency-avg", "everyone-confirms", brokers);
-        registerLatencyPerBrokerGauge(leaderConfirms, metrics, "request-latency-avg", "leader-confirms", brokers);
-        registerLatencyPerBrokerGauge(everyoneConfirms, metrics, "request-latency-max", "everyone-confirms", brokers);
-        registerLatencyPerBrokerGauge(leaderConfirms, metrics, "request-latency-max", "leader-confirms", brokers);
+        List<Node> brokers = ProducerBrokerNodeReader.read(leaderConfirms.get(0));
+        registerLatencyPerBrokerGauge(everyoneConfirms, metrics, "request-latency-avg", "everyone-confirms", brokers,
+                Aggregation.WEIGHTED_AVERAGE);
+        registerLatencyPerBrokerGauge(leaderConfirms, metrics, "request-latency-avg", "leader-confirms", brokers,
+                Aggregation.WEIGHTED_AVERAGE);
+        registerLatencyPerBrokerGauge(everyoneConfirms, metrics, "request-latency-max", "everyone-confirms", brokers,
+                Aggregation.MAX);
+        registerLatencyPerBrokerGauge(leaderConfirms, metrics, "request-latency-max", "leader-confirms", brokers,
+                Aggregation.MAX);
     }
 
-    private void registerCompressionRateGauge(Producer<byte[], byte[]> producer, HermesMetrics metrics, String gauge) {
-        registerProducerGauge(producer, metrics, new MetricName("compression-rate-avg", "producer-metrics"), gauge);
+    private void registerCompressionRateGauge(List<Producer<byte[], byte[]>> producers, HermesMetrics metrics, String gauge) {
+        registerProducerGauge(producers, metrics, new MetricName("compression-rate-avg", "producer-metrics"), gauge,
+                Aggregation.WEIGHTED_AVERAGE);
     }
 
-    private void registerTotalBytesGauge(Producer<byte[], byte[]> producer, HermesMetrics metrics, String gauge) {
-        registerProducerGauge(producer, metrics, new MetricName("buffer-total-bytes", "producer-metrics"), gauge);
+    private void registerTotalBytesGauge(List<Producer<byte[], byte[]>> producers, HermesMetrics metrics, String gauge) {
+        registerProducerGauge(producers, metrics, new MetricName("buffer-total-bytes", "producer-metrics"), gauge,
+                Aggregation.SUM);
     }
 
-    private void registerAvailableBytesGauge(Producer<byte[], byte[]> producer, HermesMetrics metrics, String gauge) {
-        registerProducerGauge(producer, metrics, new MetricName("buffer-available-bytes", "producer-metrics"), gauge);
+    private void registerAvailableBytesGauge(List<Producer<byte[], byte[]>> producers, HermesMetrics metrics, String gauge) {
+        registerProducerGauge(producers, metrics, new MetricName("buffer-available-bytes", "producer-metrics"), gauge,
+                Aggregation.SUM);
     }
 
-    private void registerProducerGauge(final Producer<byte[], byte[]> producer,
+    private void registerProducerGauge(final List<Producer<byte[], byte[]>> producers,
                                        final HermesMetrics metrics,
                                        final MetricName name,
-                                       final String gauge) {
+                                       final String gauge,
+                                       final Aggregation aggregation) {
 
-        registerGauge(producer, metrics, gauge,
-                entry -> entry.getKey().group().equals(name.group()) && entry.getKey().name().equals(name.name()));
+        registerGauge(producers, metrics, gauge, aggregation,
+                entry -> entry.getKey().group().equals(name.group()) && entry.getKey().name().equals(name.name()),
+                entry -> entry.getKey().group().equals(name.group()) && entry.getKey().name().equals("record-send-rate"));
     }
 
-    private void registerLatencyPerBrokerGauge(Producer<byte[], byte[]> producer,
+    private void registerLatencyPerBrokerGauge(List<Producer<byte[], byte[]>> producers,
                                                HermesMetrics metrics,
                                                String metricName,
                                                String producerName,
-                                               List<Node> brokers) {
+                                               List<Node> brokers,
+                                               Aggregation aggregation) {
         for (Node broker : brokers) {
-            registerLatencyPerBrokerGauge(producer, metrics, metricName, producerName, broker);
+            registerLatencyPerBrokerGauge(producers, metrics, metricName, producerName, broker, aggregation);
         }
     }
 
-    private void registerLatencyPerBrokerGauge(Producer<byte[], byte[]> producer,
+    private void registerLatencyPerBrokerGauge(List<Producer<byte[], byte[]>> producers,
                                                HermesMetrics metrics,
                                                String metricName,
                                                String producerName,
-                                               Node node) {
+                                               Node node,
+                                               Aggregation aggregation) {
 
         String gauge = Gauges.JMX_PREFIX + "." + producerName + "-" + metricName + "." + escapeDots(node.host());
-        registerGauge(producer, metrics, gauge,
+        registerGauge(producers, metrics, gauge, aggregation,
                 entry -> entry.getKey().group().equals("producer-node-metrics")
                         && entry.getKey().name().equals(metricName)
+                        && entry.getKey().tags().containsValue("node-" + node.id()),
+                entry -> entry.getKey().group().equals("producer-node-metrics")
+                        && entry.getKey().name().equals("request-rate")
                         && entry.getKey().tags().containsValue("node-" + node.id()));
 
     }
 
-    private void registerGauge(Producer<byte[], byte[]> producer, HermesMetrics metrics, String gauge,
-                               Predicate<Map.Entry<MetricName, ? extends Metric>> predicate) {
-        metrics.registerGauge(gauge, () -> {
-            Optional<? extends Map.Entry<MetricName, ? extends Metric>> first =
-                    producer.metrics().entrySet().stream().filter(predicate).findFirst();
-            double value = first.isPresent() ? first.get().getValue().value() : 0.0;
-            return value < 0? 0.0 : value;
-        });
+    private void registerGauge(List<Producer<byte[], byte[]>> producers, HermesMetrics metrics, String gauge,
+                               Aggregation aggregation, Predicate<Map.Entry<MetricName, ? extends Metric>> predicate,
+                               Predicate<Map.Entry<MetricName, ? extends Metric>> weightPredicate) {
+        metrics.registerGauge(gauge, () -> aggregation.aggregate(
+                producers.stream().mapToDouble(producer -> metricValue(producer, predicate)).toArray(),
+                producers.stream().mapToDouble(producer -> metricValue(producer, weightPredicate)).toArray()));
+    }
+
+    private double metricValue(Producer<byte[], byte[]> producer, Predicate<Map.Entry<MetricName, ? extends Metric>> predicate) {
+        Optional<? extends Map.Entry<MetricName, ? extends Metric>> first =
+                producer.metrics().entrySet().stream().filter(predicate).findFirst();
+        double value = first.isPresent() ? first.get().getValue().value() : 0.0;
+        return value < 0 || Double.isNaN(value) ? 0.0 : value;
     }
 
     public void close() {
-        everyoneConfirms.close();
-        leaderConfirms.close();
+        everyoneConfirms.forEach(Producer::close);
+        leaderConfirms.forEach(Producer::close);
+    }
+
+    private enum Aggregation {
+        SUM {
+            @Override
+            double aggregate(double[] values, double[] weights) {
+                return DoubleStream.of(values).sum();
+            }
+        },
+        /**
+         * Average weighted by activity of each shard, so idle shards do not pull the average down.
+         */
+        WEIGHTED_AVERAGE {
+            @Override
+            double aggregate(double[] values, double[] weights) {
+                double weighted = 0.0;
+                double total = 0.0;
+                for (int i = 0; i < values.length; i++) {
+                    weighted += values[i] * weights[i];
+                    total += weights[i];
+                }
+                return total > 0.0 ? weighted / total : 0.0;
+            }
+        },
+        MAX {
+            @Override
+            double aggregate(double[] values, double[] weights) {
+                return DoubleStream.of(values).max().orElse(0.0);
+            }
+        };
+
+        abstract double aggregate(double[] values, double[] weights);
     }
 }
@@ -0,0 +1,99 @@
+package pl.allegro.tech.hermes.frontend.producer.kafka;
+
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.common.PartitionInfo;
+import pl.allegro.tech.hermes.common.config.ConfigFactory;
+import pl.allegro.tech.hermes.common.config.Configs;
+
+import java.time.Clock;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Sends consecutive messages of a Kafka topic to the same partition, until they fill up a producer batch
+ * or linger time passes. Then switches to another partition, preferring the ones with a known leader.
+ * When partitions of a topic are not known yet, partition is left for Kafka producer to choose.
+ */
+public class StickyPartitioner {
+
+    private final ConcurrentMap<String, StickyPartition> partitions = new ConcurrentHashMap<>();
+    private final int batchSize;
+    private final long lingerMs;
+    private final Clock clock;
+
+    public StickyPartitioner(ConfigFactory configFactory, Clock clock) {
+        this(configFactory.getIntProperty(Configs.KAFKA_PRODUCER_BATCH_SIZE),
+                configFactory.getIntProperty(Configs.KAFKA_PRODUCER_LINGER_MS), clock);
+    }
+
+    public StickyPartitioner(int batchSize, long lingerMs, Clock clock) {
+        this.batchSize = batchSize;
+        this.lingerMs = lingerMs;
+        this.clock = clock;
+    }
+
+    Integer partition(Producer<byte[], byte[]> producer, String kafkaTopic, int messageSize) {
+        long now = clock.millis();
+        StickyPartition current = partitions.get(kafkaTopic);
+        while (current == null || !current.tryAppend(messageSize, now)) {
+            List<PartitionInfo> candidates = candidates(producer.partitionsFor(kafkaTopic));
+            if (candidates.isEmpty()) {
+                return null;
+            }
+            StickyPartition next = new StickyPartition(nextPartition(candidates, current), now);
+            boolean switched = current == null
+                    ? partitions.putIfAbsent(kafkaTopic, next) == null
+                    : partitions.replace(kafkaTopic, current, next);
+            current = switched ? next : partitions.get(kafkaTopic);
+        }
+        return current.partition;
+    }
+
+    private List<PartitionInfo> candidates(List<PartitionInfo> allPartitions) {
+        if (allPartitions == null) {
+            return Collections.emptyList();
+        }
+        List<PartitionInfo> availablePartitions = allPartitions.stream()
+                .filter(partition -> partition.leader() != null)
+                .collect(toList());
+        return availablePartitions.isEmpty() ? allPartitions : availablePartitions;
+    }
+
+    private int nextPartition(List<PartitionInfo> candidates, StickyPartition previous) {
+        if (candidates.size() == 1) {
+            return candidates.get(0).partition();
+        }
+        int partition;
+        do {
+            partition = candidates.get(ThreadLocalRandom.current().nextInt(candidates.size())).partition();
+        } while (previous != null && partition == previous.partition);
+        return partition;
+    }
+
+    private class StickyPartition {
+
+        private final int partition;
+        private final long createdAt;
+        private final AtomicInteger bytes = new AtomicInteger();
+
+        StickyPartition(int partition, long createdAt) {
+            this.partition = partition;
+            this.createdAt = createdAt;
+        }
+
+        boolean tryAppend(int messageSize, long now) {
+            if (lingerMs > 0 && now - createdAt >= lingerMs) {
+                return false;
+            }
+            int appended = bytes.addAndGet(messageSize);
+            // first message always sticks, even if it is larger than the batch
+            return appended == messageSize || appended <= batchSize;
+        }
+    }
+}
@@ -5,6 +5,7 @@ import pl.allegro.tech.hermes.api.Topic;
 import pl.allegro.tech.hermes.frontend.metric.CachedTopic;
 import pl.allegro.tech.hermes.frontend.publishing.message.Message;
 import pl.allegro.tech.hermes.frontend.publishing.message.MessageState;
+import pl.allegro.tech.hermes.frontend.publishing.pool.PooledMessageContent;
 
 public class AttachmentContent {
 
@@ -13,7 +14,7 @@ public class AttachmentContent {
     private final CachedTopic cachedTopic;
     private final MessageState messageState;
     private final String messageId;
-    private byte[] messageContent;
+    private volatile PooledMessageContent messageContent;
     private volatile TimeoutHolder timeoutHolder;
     private volatile Message message;
     private volatile boolean responseReady;
@@ -52,7 +53,7 @@ public class AttachmentContent {
         return cachedTopic;
     }
 
-    public void setMessageContent(byte[] messageContent) {
+    public void setMessageContent(PooledMessageContent messageContent) {
         this.messageContent = messageContent;
     }
 
@@ -60,7 +61,7 @@ public class AttachmentContent {
         return messageId;
     }
 
-    public byte[] getMessageContent() {
+    public PooledMessageContent getMessageContent() {
         return messageContent;
     }
 
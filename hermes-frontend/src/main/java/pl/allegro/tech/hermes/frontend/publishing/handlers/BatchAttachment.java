@@ -0,0 +1,48 @@
+package pl.allegro.tech.hermes.frontend.publishing.handlers;
+
+import io.undertow.util.AttachmentKey;
+import io.undertow.util.StatusCodes;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.stream.Collectors.toList;
+
+public class BatchAttachment {
+
+    public static final AttachmentKey<BatchAttachment> KEY = AttachmentKey.create(BatchAttachment.class);
+
+    private final List<BatchEntry> entries;
+    private final List<BatchEntry> pendingEntries;
+    private final AtomicInteger remaining;
+
+    BatchAttachment(List<BatchEntry> entries) {
+        this.entries = entries;
+        this.pendingEntries = entries.stream().filter(BatchEntry::isPending).collect(toList());
+        this.remaining = new AtomicInteger(pendingEntries.size());
+    }
+
+    public List<BatchEntry> getEntries() {
+        return entries;
+    }
+
+    public List<BatchEntry> getPendingEntries() {
+        return pendingEntries;
+    }
+
+    public boolean completeEntry() {
+        return remaining.decrementAndGet() == 0;
+    }
+
+    public int getStatusCode() {
+        boolean allCreated = true;
+        for (BatchEntry entry : entries) {
+            int statusCode = entry.getStatusCode();
+            if (statusCode != StatusCodes.CREATED && statusCode != StatusCodes.ACCEPTED) {
+                return StatusCodes.MULTI_STATUS;
+            }
+            allCreated &= statusCode == StatusCodes.CREATED;
+        }
+        return allCreated ? StatusCodes.CREATED : StatusCodes.ACCEPTED;
+    }
+}
@@ -0,0 +1,99 @@
+package pl.allegro.tech.hermes.frontend.publishing.handlers;
+
+import io.undertow.util.StatusCodes;
+import pl.allegro.tech.hermes.api.ErrorDescription;
+import pl.allegro.tech.hermes.frontend.publishing.message.Message;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static pl.allegro.tech.hermes.frontend.publishing.handlers.BatchEntry.State.ACCEPTED;
+import static pl.allegro.tech.hermes.frontend.publishing.handlers.BatchEntry.State.DELAYED_PUBLISHED;
+import static pl.allegro.tech.hermes.frontend.publishing.handlers.BatchEntry.State.INVALID;
+import static pl.allegro.tech.hermes.frontend.publishing.handlers.BatchEntry.State.PENDING;
+import static pl.allegro.tech.hermes.frontend.publishing.handlers.BatchEntry.State.PUBLISHED;
+import static pl.allegro.tech.hermes.frontend.publishing.handlers.BatchEntry.State.UNPUBLISHED;
+
+public class BatchEntry {
+
+    enum State {
+        INVALID,
+        PENDING,
+        PUBLISHED,
+        ACCEPTED,
+        DELAYED_PUBLISHED,
+        UNPUBLISHED
+    }
+
+    private final String messageId;
+    private final Message message;
+    private final AtomicReference<State> state;
+    private ErrorDescription error;
+
+    private BatchEntry(String messageId, Message message, State state, ErrorDescription error) {
+        this.messageId = messageId;
+        this.message = message;
+        this.state = new AtomicReference<>(state);
+        this.error = error;
+    }
+
+    static BatchEntry created(Message message) {
+        return new BatchEntry(message.getId(), message, PENDING, null);
+    }
+
+    static BatchEntry invalid(String messageId, ErrorDescription error) {
+        return new BatchEntry(messageId, null, INVALID, error);
+    }
+
+    public String getMessageId() {
+        return messageId;
+    }
+
+    public Message getMessage() {
+        return message;
+    }
+
+    public synchronized ErrorDescription getError() {
+        return error;
+    }
+
+    public boolean isPending() {
+        return state.get() == PENDING;
+    }
+
+    public boolean setPublished() {
+        return state.compareAndSet(PENDING, PUBLISHED);
+    }
+
+    public boolean setAccepted() {
+        return state.compareAndSet(PENDING, ACCEPTED);
+    }
+
+    public boolean setDelayedPublished() {
+        return state.compareAndSet(ACCEPTED, DELAYED_PUBLISHED);
+    }
+
+    public boolean isDelayedPublished() {
+        return state.get() == DELAYED_PUBLISHED;
+    }
+
+    public synchronized boolean setUnpublished(ErrorDescription error) {
+        if (state.compareAndSet(PENDING, UNPUBLISHED)) {
+            this.error = error;
+            return true;
+        }
+        return false;
+    }
+
+    public synchronized int getStatusCode() {
+        switch (state.get()) {
+            case PUBLISHED:
+                return StatusCodes.CREATED;
+            case PENDING:
+            case ACCEPTED:
+            case DELAYED_PUBLISHED:
+                return StatusCodes.ACCEPTED;
+            default:
+                return error.getCode().getHttpCode();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package pl.allegro.tech.hermes.frontend.publishing.handlers;
+
+import io.undertow.server.HttpHandler;
+import pl.allegro.tech.hermes.common.config.ConfigFactory;
+import pl.allegro.tech.hermes.frontend.cache.topic.TopicsCache;
+import pl.allegro.tech.hermes.frontend.producer.BrokerMessageProducer;
+import pl.allegro.tech.hermes.frontend.publishing.handlers.end.BatchEndProcessor;
+import pl.allegro.tech.hermes.frontend.publishing.handlers.end.MessageEndProcessor;
+import pl.allegro.tech.hermes.frontend.publishing.handlers.end.MessageErrorProcessor;
+import pl.allegro.tech.hermes.frontend.publishing.message.MessageFactory;
+import pl.allegro.tech.hermes.frontend.publishing.pool.MessageContentPool;
+import pl.allegro.tech.hermes.frontend.publishing.preview.MessagePreviewLog;
+import pl.allegro.tech.hermes.frontend.server.auth.AuthenticationConfigurationProvider;
+
+import javax.inject.Inject;
+
+import static pl.allegro.tech.hermes.common.config.Configs.FRONTEND_BATCH_PUBLISHING_MAX_MESSAGES;
+
+public class BatchHandlersChainFactory extends HandlersChainFactory {
+
+    public static final String BATCH_PUBLISHING_HANDLER = "batchPublishingHandler";
+
+    private final BatchEndProcessor batchEndProcessor;
+
+    @Inject
+    public BatchHandlersChainFactory(TopicsCache topicsCache, MessageErrorProcessor messageErrorProcessor,
+                                     MessageEndProcessor messageEndProcessor, ConfigFactory configFactory,
+                                     MessageFactory messageFactory, BrokerMessageProducer brokerMessageProducer,
+                                     MessagePreviewLog messagePreviewLog, ThroughputLimiter throughputLimiter,
+                                     AuthenticationConfigurationProvider authConfigProvider,
+                                     MessageContentPool messageContentPool, BatchEndProcessor batchEndProcessor) {
+        super(topicsCache, messageErrorProcessor, messageEndProcessor, configFactory, messageFactory, brokerMessageProducer,
+                messagePreviewLog, throughputLimiter, authConfigProvider, messageContentPool);
+        this.batchEndProcessor = batchEndProcessor;
+    }
+
+    @Override
+    public HttpHandler provide() {
+        HttpHandler publishing = new BatchPublishingHandler(brokerMessageProducer, messageErrorProcessor, batchEndProcessor);
+        HttpHandler batchCreateHandler = new BatchMessageCreateHandler(publishing, messageFactory, messageErrorProcessor,
+                configFactory.getIntProperty(FRONTEND_BATCH_PUBLISHING_MAX_MESSAGES));
+        HttpHandler timeoutHandler = new BatchTimeoutHandler(messageEndProcessor, messageErrorProcessor, batchEndProcessor);
+        HttpHandler readHandler = new MessageReadHandler(batchCreateHandler, timeoutHandler, configFactory,
+                messageErrorProcessor, throughputLimiter, messageContentPool,
+                ContentLengthChecker.batchContentLengthChecker(configFactory));
+        TopicHandler topicHandler = new TopicHandler(readHandler, topicsCache, messageErrorProcessor);
+
+        return withOptionalAuthenticationHandlersChain(topicHandler);
+    }
+}
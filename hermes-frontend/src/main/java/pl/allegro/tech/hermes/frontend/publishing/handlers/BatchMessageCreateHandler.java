@@ -0,0 +1,126 @@
+package pl.allegro.tech.hermes.frontend.publishing.handlers;
+
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.HeaderMap;
+import io.undertow.util.Headers;
+import org.apache.commons.lang.StringUtils;
+import pl.allegro.tech.hermes.api.ErrorDescription;
+import pl.allegro.tech.hermes.api.Topic;
+import pl.allegro.tech.hermes.common.message.wrapper.UnsupportedContentTypeException;
+import pl.allegro.tech.hermes.common.metric.timer.StartedTimersPair;
+import pl.allegro.tech.hermes.frontend.publishing.handlers.end.MessageErrorProcessor;
+import pl.allegro.tech.hermes.frontend.publishing.message.MessageFactory;
+import pl.allegro.tech.hermes.frontend.publishing.message.MessageIdGenerator;
+import pl.allegro.tech.hermes.frontend.publishing.pool.PooledMessageContent;
+import pl.allegro.tech.hermes.frontend.validator.InvalidMessageException;
+import pl.allegro.tech.hermes.schema.CouldNotLoadSchemaException;
+import pl.allegro.tech.hermes.schema.SchemaNotFoundException;
+import tech.allegro.schema.json2avro.converter.AvroConversionException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.lang.String.format;
+import static pl.allegro.tech.hermes.api.AvroMediaType.AVRO_BINARY;
+import static pl.allegro.tech.hermes.api.ErrorCode.INTERNAL_ERROR;
+import static pl.allegro.tech.hermes.api.ErrorCode.SCHEMA_COULD_NOT_BE_LOADED;
+import static pl.allegro.tech.hermes.api.ErrorCode.VALIDATION_ERROR;
+import static pl.allegro.tech.hermes.api.ErrorDescription.error;
+
+class BatchMessageCreateHandler implements HttpHandler {
+
+    private final HttpHandler next;
+    private final MessageFactory messageFactory;
+    private final MessageErrorProcessor messageErrorProcessor;
+    private final BatchMessageSplitter batchMessageSplitter = new BatchMessageSplitter();
+    private final int maxMessagesInBatch;
+
+    BatchMessageCreateHandler(HttpHandler next, MessageFactory messageFactory, MessageErrorProcessor messageErrorProcessor,
+                              int maxMessagesInBatch) {
+        this.next = next;
+        this.messageFactory = messageFactory;
+        this.messageErrorProcessor = messageErrorProcessor;
+        this.maxMessagesInBatch = maxMessagesInBatch;
+    }
+
+    @Override
+    public void handleRequest(HttpServerExchange exchange) throws Exception {
+        AttachmentContent attachment = exchange.getAttachment(AttachmentContent.KEY);
+
+        try {
+            List<PooledMessageContent> messages = split(exchange, attachment);
+            exchange.putAttachment(BatchAttachment.KEY, new BatchAttachment(create(exchange, attachment, messages)));
+            next.handleRequest(exchange);
+        } catch (BatchMessageSplitter.InvalidBatchException exception) {
+            attachment.removeTimeout();
+            messageErrorProcessor.sendAndLog(
+                    exchange,
+                    attachment.getTopic(),
+                    attachment.getMessageId(),
+                    error("Invalid batch: " + exception.getMessage(), VALIDATION_ERROR));
+        } catch (Exception exception) {
+            attachment.removeTimeout();
+            messageErrorProcessor.sendAndLog(
+                    exchange,
+                    attachment.getTopic(),
+                    attachment.getMessageId(),
+                    error("Exception caught while creating batch", INTERNAL_ERROR),
+                    exception);
+        }
+    }
+
+    private List<PooledMessageContent> split(HttpServerExchange exchange, AttachmentContent attachment)
+            throws BatchMessageSplitter.InvalidBatchException {
+        String contentType = StringUtils.lowerCase(exchange.getRequestHeaders().getFirst(Headers.CONTENT_TYPE));
+        if (contentType != null && contentType.startsWith(AVRO_BINARY)) {
+            throw new BatchMessageSplitter.InvalidBatchException("Batch should contain JSON encoded messages");
+        }
+        List<PooledMessageContent> messages = batchMessageSplitter.split(attachment.getMessageContent());
+        if (messages.isEmpty()) {
+            throw new BatchMessageSplitter.InvalidBatchException("Batch is empty");
+        }
+        if (messages.size() > maxMessagesInBatch) {
+            throw new BatchMessageSplitter.InvalidBatchException(
+                    format("Batch contains %s messages, the limit is %s", messages.size(), maxMessagesInBatch));
+        }
+        return messages;
+    }
+
+    private List<BatchEntry> create(HttpServerExchange exchange, AttachmentContent attachment, List<PooledMessageContent> messages) {
+        List<BatchEntry> entries = new ArrayList<>(messages.size());
+        StartedTimersPair messageCreationTimers = attachment.getCachedTopic().startMessageCreationTimers();
+        try {
+            for (PooledMessageContent message : messages) {
+                entries.add(create(exchange, attachment.getTopic(), message));
+            }
+        } finally {
+            messageCreationTimers.close();
+        }
+        return entries;
+    }
+
+    private BatchEntry create(HttpServerExchange exchange, Topic topic, PooledMessageContent messageContent) {
+        HeaderMap headers = exchange.getRequestHeaders();
+        String messageId = MessageIdGenerator.generate();
+        if (messageContent.length() > topic.getMaxMessageSize()) {
+            return invalid(exchange, topic, messageId, error(format("Message is larger than max on this topic [length:%s, max:%s].",
+                    messageContent.length(), topic.getMaxMessageSize()), VALIDATION_ERROR), null);
+        }
+        try {
+            return BatchEntry.created(messageFactory.create(headers, topic, messageId, messageContent));
+        } catch (InvalidMessageException | AvroConversionException | UnsupportedContentTypeException exception) {
+            return invalid(exchange, topic, messageId, error("Invalid message: " + exception.getMessage(), VALIDATION_ERROR), exception);
+        } catch (CouldNotLoadSchemaException | SchemaNotFoundException exception) {
+            return invalid(exchange, topic, messageId, error("Missing schema", SCHEMA_COULD_NOT_BE_LOADED), exception);
+        } catch (Exception exception) {
+            return invalid(exchange, topic, messageId, error("Exception caught while creating message", INTERNAL_ERROR), exception);
+        }
+    }
+
+    private BatchEntry invalid(HttpServerExchange exchange, Topic topic, String messageId, ErrorDescription error,
+                               Exception exception) {
+        messageErrorProcessor.log(exchange, topic, messageId, error, exception);
+        return BatchEntry.invalid(messageId, error);
+    }
+}
@@ -0,0 +1,64 @@
+package pl.allegro.tech.hermes.frontend.publishing.handlers;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import pl.allegro.tech.hermes.frontend.publishing.pool.PooledMessageContent;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.copyOfRange;
+
+/**
+ * Splits JSON array of messages into separate message contents. Messages are copied byte by byte from the batch,
+ * without parsing them into a tree and serializing back.
+ */
+class BatchMessageSplitter {
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    List<PooledMessageContent> split(PooledMessageContent batch) throws InvalidBatchException {
+        try (JsonParser parser = jsonFactory.createParser(batch.array(), 0, batch.length())) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new InvalidBatchException("Batch should be a JSON array of messages");
+            }
+            List<PooledMessageContent> messages = new ArrayList<>();
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    throw new InvalidBatchException("Unexpected end of batch");
+                }
+                int start = (int) parser.getTokenLocation().getByteOffset();
+                skipValue(parser, token);
+                int end = (int) parser.getCurrentLocation().getByteOffset();
+                messages.add(PooledMessageContent.of(copyOfRange(batch.array(), start, end)));
+            }
+            if (parser.nextToken() != null) {
+                throw new InvalidBatchException("Unexpected content after the end of batch");
+            }
+            return messages;
+        } catch (JsonProcessingException e) {
+            throw new InvalidBatchException("Batch is not a valid JSON. " + e.getOriginalMessage());
+        } catch (IOException e) {
+            throw new InvalidBatchException("Could not read batch. " + e.getMessage());
+        }
+    }
+
+    private void skipValue(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_STRING) {
+            // string tokens are decoded lazily, parser location points to their end only after they are read
+            parser.getText();
+        } else {
+            parser.skipChildren();
+        }
+    }
+
+    static class InvalidBatchException extends Exception {
+        InvalidBatchException(String message) {
+            super(message);
+        }
+    }
+}
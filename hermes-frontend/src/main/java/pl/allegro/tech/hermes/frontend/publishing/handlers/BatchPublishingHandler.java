@@ -0,0 +1,122 @@
+package pl.allegro.tech.hermes.frontend.publishing.handlers;
+
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+import pl.allegro.tech.hermes.api.ErrorDescription;
+import pl.allegro.tech.hermes.api.Topic;
+import pl.allegro.tech.hermes.common.metric.timer.StartedTimersPair;
+import pl.allegro.tech.hermes.frontend.metric.CachedTopic;
+import pl.allegro.tech.hermes.frontend.producer.BrokerMessageProducer;
+import pl.allegro.tech.hermes.frontend.publishing.PublishingCallback;
+import pl.allegro.tech.hermes.frontend.publishing.handlers.end.BatchEndProcessor;
+import pl.allegro.tech.hermes.frontend.publishing.handlers.end.MessageErrorProcessor;
+import pl.allegro.tech.hermes.frontend.publishing.message.Message;
+import pl.allegro.tech.hermes.frontend.publishing.message.MessageState;
+
+import static org.apache.commons.lang3.exception.ExceptionUtils.getRootCauseMessage;
+import static pl.allegro.tech.hermes.api.ErrorCode.INTERNAL_ERROR;
+import static pl.allegro.tech.hermes.api.ErrorDescription.error;
+
+class BatchPublishingHandler implements HttpHandler {
+
+    private final BrokerMessageProducer brokerMessageProducer;
+    private final MessageErrorProcessor messageErrorProcessor;
+    private final BatchEndProcessor batchEndProcessor;
+
+    BatchPublishingHandler(BrokerMessageProducer brokerMessageProducer, MessageErrorProcessor messageErrorProcessor,
+                           BatchEndProcessor batchEndProcessor) {
+        this.brokerMessageProducer = brokerMessageProducer;
+        this.messageErrorProcessor = messageErrorProcessor;
+        this.batchEndProcessor = batchEndProcessor;
+    }
+
+    @Override
+    public void handleRequest(HttpServerExchange exchange) throws Exception {
+        exchange.dispatch(() -> {
+            try {
+                handle(exchange);
+            } catch (RuntimeException e) {
+                messageErrorProcessor.sendAndLog(exchange, "Exception while publishing batch to a broker.", e);
+            }
+        });
+    }
+
+    private void handle(HttpServerExchange exchange) {
+        AttachmentContent attachment = exchange.getAttachment(AttachmentContent.KEY);
+        BatchAttachment batch = exchange.getAttachment(BatchAttachment.KEY);
+        MessageState messageState = attachment.getMessageState();
+
+        messageState.setSendingToKafkaProducerQueue();
+        StartedTimersPair brokerLatencyTimers = attachment.getCachedTopic().startBrokerLatencyTimers();
+
+        if (batch.getPendingEntries().isEmpty()) {
+            brokerLatencyTimers.close();
+            batchSent(exchange, attachment, batch);
+            return;
+        }
+
+        for (BatchEntry entry : batch.getPendingEntries()) {
+            brokerMessageProducer.send(entry.getMessage(), attachment.getCachedTopic(),
+                    new BatchEntryPublishingCallback(exchange, attachment, batch, entry, brokerLatencyTimers));
+        }
+
+        if (messageState.setSendingToKafka() && messageState.setDelayedProcessing()) {
+            batchEndProcessor.bufferedButDelayedProcessing(exchange, attachment, batch);
+        }
+    }
+
+    private void batchSent(HttpServerExchange exchange, AttachmentContent attachment, BatchAttachment batch) {
+        if (attachment.getMessageState().setSentToKafka()) {
+            attachment.removeTimeout();
+            batchEndProcessor.sent(exchange, attachment, batch);
+        }
+    }
+
+    private class BatchEntryPublishingCallback implements PublishingCallback {
+
+        private final HttpServerExchange exchange;
+        private final AttachmentContent attachment;
+        private final BatchAttachment batch;
+        private final BatchEntry entry;
+        private final StartedTimersPair brokerLatencyTimers;
+
+        BatchEntryPublishingCallback(HttpServerExchange exchange, AttachmentContent attachment, BatchAttachment batch,
+                                     BatchEntry entry, StartedTimersPair brokerLatencyTimers) {
+            this.exchange = exchange;
+            this.attachment = attachment;
+            this.batch = batch;
+            this.entry = entry;
+            this.brokerLatencyTimers = brokerLatencyTimers;
+        }
+
+        // called from kafka producer thread
+        @Override
+        public void onPublished(Message message, Topic topic) {
+            exchange.getConnection().getWorker().execute(() -> {
+                CachedTopic cachedTopic = attachment.getCachedTopic();
+                if (entry.setPublished()) {
+                    batchEndProcessor.messageSent(exchange, cachedTopic, message);
+                } else if (entry.setDelayedPublished()) {
+                    batchEndProcessor.delayedSent(exchange, cachedTopic, message);
+                }
+                entryCompleted();
+            });
+        }
+
+        @Override
+        public void onUnpublished(Message message, Topic topic, Exception exception) {
+            ErrorDescription error = error("Message not published. " + getRootCauseMessage(exception), INTERNAL_ERROR);
+            // entry may have already been answered with 202 Accepted, the failure is logged and tracked anyway
+            entry.setUnpublished(error);
+            messageErrorProcessor.log(exchange, topic, message.getId(), error, exception);
+            entryCompleted();
+        }
+
+        private void entryCompleted() {
+            if (batch.completeEntry()) {
+                brokerLatencyTimers.close();
+                batchSent(exchange, attachment, batch);
+            }
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package pl.allegro.tech.hermes.frontend.publishing.handlers;
+
+import io.undertow.server.HttpServerExchange;
+import pl.allegro.tech.hermes.frontend.publishing.handlers.end.BatchEndProcessor;
+import pl.allegro.tech.hermes.frontend.publishing.handlers.end.MessageEndProcessor;
+import pl.allegro.tech.hermes.frontend.publishing.handlers.end.MessageErrorProcessor;
+
+class BatchTimeoutHandler extends TimeoutHandler {
+
+    private final BatchEndProcessor batchEndProcessor;
+
+    BatchTimeoutHandler(MessageEndProcessor messageEndProcessor, MessageErrorProcessor messageErrorProcessor,
+                        BatchEndProcessor batchEndProcessor) {
+        super(messageEndProcessor, messageErrorProcessor);
+        this.batchEndProcessor = batchEndProcessor;
+    }
+
+    @Override
+    void bufferedButDelayed(HttpServerExchange exchange, AttachmentContent attachment) {
+        batchEndProcessor.bufferedButDelayed(exchange, attachment, exchange.getAttachment(BatchAttachment.KEY));
+    }
+}
@@ -10,27 +10,44 @@ import pl.allegro.tech.hermes.common.config.ConfigFactory;
 import pl.allegro.tech.hermes.common.config.Configs;
 
 import java.io.IOException;
+import java.util.function.ToIntFunction;
 
 import static java.lang.String.format;
 
 final class ContentLengthChecker {
     private static final Logger logger = LoggerFactory.getLogger(ContentLengthChecker.class);
 
-    private boolean forceMaxMessageSizePerTopic;
+    private final boolean forceMaxContentLength;
+    private final ToIntFunction<AttachmentContent> maxContentLength;
 
     ContentLengthChecker(ConfigFactory configs) {
-        this.forceMaxMessageSizePerTopic = configs.getBooleanProperty(Configs.FRONTEND_FORCE_TOPIC_MAX_MESSAGE_SIZE);
+        this(configs.getBooleanProperty(Configs.FRONTEND_FORCE_TOPIC_MAX_MESSAGE_SIZE),
+                attachment -> attachment.getCachedTopic().getTopic().getMaxMessageSize());
+    }
+
+    private ContentLengthChecker(boolean forceMaxContentLength, ToIntFunction<AttachmentContent> maxContentLength) {
+        this.forceMaxContentLength = forceMaxContentLength;
+        this.maxContentLength = maxContentLength;
+    }
+
+    static ContentLengthChecker batchContentLengthChecker(ConfigFactory configs) {
+        int maxBatchSize = configs.getIntProperty(Configs.FRONTEND_BATCH_PUBLISHING_MAX_SIZE);
+        return new ContentLengthChecker(true, attachment -> maxBatchSize);
+    }
+
+    int maxContentLength(AttachmentContent attachment) {
+        return maxContentLength.applyAsInt(attachment);
     }
 
     void check(HttpServerExchange exchange, int contentLength, AttachmentContent attachment)
             throws InvalidContentLengthException, ContentTooLargeException {
 
-        int max = attachment.getCachedTopic().getTopic().getMaxMessageSize();
+        int max = maxContentLength(attachment);
         long expected = exchange.getRequestContentLength();
         if (expected != contentLength && !isChunked(exchange.getRequestHeaders(), expected)) {
             throw new InvalidContentLengthException(expected, contentLength);
         } else if (contentLength > max) {
-            if (forceMaxMessageSizePerTopic) {
+            if (forceMaxContentLength) {
                 throw new ContentTooLargeException(contentLength, max);
             } else {
                 logger.warn("Content-Length is larger than max on this topic [length:{}, max:{}, topic: {}]",
@@ -0,0 +1,111 @@
+package pl.allegro.tech.hermes.frontend.publishing.handlers;
+
+import com.codahale.metrics.Metered;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pl.allegro.tech.hermes.api.TopicName;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static pl.allegro.tech.hermes.frontend.publishing.handlers.ThroughputLimiter.QuotaInsight.quotaConfirmed;
+import static pl.allegro.tech.hermes.frontend.publishing.handlers.ThroughputLimiter.QuotaInsight.quotaViolation;
+
+/**
+ * Enforces a cluster-wide throughput limit per topic. Every node periodically publishes its own topic rates
+ * to the registry and takes a share of the limit: its current rate plus an equal part of the unused limit,
+ * or a part proportional to its rate when the topic exceeds the limit. Checking the quota only reads limits computed
+ * by the last synchronization.
+ */
+public class DistributedThroughputLimiter implements ThroughputLimiter, Runnable {
+
+    private static final Logger logger = LoggerFactory.getLogger(DistributedThroughputLimiter.class);
+
+    private final long limit;
+    private final ThroughputRegistry registry;
+    private final ScheduledExecutorService executor;
+    private final int syncInterval;
+
+    private final ConcurrentHashMap<TopicName, Metered> throughputs = new ConcurrentHashMap<>();
+    private volatile Map<TopicName, Long> limits = Collections.emptyMap();
+    private volatile long defaultLimit;
+
+    public DistributedThroughputLimiter(long limit,
+                                        int syncInterval,
+                                        ThroughputRegistry registry,
+                                        ScheduledExecutorService executor) {
+        this.limit = limit;
+        this.defaultLimit = limit;
+        this.syncInterval = syncInterval;
+        this.registry = registry;
+        this.executor = executor;
+    }
+
+    @Override
+    public QuotaInsight checkQuota(TopicName topic, Metered throughput) {
+        if (throughputs.get(topic) == null) {
+            throughputs.putIfAbsent(topic, throughput);
+        }
+        long rate = (long) Math.floor(throughput.getOneMinuteRate());
+        long topicLimit = limits.getOrDefault(topic, defaultLimit);
+        return rate > topicLimit ? quotaViolation(rate, topicLimit) : quotaConfirmed();
+    }
+
+    @Override
+    public void start() {
+        executor.scheduleWithFixedDelay(this, 0, syncInterval, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void stop() {
+        executor.shutdownNow();
+        registry.unregister();
+    }
+
+    @Override
+    public void run() {
+        try {
+            Map<TopicName, Long> rates = localRates();
+            registry.publish(rates);
+            calculateLimits(rates, registry.readAll());
+        } catch (Exception e) {
+            logger.warn("Could not synchronize throughput with other frontend nodes, keeping previous limits", e);
+        }
+    }
+
+    private Map<TopicName, Long> localRates() {
+        Map<TopicName, Long> rates = new HashMap<>();
+        throughputs.forEach((topic, throughput) -> {
+            long rate = (long) Math.floor(throughput.getOneMinuteRate());
+            if (rate > 0) {
+                rates.put(topic, rate);
+            }
+        });
+        return rates;
+    }
+
+    private void calculateLimits(Map<TopicName, Long> localRates, List<Map<TopicName, Long>> nodes) {
+        int nodesCount = Math.max(1, nodes.size());
+        Map<TopicName, Long> totals = new HashMap<>();
+        nodes.forEach(node -> node.forEach((topic, rate) -> totals.merge(topic, rate, Long::sum)));
+
+        Map<TopicName, Long> newLimits = new HashMap<>(localRates.size());
+        localRates.forEach((topic, rate) ->
+                newLimits.put(topic, share(rate, Math.max(rate, totals.getOrDefault(topic, rate)), nodesCount)));
+
+        limits = newLimits;
+        defaultLimit = limit / nodesCount;
+    }
+
+    private long share(long rate, long total, int nodesCount) {
+        if (total <= limit) {
+            return rate + (limit - total) / nodesCount;
+        }
+        return (long) ((double) limit * rate / total);
+    }
+}
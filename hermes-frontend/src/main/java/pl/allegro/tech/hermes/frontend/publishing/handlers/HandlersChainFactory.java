@@ -15,6 +15,7 @@ import pl.allegro.tech.hermes.frontend.producer.BrokerMessageProducer;
 import pl.allegro.tech.hermes.frontend.publishing.handlers.end.MessageEndProcessor;
 import pl.allegro.tech.hermes.frontend.publishing.handlers.end.MessageErrorProcessor;
 import pl.allegro.tech.hermes.frontend.publishing.message.MessageFactory;
+import pl.allegro.tech.hermes.frontend.publishing.pool.MessageContentPool;
 import pl.allegro.tech.hermes.frontend.publishing.preview.MessagePreviewLog;
 import pl.allegro.tech.hermes.frontend.server.auth.AuthenticationConfiguration;
 import pl.allegro.tech.hermes.frontend.server.auth.AuthenticationConfigurationProvider;
@@ -26,24 +27,28 @@ import static pl.allegro.tech.hermes.common.config.Configs.FRONTEND_AUTHENTICATI
 
 public class HandlersChainFactory implements Factory<HttpHandler> {
 
+    public static final String PUBLISHING_HANDLER = "publishingHandler";
+
     private static final Logger logger = LoggerFactory.getLogger(HandlersChainFactory.class);
 
-    private final TopicsCache topicsCache;
-    private final MessageErrorProcessor messageErrorProcessor;
-    private final MessageEndProcessor messageEndProcessor;
-    private final ConfigFactory configFactory;
-    private final MessageFactory messageFactory;
-    private final BrokerMessageProducer brokerMessageProducer;
+    protected final TopicsCache topicsCache;
+    protected final MessageErrorProcessor messageErrorProcessor;
+    protected final MessageEndProcessor messageEndProcessor;
+    protected final ConfigFactory configFactory;
+    protected final MessageFactory messageFactory;
+    protected final BrokerMessageProducer brokerMessageProducer;
     private final MessagePreviewLog previewLog;
     private final boolean previewEnabled;
-    private final ThroughputLimiter throughputLimiter;
+    protected final ThroughputLimiter throughputLimiter;
     private final AuthenticationConfigurationProvider authenticationConfigurationProvider;
+    protected final MessageContentPool messageContentPool;
 
     @Inject
     public HandlersChainFactory(TopicsCache topicsCache, MessageErrorProcessor messageErrorProcessor,
                                 MessageEndProcessor messageEndProcessor, ConfigFactory configFactory, MessageFactory messageFactory,
                                 BrokerMessageProducer brokerMessageProducer, MessagePreviewLog messagePreviewLog,
-                                ThroughputLimiter throughputLimiter, AuthenticationConfigurationProvider authConfigProvider) {
+                                ThroughputLimiter throughputLimiter, AuthenticationConfigurationProvider authConfigProvider,
+                                MessageContentPool messageContentPool) {
         this.topicsCache = topicsCache;
         this.messageErrorProcessor = messageErrorProcessor;
         this.messageEndProcessor = messageEndProcessor;
@@ -54,6 +59,7 @@ public class HandlersChainFactory implements Factory<HttpHandler> {
         this.previewEnabled = configFactory.getBooleanProperty(Configs.FRONTEND_MESSAGE_PREVIEW_ENABLED);
         this.throughputLimiter = throughputLimiter;
         this.authenticationConfigurationProvider = authConfigProvider;
+        this.messageContentPool = messageContentPool;
     }
 
     @Override
@@ -63,11 +69,15 @@ public class HandlersChainFactory implements Factory<HttpHandler> {
         HttpHandler timeoutHandler = new TimeoutHandler(messageEndProcessor, messageErrorProcessor);
         HttpHandler handlerAfterRead = previewEnabled ? new PreviewHandler(messageCreateHandler, previewLog) : messageCreateHandler;
         HttpHandler readHandler = new MessageReadHandler(handlerAfterRead, timeoutHandler, configFactory,
-                                                                messageErrorProcessor, throughputLimiter);
+                                                                messageErrorProcessor, throughputLimiter, messageContentPool);
         TopicHandler topicHandler = new TopicHandler(readHandler, topicsCache, messageErrorProcessor);
 
+        return withOptionalAuthenticationHandlersChain(topicHandler);
+    }
+
+    protected HttpHandler withOptionalAuthenticationHandlersChain(HttpHandler next) {
         boolean authenticationEnabled = configFactory.getBooleanProperty(FRONTEND_AUTHENTICATION_ENABLED);
-        return authenticationEnabled ? withAuthenticationHandlersChain(topicHandler) : topicHandler;
+        return authenticationEnabled ? withAuthenticationHandlersChain(next) : next;
     }
 
     private HttpHandler withAuthenticationHandlersChain(HttpHandler next) {
@@ -9,8 +9,9 @@ import pl.allegro.tech.hermes.common.config.Configs;
 import pl.allegro.tech.hermes.common.metric.timer.StartedTimersPair;
 import pl.allegro.tech.hermes.frontend.publishing.handlers.end.MessageErrorProcessor;
 import pl.allegro.tech.hermes.frontend.publishing.message.MessageState;
+import pl.allegro.tech.hermes.frontend.publishing.pool.MessageContentPool;
+import pl.allegro.tech.hermes.frontend.publishing.pool.PooledMessageContent;
 
-import java.io.ByteArrayOutputStream;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
@@ -22,6 +23,8 @@ import static pl.allegro.tech.hermes.api.ErrorDescription.error;
 
 class MessageReadHandler implements HttpHandler {
 
+    private static final int CHUNKED_CONTENT_INITIAL_SIZE = 1024;
+
     private final HttpHandler next;
     private final HttpHandler timeoutHandler;
     private final MessageErrorProcessor messageErrorProcessor;
@@ -29,16 +32,28 @@ class MessageReadHandler implements HttpHandler {
     private final int defaultAsyncTimeout;
     private final int longAsyncTimeout;
     private final ThroughputLimiter throughputLimiter;
+    private final MessageContentPool messageContentPool;
+    private final boolean messageContentPoolEnabled;
 
     MessageReadHandler(HttpHandler next, HttpHandler timeoutHandler, ConfigFactory configFactory,
-                       MessageErrorProcessor messageErrorProcessor,  ThroughputLimiter throughputLimiter) {
+                       MessageErrorProcessor messageErrorProcessor, ThroughputLimiter throughputLimiter,
+                       MessageContentPool messageContentPool) {
+        this(next, timeoutHandler, configFactory, messageErrorProcessor, throughputLimiter, messageContentPool,
+                new ContentLengthChecker(configFactory));
+    }
+
+    MessageReadHandler(HttpHandler next, HttpHandler timeoutHandler, ConfigFactory configFactory,
+                       MessageErrorProcessor messageErrorProcessor, ThroughputLimiter throughputLimiter,
+                       MessageContentPool messageContentPool, ContentLengthChecker contentLengthChecker) {
         this.next = next;
         this.timeoutHandler = timeoutHandler;
         this.messageErrorProcessor = messageErrorProcessor;
-        this.contentLengthChecker = new ContentLengthChecker(configFactory);
+        this.contentLengthChecker = contentLengthChecker;
         this.defaultAsyncTimeout = configFactory.getIntProperty(Configs.FRONTEND_IDLE_TIMEOUT);
         this.longAsyncTimeout = configFactory.getIntProperty(Configs.FRONTEND_LONG_IDLE_TIMEOUT);
         this.throughputLimiter = throughputLimiter;
+        this.messageContentPool = messageContentPool;
+        this.messageContentPoolEnabled = configFactory.getBooleanProperty(Configs.FRONTEND_MESSAGE_CONTENT_POOL_ENABLED);
     }
 
     @Override
@@ -74,7 +89,7 @@ class MessageReadHandler implements HttpHandler {
     }
 
     private void readMessage(HttpServerExchange exchange, AttachmentContent attachment) {
-        ByteArrayOutputStream messageContent = new ByteArrayOutputStream();
+        PooledMessageContent messageContent = createMessageContent(exchange, attachment);
         MessageState state = attachment.getMessageState();
 
         StartedTimersPair readingTimers = attachment.getCachedTopic().startRequestReadTimers();
@@ -100,19 +115,37 @@ class MessageReadHandler implements HttpHandler {
         }
     }
 
-    private Receiver.PartialBytesCallback partialMessageRead(MessageState state, ByteArrayOutputStream messageContent,
+    private PooledMessageContent createMessageContent(HttpServerExchange exchange, AttachmentContent attachment) {
+        long contentLength = exchange.getRequestContentLength();
+        if (contentLength < 0) {
+            return PooledMessageContent.unpooled(new byte[CHUNKED_CONTENT_INITIAL_SIZE]);
+        }
+        // Content-Length is not verified before the whole body is read, so it should not decide alone about allocation
+        int expectedLength = (int) Math.min(contentLength, contentLengthChecker.maxContentLength(attachment));
+        if (!messageContentPoolEnabled) {
+            return PooledMessageContent.unpooled(new byte[expectedLength]);
+        }
+        PooledMessageContent messageContent = messageContentPool.acquire(expectedLength);
+        exchange.addExchangeCompleteListener((completedExchange, nextListener) -> {
+            messageContent.release();
+            nextListener.proceed();
+        });
+        return messageContent;
+    }
+
+    private Receiver.PartialBytesCallback partialMessageRead(MessageState state, PooledMessageContent messageContent,
                                                              StartedTimersPair readingTimers, AttachmentContent attachment) {
         return (exchange, message, last) -> {
             if (state.isReadingTimeout()) {
                 endWithoutDefaultResponse(exchange);
                 return;
             }
-            messageContent.write(message, 0, message.length);
+            messageContent.write(message);
 
             if (last) {
                 if (state.setFullyRead()) {
                     readingTimers.close();
-                    messageRead(exchange, messageContent.toByteArray(), attachment);
+                    messageRead(exchange, messageContent, attachment);
                 } else {
                     endWithoutDefaultResponse(exchange);
                 }
@@ -136,10 +169,10 @@ class MessageReadHandler implements HttpHandler {
         };
     }
 
-    private void messageRead(HttpServerExchange exchange, byte[] messageContent, AttachmentContent attachment) {
+    private void messageRead(HttpServerExchange exchange, PooledMessageContent messageContent, AttachmentContent attachment) {
         try {
-            contentLengthChecker.check(exchange, messageContent.length, attachment);
-            attachment.getCachedTopic().reportMessageContentSize(messageContent.length);
+            contentLengthChecker.check(exchange, messageContent.length(), attachment);
+            attachment.getCachedTopic().reportMessageContentSize(messageContent.length());
             ThroughputLimiter.QuotaInsight quotaCheck = throughputLimiter.checkQuota(
                     attachment.getCachedTopic().getTopicName(),
                     attachment.getCachedTopic().getThroughput());
@@ -159,7 +192,7 @@ class MessageReadHandler implements HttpHandler {
     }
 
     private void finalizeMessageRead(HttpServerExchange exchange,
-                                     byte[] messageContent,
+                                     PooledMessageContent messageContent,
                                      AttachmentContent attachment) throws Exception {
         attachment.setMessageContent(messageContent);
         endWithoutDefaultResponse(exchange);
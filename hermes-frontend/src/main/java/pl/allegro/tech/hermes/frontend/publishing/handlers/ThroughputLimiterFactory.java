@@ -1,15 +1,20 @@
 package pl.allegro.tech.hermes.frontend.publishing.handlers;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.curator.framework.CuratorFramework;
 import org.glassfish.hk2.api.Factory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import pl.allegro.tech.hermes.common.config.ConfigFactory;
 import pl.allegro.tech.hermes.common.config.Configs;
+import pl.allegro.tech.hermes.common.di.CuratorType;
 import pl.allegro.tech.hermes.common.metric.HermesMetrics;
 import pl.allegro.tech.hermes.common.metric.Meters;
+import pl.allegro.tech.hermes.infrastructure.zookeeper.ZookeeperPaths;
 
 import javax.inject.Inject;
+import javax.inject.Named;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
 
@@ -19,13 +24,23 @@ import static pl.allegro.tech.hermes.frontend.publishing.handlers.ThroughputLimi
 public class ThroughputLimiterFactory implements Factory<ThroughputLimiter> {
     private ConfigFactory configs;
     private HermesMetrics hermesMetrics;
+    private CuratorFramework curator;
+    private ZookeeperPaths zookeeperPaths;
+    private ObjectMapper objectMapper;
 
-    private enum ThroughputLimiterType { UNLIMITED, FIXED, DYNAMIC }
+    private enum ThroughputLimiterType { UNLIMITED, FIXED, DYNAMIC, DISTRIBUTED }
 
     @Inject
-    public ThroughputLimiterFactory(ConfigFactory configs, HermesMetrics hermesMetrics) {
+    public ThroughputLimiterFactory(ConfigFactory configs,
+                                    HermesMetrics hermesMetrics,
+                                    @Named(CuratorType.HERMES) CuratorFramework curator,
+                                    ZookeeperPaths zookeeperPaths,
+                                    ObjectMapper objectMapper) {
         this.configs = configs;
         this.hermesMetrics = hermesMetrics;
+        this.curator = curator;
+        this.zookeeperPaths = zookeeperPaths;
+        this.objectMapper = objectMapper;
     }
 
     @Override
@@ -45,11 +60,22 @@ public class ThroughputLimiterFactory implements Factory<ThroughputLimiter> {
                         hermesMetrics.meter(Meters.THROUGHPUT_BYTES),
                         getExecutor()
                         );
+            case DISTRIBUTED:
+                return new DistributedThroughputLimiter(
+                        configs.getLongProperty(Configs.FRONTEND_THROUGHPUT_DISTRIBUTED_MAX),
+                        configs.getIntProperty(Configs.FRONTEND_THROUGHPUT_DISTRIBUTED_SYNC_INTERVAL),
+                        new ThroughputRegistry(curator, objectMapper, zookeeperPaths, getNodeName()),
+                        getExecutor()
+                        );
             default:
                 throw new IllegalArgumentException("Unknown throughput limiter type.");
         }
     }
 
+    private String getNodeName() {
+        return configs.getStringProperty(Configs.HOSTNAME) + "_" + configs.getIntProperty(Configs.FRONTEND_PORT);
+    }
+
     private ScheduledExecutorService getExecutor() {
         Logger logger = LoggerFactory.getLogger(ThroughputLimiterFactory.class);
         ThreadFactory threadFactory = new ThreadFactoryBuilder()
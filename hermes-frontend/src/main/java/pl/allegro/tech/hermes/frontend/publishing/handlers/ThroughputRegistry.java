@@ -0,0 +1,81 @@
+package pl.allegro.tech.hermes.frontend.publishing.handlers;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.zookeeper.CreateMode;
+import org.apache.zookeeper.KeeperException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pl.allegro.tech.hermes.api.TopicName;
+import pl.allegro.tech.hermes.infrastructure.zookeeper.ZookeeperPaths;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps per topic throughput of every frontend node in Zookeeper. Each node owns an ephemeral node holding a map
+ * of qualified topic names to rates, so a node which dies stops counting towards topic throughput together with
+ * its session.
+ */
+public class ThroughputRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(ThroughputRegistry.class);
+
+    private static final TypeReference<Map<String, Long>> RATES_TYPE = new TypeReference<Map<String, Long>>() {};
+
+    private final CuratorFramework curator;
+    private final ObjectMapper objectMapper;
+    private final String registryPath;
+    private final String nodePath;
+
+    public ThroughputRegistry(CuratorFramework curator, ObjectMapper objectMapper, ZookeeperPaths zookeeperPaths,
+                              String nodeName) {
+        this.curator = curator;
+        this.objectMapper = objectMapper;
+        this.registryPath = zookeeperPaths.frontendThroughputPath();
+        this.nodePath = zookeeperPaths.frontendThroughputPath(nodeName);
+    }
+
+    public void publish(Map<TopicName, Long> rates) throws Exception {
+        Map<String, Long> serialized = new HashMap<>(rates.size());
+        rates.forEach((topic, rate) -> serialized.put(topic.qualifiedName(), rate));
+        byte[] data = objectMapper.writeValueAsBytes(serialized);
+        try {
+            curator.setData().forPath(nodePath, data);
+        } catch (KeeperException.NoNodeException e) {
+            curator.create().creatingParentContainersIfNeeded().withMode(CreateMode.EPHEMERAL).forPath(nodePath, data);
+        }
+    }
+
+    public List<Map<TopicName, Long>> readAll() throws Exception {
+        List<Map<TopicName, Long>> nodes = new ArrayList<>();
+        if (curator.checkExists().forPath(registryPath) == null) {
+            return nodes;
+        }
+        for (String node : curator.getChildren().forPath(registryPath)) {
+            try {
+                Map<String, Long> serialized = objectMapper.readValue(
+                        curator.getData().forPath(registryPath + "/" + node), RATES_TYPE);
+                Map<TopicName, Long> rates = new HashMap<>(serialized.size());
+                serialized.forEach((topic, rate) -> rates.put(TopicName.fromQualifiedName(topic), rate));
+                nodes.add(rates);
+            } catch (KeeperException.NoNodeException e) {
+                logger.debug("Frontend node {} left while reading throughput registry", node);
+            }
+        }
+        return nodes;
+    }
+
+    public void unregister() {
+        try {
+            curator.delete().guaranteed().forPath(nodePath);
+        } catch (KeeperException.NoNodeException e) {
+            // already gone together with the session
+        } catch (Exception e) {
+            logger.warn("Could not remove throughput registry node {}", nodePath, e);
+        }
+    }
+}
@@ -35,10 +35,14 @@ class TimeoutHandler implements HttpHandler {
         }
     }
 
+    void bufferedButDelayed(HttpServerExchange exchange, AttachmentContent attachment) {
+        messageEndProcessor.bufferedButDelayed(exchange, attachment);
+    }
+
     private void delayedSending(HttpServerExchange exchange, AttachmentContent attachment) {
         exchange.getConnection().getWorker().execute(() -> {
                 try {
-                    messageEndProcessor.bufferedButDelayed(exchange, attachment);
+                    bufferedButDelayed(exchange, attachment);
                 } catch (RuntimeException exception) {
                     messageErrorProcessor.sendAndLog(exchange, "Exception while handling delayed message sending.", exception);
                 }
@@ -0,0 +1,122 @@
+package pl.allegro.tech.hermes.frontend.publishing.handlers.end;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.Headers;
+import io.undertow.util.HttpString;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pl.allegro.tech.hermes.api.Topic;
+import pl.allegro.tech.hermes.frontend.listeners.BrokerListeners;
+import pl.allegro.tech.hermes.frontend.metric.CachedTopic;
+import pl.allegro.tech.hermes.frontend.publishing.handlers.AttachmentContent;
+import pl.allegro.tech.hermes.frontend.publishing.handlers.BatchAttachment;
+import pl.allegro.tech.hermes.frontend.publishing.handlers.BatchEntry;
+import pl.allegro.tech.hermes.frontend.publishing.message.Message;
+import pl.allegro.tech.hermes.tracker.frontend.Trackers;
+
+import javax.inject.Inject;
+import javax.ws.rs.core.MediaType;
+import java.nio.charset.StandardCharsets;
+
+import static pl.allegro.tech.hermes.common.http.MessageMetadataHeaders.MESSAGE_ID;
+import static pl.allegro.tech.hermes.frontend.publishing.handlers.end.RemoteHostReader.readHostAndPort;
+
+public class BatchEndProcessor {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchEndProcessor.class);
+    private static final HttpString messageIdHeader = new HttpString(MESSAGE_ID.getName());
+
+    private final Trackers trackers;
+    private final BrokerListeners brokerListeners;
+    private final ObjectMapper objectMapper;
+
+    @Inject
+    public BatchEndProcessor(Trackers trackers, BrokerListeners brokerListeners, ObjectMapper objectMapper) {
+        this.trackers = trackers;
+        this.brokerListeners = brokerListeners;
+        this.objectMapper = objectMapper;
+    }
+
+    public void messageSent(HttpServerExchange exchange, CachedTopic cachedTopic, Message message) {
+        trackers.get(cachedTopic.getTopic()).logPublished(message.getId(), cachedTopic.getTopic().getName(), readHostAndPort(exchange));
+        cachedTopic.incrementPublished();
+    }
+
+    public void delayedSent(HttpServerExchange exchange, CachedTopic cachedTopic, Message message) {
+        messageSent(exchange, cachedTopic, message);
+        brokerListeners.onAcknowledge(message, cachedTopic.getTopic());
+    }
+
+    public void sent(HttpServerExchange exchange, AttachmentContent attachment, BatchAttachment batch) {
+        sendResponse(exchange, attachment, batch);
+    }
+
+    public void bufferedButDelayedProcessing(HttpServerExchange exchange, AttachmentContent attachment, BatchAttachment batch) {
+        bufferedButDelayed(exchange, attachment, batch);
+        attachment.getCachedTopic().markDelayedProcessing();
+    }
+
+    public void bufferedButDelayed(HttpServerExchange exchange, AttachmentContent attachment, BatchAttachment batch) {
+        Topic topic = attachment.getTopic();
+        for (BatchEntry entry : batch.getPendingEntries()) {
+            if (entry.setAccepted()) {
+                brokerListeners.onTimeout(entry.getMessage(), topic);
+                trackers.get(topic).logInflight(entry.getMessageId(), topic.getName(), readHostAndPort(exchange));
+                handleRaceConditionBetweenAckAndTimeout(entry, topic);
+            }
+        }
+        sendResponse(exchange, attachment, batch);
+    }
+
+    private void handleRaceConditionBetweenAckAndTimeout(BatchEntry entry, Topic topic) {
+        if (entry.isDelayedPublished()) {
+            brokerListeners.onAcknowledge(entry.getMessage(), topic);
+        }
+    }
+
+    private void sendResponse(HttpServerExchange exchange, AttachmentContent attachment, BatchAttachment batch) {
+        if (exchange.isResponseStarted()) {
+            attachment.markResponseAsReady();
+            logger.warn("The response has already been started. Status code set on exchange: {}; Topic: {}; Batch id: {}; " +
+                            "Remote host {}",
+                    exchange.getStatusCode(),
+                    attachment.getCachedTopic().getQualifiedName(),
+                    attachment.getMessageId(),
+                    readHostAndPort(exchange));
+            exchange.endExchange();
+            return;
+        }
+        try {
+            exchange.setStatusCode(batch.getStatusCode());
+            exchange.getResponseHeaders().add(Headers.CONTENT_TYPE, MediaType.APPLICATION_JSON);
+            exchange.getResponseHeaders().add(messageIdHeader, attachment.getMessageId());
+            exchange.getResponseSender().send(toJson(batch), StandardCharsets.UTF_8, ResponseReadyIoCallback.INSTANCE);
+        } catch (RuntimeException | JsonProcessingException exception) {
+            logger.error("Exception while sending batch response. Topic: {}; Batch id: {}; Remote host {}",
+                    attachment.getCachedTopic().getQualifiedName(),
+                    attachment.getMessageId(),
+                    readHostAndPort(exchange),
+                    exception);
+            attachment.markResponseAsReady();
+            exchange.endExchange();
+        }
+    }
+
+    private String toJson(BatchAttachment batch) throws JsonProcessingException {
+        ObjectNode response = objectMapper.createObjectNode();
+        ArrayNode messages = response.putArray("messages");
+        for (BatchEntry entry : batch.getEntries()) {
+            ObjectNode message = messages.addObject()
+                    .put("id", entry.getMessageId())
+                    .put("status", entry.getStatusCode());
+            if (entry.getError() != null && entry.getStatusCode() >= 400) {
+                message.set("error", objectMapper.valueToTree(entry.getError()));
+            }
+        }
+        return objectMapper.writeValueAsString(response);
+    }
+}
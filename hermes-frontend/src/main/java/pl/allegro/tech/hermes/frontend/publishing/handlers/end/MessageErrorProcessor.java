@@ -76,6 +76,10 @@ public class MessageErrorProcessor {
         }
     }
 
+    public void log(HttpServerExchange exchange, Topic topic, String messageId, ErrorDescription error, Exception exception) {
+        log(error.getMessage(), topic, messageId, readHostAndPort(exchange), exception);
+    }
+
     public void log(HttpServerExchange exchange, String errorMessage, Exception exception) {
         AttachmentContent attachment = exchange.getAttachment(AttachmentContent.KEY);
         log(errorMessage, attachment.getTopic(), attachment.getMessageId(), readHostAndPort(exchange), exception);
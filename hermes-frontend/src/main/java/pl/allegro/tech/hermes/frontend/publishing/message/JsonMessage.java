@@ -2,16 +2,24 @@ package pl.allegro.tech.hermes.frontend.publishing.message;
 
 import pl.allegro.tech.hermes.api.ContentType;
 
+import java.util.Optional;
+
 public class JsonMessage implements Message {
 
     private final String id;
     private final byte[] data;
     private final long timestamp;
+    private final String partitionKey;
 
     public JsonMessage(String id, byte[] data, long timestamp) {
+        this(id, data, timestamp, null);
+    }
+
+    public JsonMessage(String id, byte[] data, long timestamp, String partitionKey) {
         this.id = id;
         this.data = data;
         this.timestamp = timestamp;
+        this.partitionKey = partitionKey;
     }
 
     @Override
@@ -34,8 +42,13 @@ public class JsonMessage implements Message {
         return ContentType.JSON;
     }
 
+    @Override
+    public Optional<String> getPartitionKey() {
+        return Optional.ofNullable(partitionKey);
+    }
+
     public JsonMessage withDataReplaced(byte[] newData) {
-        return new JsonMessage(id, newData, timestamp);
+        return new JsonMessage(id, newData, timestamp, partitionKey);
     }
 
 }
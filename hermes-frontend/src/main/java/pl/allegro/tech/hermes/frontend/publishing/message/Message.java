@@ -14,6 +14,8 @@ public interface Message {
 
     ContentType getContentType();
 
+    default Optional<String> getPartitionKey() { return Optional.empty(); }
+
     default <T> Optional<CompiledSchema<T>> getCompiledSchema() { return Optional.empty(); }
 
     default <T> T getSchema() {
@@ -15,6 +15,7 @@ import pl.allegro.tech.hermes.schema.SchemaRepository;
 import pl.allegro.tech.hermes.frontend.publishing.avro.AvroMessage;
 import pl.allegro.tech.hermes.frontend.publishing.handlers.AttachmentContent;
 import pl.allegro.tech.hermes.frontend.publishing.metadata.HeadersPropagator;
+import pl.allegro.tech.hermes.frontend.publishing.pool.PooledMessageContent;
 import pl.allegro.tech.hermes.frontend.validator.MessageValidators;
 import pl.allegro.tech.hermes.schema.CompiledSchema;
 import pl.allegro.tech.hermes.schema.SchemaVersion;
@@ -65,13 +66,13 @@ public class MessageFactory {
         }
     }
 
-    private Message create(HeaderMap headerMap, Topic topic, String messageId, byte[] messageContent) {
+    public Message create(HeaderMap headerMap, Topic topic, String messageId, PooledMessageContent messageContent) {
         long timestamp = clock.millis();
         switch (topic.getContentType()) {
             case JSON: {
                 if (topic.isJsonToAvroDryRunEnabled()) {
                     try {
-                        createAvroMessage(headerMap, topic, messageId, messageContent, timestamp);
+                        createAvroMessage(headerMap, topic, messageId, messageContent.toByteArray(), timestamp);
                     } catch (AvroConversionException exception) {
                         logger.warn("Unsuccessful message conversion from JSON to AVRO on topic {} in dry run mode",
                                 topic.getQualifiedName(), exception);
@@ -83,16 +84,17 @@ public class MessageFactory {
                 return createJsonMessage(headerMap, messageId, messageContent, timestamp);
             }
             case AVRO:
-                return createAvroMessage(headerMap, topic, messageId, messageContent, timestamp);
+                return createAvroMessage(headerMap, topic, messageId, messageContent.toByteArray(), timestamp);
             default:
                 throw new UnsupportedContentTypeException(topic);
         }
     }
 
-    private JsonMessage createJsonMessage(HeaderMap headerMap, String messageId, byte[] messageContent, long timestamp) {
-        JsonMessage message = new JsonMessage(messageId, messageContent, timestamp);
-        byte[] wrapped = messageContentWrapper.wrapJson(message.getData(), message.getId(), message.getTimestamp(), headersPropagator.extract(toHeadersMap(headerMap)));
-        return message.withDataReplaced(wrapped);
+    private JsonMessage createJsonMessage(HeaderMap headerMap, String messageId, PooledMessageContent messageContent, long timestamp) {
+        // wrapping copies the content, so the message never references the (possibly pooled) request buffer
+        byte[] wrapped = messageContentWrapper.wrapJson(messageContent.array(), messageContent.length(), messageId, timestamp,
+                headersPropagator.extract(toHeadersMap(headerMap)));
+        return new JsonMessage(messageId, wrapped, timestamp, extractPartitionKey(headerMap));
     }
 
     private AvroMessage createAvroMessage(HeaderMap headerMap, Topic topic, String messageId, byte[] messageContent, long timestamp) {
@@ -104,7 +106,8 @@ public class MessageFactory {
                 messageId,
                 enforcer.enforceAvro(headerMap.getFirst(Headers.CONTENT_TYPE_STRING), messageContent, schema.getSchema(), topic),
                 timestamp,
-                schema);
+                schema,
+                extractPartitionKey(headerMap));
 
         validators.check(topic, message);
         byte[] wrapped = messageContentWrapper.wrapAvro(message.getData(), message.getId(), message.getTimestamp(),
@@ -124,6 +127,10 @@ public class MessageFactory {
         }
     }
 
+    private String extractPartitionKey(HeaderMap headerMap) {
+        return headerMap.getFirst(MessageMetadataHeaders.PARTITION_KEY.getName());
+    }
+
     private Map<String, String> toHeadersMap(HeaderMap headerMap) {
         return stream(spliteratorUnknownSize(headerMap.iterator(), 0), false)
                 .collect(toMap(
@@ -0,0 +1,65 @@
+package pl.allegro.tech.hermes.frontend.publishing.pool;
+
+import pl.allegro.tech.hermes.common.config.ConfigFactory;
+import pl.allegro.tech.hermes.common.config.Configs;
+
+import javax.inject.Inject;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Pool of heap buffers for request bodies. Buffers are grouped in power of two size classes, starting at
+ * {@link #MIN_BUFFER_SIZE} and ending at the configured max buffer size. Larger bodies are not pooled.
+ */
+public class MessageContentPool {
+
+    static final int MIN_BUFFER_SIZE = 1024;
+
+    private final int maxBufferSize;
+    private final Queue<byte[]>[] sizeClasses;
+
+    @Inject
+    public MessageContentPool(ConfigFactory configFactory) {
+        this(configFactory.getIntProperty(Configs.FRONTEND_MESSAGE_CONTENT_POOL_MAX_BUFFER_SIZE),
+                configFactory.getIntProperty(Configs.FRONTEND_MESSAGE_CONTENT_POOL_BUFFERS_PER_SIZE));
+    }
+
+    @SuppressWarnings("unchecked")
+    public MessageContentPool(int maxBufferSize, int buffersPerSize) {
+        this.maxBufferSize = roundUp(Math.max(maxBufferSize, MIN_BUFFER_SIZE));
+        this.sizeClasses = new Queue[sizeClass(this.maxBufferSize) + 1];
+        for (int i = 0; i < sizeClasses.length; i++) {
+            sizeClasses[i] = new ArrayBlockingQueue<>(buffersPerSize);
+        }
+    }
+
+    public PooledMessageContent acquire(int contentLength) {
+        if (contentLength > maxBufferSize) {
+            return PooledMessageContent.unpooled(new byte[contentLength]);
+        }
+        byte[] buffer = sizeClasses[sizeClass(contentLength)].poll();
+        return new PooledMessageContent(this, buffer != null ? buffer : new byte[roundUp(contentLength)]);
+    }
+
+    void recycle(byte[] buffer) {
+        if (buffer.length <= maxBufferSize && buffer.length == roundUp(buffer.length)) {
+            sizeClasses[sizeClass(buffer.length)].offer(buffer);
+        }
+    }
+
+    int pooledBuffers() {
+        int count = 0;
+        for (Queue<byte[]> sizeClass : sizeClasses) {
+            count += sizeClass.size();
+        }
+        return count;
+    }
+
+    private static int sizeClass(int length) {
+        return Integer.numberOfTrailingZeros(roundUp(length)) - Integer.numberOfTrailingZeros(MIN_BUFFER_SIZE);
+    }
+
+    private static int roundUp(int length) {
+        return length <= MIN_BUFFER_SIZE ? MIN_BUFFER_SIZE : Integer.highestOneBit(length - 1) << 1;
+    }
+}
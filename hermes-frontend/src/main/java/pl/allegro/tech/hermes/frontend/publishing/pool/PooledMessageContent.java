@@ -0,0 +1,81 @@
+package pl.allegro.tech.hermes.frontend.publishing.pool;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Request body held in a buffer which may be larger than the body itself, so only first {@link #length()} bytes
+ * of {@link #array()} are valid. The buffer is reference counted: the request owns the first reference and every
+ * party which needs the buffer to outlive the request should {@link #retain()} it. Messages sent to Kafka are
+ * created as copies of the content, so they never need it. The buffer goes back to the pool when the last reference
+ * is released.
+ */
+public class PooledMessageContent {
+
+    private final MessageContentPool pool;
+    private final AtomicInteger references = new AtomicInteger(1);
+    private byte[] buffer;
+    private int length;
+    private boolean pooled;
+
+    PooledMessageContent(MessageContentPool pool, byte[] buffer) {
+        this.pool = pool;
+        this.buffer = buffer;
+        this.pooled = pool != null;
+    }
+
+    public static PooledMessageContent unpooled(byte[] buffer) {
+        return new PooledMessageContent(null, buffer);
+    }
+
+    public static PooledMessageContent of(byte[] content) {
+        PooledMessageContent messageContent = unpooled(content);
+        messageContent.length = content.length;
+        return messageContent;
+    }
+
+    public void write(byte[] bytes) {
+        if (length + bytes.length > buffer.length) {
+            grow(length + bytes.length);
+        }
+        System.arraycopy(bytes, 0, buffer, length, bytes.length);
+        length += bytes.length;
+    }
+
+    public byte[] array() {
+        return buffer;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public byte[] toByteArray() {
+        return !pooled && buffer.length == length ? buffer : Arrays.copyOf(buffer, length);
+    }
+
+    public PooledMessageContent retain() {
+        references.incrementAndGet();
+        return this;
+    }
+
+    public void release() {
+        if (references.decrementAndGet() == 0 && pooled) {
+            pool.recycle(buffer);
+        }
+    }
+
+    boolean isPooled() {
+        return pooled;
+    }
+
+    private void grow(int minCapacity) {
+        // body is longer than announced in Content-Length, it is going to be rejected anyway
+        byte[] previous = buffer;
+        buffer = Arrays.copyOf(previous, Math.max(minCapacity, previous.length * 2));
+        if (pooled) {
+            pooled = false;
+            pool.recycle(previous);
+        }
+    }
+}
@@ -8,11 +8,14 @@ import org.xnio.SslClientAuthMode;
 import pl.allegro.tech.hermes.common.config.ConfigFactory;
 import pl.allegro.tech.hermes.common.config.Configs;
 import pl.allegro.tech.hermes.common.metric.HermesMetrics;
+import pl.allegro.tech.hermes.frontend.publishing.handlers.BatchHandlersChainFactory;
+import pl.allegro.tech.hermes.frontend.publishing.handlers.HandlersChainFactory;
 import pl.allegro.tech.hermes.frontend.publishing.handlers.ThroughputLimiter;
 import pl.allegro.tech.hermes.frontend.publishing.preview.MessagePreviewPersister;
 import pl.allegro.tech.hermes.frontend.services.HealthCheckService;
 
 import javax.inject.Inject;
+import javax.inject.Named;
 
 import static io.undertow.UndertowOptions.ALWAYS_SET_KEEP_ALIVE;
 import static io.undertow.UndertowOptions.ENABLE_HTTP2;
@@ -26,6 +29,7 @@ import static org.xnio.Options.READ_TIMEOUT;
 import static org.xnio.Options.SSL_CLIENT_AUTH_MODE;
 import static pl.allegro.tech.hermes.common.config.Configs.FRONTEND_ALWAYS_SET_KEEP_ALIVE;
 import static pl.allegro.tech.hermes.common.config.Configs.FRONTEND_BACKLOG_SIZE;
+import static pl.allegro.tech.hermes.common.config.Configs.FRONTEND_BATCH_PUBLISHING_ENABLED;
 import static pl.allegro.tech.hermes.common.config.Configs.FRONTEND_BUFFER_SIZE;
 import static pl.allegro.tech.hermes.common.config.Configs.FRONTEND_HOST;
 import static pl.allegro.tech.hermes.common.config.Configs.FRONTEND_HTTP2_ENABLED;
@@ -51,6 +55,7 @@ public class HermesServer {
     private final HermesMetrics hermesMetrics;
     private final ConfigFactory configFactory;
     private final HttpHandler publishingHandler;
+    private final HttpHandler batchPublishingHandler;
     private final HealthCheckService healthCheckService;
     private final MessagePreviewPersister messagePreviewPersister;
     private final int port;
@@ -63,7 +68,8 @@ public class HermesServer {
     public HermesServer(
             ConfigFactory configFactory,
             HermesMetrics hermesMetrics,
-            HttpHandler publishingHandler,
+            @Named(HandlersChainFactory.PUBLISHING_HANDLER) HttpHandler publishingHandler,
+            @Named(BatchHandlersChainFactory.BATCH_PUBLISHING_HANDLER) HttpHandler batchPublishingHandler,
             HealthCheckService healthCheckService,
             MessagePreviewPersister messagePreviewPersister,
             ThroughputLimiter throughputLimiter,
@@ -72,6 +78,7 @@ public class HermesServer {
         this.configFactory = configFactory;
         this.hermesMetrics = hermesMetrics;
         this.publishingHandler = publishingHandler;
+        this.batchPublishingHandler = batchPublishingHandler;
         this.healthCheckService = healthCheckService;
         this.messagePreviewPersister = messagePreviewPersister;
         this.sslContextFactoryProvider = sslContextFactoryProvider;
@@ -139,6 +146,10 @@ public class HermesServer {
                 .get("/status/health", healthCheckHandler)
                 .get("/", healthCheckHandler);
 
+        if (isEnabled(FRONTEND_BATCH_PUBLISHING_ENABLED)) {
+            routingHandler.post("/topics/{qualifiedTopicName}/batch", batchPublishingHandler);
+        }
+
         return isEnabled(FRONTEND_REQUEST_DUMPER) ? new RequestDumpingHandler(routingHandler) : routingHandler;
     }
 
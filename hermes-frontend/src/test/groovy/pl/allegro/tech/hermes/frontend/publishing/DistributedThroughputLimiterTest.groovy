@@ -0,0 +1,98 @@
+package pl.allegro.tech.hermes.frontend.publishing
+
+import com.codahale.metrics.Metered
+import pl.allegro.tech.hermes.api.TopicName
+import pl.allegro.tech.hermes.frontend.publishing.handlers.DistributedThroughputLimiter
+import pl.allegro.tech.hermes.frontend.publishing.handlers.ThroughputRegistry
+import spock.lang.Specification
+
+import java.util.concurrent.ScheduledExecutorService
+
+class DistributedThroughputLimiterTest extends Specification {
+
+    def limit = 1000
+
+    def topic = new TopicName("group", "name")
+    def otherTopic = new TopicName("group", "other")
+
+    def registry = Mock(ThroughputRegistry)
+    def executor = Mock(ScheduledExecutorService)
+
+    def limiter = new DistributedThroughputLimiter(limit, 5, registry, executor)
+
+    def "should apply whole limit before first synchronization"() {
+        expect:
+        limiter.checkQuota(topic, meter(limit)).hasQuota()
+        !limiter.checkQuota(topic, meter(limit + 1)).hasQuota()
+    }
+
+    def "should share unused limit equally between nodes"() {
+        given:
+        def localMeter = meter(200)
+        limiter.checkQuota(topic, localMeter)
+        registry.readAll() >> [[(topic): 200L], [(topic): 400L]]
+
+        when:
+        limiter.run()
+
+        then:
+        limiter.checkQuota(topic, meter(400)).hasQuota()
+        !limiter.checkQuota(topic, meter(401)).hasQuota()
+    }
+
+    def "should share limit proportionally to rates when topic exceeds it"() {
+        given:
+        limiter.checkQuota(topic, meter(500))
+        registry.readAll() >> [[(topic): 500L], [(topic): 1500L]]
+
+        when:
+        limiter.run()
+
+        then:
+        limiter.checkQuota(topic, meter(250)).hasQuota()
+        !limiter.checkQuota(topic, meter(251)).hasQuota()
+    }
+
+    def "should give topics not yet seen by node an equal share of the limit"() {
+        given:
+        registry.readAll() >> [[:], [:], [:], [:]]
+
+        when:
+        limiter.run()
+
+        then:
+        limiter.checkQuota(otherTopic, meter(250)).hasQuota()
+        !limiter.checkQuota(otherTopic, meter(251)).hasQuota()
+    }
+
+    def "should publish local rates of active topics"() {
+        given:
+        limiter.checkQuota(topic, meter(300))
+        limiter.checkQuota(otherTopic, meter(0))
+        registry.readAll() >> []
+
+        when:
+        limiter.run()
+
+        then:
+        1 * registry.publish([(topic): 300L])
+    }
+
+    def "should keep previous limits when registry is unavailable"() {
+        given:
+        limiter.checkQuota(topic, meter(100))
+        registry.readAll() >>> [[[(topic): 100L], [(topic): 100L]]] >> { throw new IllegalStateException() }
+        limiter.run()
+
+        when:
+        limiter.run()
+
+        then:
+        limiter.checkQuota(topic, meter(500)).hasQuota()
+        !limiter.checkQuota(topic, meter(501)).hasQuota()
+    }
+
+    private Metered meter(double rate) {
+        [getOneMinuteRate: { rate }] as Metered
+    }
+}
@@ -0,0 +1,74 @@
+package pl.allegro.tech.hermes.frontend.publishing.handlers
+
+import pl.allegro.tech.hermes.frontend.publishing.message.JsonMessage
+import spock.lang.Specification
+
+import static pl.allegro.tech.hermes.api.ErrorCode.INTERNAL_ERROR
+import static pl.allegro.tech.hermes.api.ErrorCode.VALIDATION_ERROR
+import static pl.allegro.tech.hermes.api.ErrorDescription.error
+
+class BatchAttachmentTest extends Specification {
+
+    def "should respond with created when every message was published"() {
+        given:
+        BatchAttachment batch = new BatchAttachment([created('1'), created('2')])
+
+        when:
+        batch.pendingEntries*.setPublished()
+
+        then:
+        batch.statusCode == 201
+    }
+
+    def "should respond with accepted when some messages are still buffered"() {
+        given:
+        BatchAttachment batch = new BatchAttachment([created('1'), created('2')])
+
+        when:
+        batch.pendingEntries[0].setPublished()
+        batch.pendingEntries[1].setAccepted()
+
+        then:
+        batch.statusCode == 202
+    }
+
+    def "should respond with multi status when some messages failed"() {
+        given:
+        BatchAttachment batch = new BatchAttachment([created('1'), BatchEntry.invalid('2', error('invalid', VALIDATION_ERROR))])
+
+        when:
+        batch.pendingEntries[0].setPublished()
+
+        then:
+        batch.statusCode == 207
+        batch.entries*.statusCode == [201, 400]
+    }
+
+    def "should complete batch when last pending message completes"() {
+        given:
+        BatchAttachment batch = new BatchAttachment([created('1'), created('2'), BatchEntry.invalid('3', error('invalid', VALIDATION_ERROR))])
+
+        expect:
+        batch.pendingEntries.size() == 2
+        !batch.completeEntry()
+        batch.completeEntry()
+    }
+
+    def "should not mark accepted message as unpublished"() {
+        given:
+        BatchEntry entry = created('1')
+        entry.setAccepted()
+
+        when:
+        boolean unpublished = entry.setUnpublished(error('not published', INTERNAL_ERROR))
+
+        then:
+        !unpublished
+        entry.statusCode == 202
+        entry.error == null
+    }
+
+    private static BatchEntry created(String id) {
+        BatchEntry.created(new JsonMessage(id, new byte[0], 0L))
+    }
+}
@@ -0,0 +1,60 @@
+package pl.allegro.tech.hermes.frontend.publishing.handlers
+
+import pl.allegro.tech.hermes.frontend.publishing.pool.PooledMessageContent
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class BatchMessageSplitterTest extends Specification {
+
+    BatchMessageSplitter splitter = new BatchMessageSplitter()
+
+    def "should split batch into raw messages"() {
+        given:
+        String batch = '[ {"id": 1, "tags": ["a", "b"]}, {"nested": {"value": "]},"}} ,"text", 12.5, true, null ]'
+
+        when:
+        List<PooledMessageContent> messages = splitter.split(content(batch))
+
+        then:
+        messages.collect { new String(it.toByteArray()) } ==
+                ['{"id": 1, "tags": ["a", "b"]}', '{"nested": {"value": "]},"}}', '"text"', '12.5', 'true', 'null']
+    }
+
+    def "should keep multi-byte characters untouched"() {
+        when:
+        List<PooledMessageContent> messages = splitter.split(content('[{"name":"zażółć"}]'))
+
+        then:
+        new String(messages[0].toByteArray(), 'UTF-8') == '{"name":"zażółć"}'
+    }
+
+    def "should split only valid part of the buffer"() {
+        given:
+        PooledMessageContent content = PooledMessageContent.unpooled(new byte[64])
+        content.write('[{"a":1}]'.bytes)
+
+        expect:
+        splitter.split(content).collect { new String(it.toByteArray()) } == ['{"a":1}']
+    }
+
+    def "should return no messages for empty batch"() {
+        expect:
+        splitter.split(content('[]')).isEmpty()
+    }
+
+    @Unroll
+    def "should reject invalid batch: #batch"() {
+        when:
+        splitter.split(content(batch))
+
+        then:
+        thrown(BatchMessageSplitter.InvalidBatchException)
+
+        where:
+        batch << ['{"a": 1}', '[{"a": 1}', '[{"a": 1}] []', '[{"a": }]', '']
+    }
+
+    private static PooledMessageContent content(String batch) {
+        PooledMessageContent.of(batch.getBytes('UTF-8'))
+    }
+}
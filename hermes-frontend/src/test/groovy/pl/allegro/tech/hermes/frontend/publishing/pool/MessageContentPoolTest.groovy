@@ -0,0 +1,96 @@
+package pl.allegro.tech.hermes.frontend.publishing.pool
+
+import spock.lang.Specification
+
+class MessageContentPoolTest extends Specification {
+
+    MessageContentPool pool = new MessageContentPool(64 * 1024, 2)
+
+    def "should acquire buffer rounded up to the size class"() {
+        when:
+        PooledMessageContent content = pool.acquire(1500)
+
+        then:
+        content.array().length == 2048
+        content.length() == 0
+        content.isPooled()
+    }
+
+    def "should reuse released buffer"() {
+        given:
+        PooledMessageContent content = pool.acquire(3000)
+        byte[] buffer = content.array()
+
+        when:
+        content.release()
+
+        then:
+        pool.acquire(4000).array().is(buffer)
+    }
+
+    def "should not recycle buffer until every reference is released"() {
+        given:
+        PooledMessageContent content = pool.acquire(100)
+        content.retain()
+
+        when:
+        content.release()
+
+        then:
+        pool.pooledBuffers() == 0
+
+        when:
+        content.release()
+
+        then:
+        pool.pooledBuffers() == 1
+    }
+
+    def "should not pool buffers larger than max buffer size"() {
+        when:
+        PooledMessageContent content = pool.acquire(100 * 1024)
+        content.release()
+
+        then:
+        !content.isPooled()
+        content.array().length == 100 * 1024
+        pool.pooledBuffers() == 0
+    }
+
+    def "should keep only configured number of buffers per size class"() {
+        given:
+        List<PooledMessageContent> contents = (1..3).collect { pool.acquire(1024) }
+
+        when:
+        contents.each { it.release() }
+
+        then:
+        pool.pooledBuffers() == 2
+    }
+
+    def "should grow and give buffer back to the pool when content is larger than expected"() {
+        given:
+        PooledMessageContent content = pool.acquire(4)
+
+        when:
+        content.write(new byte[1000])
+        content.write(new byte[1000])
+
+        then:
+        content.length() == 2000
+        !content.isPooled()
+        pool.pooledBuffers() == 1
+    }
+
+    def "should copy only valid bytes of the buffer"() {
+        given:
+        PooledMessageContent content = pool.acquire(5)
+
+        when:
+        content.write('abc'.bytes)
+        content.write('de'.bytes)
+
+        then:
+        content.toByteArray() == 'abcde'.bytes
+    }
+}
@@ -45,6 +45,20 @@ public class BackupFilesManagerTest {
         assertThat(backupFile.get().getName()).isEqualTo("hermes-buffer-v3-12345.dat");
     }
 
+    @Test
+    public void shouldRolloverExistingWalDirectory() throws IOException {
+        // given
+        new File(tempDir, "hermes-buffer-wal").mkdir();
+        BackupFilesManager backupFilesManager = new BackupFilesManager(tempDir.getAbsolutePath(), clock);
+
+        // when
+        Optional<File> walDirectory = backupFilesManager.rolloverWalDirectoryIfExists();
+
+        // then
+        assertThat(walDirectory.get().getName()).isEqualTo("hermes-buffer-wal-12345");
+        assertThat(backupFilesManager.getRolledWalDirectories()).containsOnly(walDirectory.get());
+    }
+
     @Test
     public void shouldReadBackupFilesList() throws IOException {
         // given
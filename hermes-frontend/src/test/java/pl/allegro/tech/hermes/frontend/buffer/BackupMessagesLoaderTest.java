@@ -1,5 +1,6 @@
 package pl.allegro.tech.hermes.frontend.buffer;
 
+import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.Timer;
 import com.google.common.io.Files;
 import org.apache.commons.io.FileUtils;
@@ -9,6 +10,7 @@ import org.junit.Test;
 import pl.allegro.tech.hermes.api.Topic;
 import pl.allegro.tech.hermes.common.config.ConfigFactory;
 import pl.allegro.tech.hermes.common.config.Configs;
+import pl.allegro.tech.hermes.common.metric.HermesMetrics;
 import pl.allegro.tech.hermes.common.metric.timer.StartedTimersPair;
 import pl.allegro.tech.hermes.frontend.buffer.chronicle.ChronicleMapMessageRepository;
 import pl.allegro.tech.hermes.frontend.cache.topic.TopicsCache;
@@ -19,16 +21,21 @@ import pl.allegro.tech.hermes.frontend.publishing.PublishingCallback;
 import pl.allegro.tech.hermes.frontend.publishing.message.JsonMessage;
 import pl.allegro.tech.hermes.frontend.publishing.message.Message;
 import pl.allegro.tech.hermes.frontend.publishing.message.MessageIdGenerator;
+import pl.allegro.tech.hermes.metrics.PathsCompiler;
 import pl.allegro.tech.hermes.test.helper.builder.TopicBuilder;
 import pl.allegro.tech.hermes.tracker.frontend.NoOperationPublishingTracker;
 import pl.allegro.tech.hermes.tracker.frontend.Trackers;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.List;
 import java.util.Optional;
 
 import static java.time.LocalDateTime.now;
 import static java.time.ZoneOffset.UTC;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.IntStream.range;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doAnswer;
@@ -54,6 +61,10 @@ public class BackupMessagesLoaderTest {
 
     private CachedTopic cachedTopic = mock(CachedTopic.class);
 
+    private MetricRegistry metricRegistry = new MetricRegistry();
+
+    private HermesMetrics hermesMetrics = new HermesMetrics(metricRegistry, new PathsCompiler("localhost"));
+
     private File tempDir;
 
     private final Topic topic = TopicBuilder.topic("pl.allegro.tech.hermes.test").build();
@@ -85,7 +96,7 @@ public class BackupMessagesLoaderTest {
                 AVERAGE_MESSAGE_SIZE
         );
 
-        BackupMessagesLoader backupMessagesLoader = new BackupMessagesLoader(producer, listeners, topicsCache, trackers, configFactory);
+        BackupMessagesLoader backupMessagesLoader = new BackupMessagesLoader(producer, listeners, topicsCache, trackers, configFactory, hermesMetrics);
 
         messageRepository.save(messageOfAge(1), topic);
         messageRepository.save(messageOfAge(10), topic);
@@ -118,7 +129,7 @@ public class BackupMessagesLoaderTest {
                 ENTRIES,
                 AVERAGE_MESSAGE_SIZE
         );
-        BackupMessagesLoader backupMessagesLoader = new BackupMessagesLoader(producer, listeners, topicsCache, trackers, configFactory);
+        BackupMessagesLoader backupMessagesLoader = new BackupMessagesLoader(producer, listeners, topicsCache, trackers, configFactory, hermesMetrics);
 
         messageRepository.save(messageOfAge(1), topic);
 
@@ -137,7 +148,7 @@ public class BackupMessagesLoaderTest {
 
         when(producer.isTopicAvailable(cachedTopic)).thenReturn(false).thenReturn(false).thenReturn(true);
 
-        BackupMessagesLoader backupMessagesLoader = new BackupMessagesLoader(producer, listeners, topicsCache, trackers, configFactory);
+        BackupMessagesLoader backupMessagesLoader = new BackupMessagesLoader(producer, listeners, topicsCache, trackers, configFactory, hermesMetrics);
         MessageRepository messageRepository = new ChronicleMapMessageRepository(
                 new File(tempDir.getAbsoluteFile(), "messages.dat"),
                 ENTRIES,
@@ -161,7 +172,7 @@ public class BackupMessagesLoaderTest {
         when(producer.isTopicAvailable(cachedTopic)).thenReturn(true);
         when(topicsCache.getTopic(any())).thenReturn(Optional.of(cachedTopic));
 
-        BackupMessagesLoader backupMessagesLoader = new BackupMessagesLoader(producer, listeners, topicsCache, trackers, configFactory);
+        BackupMessagesLoader backupMessagesLoader = new BackupMessagesLoader(producer, listeners, topicsCache, trackers, configFactory, hermesMetrics);
 
         // and
         ClassLoader classLoader = getClass().getClassLoader();
@@ -174,6 +185,45 @@ public class BackupMessagesLoaderTest {
         verify(producer, times(20)).send(any(JsonMessage.class), eq(cachedTopic), any(PublishingCallback.class));
     }
 
+    @Test
+    public void shouldReplayMessagesUsingMultipleThreads() {
+        // given
+        when(configFactory.getIntProperty(Configs.MESSAGES_LOCAL_STORAGE_MAX_AGE_HOURS)).thenReturn(8);
+        when(configFactory.getIntProperty(Configs.MESSAGES_LOADING_THREADS)).thenReturn(4);
+        BackupMessagesLoader backupMessagesLoader = new BackupMessagesLoader(producer, listeners, topicsCache, trackers, configFactory, hermesMetrics);
+        List<BackupMessage> messages = range(0, 100).mapToObj(i -> backupMessageOfAge(1)).collect(toList());
+
+        // when
+        backupMessagesLoader.loadMessages(messages.stream(), messages.size());
+
+        // then
+        verify(producer, times(100)).send(any(JsonMessage.class), eq(cachedTopic), any(PublishingCallback.class));
+        assertThat(metricRegistry.getGauges().values().iterator().next().getValue()).isEqualTo(0L);
+    }
+
+    @Test
+    public void shouldThrottleReplayPerTopic() {
+        // given
+        when(configFactory.getIntProperty(Configs.MESSAGES_LOCAL_STORAGE_MAX_AGE_HOURS)).thenReturn(8);
+        when(configFactory.getIntProperty(Configs.MESSAGES_LOADING_THREADS)).thenReturn(4);
+        when(configFactory.getDoubleProperty(Configs.MESSAGES_LOADING_RATE_PER_TOPIC)).thenReturn(20.0);
+        BackupMessagesLoader backupMessagesLoader = new BackupMessagesLoader(producer, listeners, topicsCache, trackers, configFactory, hermesMetrics);
+        List<BackupMessage> messages = range(0, 5).mapToObj(i -> backupMessageOfAge(1)).collect(toList());
+
+        // when
+        long start = System.nanoTime();
+        backupMessagesLoader.loadMessages(messages);
+
+        // then
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(150_000_000L);
+        verify(producer, times(5)).send(any(JsonMessage.class), eq(cachedTopic), any(PublishingCallback.class));
+    }
+
+    private BackupMessage backupMessageOfAge(int ageHours) {
+        Message message = messageOfAge(ageHours);
+        return new BackupMessage(message.getId(), message.getData(), message.getTimestamp(), topic.getQualifiedName());
+    }
+
     private Message messageOfAge(int ageHours) {
         return new JsonMessage(
                 MessageIdGenerator.generate(),
@@ -0,0 +1,228 @@
+package pl.allegro.tech.hermes.frontend.buffer.wal;
+
+import com.google.common.io.Files;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import pl.allegro.tech.hermes.api.Topic;
+import pl.allegro.tech.hermes.frontend.buffer.BackupMessage;
+import pl.allegro.tech.hermes.frontend.publishing.message.JsonMessage;
+import pl.allegro.tech.hermes.frontend.publishing.message.Message;
+import pl.allegro.tech.hermes.frontend.publishing.message.MessageIdGenerator;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static pl.allegro.tech.hermes.test.helper.builder.TopicBuilder.topic;
+
+public class WalMessageRepositoryTest {
+
+    private static final int SEGMENT_SIZE = 1024;
+    private static final double COMPACTION_THRESHOLD = 0.25;
+    private static final long COMPACTION_INTERVAL = 60_000;
+    private static final String QUALIFIED_NAME = "groupName.topic";
+
+    private final Topic topic = topic(QUALIFIED_NAME).build();
+
+    private File directory;
+    private WalMessageRepository messageRepository;
+
+    @Before
+    public void setUp() {
+        directory = new File(Files.createTempDir(), "wal");
+        messageRepository = new WalMessageRepository(directory, SEGMENT_SIZE, COMPACTION_THRESHOLD, COMPACTION_INTERVAL);
+    }
+
+    @After
+    public void cleanUp() throws IOException {
+        messageRepository.close();
+        FileUtils.deleteDirectory(directory.getParentFile());
+    }
+
+    @Test
+    public void shouldSaveFindAndDeleteMessage() {
+        // given
+        Message message = generateMessage();
+
+        // when
+        messageRepository.save(message, topic);
+
+        // then
+        assertThat(messageRepository.findAll()).containsExactly(backupMessage(message));
+
+        // when
+        messageRepository.delete(message.getId());
+
+        // then
+        assertThat(messageRepository.findAll()).isEmpty();
+        assertThat(recover()).isEmpty();
+    }
+
+    @Test
+    public void shouldKeepLastVersionOfMessageSavedMultipleTimes() {
+        // given
+        Message message = generateMessage();
+        Message other = generateMessage();
+
+        // when
+        messageRepository.save(message, topic);
+        messageRepository.save(other, topic);
+        messageRepository.save(message, topic);
+        messageRepository.delete(other.getId());
+
+        // then
+        assertThat(messageRepository.findAll()).containsExactly(backupMessage(message));
+        assertThat(recover()).containsExactly(backupMessage(message));
+    }
+
+    @Test
+    public void shouldNotWriteTombstoneForUnknownMessage() {
+        // when
+        messageRepository.delete(MessageIdGenerator.generate());
+
+        // then
+        assertThat(recover()).isEmpty();
+    }
+
+    @Test
+    public void shouldRecoverMessagesFromRolledSegmentsInOrderOfSaving() {
+        // given
+        List<BackupMessage> saved = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            Message message = generateMessage();
+            messageRepository.save(message, topic);
+            saved.add(backupMessage(message));
+        }
+
+        // when
+        List<BackupMessage> recovered = recover();
+
+        // then
+        assertThat(messageRepository.segmentsCount()).isGreaterThan(1);
+        assertThat(recovered).containsExactlyElementsOf(saved);
+    }
+
+    @Test
+    public void shouldSaveMessageLargerThanSegment() {
+        // given
+        Message message = generateMessage(new String(new char[4 * SEGMENT_SIZE]).replace('\0', 'x'));
+
+        // when
+        messageRepository.save(message, topic);
+
+        // then
+        assertThat(recover()).containsExactly(backupMessage(message));
+    }
+
+    @Test
+    public void shouldCompactOldestSegmentsWithFewLiveMessages() {
+        // given
+        List<Message> messages = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Message message = generateMessage();
+            messageRepository.save(message, topic);
+            messages.add(message);
+        }
+        int segmentsBeforeCompaction = messageRepository.segmentsCount();
+        Message survivor = messages.get(0);
+        messages.stream().skip(1).forEach(message -> messageRepository.delete(message.getId()));
+
+        // when
+        messageRepository.compact();
+
+        // then
+        assertThat(messageRepository.segmentsCount()).isLessThan(segmentsBeforeCompaction);
+        assertThat(WalSegment.list(directory)).hasSize(messageRepository.segmentsCount());
+        assertThat(messageRepository.findAll()).containsExactly(backupMessage(survivor));
+        assertThat(messageRepository.stream().collect(toList())).containsExactly(backupMessage(survivor));
+        assertThat(recover()).containsExactly(backupMessage(survivor));
+    }
+
+    @Test
+    public void shouldNotCompactSegmentsWithManyLiveMessages() {
+        // given
+        for (int i = 0; i < 100; i++) {
+            messageRepository.save(generateMessage(), topic);
+        }
+        int segmentsBeforeCompaction = messageRepository.segmentsCount();
+
+        // when
+        messageRepository.compact();
+
+        // then
+        assertThat(messageRepository.segmentsCount()).isEqualTo(segmentsBeforeCompaction);
+        assertThat(recover()).hasSize(100);
+    }
+
+    @Test
+    public void shouldSkipCorruptedRecordsWhenRecovering() throws IOException {
+        // given
+        Message message = generateMessage();
+        Message corrupted = generateMessage();
+        messageRepository.save(message, topic);
+        messageRepository.save(corrupted, topic);
+
+        // when
+        try (RandomAccessFile segment = new RandomAccessFile(new File(directory, "segment-00000000000000000000.wal"), "rw")) {
+            segment.seek(WalSegment.messageRecordSize(backupMessage(message)) + 20);
+            segment.write(0xFF);
+        }
+
+        // then
+        assertThat(recover()).containsExactly(backupMessage(message));
+    }
+
+    @Test
+    public void shouldLeaveMessagesInSegmentsOfClosedRepository() {
+        // given
+        Message message = generateMessage();
+        messageRepository.save(message, topic);
+
+        // when
+        messageRepository.close();
+
+        // then
+        assertThat(messageRepository.count()).isZero();
+        assertThat(recover()).containsExactly(backupMessage(message));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldNotSaveMessageToClosedRepository() {
+        // given
+        messageRepository.close();
+
+        // when
+        messageRepository.save(generateMessage(), topic);
+    }
+
+    @Test(expected = WalCreationException.class)
+    public void shouldNotCreateRepositoryInDirectoryWithSegments() {
+        // when
+        new WalMessageRepository(directory, SEGMENT_SIZE, COMPACTION_THRESHOLD, COMPACTION_INTERVAL);
+    }
+
+    private List<BackupMessage> recover() {
+        try (WalSnapshot snapshot = WalSnapshot.read(directory)) {
+            return snapshot.stream().collect(toList());
+        }
+    }
+
+    private BackupMessage backupMessage(Message message) {
+        return new BackupMessage(message.getId(), message.getData(), message.getTimestamp(), QUALIFIED_NAME);
+    }
+
+    private Message generateMessage() {
+        return generateMessage(UUID.randomUUID().toString());
+    }
+
+    private Message generateMessage(String content) {
+        return new JsonMessage(MessageIdGenerator.generate(), content.getBytes(), System.currentTimeMillis());
+    }
+}
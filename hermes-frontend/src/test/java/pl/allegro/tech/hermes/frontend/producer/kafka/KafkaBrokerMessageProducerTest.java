@@ -19,6 +19,7 @@ import pl.allegro.tech.hermes.frontend.publishing.PublishingCallback;
 import pl.allegro.tech.hermes.frontend.publishing.message.JsonMessage;
 import pl.allegro.tech.hermes.frontend.publishing.message.Message;
 
+import java.time.Clock;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -52,7 +53,8 @@ public class KafkaBrokerMessageProducerTest {
     @Before
     public void before() {
         cachedTopic = new CachedTopic(TOPIC, hermesMetrics, kafkaNamesMapper.toKafkaTopics(TOPIC));
-        producer = new KafkaBrokerMessageProducer(producers, hermesMetrics);
+        producer = new KafkaBrokerMessageProducer(producers, hermesMetrics,
+                new StickyPartitioner(16 * 1024, 0, Clock.systemUTC()));
     }
 
     @After
@@ -109,6 +111,33 @@ public class KafkaBrokerMessageProducerTest {
         assertThat(records.get(0).topic()).isEqualTo("ns_group.all");
     }
 
+    @Test
+    public void shouldUsePartitionKeyAsRecordKeyForTopicWithKeyPartitioning() {
+        //given
+        Topic topic = topic("group.key").withPartitioningStrategy(Topic.PartitioningStrategy.KEY).build();
+        CachedTopic cachedTopic = new CachedTopic(topic, hermesMetrics, kafkaNamesMapper.toKafkaTopics(topic));
+
+        //when
+        producer.send(new JsonMessage(MESSAGE_ID, CONTENT, TIMESTAMP, "key"), cachedTopic, new DoNothing());
+
+        //then
+        List<ProducerRecord<byte[], byte[]>> records = leaderConfirmsProducer.history();
+        assertThat(records.size()).isEqualTo(1);
+        assertThat(records.get(0).key()).isEqualTo("key".getBytes(UTF_8));
+    }
+
+    @Test
+    public void shouldNotUsePartitionKeyForTopicWithDefaultPartitioning() {
+        //when
+        producer.send(new JsonMessage(MESSAGE_ID, CONTENT, TIMESTAMP, "key"), cachedTopic, new DoNothing());
+
+        //then
+        List<ProducerRecord<byte[], byte[]>> records = leaderConfirmsProducer.history();
+        assertThat(records.size()).isEqualTo(1);
+        assertThat(records.get(0).key()).isNull();
+        assertThat(records.get(0).partition()).isNull();
+    }
+
     private static class DoNothing implements PublishingCallback {
         public void onUnpublished(Message message, Topic topic, Exception exception) {
         }
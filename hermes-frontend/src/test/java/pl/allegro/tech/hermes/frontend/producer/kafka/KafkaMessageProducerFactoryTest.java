@@ -0,0 +1,17 @@
+package pl.allegro.tech.hermes.frontend.producer.kafka;
+
+import org.junit.Test;
+import pl.allegro.tech.hermes.common.config.Configs;
+import pl.allegro.tech.hermes.test.helper.config.MutableConfigFactory;
+
+public class KafkaMessageProducerFactoryTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNoShards() {
+        //given
+        MutableConfigFactory configFactory = new MutableConfigFactory().overrideProperty(Configs.KAFKA_PRODUCER_SHARDS, 0);
+
+        //when
+        new KafkaMessageProducerFactory(configFactory).provide();
+    }
+}
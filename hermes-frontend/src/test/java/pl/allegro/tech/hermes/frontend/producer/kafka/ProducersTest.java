@@ -0,0 +1,112 @@
+package pl.allegro.tech.hermes.frontend.producer.kafka;
+
+import com.codahale.metrics.MetricRegistry;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.junit.Test;
+import pl.allegro.tech.hermes.api.Topic;
+import pl.allegro.tech.hermes.common.config.ConfigFactory;
+import pl.allegro.tech.hermes.common.metric.Gauges;
+import pl.allegro.tech.hermes.common.metric.HermesMetrics;
+import pl.allegro.tech.hermes.metrics.PathsCompiler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static pl.allegro.tech.hermes.test.helper.builder.TopicBuilder.topic;
+
+public class ProducersTest {
+
+    private final List<Producer<byte[], byte[]>> leaderConfirms = producers(4);
+    private final List<Producer<byte[], byte[]>> everyoneConfirms = producers(4);
+    private final Producers producers = new Producers(leaderConfirms, everyoneConfirms, new ConfigFactory());
+
+    @Test
+    public void shouldAlwaysUseTheSameShardForTopic() {
+        //given
+        Topic topic = topic("group.topic").build();
+
+        //when
+        Producer<byte[], byte[]> producer = producers.get(topic);
+
+        //then
+        assertThat(producers.get(topic("group.topic").build())).isSameAs(producer);
+        assertThat(leaderConfirms).contains(producer);
+    }
+
+    @Test
+    public void shouldSpreadTopicsOverShards() {
+        //given
+        Set<Producer<byte[], byte[]>> used = new HashSet<>();
+
+        //when
+        for (int i = 0; i < 100; i++) {
+            used.add(producers.get(topic("group.topic" + i).build()));
+        }
+
+        //then
+        assertThat(used).containsOnlyElementsOf(leaderConfirms).hasSize(leaderConfirms.size());
+    }
+
+    @Test
+    public void shouldUseEveryoneConfirmsShardsForTopicWithAckAll() {
+        //given
+        Topic topic = topic("group.topic").withAck(Topic.Ack.ALL).build();
+
+        //expect
+        assertThat(everyoneConfirms).contains(producers.get(topic));
+    }
+
+    @Test
+    public void shouldWeightCompressionRateBySendRateOfShards() {
+        //given
+        MetricRegistry metricRegistry = new MetricRegistry();
+        List<Producer<byte[], byte[]>> shards = Arrays.asList(
+                producerWithMetrics(0.5, 300.0), producerWithMetrics(0.8, 100.0), producerWithMetrics(Double.NaN, 0.0));
+        Producers sharded = new Producers(shards, producers(1), new ConfigFactory());
+
+        //when
+        sharded.registerGauges(new HermesMetrics(metricRegistry, new PathsCompiler("host")));
+
+        //then
+        assertThat((double) metricRegistry.getGauges().get(Gauges.LEADER_CONFIRMS_COMPRESSION_RATE).getValue())
+                .isEqualTo(0.575);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Producer<byte[], byte[]> producerWithMetrics(double compressionRate, double sendRate) {
+        Map<MetricName, Metric> metrics = new HashMap<>();
+        metrics.put(new MetricName("compression-rate-avg", "producer-metrics"), metric(compressionRate));
+        metrics.put(new MetricName("record-send-rate", "producer-metrics"), metric(sendRate));
+        Producer<byte[], byte[]> producer = mock(Producer.class);
+        doReturn(metrics).when(producer).metrics();
+        return producer;
+    }
+
+    private static Metric metric(double value) {
+        Metric metric = mock(Metric.class);
+        when(metric.value()).thenReturn(value);
+        return metric;
+    }
+
+    private static List<Producer<byte[], byte[]>> producers(int count) {
+        ByteArraySerializer serializer = new ByteArraySerializer();
+        List<Producer<byte[], byte[]>> producers = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            producers.add(new MockProducer<>(true, serializer, serializer));
+        }
+        return producers;
+    }
+}
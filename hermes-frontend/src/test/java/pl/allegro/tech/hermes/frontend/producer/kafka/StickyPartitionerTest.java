@@ -0,0 +1,96 @@
+package pl.allegro.tech.hermes.frontend.producer.kafka;
+
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.internals.DefaultPartitioner;
+import org.apache.kafka.common.Cluster;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.junit.Test;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class StickyPartitionerTest {
+
+    private static final String TOPIC = "ns_group.topic";
+    private static final Node NODE = new Node(0, "localhost", 9092);
+
+    private final Clock clock = mock(Clock.class);
+
+    @Test
+    public void shouldStickToPartitionUntilBatchIsFull() {
+        //given
+        StickyPartitioner partitioner = new StickyPartitioner(100, 0, clock);
+        MockProducer<byte[], byte[]> producer = producer(partition(0, NODE), partition(1, NODE), partition(2, NODE));
+
+        //when
+        Integer first = partitioner.partition(producer, TOPIC, 40);
+        Integer second = partitioner.partition(producer, TOPIC, 40);
+        Integer third = partitioner.partition(producer, TOPIC, 40);
+
+        //then
+        assertThat(second).isEqualTo(first);
+        assertThat(third).isNotEqualTo(first);
+    }
+
+    @Test
+    public void shouldSwitchPartitionAfterLingerTime() {
+        //given
+        StickyPartitioner partitioner = new StickyPartitioner(100, 10, clock);
+        MockProducer<byte[], byte[]> producer = producer(partition(0, NODE), partition(1, NODE));
+        when(clock.millis()).thenReturn(0L);
+        Integer first = partitioner.partition(producer, TOPIC, 1);
+
+        //when
+        when(clock.millis()).thenReturn(10L);
+        Integer second = partitioner.partition(producer, TOPIC, 1);
+
+        //then
+        assertThat(second).isNotEqualTo(first);
+    }
+
+    @Test
+    public void shouldPreferPartitionsWithLeader() {
+        //given
+        StickyPartitioner partitioner = new StickyPartitioner(1, 0, clock);
+        MockProducer<byte[], byte[]> producer = producer(partition(0, null), partition(1, NODE), partition(2, null));
+
+        //when
+        List<Integer> partitions = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            partitions.add(partitioner.partition(producer, TOPIC, 1));
+        }
+
+        //then
+        assertThat(partitions).containsOnly(1);
+    }
+
+    @Test
+    public void shouldLeavePartitionToProducerWhenTopicMetadataIsNotKnown() {
+        //given
+        StickyPartitioner partitioner = new StickyPartitioner(100, 0, clock);
+        MockProducer<byte[], byte[]> producer = producer();
+
+        //expect
+        assertThat(partitioner.partition(producer, TOPIC, 1)).isNull();
+    }
+
+    private static PartitionInfo partition(int partition, Node leader) {
+        return new PartitionInfo(TOPIC, partition, leader, new Node[]{NODE}, new Node[]{NODE});
+    }
+
+    private static MockProducer<byte[], byte[]> producer(PartitionInfo... partitions) {
+        Cluster cluster = new Cluster("cluster", Collections.singletonList(NODE), asList(partitions),
+                Collections.emptySet(), Collections.emptySet());
+        ByteArraySerializer serializer = new ByteArraySerializer();
+        return new MockProducer<>(cluster, true, new DefaultPartitioner(), serializer, serializer);
+    }
+}
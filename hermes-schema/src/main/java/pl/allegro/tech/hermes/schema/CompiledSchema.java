@@ -3,11 +3,15 @@ package pl.allegro.tech.hermes.schema;
 import com.google.common.base.MoreObjects;
 
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
 
 public class CompiledSchema<T> {
 
     private final T schema;
     private final SchemaVersion version;
+    private final ConcurrentMap<Class<?>, Object> derivedValues = new ConcurrentHashMap<>();
 
     public CompiledSchema(T schema, SchemaVersion version) {
         this.schema = schema;
@@ -22,6 +26,18 @@ public class CompiledSchema<T> {
         return version;
     }
 
+    /**
+     * Returns value derived from the schema, computing it on first call. Derived values live as long as the compiled
+     * schema is cached, which makes it a place for schema dependent data, like layout of binary encoded messages.
+     */
+    public <V> V getDerived(Class<V> type, Function<T, V> derivation) {
+        Object value = derivedValues.get(type);
+        if (value == null) {
+            value = derivedValues.computeIfAbsent(type, key -> derivation.apply(schema));
+        }
+        return type.cast(value);
+    }
+
     @Override
     public int hashCode() {
         return Objects.hash(schema, version);
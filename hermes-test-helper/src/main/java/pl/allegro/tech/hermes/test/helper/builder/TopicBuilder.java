@@ -46,6 +46,8 @@ public class TopicBuilder {
 
     private TopicDataOfflineStorage offlineStorage = TopicDataOfflineStorage.defaultOfflineStorage();
 
+    private Topic.PartitioningStrategy partitioningStrategy = Topic.PartitioningStrategy.DEFAULT;
+
     private TopicBuilder(TopicName topicName) {
         this.name = topicName;
     }
@@ -67,7 +69,7 @@ public class TopicBuilder {
                 name, description, owner, retentionTime, migratedFromJsonType, ack, trackingEnabled, contentType,
                 jsonToAvroDryRunEnabled, schemaVersionAwareSerialization, maxMessageSize,
                 new PublishingAuth(publishers, authEnabled, unauthenticatedAccessEnabled), subscribingRestricted,
-                offlineStorage
+                offlineStorage, partitioningStrategy
         );
     }
 
@@ -101,6 +103,11 @@ public class TopicBuilder {
         return this;
     }
 
+    public TopicBuilder withPartitioningStrategy(Topic.PartitioningStrategy partitioningStrategy) {
+        this.partitioningStrategy = partitioningStrategy;
+        return this;
+    }
+
     public TopicBuilder withTrackingEnabled(boolean enabled) {
         this.trackingEnabled = enabled;
         return this;